@@ -0,0 +1,56 @@
+package com.univocity.trader.benchmarks;
+
+import com.univocity.trader.candles.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+import static com.univocity.trader.indicators.base.TimeInterval.*;
+
+/**
+ * Cost of merging each 1-minute candle into the 5-minute, 1-hour and 1-day candles produced by an {@link Aggregator}.
+ * Run with {@code -prof gc} to compare the allocation rate with and without reuse of aggregated candles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AggregatorBenchmark {
+
+	private static final int CANDLES = 10_000;
+
+	@Param({"false", "true"})
+	public boolean reuseCandles;
+
+	private Candle[] candles;
+	private Aggregator[] aggregators;
+
+	@Setup(Level.Trial)
+	public void generateCandles() {
+		candles = CandleData.generate(0L, CANDLES, 42L);
+	}
+
+	@Setup(Level.Invocation)
+	public void createAggregators() {
+		Aggregator root = new Aggregator("benchmark", reuseCandles);
+		root.getInstance(minutes(5));
+		root.getInstance(hours(1));
+		root.getInstance(days(1));
+		aggregators = root.getAggregators();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CANDLES)
+	public Candle aggregate() {
+		Candle full = null;
+		for (int i = 0; i < candles.length; i++) {
+			for (int j = 0; j < aggregators.length; j++) {
+				aggregators[j].aggregate(candles[i]);
+				full = aggregators[j].getFull();
+			}
+		}
+		return full;
+	}
+}
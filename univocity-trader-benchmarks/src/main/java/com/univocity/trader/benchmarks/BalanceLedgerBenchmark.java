@@ -0,0 +1,94 @@
+package com.univocity.trader.benchmarks;
+
+import com.univocity.trader.*;
+import com.univocity.trader.account.*;
+import com.univocity.trader.config.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Contention on the balances of a live {@link AccountManager} when multiple threads update and query balances
+ * concurrently, as happens when a burst of ticks arrives for the symbols traded by the account.
+ *
+ * With {@code sharedSymbol = false} each thread works with the balance of its own symbol. Run with different
+ * thread counts (e.g. {@code -t 1}, {@code -t 4}, {@code -t 8}) to compare how throughput scales.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class BalanceLedgerBenchmark {
+
+	private static final String[] SYMBOLS = {"BTC", "ETH", "ADA", "XRP", "LTC", "BNB", "EOS", "TRX", "DOT", "SOL", "LINK", "XLM", "ATOM", "VET", "NEO", "ZEC"};
+
+	@Param({"false", "true"})
+	public boolean sharedSymbol;
+
+	private AccountManager account;
+	private final AtomicInteger threadCount = new AtomicInteger(0);
+
+	@State(Scope.Thread)
+	public static class ThreadSymbol {
+		String symbol;
+
+		@Setup(Level.Trial)
+		public void assignSymbol(BalanceLedgerBenchmark benchmark) {
+			symbol = benchmark.sharedSymbol ? SYMBOLS[0] : SYMBOLS[benchmark.threadCount.getAndIncrement() % SYMBOLS.length];
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void createAccount() {
+		SimulationAccount configuration = new SimulationAccount("benchmark");
+		configuration.referenceCurrency("USDT");
+		for (String symbol : SYMBOLS) {
+			configuration.tradeWithPair(symbol, "USDT");
+		}
+		account = new AccountManager(new LiveAccount(), configuration);
+		for (String symbol : SYMBOLS) {
+			account.modifyBalance(symbol, b -> b.setFree(1_000_000.0));
+		}
+	}
+
+	@Benchmark
+	public double modifyAndQuery(ThreadSymbol thread) {
+		account.modifyBalance(thread.symbol, b -> b.setFree(b.getFree() + 1.0));
+		return account.getAmount(thread.symbol);
+	}
+
+	@Benchmark
+	public double query(ThreadSymbol thread) {
+		return account.getAmount(thread.symbol);
+	}
+
+	private static final class LiveAccount implements ClientAccount {
+		@Override
+		public Order executeOrder(OrderRequest orderDetails) {
+			return null;
+		}
+
+		@Override
+		public ConcurrentHashMap<String, Balance> updateBalances(boolean force) {
+			return null;
+		}
+
+		@Override
+		public OrderBook getOrderBook(String symbol, int depth) {
+			return null;
+		}
+
+		@Override
+		public Order updateOrderStatus(Order order) {
+			return order;
+		}
+
+		@Override
+		public void cancel(Order order) {
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.univocity.trader.benchmarks;
+
+import org.openjdk.jmh.results.format.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Runs the benchmarks of this module, accepting the same command line options of JMH's own {@code Main} class.
+ *
+ * Unless another format or file is given with {@code -rf} and {@code -rff}, results are written in JSON format
+ * to {@code jmh-result.json}, which can be compared across runs to detect performance regressions.
+ *
+ * Usage: {@code java -jar target/benchmarks.jar [regexp of benchmarks to run] [JMH options]}
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public class Benchmarks {
+
+	public static void main(String... args) throws Exception {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		if (cmd.shouldHelp()) {
+			cmd.showHelp();
+			return;
+		}
+		if (cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+		if (!cmd.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!cmd.getResult().hasValue()) {
+			options.result("jmh-result.json");
+		}
+
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,38 @@
+package com.univocity.trader.benchmarks;
+
+import com.univocity.trader.candles.*;
+
+import java.util.*;
+
+import static com.univocity.trader.indicators.base.TimeInterval.*;
+
+/**
+ * Generates a reproducible random walk of 1-minute candles to be used as input of benchmarks.
+ */
+final class CandleData {
+
+	private CandleData() {
+
+	}
+
+	static Candle[] generate(long startTime, int count, long seed) {
+		Random random = new Random(seed);
+		Candle[] out = new Candle[count];
+
+		double price = 100.0;
+		long time = startTime;
+		for (int i = 0; i < count; i++) {
+			double open = price;
+			double close = Math.max(1.0, open * (1.0 + (random.nextGaussian() * 0.002)));
+			double high = Math.max(open, close) * (1.0 + random.nextDouble() * 0.001);
+			double low = Math.min(open, close) * (1.0 - random.nextDouble() * 0.001);
+			double volume = 100.0 + random.nextDouble() * 1000.0;
+
+			out[i] = new Candle(time, time + MINUTE.ms - 1, open, high, low, close, volume);
+
+			price = close;
+			time += MINUTE.ms;
+		}
+		return out;
+	}
+}
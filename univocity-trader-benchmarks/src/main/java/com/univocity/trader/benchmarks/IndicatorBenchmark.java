@@ -0,0 +1,262 @@
+package com.univocity.trader.benchmarks;
+
+import com.univocity.trader.candles.*;
+import com.univocity.trader.indicators.*;
+import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.strategy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static com.univocity.trader.indicators.base.TimeInterval.*;
+
+/**
+ * Cost of accumulating a 1-minute candle in each indicator of package {@link com.univocity.trader.indicators},
+ * including the aggregation of candles performed for the indicator and its children, as done by
+ * {@link TradingEngine#process(Candle, boolean)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IndicatorBenchmark {
+
+	private static final int CANDLES = 10_000;
+
+	static final Map<String, Function<TimeInterval, Indicator>> INDICATORS = new LinkedHashMap<>();
+
+	static {
+		INDICATORS.put("AccelerationDecelerationIndicator", AccelerationDecelerationIndicator::new);
+		INDICATORS.put("ADX", ADX::new);
+		INDICATORS.put("AroonDown", AroonDown::new);
+		INDICATORS.put("AroonOscillator", AroonOscillator::new);
+		INDICATORS.put("AroonUp", AroonUp::new);
+		INDICATORS.put("AverageTrueRange", i -> new AverageTrueRange(14, i));
+		INDICATORS.put("AwesomeOscillator", AwesomeOscillator::new);
+		INDICATORS.put("BearishEngulfing", BearishEngulfing::new);
+		INDICATORS.put("BearishHarami", i -> new BearishHarami(i));
+		INDICATORS.put("BollingerBand", BollingerBand::new);
+		INDICATORS.put("BullishEngulfing", i -> new BullishEngulfing(i));
+		INDICATORS.put("BullishHarami", i -> new BullishHarami(i));
+		INDICATORS.put("ChaikinMoneyFlow", ChaikinMoneyFlow::new);
+		INDICATORS.put("ChandelierExitLong", ChandelierExitLong::new);
+		INDICATORS.put("ChandelierExitShort", ChandelierExitShort::new);
+		INDICATORS.put("ChandeMomentumOscillator", ChandeMomentumOscillator::new);
+		INDICATORS.put("ChangeIndicator", ChangeIndicator::new);
+		INDICATORS.put("CHOP", CHOP::new);
+		INDICATORS.put("CloseLocationValue", CloseLocationValue::new);
+		INDICATORS.put("CommodityChannelIndex", i -> new CommodityChannelIndex(20, i));
+		INDICATORS.put("ConnorsRSI", ConnorsRSI::new);
+		INDICATORS.put("CoppockCurve", CoppockCurve::new);
+		INDICATORS.put("CorrelationCoefficient", i -> new CorrelationCoefficient(20, i, c -> c.close, c -> c.volume));
+		INDICATORS.put("Covariance", i -> new Covariance(20, i, c -> c.close, c -> c.volume));
+		INDICATORS.put("DetrendedPriceOscillator", DetrendedPriceOscillator::new);
+		INDICATORS.put("Doji", Doji::new);
+		INDICATORS.put("DirectionIndicator", i -> new DirectionIndicator<>(new MovingAverage(20, i)));
+		INDICATORS.put("DonchianChannel", i -> new DonchianChannel(20, i));
+		INDICATORS.put("DoubleExponentialMovingAverage", i -> new DoubleExponentialMovingAverage(20, i));
+		INDICATORS.put("EldersForceIndex", EldersForceIndex::new);
+		INDICATORS.put("ExponentialMovingAverage", i -> new ExponentialMovingAverage(20, i));
+		INDICATORS.put("FunctionIndicator", i -> new FunctionIndicator(i, c -> c.close));
+		INDICATORS.put("GainIndicator", GainIndicator::new);
+		INDICATORS.put("HighestValueIndicator", i -> new HighestValueIndicator(20, i, c -> c.high));
+		INDICATORS.put("HullMovingAverage", HullMovingAverage::new);
+		INDICATORS.put("IchimokuChikouSpan", IchimokuChikouSpan::new);
+		INDICATORS.put("IchimokuKijunSen", IchimokuKijunSen::new);
+		INDICATORS.put("IchimokuSenkouSpanA", IchimokuSenkouSpanA::new);
+		INDICATORS.put("IchimokuSenkouSpanB", IchimokuSenkouSpanB::new);
+		INDICATORS.put("IchimokuTenkanSen", IchimokuTenkanSen::new);
+		INDICATORS.put("InstantaneousTrendline", InstantaneousTrendline::new);
+		INDICATORS.put("IntradayIntensityIndex", i -> new IntradayIntensityIndex(i));
+		INDICATORS.put("KAMA", KAMA::new);
+		INDICATORS.put("KDJ", KDJ::new);
+		INDICATORS.put("KeltnerChannel", KeltnerChannel::new);
+		INDICATORS.put("LinearlyWeightedMovingAverage", LinearlyWeightedMovingAverage::new);
+		INDICATORS.put("LossIndicator", LossIndicator::new);
+		INDICATORS.put("LowestValueIndicator", i -> new LowestValueIndicator(20, i, c -> c.low));
+		INDICATORS.put("MACD", MACD::new);
+		INDICATORS.put("MassIndex", MassIndex::new);
+		INDICATORS.put("MeanDeviation", MeanDeviation::new);
+		INDICATORS.put("MedianPrice", MedianPrice::new);
+		INDICATORS.put("ModifiedMovingAverage", i -> new ModifiedMovingAverage(20, i));
+		INDICATORS.put("MovingAverage", i -> new MovingAverage(20, i));
+		INDICATORS.put("MVWAP", i -> new MVWAP(20, 10, i));
+		INDICATORS.put("NegativeVolumeIndex", NegativeVolumeIndex::new);
+		INDICATORS.put("OBV", OBV::new);
+		INDICATORS.put("ParabolicSAR", ParabolicSAR::new);
+		INDICATORS.put("PearsonCorrelation", i -> new PearsonCorrelation(20, i, c -> c.close, c -> c.volume));
+		INDICATORS.put("PercentagePriceOscillator", PercentagePriceOscillator::new);
+		INDICATORS.put("PercentB", PercentB::new);
+		INDICATORS.put("PercentRankIndicator", PercentRankIndicator::new);
+		INDICATORS.put("PositiveVolumeIndex", PositiveVolumeIndex::new);
+		INDICATORS.put("PVT", PVT::new);
+		INDICATORS.put("RandomWalkIndex", RandomWalkIndex::new);
+		INDICATORS.put("RangeActionVerificationIndex", i -> new RangeActionVerificationIndex(7, 65, i));
+		INDICATORS.put("RateOfChange", i -> new RateOfChange(12, i));
+		INDICATORS.put("RealBodyIndicator", i -> new RealBodyIndicator(i));
+		INDICATORS.put("RSI", RSI::new);
+		INDICATORS.put("SigmaIndicator", i -> new SigmaIndicator(20, i));
+		INDICATORS.put("StandardDeviation", StandardDeviation::new);
+		INDICATORS.put("StandardError", StandardError::new);
+		INDICATORS.put("StochasticOscillatorD", StochasticOscillatorD::new);
+		INDICATORS.put("StochasticOscillatorK", StochasticOscillatorK::new);
+		INDICATORS.put("StochasticRSI", StochasticRSI::new);
+		INDICATORS.put("StreakIndicator", StreakIndicator::new);
+		INDICATORS.put("ThreeBlackCrows", ThreeBlackCrows::new);
+		INDICATORS.put("ThreeWhiteSoldiers", ThreeWhiteSoldiers::new);
+		INDICATORS.put("TripleExponentialMovingAverage", TripleExponentialMovingAverage::new);
+		INDICATORS.put("TrueRange", TrueRange::new);
+		INDICATORS.put("TTMTrend", TTMTrend::new);
+		INDICATORS.put("TypicalPrice", TypicalPrice::new);
+		INDICATORS.put("UlcerIndex", UlcerIndex::new);
+		INDICATORS.put("Variance", Variance::new);
+		INDICATORS.put("Volume", Volume::new);
+		INDICATORS.put("VolumeRateOfChange", i -> new VolumeRateOfChange(12, i));
+		INDICATORS.put("VWAP", i -> new VWAP(20, i));
+		INDICATORS.put("WaddahAttarExplosion", WaddahAttarExplosion::new);
+		INDICATORS.put("WeightedMovingAverage", WeightedMovingAverage::new);
+		INDICATORS.put("WilliamsR", WilliamsR::new);
+		INDICATORS.put("YoYoExitLong", YoYoExitLong::new);
+		INDICATORS.put("YoYoExitShort", YoYoExitShort::new);
+		INDICATORS.put("ZeroLagMovingAverage", i -> new ZeroLagMovingAverage(20, i));
+	}
+
+	@Param({
+			"AccelerationDecelerationIndicator",
+			"ADX",
+			"AroonDown",
+			"AroonOscillator",
+			"AroonUp",
+			"AverageTrueRange",
+			"AwesomeOscillator",
+			"BearishEngulfing",
+			"BearishHarami",
+			"BollingerBand",
+			"BullishEngulfing",
+			"BullishHarami",
+			"ChaikinMoneyFlow",
+			"ChandelierExitLong",
+			"ChandelierExitShort",
+			"ChandeMomentumOscillator",
+			"ChangeIndicator",
+			"CHOP",
+			"CloseLocationValue",
+			"CommodityChannelIndex",
+			"ConnorsRSI",
+			"CoppockCurve",
+			"CorrelationCoefficient",
+			"Covariance",
+			"DetrendedPriceOscillator",
+			"Doji",
+			"DirectionIndicator",
+			"DonchianChannel",
+			"DoubleExponentialMovingAverage",
+			"EldersForceIndex",
+			"ExponentialMovingAverage",
+			"FunctionIndicator",
+			"GainIndicator",
+			"HighestValueIndicator",
+			"HullMovingAverage",
+			"IchimokuChikouSpan",
+			"IchimokuKijunSen",
+			"IchimokuSenkouSpanA",
+			"IchimokuSenkouSpanB",
+			"IchimokuTenkanSen",
+			"InstantaneousTrendline",
+			"IntradayIntensityIndex",
+			"KAMA",
+			"KDJ",
+			"KeltnerChannel",
+			"LinearlyWeightedMovingAverage",
+			"LossIndicator",
+			"LowestValueIndicator",
+			"MACD",
+			"MassIndex",
+			"MeanDeviation",
+			"MedianPrice",
+			"ModifiedMovingAverage",
+			"MovingAverage",
+			"MVWAP",
+			"NegativeVolumeIndex",
+			"OBV",
+			"ParabolicSAR",
+			"PearsonCorrelation",
+			"PercentagePriceOscillator",
+			"PercentB",
+			"PercentRankIndicator",
+			"PositiveVolumeIndex",
+			"PVT",
+			"RandomWalkIndex",
+			"RangeActionVerificationIndex",
+			"RateOfChange",
+			"RealBodyIndicator",
+			"RSI",
+			"SigmaIndicator",
+			"StandardDeviation",
+			"StandardError",
+			"StochasticOscillatorD",
+			"StochasticOscillatorK",
+			"StochasticRSI",
+			"StreakIndicator",
+			"ThreeBlackCrows",
+			"ThreeWhiteSoldiers",
+			"TripleExponentialMovingAverage",
+			"TrueRange",
+			"TTMTrend",
+			"TypicalPrice",
+			"UlcerIndex",
+			"Variance",
+			"Volume",
+			"VolumeRateOfChange",
+			"VWAP",
+			"WaddahAttarExplosion",
+			"WeightedMovingAverage",
+			"WilliamsR",
+			"YoYoExitLong",
+			"YoYoExitShort",
+			"ZeroLagMovingAverage"
+	})
+	public String indicator;
+
+	@Param({"1", "5"})
+	public int intervalMinutes;
+
+	private Candle[] candles;
+	private Indicator instance;
+	private Aggregator[] aggregators;
+
+	@Setup(Level.Trial)
+	public void generateCandles() {
+		candles = CandleData.generate(0L, CANDLES, 42L);
+	}
+
+	@Setup(Level.Invocation)
+	public void createIndicator() {
+		Function<TimeInterval, Indicator> factory = INDICATORS.get(indicator);
+		if (factory == null) {
+			throw new IllegalArgumentException("Unknown indicator: " + indicator);
+		}
+		instance = factory.apply(minutes(intervalMinutes));
+
+		Aggregator root = new Aggregator("benchmark");
+		instance.initialize(root);
+		aggregators = root.getAggregators();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CANDLES)
+	public double accumulate() {
+		for (int i = 0; i < candles.length; i++) {
+			Candle candle = candles[i];
+			for (int j = 0; j < aggregators.length; j++) {
+				aggregators[j].aggregate(candle);
+			}
+			instance.accumulate(candle);
+		}
+		return instance.getValue();
+	}
+}
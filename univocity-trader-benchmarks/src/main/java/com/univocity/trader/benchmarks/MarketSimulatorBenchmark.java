@@ -0,0 +1,118 @@
+package com.univocity.trader.benchmarks;
+
+import com.univocity.trader.candles.*;
+import com.univocity.trader.config.*;
+import com.univocity.trader.indicators.*;
+import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.simulation.*;
+import com.univocity.trader.strategy.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * End-to-end cost of a {@link MarketSimulator} run over a synthetic history of 1-minute candles, including
+ * candle reading, aggregation, indicator calculation, order filling and account updates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarketSimulatorBenchmark {
+
+	private static final String[] ASSETS = {"BTC", "ETH", "ADA"};
+	private static final LocalDateTime START = LocalDateTime.of(2020, Month.JANUARY, 1, 0, 0);
+
+	@Param({"30"})
+	public int days;
+
+	@Param({"false", "true"})
+	public boolean eventDriven;
+
+	private File candleDirectory;
+	private MarketSimulator<SimulationConfiguration, SimulationAccount> simulator;
+
+	public static final class BollingerStrategy extends IndicatorStrategy {
+		private final Set<Indicator> indicators = new HashSet<>();
+		private final BollingerBand boll5m;
+		private final BollingerBand boll1h;
+
+		public BollingerStrategy() {
+			indicators.add(boll5m = new BollingerBand(TimeInterval.minutes(5)));
+			indicators.add(boll1h = new BollingerBand(TimeInterval.hours(1)));
+		}
+
+		@Override
+		protected Set<Indicator> getAllIndicators() {
+			return indicators;
+		}
+
+		@Override
+		public Signal getSignal(Candle candle) {
+			if (candle.close < boll1h.getLowerBand() && boll5m.movingUp()) {
+				return Signal.BUY;
+			}
+			if (candle.close > boll1h.getUpperBand() && boll5m.movingDown()) {
+				return Signal.SELL;
+			}
+			return Signal.NEUTRAL;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void prepare() throws IOException {
+		candleDirectory = Files.createTempDirectory("candles").toFile();
+
+		long start = START.toInstant(ZoneOffset.UTC).toEpochMilli();
+		int count = days * 24 * 60;
+		MemoryMappedCandleRepository repository = new MemoryMappedCandleRepository(new DatabaseConfiguration(), candleDirectory);
+		Map<String, Candle[]> history = new HashMap<>();
+		for (int i = 0; i < ASSETS.length; i++) {
+			Candle[] candles = CandleData.generate(start, count, i);
+			repository.store(ASSETS[i] + "USDT", Collections.enumeration(Arrays.asList(candles)), candles.length);
+			history.put(ASSETS[i] + "USDT", candles);
+		}
+
+		simulator = new MarketSimulator<>(new SimulationConfiguration(), () -> new OfflineExchange(history)) {
+		};
+
+		simulator.configure().account()
+				.referenceCurrency("USDT")
+				.tradeWith(ASSETS)
+				.minimumInvestmentAmountPerTrade(10.0)
+				.strategies()
+				.add(BollingerStrategy::new);
+
+		simulator.configure().simulation()
+				.initialFunds(1000.0)
+				.emulateSlippage()
+				.candleDirectory(candleDirectory)
+				.eventDriven(eventDriven)
+				.reporter(result -> {
+				})
+				.simulateFrom(START)
+				.simulateTo(START.plusDays(days));
+	}
+
+	@TearDown(Level.Trial)
+	public void cleanup() {
+		File[] files = candleDirectory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		candleDirectory.delete();
+	}
+
+	@Benchmark
+	public void simulate() {
+		simulator.run();
+	}
+}
@@ -0,0 +1,89 @@
+package com.univocity.trader.benchmarks;
+
+import com.univocity.trader.*;
+import com.univocity.trader.account.*;
+import com.univocity.trader.candles.*;
+import com.univocity.trader.config.*;
+import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.simulation.*;
+import com.univocity.trader.simulation.orderfill.*;
+import com.univocity.trader.utils.*;
+
+import java.util.*;
+
+/**
+ * Serves the candles generated for a benchmark as the history of an exchange, so simulators that backfill their
+ * history never need a network connection.
+ */
+final class OfflineExchange implements Exchange<Candle, SimulationAccount> {
+
+	private final Map<String, Candle[]> candles;
+
+	OfflineExchange(Map<String, Candle[]> candles) {
+		this.candles = candles;
+	}
+
+	@Override
+	public IncomingCandles<Candle> getLatestTicks(String symbol, TimeInterval interval) {
+		Candle[] history = candles.get(symbol);
+		return history == null || history.length == 0 ? ticks() : ticks(history[history.length - 1]);
+	}
+
+	@Override
+	public IncomingCandles<Candle> getHistoricalTicks(String symbol, TimeInterval interval, long startTime, long endTime) {
+		List<Candle> out = new ArrayList<>();
+		for (Candle candle : candles.getOrDefault(symbol, new Candle[0])) {
+			if (candle.openTime >= startTime && candle.closeTime <= endTime) {
+				out.add(candle);
+			}
+		}
+		return ticks(out.toArray(new Candle[0]));
+	}
+
+	private static IncomingCandles<Candle> ticks(Candle... ticks) {
+		IncomingCandles<Candle> out = new IncomingCandles<>();
+		for (Candle tick : ticks) {
+			out.add(tick);
+		}
+		out.stopProducing();
+		return out;
+	}
+
+	@Override
+	public PreciseCandle generatePreciseCandle(Candle exchangeCandle) {
+		return new PreciseCandle(exchangeCandle);
+	}
+
+	@Override
+	public void openLiveStream(String symbols, TimeInterval tickInterval, TickConsumer<Candle> consumer) {
+		throw new UnsupportedOperationException("Offline exchange has no live stream");
+	}
+
+	@Override
+	public void closeLiveStream() {
+
+	}
+
+	@Override
+	public Map<String, double[]> getLatestPrices() {
+		Map<String, double[]> out = new HashMap<>();
+		candles.forEach((symbol, history) -> out.put(symbol, new double[]{history[history.length - 1].close}));
+		return out;
+	}
+
+	@Override
+	public Map<String, SymbolInformation> getSymbolInformation() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public double getLatestPrice(String assetSymbol, String fundSymbol) {
+		Candle[] history = candles.get(assetSymbol + fundSymbol);
+		return history == null || history.length == 0 ? 0.0 : history[history.length - 1].close;
+	}
+
+	@Override
+	public ClientAccount connectToAccount(SimulationAccount accountConfiguration) {
+		return new SimulatedClientAccount(accountConfiguration, new ImmediateFillEmulator(), SimpleTradingFees.percentage(0.0));
+	}
+}
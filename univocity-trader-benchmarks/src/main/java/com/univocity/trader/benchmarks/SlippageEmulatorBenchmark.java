@@ -0,0 +1,53 @@
+package com.univocity.trader.benchmarks;
+
+import com.univocity.trader.account.*;
+import com.univocity.trader.candles.*;
+import com.univocity.trader.simulation.orderfill.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+/**
+ * Cost of filling orders with the {@link SlippageEmulator}, which walks through the pips between the low and high
+ * prices of each candle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SlippageEmulatorBenchmark {
+
+	@Param({"LIMIT", "MARKET"})
+	public Order.Type type;
+
+	@Param({"BUY", "SELL"})
+	public Order.Side side;
+
+	private final SlippageEmulator emulator = new SlippageEmulator();
+	private Candle[] candles;
+	private int next;
+	private long id;
+
+	@Setup(Level.Trial)
+	public void generateCandles() {
+		candles = CandleData.generate(0L, 10_000, 42L);
+	}
+
+	@Benchmark
+	public Order fillOrder() {
+		Candle candle = candles[next];
+		next = (next + 1) % candles.length;
+
+		Order order = new Order(++id, "BTC", "USDT", side, Trade.Side.LONG, candle.openTime);
+		order.setType(type);
+		order.setPrice(candle.open);
+		order.setStatus(Order.Status.NEW);
+		order.setExecutedQuantity(0.0);
+		order.setQuantity(candle.volume / 2.0);
+
+		emulator.fillOrder(order, candle);
+		return order;
+	}
+}
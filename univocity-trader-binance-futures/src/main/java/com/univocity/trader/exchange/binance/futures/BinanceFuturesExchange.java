@@ -163,4 +163,10 @@ class BinanceFuturesExchange implements Exchange<Candlestick, Account> {
         return 1000;
     }
 
+    @Override
+    public int historicalRequestsPerMinute() {
+        // 2400 request weight per minute, a request of 1000 klines weighs 5. Half of it is left for trading.
+        return 240;
+    }
+
 }
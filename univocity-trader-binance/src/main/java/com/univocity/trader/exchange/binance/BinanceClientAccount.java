@@ -307,6 +307,24 @@ class BinanceClientAccount implements ClientAccount {
 		return translate(order, client.getOrderStatus(request));
 	}
 
+	@Override
+	public List<Order> updateOrderStatus(String symbol, List<Order> orders) {
+		if (orders.size() == 1) {
+			return Collections.singletonList(updateOrderStatus(orders.get(0)));
+		}
+		Map<String, com.univocity.trader.exchange.binance.api.client.domain.account.Order> openOrders = new HashMap<>();
+		for (com.univocity.trader.exchange.binance.api.client.domain.account.Order open : client.getOpenOrders(new com.univocity.trader.exchange.binance.api.client.domain.account.request.OrderRequest(symbol))) {
+			openOrders.put(String.valueOf(open.getOrderId()), open);
+		}
+		List<Order> out = new ArrayList<>(orders.size());
+		for (Order order : orders) {
+			com.univocity.trader.exchange.binance.api.client.domain.account.Order open = openOrders.get(order.getOrderId());
+			// orders no longer open were filled or cancelled: query their final status individually.
+			out.add(open != null ? translate(order, open) : updateOrderStatus(order));
+		}
+		return out;
+	}
+
 	private Order translate(Order original, com.univocity.trader.exchange.binance.api.client.domain.account.Order order) {
 		Order out = new Order(original.getInternalId(), original.getAssetsSymbol(), original.getFundsSymbol(), translate(order.getSide()), Trade.Side.LONG, order.getTime());
 		out.setStatus(translate(order.getStatus()));
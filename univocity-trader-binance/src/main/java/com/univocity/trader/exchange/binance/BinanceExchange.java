@@ -72,14 +72,37 @@ class BinanceExchange implements Exchange<Candlestick, Account> {
 
 	@Override
 	public PreciseCandle generatePreciseCandle(Candlestick exchangeCandle) {
+		if (exchangeCandle.isDecoded(Candlestick.OPEN) && exchangeCandle.isDecoded(Candlestick.HIGH) && exchangeCandle.isDecoded(Candlestick.LOW)
+				&& exchangeCandle.isDecoded(Candlestick.CLOSE) && exchangeCandle.isDecoded(Candlestick.VOLUME)) {
+			try {
+				return generateFixedPointCandle(exchangeCandle);
+			} catch (ArithmeticException e) {
+				// prices don't fit in a long at a common scale. Use their decimal values instead.
+			}
+		}
 		return new PreciseCandle(
 				exchangeCandle.getOpenTime(),
 				exchangeCandle.getCloseTime(),
-				new BigDecimal(exchangeCandle.getOpen()),
-				new BigDecimal(exchangeCandle.getHigh()),
-				new BigDecimal(exchangeCandle.getLow()),
-				new BigDecimal(exchangeCandle.getClose()),
-				new BigDecimal(exchangeCandle.getVolume())
+				exchangeCandle.getDecimal(Candlestick.OPEN),
+				exchangeCandle.getDecimal(Candlestick.HIGH),
+				exchangeCandle.getDecimal(Candlestick.LOW),
+				exchangeCandle.getDecimal(Candlestick.CLOSE),
+				exchangeCandle.getDecimal(Candlestick.VOLUME)
+		);
+	}
+
+	private PreciseCandle generateFixedPointCandle(Candlestick c) {
+		int priceScale = Math.max(Math.max(c.getScale(Candlestick.OPEN), c.getScale(Candlestick.HIGH)), Math.max(c.getScale(Candlestick.LOW), c.getScale(Candlestick.CLOSE)));
+		return new PreciseCandle(
+				c.getOpenTime(),
+				c.getCloseTime(),
+				PreciseCandle.rescale(c.getUnscaled(Candlestick.OPEN), c.getScale(Candlestick.OPEN), priceScale),
+				PreciseCandle.rescale(c.getUnscaled(Candlestick.HIGH), c.getScale(Candlestick.HIGH), priceScale),
+				PreciseCandle.rescale(c.getUnscaled(Candlestick.LOW), c.getScale(Candlestick.LOW), priceScale),
+				PreciseCandle.rescale(c.getUnscaled(Candlestick.CLOSE), c.getScale(Candlestick.CLOSE), priceScale),
+				priceScale,
+				c.getUnscaled(Candlestick.VOLUME),
+				c.getScale(Candlestick.VOLUME)
 		);
 	}
 
@@ -95,7 +118,7 @@ class BinanceExchange implements Exchange<Candlestick, Account> {
 			@Override
 			public void onResponse(CandlestickEvent response) {
 				try {
-					priceReceived(response.getSymbol(), Double.parseDouble(response.getClose()));
+					priceReceived(response.getSymbol(), response.getDouble(Candlestick.CLOSE));
 				} catch (Exception e){
 					log.warn("Error updating latest price of " + response.getSymbol(), e);
 				}
@@ -210,6 +233,12 @@ class BinanceExchange implements Exchange<Candlestick, Account> {
 		return 1000;
 	}
 
+	@Override
+	public int historicalRequestsPerMinute() {
+		// 1200 request weight per minute, a request of 1000 klines weighs 2. Half of it is left for trading.
+		return 300;
+	}
+
 	//	@Override
 //	public boolean isDirectSwitchSupported(String currentAssetSymbol, String targetAssetSymbol) {
 //		return symbolInformation.containsKey(currentAssetSymbol + targetAssetSymbol);
@@ -91,19 +91,19 @@ public class CandlestickEvent extends Candlestick {
 				.append("eventTime", eventTime)
 				.append("symbol", symbol)
 				.append("openTime", openTime)
-				.append("open", open)
-				.append("high", high)
-				.append("low", low)
-				.append("close", close)
-				.append("volume", volume)
+				.append("open", getOpen())
+				.append("high", getHigh())
+				.append("low", getLow())
+				.append("close", getClose())
+				.append("volume", getVolume())
 				.append("closeTime", closeTime)
 				.append("intervalId", intervalId)
 				.append("firstTradeId", firstTradeId)
 				.append("lastTradeId", lastTradeId)
-				.append("quoteAssetVolume", quoteAssetVolume)
+				.append("quoteAssetVolume", getQuoteAssetVolume())
 				.append("numberOfTrades", numberOfTrades)
-				.append("takerBuyBaseAssetVolume", takerBuyBaseAssetVolume)
-				.append("takerBuyQuoteAssetVolume", takerBuyQuoteAssetVolume)
+				.append("takerBuyBaseAssetVolume", getTakerBuyBaseAssetVolume())
+				.append("takerBuyQuoteAssetVolume", getTakerBuyQuoteAssetVolume())
 				.append("isBarFinal", isBarFinal)
 				.toString();
 	}
@@ -0,0 +1,281 @@
+package com.univocity.trader.exchange.binance.api.client.domain.event;
+
+import com.univocity.trader.exchange.binance.api.client.domain.market.*;
+
+/**
+ * Single pass decoder of candlestick stream events that reads the JSON payload in place, without building a tree of
+ * nodes or an intermediate {@code String} for every value. Prices and volumes are stored as unscaled values with
+ * their scale (see {@link Candlestick#setDecimal(int, long, int)}), so they can be read as {@code double} or
+ * {@code BigDecimal} without parsing text again. Symbols, intervals and event types repeat on every event and are
+ * taken from a small cache.
+ *
+ * Only payloads with the exact layout sent by the exchange are decoded: the same fields, in the same order, with
+ * quoted decimals of up to 18 digits and strings without escape sequences. Anything else is left to a regular JSON
+ * parser, so that a change in the format of the stream can't be silently decoded into wrong values.
+ *
+ * Instances are not thread safe. Use one decoder per websocket connection.
+ *
+ * @see CandlestickEventDeserializer
+ */
+public final class CandlestickEventDecoder {
+
+	private static final int MAX_DIGITS = 18;
+
+	// keys of the event and of its candlestick, in the order they are sent by the exchange.
+	private static final String EVENT_FIELDS = "eEsk";
+	private static final String KLINE_FIELDS = "tTsifLochlvnxqVQB";
+
+	private final String[] cache = new String[64];
+
+	private String json;
+	private int pos;
+
+	/**
+	 * Decodes a candlestick event.
+	 *
+	 * @param payload the JSON text of the event, as sent by the exchange
+	 *
+	 * @return the decoded event, or {@code null} if the payload has a structure this decoder doesn't handle, in which
+	 * case it should be processed by a regular JSON parser.
+	 */
+	public CandlestickEvent decode(String payload) {
+		json = payload;
+		pos = 0;
+		try {
+			CandlestickEvent event = new CandlestickEvent();
+			if (readObject(event, false) && atEnd()) {
+				return event;
+			}
+			return null;
+		} catch (RuntimeException e) {
+			return null;
+		} finally {
+			json = null;
+		}
+	}
+
+	private boolean readObject(CandlestickEvent event, boolean kline) {
+		String fields = kline ? KLINE_FIELDS : EVENT_FIELDS;
+		if (next() != '{') {
+			return false;
+		}
+		for (int i = 0; i < fields.length(); i++) {
+			if (i > 0 && next() != ',') {
+				return false;
+			}
+			if (next() != '"') {
+				return false;
+			}
+			char key = json.charAt(pos);
+			if (key != fields.charAt(i) || json.charAt(pos + 1) != '"') {
+				return false;
+			}
+			pos += 2;
+			if (next() != ':') {
+				return false;
+			}
+			skipWhitespace();
+			if (!(kline ? readKlineValue(event, key) : readEventValue(event, key))) {
+				return false;
+			}
+		}
+		return next() == '}';
+	}
+
+	private boolean readEventValue(CandlestickEvent event, char key) {
+		switch (key) {
+			case 'e':
+				event.setEventType(readString());
+				break;
+			case 'E':
+				event.setEventTime(readLong());
+				break;
+			case 's':
+				event.setSymbol(readString());
+				break;
+			case 'k':
+				return readObject(event, true);
+			default:
+				return false;
+		}
+		return true;
+	}
+
+	private boolean readKlineValue(CandlestickEvent event, char key) {
+		switch (key) {
+			case 't':
+				event.setOpenTime(readLong());
+				break;
+			case 'T':
+				event.setCloseTime(readLong());
+				break;
+			case 'i':
+				event.setIntervalId(readString());
+				break;
+			case 'f':
+				event.setFirstTradeId(readLong());
+				break;
+			case 'L':
+				event.setLastTradeId(readLong());
+				break;
+			case 'n':
+				event.setNumberOfTrades(readLong());
+				break;
+			case 'x':
+				event.setBarFinal(readBoolean());
+				break;
+			case 'o':
+				return readDecimal(event, Candlestick.OPEN);
+			case 'h':
+				return readDecimal(event, Candlestick.HIGH);
+			case 'l':
+				return readDecimal(event, Candlestick.LOW);
+			case 'c':
+				return readDecimal(event, Candlestick.CLOSE);
+			case 'v':
+				return readDecimal(event, Candlestick.VOLUME);
+			case 'q':
+				return readDecimal(event, Candlestick.QUOTE_ASSET_VOLUME);
+			case 'V':
+				return readDecimal(event, Candlestick.TAKER_BUY_BASE_ASSET_VOLUME);
+			case 'Q':
+				return readDecimal(event, Candlestick.TAKER_BUY_QUOTE_ASSET_VOLUME);
+			case 's': // symbol, repeated from the event
+			case 'B': // documented by the exchange as a field to ignore
+				return skipString();
+			default:
+				return false;
+		}
+		return true;
+	}
+
+	private boolean readDecimal(CandlestickEvent event, int field) {
+		// a regular JSON parser reads unquoted decimals as doubles, losing their scale.
+		if (json.charAt(pos) != '"') {
+			return false;
+		}
+		pos++;
+		boolean negative = json.charAt(pos) == '-';
+		if (negative) {
+			pos++;
+		}
+		long unscaled = 0;
+		int digits = 0;
+		int scale = -1;
+		int start = pos;
+		while (true) {
+			char ch = json.charAt(pos);
+			if (ch >= '0' && ch <= '9') {
+				// leading zeros don't count towards the precision limit
+				if ((unscaled != 0 || ch != '0') && ++digits > MAX_DIGITS) {
+					return false;
+				}
+				unscaled = unscaled * 10 + (ch - '0');
+				if (scale >= 0) {
+					scale++;
+				}
+			} else if (ch == '.' && scale < 0) {
+				scale = 0;
+			} else {
+				break;
+			}
+			pos++;
+		}
+		if (pos == start || pos - start == 1 && scale == 0) {
+			return false;
+		}
+		if (json.charAt(pos) != '"') {
+			return false;
+		}
+		pos++;
+		event.setDecimal(field, negative ? -unscaled : unscaled, Math.max(scale, 0));
+		return true;
+	}
+
+	private long readLong() {
+		boolean negative = json.charAt(pos) == '-';
+		if (negative) {
+			pos++;
+		}
+		long out = 0;
+		int start = pos;
+		char ch;
+		while ((ch = json.charAt(pos)) >= '0' && ch <= '9') {
+			out = out * 10 + (ch - '0');
+			pos++;
+		}
+		if (pos == start || pos - start > MAX_DIGITS) {
+			throw new NumberFormatException("Invalid number at position " + start);
+		}
+		return negative ? -out : out;
+	}
+
+	private boolean readBoolean() {
+		if (json.startsWith("true", pos)) {
+			pos += 4;
+			return true;
+		}
+		if (json.startsWith("false", pos)) {
+			pos += 5;
+			return false;
+		}
+		throw new IllegalStateException("Expected boolean at position " + pos);
+	}
+
+	private String readString() {
+		if (json.charAt(pos) != '"') {
+			throw new IllegalStateException("Expected string at position " + pos);
+		}
+		int start = ++pos;
+		int hash = 0;
+		char ch;
+		while ((ch = json.charAt(pos)) != '"') {
+			if (ch == '\\') {
+				throw new IllegalStateException("Escaped string at position " + pos);
+			}
+			hash = 31 * hash + ch;
+			pos++;
+		}
+		int length = pos - start;
+		pos++;
+
+		int slot = (hash ^ (hash >>> 16)) & (cache.length - 1);
+		String cached = cache[slot];
+		if (cached != null && cached.length() == length && json.regionMatches(start, cached, 0, length)) {
+			return cached;
+		}
+		cached = json.substring(start, start + length);
+		cache[slot] = cached;
+		return cached;
+	}
+
+	private boolean skipString() {
+		if (json.charAt(pos) != '"') {
+			return false;
+		}
+		int end = json.indexOf('"', pos + 1);
+		if (end < 0 || json.lastIndexOf('\\', end) > pos) {
+			return false;
+		}
+		pos = end + 1;
+		return true;
+	}
+
+	private boolean atEnd() {
+		while (pos < json.length() && json.charAt(pos) <= ' ') {
+			pos++;
+		}
+		return pos == json.length();
+	}
+
+	private void skipWhitespace() {
+		while (json.charAt(pos) <= ' ') {
+			pos++;
+		}
+	}
+
+	private char next() {
+		skipWhitespace();
+		return json.charAt(pos++);
+	}
+}
@@ -4,6 +4,8 @@ import com.univocity.trader.exchange.binance.api.client.constant.*;
 import com.fasterxml.jackson.annotation.*;
 import org.apache.commons.lang3.builder.*;
 
+import java.math.*;
+
 /**
  * Kline/Candlestick bars for a symbol. Klines are uniquely identified by their open time.
  */
@@ -12,6 +14,24 @@ import org.apache.commons.lang3.builder.*;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Candlestick {
 
+	public static final int OPEN = 0;
+	public static final int HIGH = 1;
+	public static final int LOW = 2;
+	public static final int CLOSE = 3;
+	public static final int VOLUME = 4;
+	public static final int QUOTE_ASSET_VOLUME = 5;
+	public static final int TAKER_BUY_BASE_ASSET_VOLUME = 6;
+	public static final int TAKER_BUY_QUOTE_ASSET_VOLUME = 7;
+
+	private static final double[] POWERS_OF_TEN = new double[23];
+
+	static {
+		POWERS_OF_TEN[0] = 1.0;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+		}
+	}
+
 	protected Long openTime;
 	protected String open;
 	protected String high;
@@ -24,6 +44,11 @@ public class Candlestick {
 	protected String takerBuyBaseAssetVolume;
 	protected String takerBuyQuoteAssetVolume;
 
+	// unscaled value and scale of each decimal field, when decoded directly from a stream.
+	// String values of these fields are only produced if requested.
+	private long[] decimals;
+	private int decoded;
+
 	public final Long getOpenTime() {
 		return openTime;
 	}
@@ -33,43 +58,63 @@ public class Candlestick {
 	}
 
 	public final String getOpen() {
+		if (open == null && isDecoded(OPEN)) {
+			open = getDecimal(OPEN).toPlainString();
+		}
 		return open;
 	}
 
 	public final void setOpen(String open) {
 		this.open = open;
+		decoded &= ~(1 << OPEN);
 	}
 
 	public final String getHigh() {
+		if (high == null && isDecoded(HIGH)) {
+			high = getDecimal(HIGH).toPlainString();
+		}
 		return high;
 	}
 
 	public final void setHigh(String high) {
 		this.high = high;
+		decoded &= ~(1 << HIGH);
 	}
 
 	public final String getLow() {
+		if (low == null && isDecoded(LOW)) {
+			low = getDecimal(LOW).toPlainString();
+		}
 		return low;
 	}
 
 	public final void setLow(String low) {
 		this.low = low;
+		decoded &= ~(1 << LOW);
 	}
 
 	public final String getClose() {
+		if (close == null && isDecoded(CLOSE)) {
+			close = getDecimal(CLOSE).toPlainString();
+		}
 		return close;
 	}
 
 	public final void setClose(String close) {
 		this.close = close;
+		decoded &= ~(1 << CLOSE);
 	}
 
 	public final String getVolume() {
+		if (volume == null && isDecoded(VOLUME)) {
+			volume = getDecimal(VOLUME).toPlainString();
+		}
 		return volume;
 	}
 
 	public final void setVolume(String volume) {
 		this.volume = volume;
+		decoded &= ~(1 << VOLUME);
 	}
 
 	public final Long getCloseTime() {
@@ -81,11 +126,15 @@ public class Candlestick {
 	}
 
 	public final String getQuoteAssetVolume() {
+		if (quoteAssetVolume == null && isDecoded(QUOTE_ASSET_VOLUME)) {
+			quoteAssetVolume = getDecimal(QUOTE_ASSET_VOLUME).toPlainString();
+		}
 		return quoteAssetVolume;
 	}
 
 	public final void setQuoteAssetVolume(String quoteAssetVolume) {
 		this.quoteAssetVolume = quoteAssetVolume;
+		decoded &= ~(1 << QUOTE_ASSET_VOLUME);
 	}
 
 	public final Long getNumberOfTrades() {
@@ -97,35 +146,186 @@ public class Candlestick {
 	}
 
 	public final String getTakerBuyBaseAssetVolume() {
+		if (takerBuyBaseAssetVolume == null && isDecoded(TAKER_BUY_BASE_ASSET_VOLUME)) {
+			takerBuyBaseAssetVolume = getDecimal(TAKER_BUY_BASE_ASSET_VOLUME).toPlainString();
+		}
 		return takerBuyBaseAssetVolume;
 	}
 
 	public final void setTakerBuyBaseAssetVolume(String takerBuyBaseAssetVolume) {
 		this.takerBuyBaseAssetVolume = takerBuyBaseAssetVolume;
+		decoded &= ~(1 << TAKER_BUY_BASE_ASSET_VOLUME);
 	}
 
 	public final String getTakerBuyQuoteAssetVolume() {
+		if (takerBuyQuoteAssetVolume == null && isDecoded(TAKER_BUY_QUOTE_ASSET_VOLUME)) {
+			takerBuyQuoteAssetVolume = getDecimal(TAKER_BUY_QUOTE_ASSET_VOLUME).toPlainString();
+		}
 		return takerBuyQuoteAssetVolume;
 	}
 
 	public final void setTakerBuyQuoteAssetVolume(String takerBuyQuoteAssetVolume) {
 		this.takerBuyQuoteAssetVolume = takerBuyQuoteAssetVolume;
+		decoded &= ~(1 << TAKER_BUY_QUOTE_ASSET_VOLUME);
+	}
+
+	/**
+	 * Sets the value of a decimal field from its unscaled value and scale, as in {@link BigDecimal#valueOf(long, int)}.
+	 *
+	 * @param field    one of the field constants of this class, e.g. {@link #CLOSE}
+	 * @param unscaled the unscaled value of the field
+	 * @param scale    the number of digits after the decimal point
+	 */
+	public final void setDecimal(int field, long unscaled, int scale) {
+		clearString(field);
+		if (decimals == null) {
+			decimals = new long[16];
+		}
+		decimals[field * 2] = unscaled;
+		decimals[field * 2 + 1] = scale;
+		decoded |= 1 << field;
+	}
+
+	/**
+	 * Returns the unscaled value of a decimal field decoded directly from a stream.
+	 *
+	 * @param field one of the field constants of this class, e.g. {@link #CLOSE}
+	 *
+	 * @return the unscaled value of the field, or {@code 0} if the field was not decoded.
+	 *
+	 * @see #isDecoded(int)
+	 */
+	public final long getUnscaled(int field) {
+		return isDecoded(field) ? decimals[field * 2] : 0L;
+	}
+
+	/**
+	 * Returns the scale of a decimal field decoded directly from a stream.
+	 *
+	 * @param field one of the field constants of this class, e.g. {@link #CLOSE}
+	 *
+	 * @return the number of decimal places of the field, or {@code 0} if the field was not decoded.
+	 *
+	 * @see #isDecoded(int)
+	 */
+	public final int getScale(int field) {
+		return isDecoded(field) ? (int) decimals[field * 2 + 1] : 0;
+	}
+
+	/**
+	 * Tells whether the value of a decimal field was decoded directly from a stream, and is available as an unscaled
+	 * {@code long} without parsing.
+	 *
+	 * @param field one of the field constants of this class, e.g. {@link #CLOSE}
+	 *
+	 * @return {@code true} if the field holds a decoded value.
+	 */
+	public final boolean isDecoded(int field) {
+		return (decoded & (1 << field)) != 0;
+	}
+
+	/**
+	 * Returns the value of a decimal field as a {@link BigDecimal}.
+	 *
+	 * @param field one of the field constants of this class, e.g. {@link #CLOSE}
+	 *
+	 * @return the decimal value of the field.
+	 */
+	public final BigDecimal getDecimal(int field) {
+		if (isDecoded(field)) {
+			return BigDecimal.valueOf(decimals[field * 2], (int) decimals[field * 2 + 1]);
+		}
+		return new BigDecimal(getString(field));
+	}
+
+	/**
+	 * Returns the value of a decimal field as a {@code double}, without producing any intermediate objects if the
+	 * value was decoded directly from a stream.
+	 *
+	 * @param field one of the field constants of this class, e.g. {@link #CLOSE}
+	 *
+	 * @return the value of the field.
+	 */
+	public final double getDouble(int field) {
+		if (isDecoded(field)) {
+			long unscaled = decimals[field * 2];
+			int scale = (int) decimals[field * 2 + 1];
+			if (scale >= 0 && scale < POWERS_OF_TEN.length && Math.abs(unscaled) < (1L << 53)) {
+				// both operands are exact, so the division is correctly rounded, as in Double.parseDouble()
+				return unscaled / POWERS_OF_TEN[scale];
+			}
+			return BigDecimal.valueOf(unscaled, scale).doubleValue();
+		}
+		return Double.parseDouble(getString(field));
+	}
+
+	private void clearString(int field) {
+		switch (field) {
+			case OPEN:
+				open = null;
+				break;
+			case HIGH:
+				high = null;
+				break;
+			case LOW:
+				low = null;
+				break;
+			case CLOSE:
+				close = null;
+				break;
+			case VOLUME:
+				volume = null;
+				break;
+			case QUOTE_ASSET_VOLUME:
+				quoteAssetVolume = null;
+				break;
+			case TAKER_BUY_BASE_ASSET_VOLUME:
+				takerBuyBaseAssetVolume = null;
+				break;
+			case TAKER_BUY_QUOTE_ASSET_VOLUME:
+				takerBuyQuoteAssetVolume = null;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown decimal field: " + field);
+		}
+	}
+
+	private String getString(int field) {
+		switch (field) {
+			case OPEN:
+				return open;
+			case HIGH:
+				return high;
+			case LOW:
+				return low;
+			case CLOSE:
+				return close;
+			case VOLUME:
+				return volume;
+			case QUOTE_ASSET_VOLUME:
+				return quoteAssetVolume;
+			case TAKER_BUY_BASE_ASSET_VOLUME:
+				return takerBuyBaseAssetVolume;
+			case TAKER_BUY_QUOTE_ASSET_VOLUME:
+				return takerBuyQuoteAssetVolume;
+		}
+		throw new IllegalArgumentException("Unknown decimal field: " + field);
 	}
 
 	@Override
 	public String toString() {
 		return new ToStringBuilder(this, BinanceApiConstants.TO_STRING_BUILDER_STYLE)
 				.append("openTime", openTime)
-				.append("open", open)
-				.append("high", high)
-				.append("low", low)
-				.append("close", close)
-				.append("volume", volume)
+				.append("open", getOpen())
+				.append("high", getHigh())
+				.append("low", getLow())
+				.append("close", getClose())
+				.append("volume", getVolume())
 				.append("closeTime", closeTime)
-				.append("quoteAssetVolume", quoteAssetVolume)
+				.append("quoteAssetVolume", getQuoteAssetVolume())
 				.append("numberOfTrades", numberOfTrades)
-				.append("takerBuyBaseAssetVolume", takerBuyBaseAssetVolume)
-				.append("takerBuyQuoteAssetVolume", takerBuyQuoteAssetVolume)
+				.append("takerBuyBaseAssetVolume", getTakerBuyBaseAssetVolume())
+				.append("takerBuyQuoteAssetVolume", getTakerBuyQuoteAssetVolume())
 				.toString();
 	}
 }
@@ -2,12 +2,14 @@ package com.univocity.trader.exchange.binance.api.client.impl;
 
 import com.univocity.trader.exchange.binance.api.client.*;
 import com.univocity.trader.exchange.binance.api.client.exception.*;
+import com.univocity.trader.utils.*;
 import com.fasterxml.jackson.core.type.*;
 import com.fasterxml.jackson.databind.*;
 import org.asynchttpclient.ws.*;
 import org.slf4j.*;
 
 import java.io.*;
+import java.util.function.*;
 
 public class BinanceApiWebSocketListener<T> implements WebSocketListener {
 
@@ -16,6 +18,7 @@ public class BinanceApiWebSocketListener<T> implements WebSocketListener {
 
     private final ObjectReader objectReader;
     private final BinanceApiCallback<T> callback;
+    private final Function<String, T> decoder;
 
     private WebSocket webSocket = null;
     private String wsName = null;
@@ -23,11 +26,27 @@ public class BinanceApiWebSocketListener<T> implements WebSocketListener {
     public BinanceApiWebSocketListener(BinanceApiCallback<T> callback, Class<T> eventClass) {
         this.callback = callback;
         this.objectReader = MAPPER.readerFor(eventClass);
+        this.decoder = null;
+    }
+
+    /**
+     * Creates a listener that decodes events with a specialized decoder, falling back to a regular JSON parser
+     * whenever the decoder returns {@code null}.
+     *
+     * @param callback   the callback to receive decoded events
+     * @param eventClass the type of event, used by the fallback parser
+     * @param decoder    the function that decodes the text payload of the websocket into an event
+     */
+    public BinanceApiWebSocketListener(BinanceApiCallback<T> callback, Class<T> eventClass, Function<String, T> decoder) {
+        this.callback = callback;
+        this.objectReader = MAPPER.readerFor(eventClass);
+        this.decoder = decoder;
     }
 
     public BinanceApiWebSocketListener(BinanceApiCallback<T> callback, TypeReference reference) {
         this.callback = callback;
         this.objectReader = MAPPER.readerFor(reference);
+        this.decoder = null;
     }
 
     @Override
@@ -41,8 +60,13 @@ public class BinanceApiWebSocketListener<T> implements WebSocketListener {
      */
     @Override
     public void onTextFrame(String payload, boolean finalFragment, int rsv) {
+        LatencyTracer.frameReceived();
         try {
-            T event = objectReader.readValue(payload);
+            T event = decoder == null ? null : decoder.apply(payload);
+            if (event == null) {
+                event = objectReader.readValue(payload);
+            }
+            LatencyTracer.stamp(LatencyTracer.Stage.DECODED);
             this.callback.onResponse(event);
         } catch (IOException ex) {
             log.error("Error at WebSocket " + wsName, ex);
@@ -0,0 +1,162 @@
+package com.univocity.trader.exchange.binance.api.client.domain.event;
+
+import com.fasterxml.jackson.databind.*;
+import com.univocity.trader.exchange.binance.api.client.impl.*;
+import org.junit.*;
+
+import java.math.*;
+import java.util.*;
+
+import static com.univocity.trader.exchange.binance.api.client.domain.market.Candlestick.*;
+import static junit.framework.TestCase.*;
+
+public class CandlestickEventDecoderTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final String BTCUSDT = "{\"e\":\"kline\",\"E\":1638747660000,\"s\":\"BTCUSDT\",\"k\":{\"t\":1638747600000,\"T\":1638747659999,\"s\":\"BTCUSDT\",\"i\":\"1m\",\"f\":1151613149,\"L\":1151613794,\"o\":\"49237.99000000\",\"c\":\"49248.43000000\",\"h\":\"49260.00000000\",\"l\":\"49232.09000000\",\"v\":\"16.30425000\",\"n\":646,\"x\":false,\"q\":\"802876.64178320\",\"V\":\"9.85717000\",\"Q\":\"485388.47224300\",\"B\":\"0\"}}";
+	private static final String BNBBTC = "{\"e\":\"kline\",\"E\":123456789,\"s\":\"BNBBTC\",\"k\":{\"t\":123400000,\"T\":123460000,\"s\":\"BNBBTC\",\"i\":\"1m\",\"f\":100,\"L\":200,\"o\":\"0.0010\",\"c\":\"0.0020\",\"h\":\"0.0025\",\"l\":\"0.0015\",\"v\":\"1000\",\"n\":100,\"x\":true,\"q\":\"1.0000\",\"V\":\"500\",\"Q\":\"0.500\",\"B\":\"123456\"}}";
+	private static final String SHIBUSDT = "{\"e\":\"kline\",\"E\":1638747720001,\"s\":\"SHIBUSDT\",\"k\":{\"t\":1638747660000,\"T\":1638747719999,\"s\":\"SHIBUSDT\",\"i\":\"15m\",\"f\":-1,\"L\":-1,\"o\":\"0.00003812\",\"c\":\"0.00003799\",\"h\":\"0.00003815\",\"l\":\"0.00003790\",\"v\":\"123456789012.00\",\"n\":0,\"x\":false,\"q\":\"0.00000000\",\"V\":\"99999999999999.99\",\"Q\":\"4705221.41273108\",\"B\":\"0\"}}";
+	private static final String FORMATTED = "{\n  \"e\": \"kline\",\n  \"E\": 123456789,\n  \"s\": \"BNBBTC\",\n  \"k\": {\n    \"t\": 123400000, \"T\": 123460000, \"s\": \"BNBBTC\", \"i\": \"1m\",\n    \"f\": 100, \"L\": 200,\n    \"o\": \"0.0010\", \"c\": \"0.0020\", \"h\": \"0.0025\", \"l\": \"0.0015\",\n    \"v\": \"1000\", \"n\": 100, \"x\": false,\n    \"q\": \"1.0000\", \"V\": \"500\", \"Q\": \"0.500\", \"B\": \"123456\"\n  }\n}\n";
+
+	private static final int[] DECIMALS = {OPEN, HIGH, LOW, CLOSE, VOLUME, QUOTE_ASSET_VOLUME, TAKER_BUY_BASE_ASSET_VOLUME, TAKER_BUY_QUOTE_ASSET_VOLUME};
+
+	private static CandlestickEvent parse(String payload) throws Exception {
+		return MAPPER.readValue(payload, CandlestickEvent.class);
+	}
+
+	private static void assertSameEvent(CandlestickEvent expected, CandlestickEvent actual) {
+		assertNotNull(actual);
+		assertEquals(expected.getEventType(), actual.getEventType());
+		assertEquals(expected.getEventTime(), actual.getEventTime());
+		assertEquals(expected.getSymbol(), actual.getSymbol());
+		assertEquals(expected.getOpenTime(), actual.getOpenTime());
+		assertEquals(expected.getCloseTime(), actual.getCloseTime());
+		assertEquals(expected.getIntervalId(), actual.getIntervalId());
+		assertEquals(expected.getFirstTradeId(), actual.getFirstTradeId());
+		assertEquals(expected.getLastTradeId(), actual.getLastTradeId());
+		assertEquals(expected.getNumberOfTrades(), actual.getNumberOfTrades());
+		assertEquals(expected.getBarFinal(), actual.getBarFinal());
+
+		assertEquals(expected.getOpen(), actual.getOpen());
+		assertEquals(expected.getHigh(), actual.getHigh());
+		assertEquals(expected.getLow(), actual.getLow());
+		assertEquals(expected.getClose(), actual.getClose());
+		assertEquals(expected.getVolume(), actual.getVolume());
+		assertEquals(expected.getQuoteAssetVolume(), actual.getQuoteAssetVolume());
+		assertEquals(expected.getTakerBuyBaseAssetVolume(), actual.getTakerBuyBaseAssetVolume());
+		assertEquals(expected.getTakerBuyQuoteAssetVolume(), actual.getTakerBuyQuoteAssetVolume());
+
+		for (int field : DECIMALS) {
+			assertTrue(actual.isDecoded(field));
+			BigDecimal decimal = expected.getDecimal(field);
+			// BigDecimal.equals() compares the scale as well
+			assertEquals(decimal, actual.getDecimal(field));
+			assertEquals(decimal.scale(), actual.getScale(field));
+			assertEquals(decimal.unscaledValue().longValueExact(), actual.getUnscaled(field));
+			assertEquals(expected.getDouble(field), actual.getDouble(field), 0.0);
+		}
+	}
+
+	@Test
+	public void testDecodedEventsMatchJackson() throws Exception {
+		CandlestickEventDecoder decoder = new CandlestickEventDecoder();
+		for (int i = 0; i < 3; i++) { //decoder is reused and caches symbols and intervals
+			for (String payload : new String[]{BTCUSDT, BNBBTC, SHIBUSDT, FORMATTED}) {
+				assertSameEvent(parse(payload), decoder.decode(payload));
+			}
+		}
+
+		CandlestickEvent event = decoder.decode(BNBBTC);
+		assertEquals("0.0010", event.getOpen());
+		assertEquals(4, event.getScale(OPEN));
+		assertEquals(10L, event.getUnscaled(OPEN));
+		assertEquals("1000", event.getVolume());
+		assertEquals(0, event.getScale(VOLUME));
+		assertEquals(0.001, event.getDouble(OPEN), 0.0);
+		assertTrue(event.getBarFinal());
+	}
+
+	private static String replace(String payload, String from, String to) {
+		assertTrue(payload.contains(from));
+		return payload.replace(from, to);
+	}
+
+	private static void assertFallsBack(String payload) {
+		assertNull(payload, new CandlestickEventDecoder().decode(payload));
+	}
+
+	private static void assertFallsBackToJackson(String payload) throws Exception {
+		assertFallsBack(payload);
+
+		CandlestickEvent expected = parse(payload);
+		List<CandlestickEvent> received = new ArrayList<>();
+		BinanceApiWebSocketListener<CandlestickEvent> listener = new BinanceApiWebSocketListener<>(received::add, CandlestickEvent.class, new CandlestickEventDecoder()::decode);
+		listener.onTextFrame(payload, true, 0);
+		assertEquals(1, received.size());
+		assertEquals(expected.toString(), received.get(0).toString());
+	}
+
+	@Test
+	public void testEscapedStringsAreNotDecoded() throws Exception {
+		assertFallsBackToJackson(replace(BTCUSDT, "\"s\":\"BTCUSDT\",\"k\"", "\"s\":\"BTC\\u0055SDT\",\"k\""));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"i\":\"1m\"", "\"i\":\"1\\u006d\""));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"B\":\"0\"", "\"B\":\"a\\\"b\""));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"E\":", "\"\\u0045\":"));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"s\":\"BTCUSDT\",\"i\"", "\"s\":\"BTCUSDT\\\\\",\"i\""));
+	}
+
+	@Test
+	public void testExponentsAreNotDecoded() throws Exception {
+		assertFallsBackToJackson(replace(BTCUSDT, "\"o\":\"49237.99000000\"", "\"o\":\"4.923799E+4\""));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"v\":\"16.30425000\"", "\"v\":\"1630425000e-8\""));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"E\":1638747660000", "\"E\":1.63874766E12"));
+	}
+
+	@Test
+	public void testLongMantissasAreNotDecoded() throws Exception {
+		assertFallsBackToJackson(replace(BTCUSDT, "\"v\":\"16.30425000\"", "\"v\":\"16.30425000000000000\"")); //19 digits
+		assertFallsBackToJackson(replace(BTCUSDT, "\"q\":\"802876.64178320\"", "\"q\":\"802876642.178320123456\""));
+		assertFallsBack(replace(BTCUSDT, "\"f\":1151613149", "\"f\":11516131491151613149"));
+
+		// leading zeros don't count
+		String payload = replace(BTCUSDT, "\"o\":\"49237.99000000\"", "\"o\":\"0.000000000000123456789012345678\"");
+		assertSameEvent(parse(payload), new CandlestickEventDecoder().decode(payload));
+	}
+
+	@Test
+	public void testReorderedFieldsAreNotDecoded() throws Exception {
+		assertFallsBackToJackson(replace(BTCUSDT, "\"o\":\"49237.99000000\",\"c\":\"49248.43000000\"", "\"c\":\"49248.43000000\",\"o\":\"49237.99000000\""));
+		assertFallsBackToJackson(replace(BTCUSDT, "{\"e\":\"kline\",\"E\":1638747660000", "{\"E\":1638747660000,\"e\":\"kline\""));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"n\":646,\"x\":false", "\"x\":false,\"n\":646"));
+	}
+
+	@Test
+	public void testExtraOrMissingFieldsAreNotDecoded() throws Exception {
+		assertFallsBackToJackson(replace(BTCUSDT, "\"B\":\"0\"}", "\"B\":\"0\",\"z\":1}"));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"s\":\"BTCUSDT\",\"k\"", "\"s\":\"BTCUSDT\",\"ps\":\"BTCUSDT\",\"k\""));
+		assertFallsBackToJackson(replace(BTCUSDT, ",\"B\":\"0\"", ""));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"n\":646,", "\"n\":646,\"n\":647,"));
+		assertFallsBackToJackson(replace(BTCUSDT, "}}", "},\"k2\":{}}"));
+		assertFallsBack(replace(BTCUSDT, ",\"Q\":\"485388.47224300\"", ""));
+	}
+
+	@Test
+	public void testWrappedPayloadIsNotDecoded() {
+		assertFallsBack("{\"stream\":\"btcusdt@kline_1m\",\"data\":" + BTCUSDT + "}");
+	}
+
+	@Test
+	public void testMalformedPayloadsAreNotDecoded() throws Exception {
+		assertFallsBackToJackson(replace(BTCUSDT, "\"o\":\"49237.99000000\"", "\"o\":49237.99000000"));
+		assertFallsBackToJackson(replace(BTCUSDT, "\"n\":646", "\"n\":\"646\""));
+		assertFallsBack(BTCUSDT + "}");
+		assertFallsBack(BTCUSDT.substring(0, BTCUSDT.length() - 10));
+		assertFallsBack(replace(BTCUSDT, "\"o\":\"49237.99000000\"", "\"o\":\"\""));
+		assertFallsBack(replace(BTCUSDT, "\"o\":\"49237.99000000\"", "\"o\":\".\""));
+		assertFallsBack(replace(BTCUSDT, "\"o\":\"49237.99000000\"", "\"o\":\"49237.99.1\""));
+		assertFallsBack(replace(BTCUSDT, "\"x\":false", "\"x\":null"));
+		assertFallsBack("");
+		assertFallsBack("[]");
+	}
+}
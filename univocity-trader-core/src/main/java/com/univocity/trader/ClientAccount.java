@@ -4,6 +4,7 @@ import com.univocity.trader.account.*;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.config.*;
 
+import java.util.*;
 import java.util.concurrent.*;
 
 /**
@@ -123,6 +124,24 @@ public interface ClientAccount {
 	 */
 	Order updateOrderStatus(Order order);
 
+	/**
+	 * Updates the status of all pending {@link Order}s of a given symbol. Used by the {@link AccountManager} to poll the exchange
+	 * for updates on all orders of a symbol at once. The default implementation calls {@link #updateOrderStatus(Order)} for
+	 * each order. Implementations should override this method if the exchange can list all open orders of a symbol with a single request.
+	 *
+	 * @param symbol the symbol of the given orders.
+	 * @param orders the orders whose status needs to be updated.
+	 *
+	 * @return the updated orders, in the same sequence of the given list.
+	 */
+	default List<Order> updateOrderStatus(String symbol, List<Order> orders) {
+		List<Order> out = new ArrayList<>(orders.size());
+		for (Order order : orders) {
+			out.add(updateOrderStatus(order));
+		}
+		return out;
+	}
+
 	/**
 	 * Cancels a given {@link Order} if it has not been {@code FILLED} yet.
 	 *
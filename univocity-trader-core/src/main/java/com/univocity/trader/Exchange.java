@@ -71,7 +71,10 @@ public interface Exchange<T, C extends AccountConfiguration<C>> {
 	 * no precision loss.
 	 *
 	 * At least the closing price and open/close times in the returned {@link PreciseCandle} should be populated. Set the fields of
-	 * the {@link PreciseCandle} to {@code BigDecimal.ZERO} if the input candle does not have the corresponding data and it can't be derived.
+	 * the {@link PreciseCandle} to zero if the input candle does not have the corresponding data and it can't be derived.
+	 *
+	 * Prefer the fixed-point constructor of {@link PreciseCandle} if the exchange provides prices as text or as unscaled numbers,
+	 * as this method is invoked for every tick received.
 	 *
 	 * @param exchangeCandle the {@code Exchange}-specific candle/tick details whose data need to be converted into a {@link PreciseCandle}.
 	 *
@@ -211,6 +214,17 @@ public interface Exchange<T, C extends AccountConfiguration<C>> {
 		return 1_000;
 	}
 
+	/**
+	 * Returns how many requests for historical data the exchange accepts per minute under its request weight limits.
+	 * Parallel backfills use this allowance to send requests in bursts on top of the rate given by {@link #timeToWaitPerRequest()}.
+	 *
+	 * @return the number of history requests accepted per minute, or {@code 0} if requests should only be sent once
+	 * every {@link #timeToWaitPerRequest()} milliseconds.
+	 */
+	default int historicalRequestsPerMinute() {
+		return 0;
+	}
+
 	/**
 	 * Convenience method used to pace the rate at which requests to the exchange are made. Will make the current
 	 * thread sleep for the time interval specified by {@link #timeToWaitPerRequest()}.
@@ -35,6 +35,7 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 	private Map<String, String[]> allPairs;
 	private C configuration;
 	private CandleRepository candleRepository;
+	private TickPipeline<T> tickPipeline;
 
 	private class PollThread extends Thread {
 		public PollThread() {
@@ -49,6 +50,7 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 						lastHour = System.currentTimeMillis();
 						log.info("Updating balances");
 						clients.forEach(Client::updateBalances);
+						log.info(tickPipeline.toString());
 					}
 
 					int[] count = new int[]{0};
@@ -61,7 +63,7 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 								T tick = exchange.getLatestTick(symbol, tickInterval);
 								if (tick != null) {
 									symbols.put(symbol, now);
-									clients.parallelStream().forEach(c -> c.processCandle(symbol, tick, false));
+									tickPipeline.publish(symbol, tick);
 								}
 							} catch (Exception e) {
 								TimeInterval waitTime = exchange.handlePollingException(symbol, e);
@@ -88,6 +90,26 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 		}
 	}
 
+	private static class LatencyReportThread extends Thread {
+		private final TimeInterval interval;
+
+		LatencyReportThread(TimeInterval interval) {
+			this.interval = interval;
+			setName("latency reporter");
+			setDaemon(true);
+		}
+
+		public void run() {
+			while (LatencyTracer.enabled()) {
+				LiveTrader.sleep(interval.ms);
+				String summary = LatencyTracer.summary();
+				if (!summary.isEmpty()) {
+					log.info(summary);
+				}
+			}
+		}
+	}
+
 	private static void sleep(long time) {
 		try {
 			Thread.sleep(time);
@@ -124,6 +146,16 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 
 	private void initialize() {
 		this.tickInterval = configuration.tickInterval();
+		if (configuration.instrumentation()) {
+			Instrumentation.enable();
+		}
+		if (configuration.latencyTracing() && !LatencyTracer.enabled()) {
+			LatencyTracer.enable();
+			new LatencyReportThread(configuration.latencyReportInterval()).start();
+		}
+		if (tickPipeline == null) {
+			tickPipeline = new TickPipeline<>(configuration.tickPartitions(), configuration.tickBufferSize(), configuration.tickWaitStrategy(), this::processTick);
+		}
 
 		if (clients.isEmpty()) {
 			for (var account : configuration.accounts()) {
@@ -159,23 +191,22 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 			}
 			tmp.append(symbol);
 		}
-		CandleHistoryBackfill backfill = new CandleHistoryBackfill(candleRepository());
+		BackfillScheduler backfill = new BackfillScheduler(candleRepository(), configuration.backfillThreads());
 
 		this.allClientPairs = tmp.toString().toLowerCase();
 
 		if (configuration.updateHistoryBeforeLiveTrading()) {
 			//fill history with last 30 days of data
-			for (String symbol : allPairs.keySet()) {
-				backfill.fillHistoryGaps(exchange, symbol, Instant.now().minus(30, ChronoUnit.DAYS), tickInterval);
-			}
+			backfill.fillHistoryGaps(exchange, allPairs.keySet(), Instant.now().minus(30, ChronoUnit.DAYS), null, tickInterval);
 
 			//quick update for the last 30 minutes in case the previous step takes too long and we miss a few ticks
+			backfill.fillHistoryGaps(exchange, allPairs.keySet(), Instant.now().minus(30, ChronoUnit.MINUTES), null, tickInterval);
 			for (String symbol : allPairs.keySet()) {
-				backfill.fillHistoryGaps(exchange, symbol, Instant.now().minus(30, ChronoUnit.MINUTES), tickInterval);
 				symbols.put(symbol, System.currentTimeMillis());
 			}
 
 			//loads last 60 day history of every symbol to initialize indicators (such as moving averages et al) in a useful state
+			Candle[] warmUp = new Candle[4096];
 			for (String symbol : allPairs.keySet()) {
 				Period warmUpPeriod = configuration.warmUpPeriod();
 				Instant warmUpStart = Instant.now();
@@ -186,12 +217,18 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 				}
 
 				Enumeration<Candle> it = candleRepository().iterate(symbol, warmUpStart, Instant.now(), false);
+				int count = 0;
 				while (it.hasMoreElements()) {
 					Candle candle = it.nextElement();
 					if (candle != null) {
-						clients.forEach(c -> c.processCandle(symbol, candle, true));
+						warmUp[count++] = candle;
+						if (count == warmUp.length) {
+							warmUp(symbol, warmUp, count);
+							count = 0;
+						}
 					}
 				}
+				warmUp(symbol, warmUp, count);
 			}
 
 			//loads the very latest ticks and process them before we can finally connect to the live stream and trade for real.
@@ -204,6 +241,13 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 		}
 	}
 
+	private void warmUp(String symbol, Candle[] candles, int count) {
+		if (count > 0) {
+			clients.forEach(c -> c.warmUp(symbol, candles, 0, count));
+			Arrays.fill(candles, 0, count, null);
+		}
+	}
+
 	private AtomicInteger retryCount = new AtomicInteger(0);
 
 	public void run() {
@@ -222,7 +266,7 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 			log.debug("Starting web socket. Retry count: {}", retryCount);
 			if (retryCount.get() > 0) {
 				try {
-					close();
+					disconnect();
 				} catch (Exception e) {
 					log.error("Error closing socket", e);
 				}
@@ -238,7 +282,7 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 					String symbol = s.trim().toUpperCase();
 					long now = System.currentTimeMillis();
 					symbols.put(symbol, now);
-					clients.forEach(c -> c.processCandle(symbol, tick, false));
+					tickPipeline.publish(symbol, tick);
 				}
 
 				@Override
@@ -264,13 +308,39 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 
 	private void retryRunWebsocket() {
 		try {
-			close();
+			disconnect();
 		} finally {
 			retryCount.incrementAndGet();
 			runLiveStream();
 		}
 	}
 
+	private void processTick(String symbol, T tick) {
+		for (int i = 0; i < clients.size(); i++) {
+			clients.get(i).processCandle(symbol, tick, false);
+		}
+	}
+
+	/**
+	 * Returns the pipeline that processes the ticks received from the exchange, which can be used to monitor
+	 * how many ticks are waiting to be processed and for how long.
+	 *
+	 * @return the tick pipeline of this trader, or {@code null} if it has not started yet.
+	 */
+	public TickPipeline<T> tickPipeline() {
+		return tickPipeline;
+	}
+
+	/**
+	 * Returns the latencies of the live ticks processed so far, per symbol, if enabled with
+	 * {@link Configuration#latencyTracing(boolean)}.
+	 *
+	 * @return the latency percentiles of each stage of the processing of live ticks, per symbol.
+	 */
+	public Map<String, Map<LatencyTracer.Span, LatencyTracer.SpanLatency>> latencySnapshot() {
+		return LatencyTracer.snapshot();
+	}
+
 	public Exchange<?,?> exchange(){
 		return exchange;
 	}
@@ -278,6 +348,24 @@ public abstract class LiveTrader<T, C extends Configuration<C, A>, A extends Acc
 	@Override
 	public void close() {
 		try {
+			if (tickPipeline != null) {
+				// process the ticks received so far before their candles are flushed to the database.
+				tickPipeline.close();
+			}
+			disconnect();
+		} finally {
+			clients.forEach(Client::close);
+		}
+	}
+
+	/**
+	 * Closes the live stream, e.g. to reconnect, keeping the clients active.
+	 */
+	private void disconnect() {
+		try {
+			if (candleRepository != null) {
+				candleRepository.flush();
+			}
 			if (exchange != null) {
 				try {
 					exchange.closeLiveStream();
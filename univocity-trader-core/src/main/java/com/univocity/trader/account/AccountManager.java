@@ -18,7 +18,7 @@ import java.util.stream.*;
 import static com.univocity.trader.account.Order.Status.*;
 import static com.univocity.trader.indicators.base.TimeInterval.*;
 
-public class AccountManager implements ClientAccount {
+public class AccountManager implements ClientAccount, Stateful {
 	private static final Logger log = LoggerFactory.getLogger(AccountManager.class);
 	private static final AtomicLong NULL = new AtomicLong(0);
 	private final AtomicLong tradeIdGenerator = new AtomicLong(0);
@@ -30,10 +30,14 @@ public class AccountManager implements ClientAccount {
 	private static final long BALANCE_EXPIRATION_TIME = minutes(10).ms;
 	private static final long FREQUENT_BALANCE_UPDATE_INTERVAL = seconds(15).ms;
 
+	private static final int BALANCE_LOCK_STRIPES = 32;
+
 	private long lastBalanceSync = 0L;
 	final ConcurrentHashMap<String, Balance> balances = new ConcurrentHashMap<>();
-	Balance[] balancesArray;
-	private final Lock balanceLock;
+	private final AtomicInteger balancesVersion = new AtomicInteger(0);
+	private volatile CachedBalances balancesArray;
+	private final Lock[] balanceLocks;
+	private final Lock balanceSyncLock;
 
 	final Client client;
 	private final ClientAccount account;
@@ -44,6 +48,7 @@ public class AccountManager implements ClientAccount {
 	final Map<String, double[]> latestPrices = new HashMap<>();
 	private static final double[] DEFAULT = new double[]{-1.0};
 	Map<String, TradingManager[]> tradingManagers;
+	private final OrderMonitor orderMonitor;
 
 	public AccountManager(ClientAccount account, AccountConfiguration<?> configuration) {
 		if (StringUtils.isBlank(configuration.referenceCurrency())) {
@@ -60,8 +65,18 @@ public class AccountManager implements ClientAccount {
 		this.marginReserveFactorPct = marginReserveFactor;
 
 		this.client = new Client(this);
+		this.orderMonitor = new OrderMonitor(this, configuration.id());
 
-		this.balanceLock = account.isSimulated() ? new FakeLock() : new ReentrantLock();
+		if (account.isSimulated()) {
+			this.balanceLocks = new Lock[]{new FakeLock()};
+			this.balanceSyncLock = balanceLocks[0];
+		} else {
+			this.balanceLocks = new Lock[BALANCE_LOCK_STRIPES];
+			for (int i = 0; i < balanceLocks.length; i++) {
+				balanceLocks[i] = new ReentrantLock();
+			}
+			this.balanceSyncLock = new ReentrantLock();
+		}
 
 		if (account.marginReservePercentage() < 100) {
 			throw new IllegalStateException("Margin reserve percentage must be at least 100%");
@@ -98,39 +113,92 @@ public class AccountManager implements ClientAccount {
 		if (out == null) {
 			out = new Balance(this, symbol);
 			balances.put(symbol, out);
-			balancesArray = null;
+			balancesChanged();
 		}
 		return out;
 	}
 
+	/**
+	 * Invalidates the array of balances used by {@link #getTotalFundsIn(String)}. Must be called whenever
+	 * balances are added to or removed from the {@link #balances} map.
+	 */
+	final void balancesChanged() {
+		balancesVersion.incrementAndGet();
+	}
+
+	private Balance[] getBalancesArray() {
+		CachedBalances cached = balancesArray;
+		int version = balancesVersion.get();
+		if (cached == null || cached.version != version) {
+			cached = new CachedBalances(version, balances.values().toArray(new Balance[0]));
+			balancesArray = cached;
+		}
+		return cached.balances;
+	}
+
+	private static final class CachedBalances {
+		final int version;
+		final Balance[] balances;
+
+		CachedBalances(int version, Balance[] balances) {
+			this.version = version;
+			this.balances = balances;
+		}
+	}
+
+	/**
+	 * Returns the lock that guards the {@link Balance} of the given symbol. Balances of different symbols are
+	 * guarded by different locks (striped by the hash of the symbol), so threads trading different symbols don't
+	 * contend with each other.
+	 */
+	private Lock balanceLock(String symbol) {
+		int h = symbol.hashCode();
+		return balanceLocks[(h ^ (h >>> 16)) & (balanceLocks.length - 1)];
+	}
+
+	private void lockAllBalances() {
+		for (int i = 0; i < balanceLocks.length; i++) {
+			balanceLocks[i].lock();
+		}
+	}
+
+	private void unlockAllBalances() {
+		for (int i = balanceLocks.length - 1; i >= 0; i--) {
+			balanceLocks[i].unlock();
+		}
+	}
+
 	public final void consumeBalance(String symbol, Consumer<Balance> consumer) {
 		modifyBalance(symbol, consumer);
 	}
 
 	public final void modifyBalance(String symbol, Consumer<Balance> consumer) {
-		balanceLock.lock();
+		Lock lock = balanceLock(symbol);
+		lock.lock();
 		try {
 			consumer.accept(getBalance(symbol));
 		} finally {
-			balanceLock.unlock();
+			lock.unlock();
 		}
 	}
 
 	public final <T> T queryBalance(String symbol, Function<Balance, T> function) {
-		balanceLock.lock();
+		Lock lock = balanceLock(symbol);
+		lock.lock();
 		try {
 			return function.apply(getBalance(symbol));
 		} finally {
-			balanceLock.unlock();
+			lock.unlock();
 		}
 	}
 
 	public final double getBalance(String symbol, ToDoubleFunction<Balance> function) {
-		balanceLock.lock();
+		Lock lock = balanceLock(symbol);
+		lock.lock();
 		try {
 			return function.applyAsDouble(getBalance(symbol));
 		} finally {
-			balanceLock.unlock();
+			lock.unlock();
 		}
 	}
 
@@ -189,43 +257,48 @@ public class AccountManager implements ClientAccount {
 	}
 
 	public double getTotalFundsIn(String currency) {
-		final Balance[] tmp;
-		balanceLock.lock();
+		final Balance[] tmp = getBalancesArray();
 		double total = 0.0;
-		try {
-			if (balancesArray == null) {
-				tmp = balancesArray = balances.values().toArray(new Balance[0]);
-			} else {
-				tmp = balancesArray;
+		for (int i = 0; i < tmp.length; i++) {
+			Balance b = tmp[i];
+			String symbol = b.getSymbol();
+			double quantity;
+			String[] shortedAssetSymbols;
+
+			Lock lock = balanceLock(symbol);
+			lock.lock();
+			try {
+				quantity = b.getTotal();
+				shortedAssetSymbols = b.getShortedAssetSymbols();
+			} finally {
+				lock.unlock();
 			}
-			for (int i = 0; i < tmp.length; i++) {
-				Balance b = tmp[i];
-				String symbol = b.getSymbol();
-				double quantity = b.getTotal();
-
-				String[] shortedAssetSymbols = b.getShortedAssetSymbols();
-				for (int j = 0; j < shortedAssetSymbols.length; j++) {
-					String shorted = shortedAssetSymbols[j];
-					double reserve = b.getMarginReserve(shorted);
-					double marginWithoutReserve = reserve / marginReserveFactorPct;
-					double accountBalanceForMargin = reserve - marginWithoutReserve;
-					double shortedQuantity = getBalance(shorted, Balance::getShorted);
-					double originalShortedPrice = marginWithoutReserve / shortedQuantity;
-					double totalInvestmentOnShort = shortedQuantity * originalShortedPrice;
-					double totalAtCurrentPrice = multiplyWithLatestPrice(shortedQuantity, shorted, symbol);
-					double shortProfitLoss = totalInvestmentOnShort - totalAtCurrentPrice;
-
-					total += accountBalanceForMargin + shortProfitLoss;
-				}
 
-				if (currency.equals(symbol)) {
-					total += quantity;
-				} else {
-					total += multiplyWithLatestPrice(quantity, symbol, currency);
+			for (int j = 0; j < shortedAssetSymbols.length; j++) {
+				String shorted = shortedAssetSymbols[j];
+				double reserve;
+				lock.lock();
+				try {
+					reserve = b.getMarginReserve(shorted);
+				} finally {
+					lock.unlock();
 				}
+				double marginWithoutReserve = reserve / marginReserveFactorPct;
+				double accountBalanceForMargin = reserve - marginWithoutReserve;
+				double shortedQuantity = getBalance(shorted, Balance::getShorted);
+				double originalShortedPrice = marginWithoutReserve / shortedQuantity;
+				double totalInvestmentOnShort = shortedQuantity * originalShortedPrice;
+				double totalAtCurrentPrice = multiplyWithLatestPrice(shortedQuantity, shorted, symbol);
+				double shortProfitLoss = totalInvestmentOnShort - totalAtCurrentPrice;
+
+				total += accountBalanceForMargin + shortProfitLoss;
+			}
+
+			if (currency.equals(symbol)) {
+				total += quantity;
+			} else {
+				total += multiplyWithLatestPrice(quantity, symbol, currency);
 			}
-		} finally {
-			balanceLock.unlock();
 		}
 		return total;
 	}
@@ -264,16 +337,21 @@ public class AccountManager implements ClientAccount {
 	}
 
 	void executeUpdateBalances() {
-		if (balanceLock.tryLock()) {
+		if (balanceSyncLock.tryLock()) {
 			try {
 				Map<String, Balance> updatedBalances = account.updateBalances(true);
 				if (updatedBalances != null && updatedBalances != balances && !updatedBalances.isEmpty()) {
 					log.trace("Balances updated - available: " + new TreeMap<>(updatedBalances).values());
 					updatedBalances.keySet().retainAll(configuration.symbols());
 
-					this.balances.clear();
-					this.balances.putAll(updatedBalances);
-					this.balancesArray = null;
+					lockAllBalances();
+					try {
+						this.balances.clear();
+						this.balances.putAll(updatedBalances);
+						balancesChanged();
+					} finally {
+						unlockAllBalances();
+					}
 
 
 					updatedBalances.values().removeIf(b -> b.getTotal() == 0);
@@ -281,7 +359,7 @@ public class AccountManager implements ClientAccount {
 				}
 				lastBalanceSync = System.currentTimeMillis();
 			} finally {
-				balanceLock.unlock();
+				balanceSyncLock.unlock();
 			}
 		}
 	}
@@ -314,6 +392,7 @@ public class AccountManager implements ClientAccount {
 			}
 
 			Order order = account.executeOrder(orderDetails);
+			LatencyTracer.stamp(LatencyTracer.Stage.ORDER_SUBMITTED);
 			if (order != null && order.getStatus() == CANCELLED) {
 				TradingManager.logOrderStatus("Could not create order. ", order);
 				return null;
@@ -338,6 +417,22 @@ public class AccountManager implements ClientAccount {
 		return account.updateOrderStatus(order);
 	}
 
+	@Override
+	public List<Order> updateOrderStatus(String symbol, List<Order> orders) {
+		return account.updateOrderStatus(symbol, orders);
+	}
+
+	OrderMonitor getOrderMonitor() {
+		return orderMonitor;
+	}
+
+	/**
+	 * Stops polling the exchange for updates of pending orders.
+	 */
+	void shutdown() {
+		orderMonitor.shutdown();
+	}
+
 	@Override
 	public void cancel(Order order) {
 		account.cancel(order);
@@ -365,15 +460,69 @@ public class AccountManager implements ClientAccount {
 		return tradeIdGenerator;
 	}
 
+	/**
+	 * Writes the balances of this account, the latest prices of its symbols and the trade identifiers generated so
+	 * far. Trades and orders are captured along with the state of each trading engine, with
+	 * {@link com.univocity.trader.strategy.TradingEngine#captureTradingState()}.
+	 *
+	 * @param out the destination of the state
+	 */
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeLong(tradeIdGenerator.get());
+		out.writeInt(balances.size());
+		balances.forEach((symbol, balance) -> {
+			out.writeString(symbol);
+			balance.captureState(out);
+		});
+		out.writeInt(latestPrices.size());
+		latestPrices.forEach((symbol, price) -> {
+			out.writeString(symbol);
+			out.writeDoubles(price);
+		});
+		out.writeInt(balanceUpdateCounts.size());
+		balanceUpdateCounts.forEach((symbol, count) -> {
+			out.writeString(symbol);
+			out.writeLong(count.get());
+		});
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		tradeIdGenerator.set(in.readLong());
+
+		Set<String> symbols = new HashSet<>();
+		for (int i = in.readInt(); i > 0; i--) {
+			String symbol = in.readString();
+			balances.computeIfAbsent(symbol, s -> new Balance(this, s)).restoreState(in);
+			symbols.add(symbol);
+		}
+		balances.keySet().retainAll(symbols);
+
+		// arrays of latest prices are shared with the context of each trader, so they are updated in place.
+		for (int i = in.readInt(); i > 0; i--) {
+			in.readDoubles(latestPrices.computeIfAbsent(in.readString(), s -> new double[1]));
+		}
+
+		symbols.clear();
+		for (int i = in.readInt(); i > 0; i--) {
+			String symbol = in.readString();
+			balanceUpdateCounts.computeIfAbsent(symbol, s -> new AtomicLong()).set(in.readLong());
+			symbols.add(symbol);
+		}
+		balanceUpdateCounts.keySet().retainAll(symbols);
+		balancesChanged();
+	}
+
 	public Map<String, Balance> getBalanceSnapshot() {
-		balanceLock.lock();
+		lockAllBalances();
 		try {
 			return balances.entrySet()
 					.stream()
 					.collect(Collectors
 							.toMap(Map.Entry::getKey, e -> e.getValue().clone()));
 		} finally {
-			balanceLock.unlock();
+			unlockAllBalances();
 		}
 	}
 
@@ -1,5 +1,6 @@
 package com.univocity.trader.account;
 
+import com.univocity.trader.utils.*;
 import org.slf4j.*;
 
 import java.math.*;
@@ -190,4 +191,28 @@ public final class Balance implements Cloneable {
 		}
 	}
 
+	void captureState(StateWriter out) {
+		out.writeDouble(free);
+		out.writeDouble(locked);
+		out.writeDouble(shorted);
+		out.writeInt(marginReserves.size());
+		marginReserves.forEach((assetSymbol, marginReserve) -> {
+			out.writeString(assetSymbol);
+			out.writeDouble(marginReserve);
+		});
+		out.writeBoolean(tradingLocked);
+	}
+
+	// values are assigned directly: update counts are restored by the account manager.
+	void restoreState(StateReader in) {
+		free = in.readDouble();
+		locked = in.readDouble();
+		shorted = in.readDouble();
+		marginReserves.clear();
+		for (int i = in.readInt(); i > 0; i--) {
+			marginReserves.put(in.readString(), in.readDouble());
+		}
+		shortedAssetSymbols = null;
+		tradingLocked = in.readBoolean();
+	}
 }
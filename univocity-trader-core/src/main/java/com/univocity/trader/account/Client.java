@@ -89,6 +89,13 @@ public final class Client<T> {
 		}
 	}
 
+	public void warmUp(String symbol, Candle[] candles, int from, int to) {
+		CandleProcessor<T>[] processors = candleProcessors.get(symbol);
+		for (int i = 0; i < processors.length; i++) {
+			processors[i].warmUp(candles, from, to);
+		}
+	}
+
 	public void processCandle(String symbol, T candle, boolean initializing) {
 		CandleProcessor<T>[] processors = candleProcessors.get(symbol);
 		for (int i = 0; i < processors.length; i++) {
@@ -99,4 +106,11 @@ public final class Client<T> {
 	public Map<String, String[]> getAllSymbolPairs() {
 		return accountManager.getAllSymbolPairs();
 	}
+
+	/**
+	 * Stops the background activity of this client's account, such as the polling of pending orders.
+	 */
+	public void close() {
+		accountManager.shutdown();
+	}
 }
@@ -5,6 +5,7 @@ import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.*;
 import com.univocity.trader.simulation.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 public class Context {
 
@@ -98,4 +99,22 @@ public class Context {
 	public final Candle latestCandle() {
 		return latestCandle;
 	}
+
+	void captureState(StateWriter out, TradingState state) {
+		out.writeCandle(latestCandle);
+		state.writeTrade(out, trade);
+		state.writeStrategy(out, strategy);
+		out.writeEnum(signal);
+		state.writeMonitor(out, strategyMonitor);
+		out.writeString(exitReason);
+	}
+
+	void restoreState(StateReader in, TradingState state) {
+		latestCandle = in.readCandle();
+		trade = state.readTrade(in);
+		strategy = state.readStrategy(in);
+		signal = in.readEnum(Signal.class);
+		strategyMonitor = state.readMonitor(in);
+		exitReason = in.readString();
+	}
 }
@@ -1,6 +1,7 @@
 package com.univocity.trader.account;
 
 import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.utils.*;
 
 import java.util.*;
 
@@ -340,4 +341,49 @@ public class Order extends OrderRequest implements Comparable<Order> {
 		FILLED,
 		CANCELLED
 	}
+
+	void captureState(StateWriter out, TradingState state) {
+		super.captureState(out);
+		out.writeString(orderId);
+		out.writeDouble(executedQuantity);
+		out.writeEnum(status);
+		out.writeDouble(feesPaid);
+		out.writeDouble(averagePrice);
+		if (attachments == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(attachments.size());
+			for (Order attachment : attachments) {
+				state.writeOrder(out, attachment);
+			}
+		}
+		state.writeOrder(out, parent);
+		out.writeDouble(partialFillPrice);
+		out.writeDouble(partialFillQuantity);
+		state.writeTrade(out, trade);
+		out.writeBoolean(processed);
+	}
+
+	void restoreState(StateReader in, TradingState state) {
+		super.restoreState(in);
+		orderId = in.readString();
+		executedQuantity = in.readDouble();
+		status = in.readEnum(Status.class);
+		feesPaid = in.readDouble();
+		averagePrice = in.readDouble();
+		int attachmentCount = in.readInt();
+		if (attachmentCount == -1) {
+			attachments = null;
+		} else {
+			attachments = new ArrayList<>(attachmentCount);
+			for (int i = 0; i < attachmentCount; i++) {
+				attachments.add(state.readOrder(in));
+			}
+		}
+		parent = state.readOrder(in);
+		partialFillPrice = in.readDouble();
+		partialFillQuantity = in.readDouble();
+		trade = state.readTrade(in);
+		processed = in.readBoolean();
+	}
 }
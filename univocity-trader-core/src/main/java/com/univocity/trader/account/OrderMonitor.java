@@ -0,0 +1,143 @@
+package com.univocity.trader.account;
+
+import com.univocity.trader.*;
+import org.slf4j.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Polls the exchange for updates on the pending orders of an account using a single background thread. All
+ * {@link OrderTracker}s of the same symbol are polled together with one call to {@link ClientAccount#updateOrderStatus(String, List)},
+ * which lets exchanges that can list the open orders of a symbol update all of them with a single request.
+ *
+ * A symbol is polled at the shortest {@link OrderManager#getOrderUpdateFrequency()} among its trackers, and stops being
+ * polled once none of its trackers has pending orders.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class OrderMonitor {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderMonitor.class);
+
+	private final ClientAccount account;
+	private final String accountId;
+	private final Map<String, Set<OrderTracker>> trackers = new HashMap<>();
+	private ScheduledExecutorService executor;
+	private boolean shutdown;
+
+	OrderMonitor(ClientAccount account, String accountId) {
+		this.account = account;
+		this.accountId = accountId;
+	}
+
+	/**
+	 * Starts polling the pending orders of the given tracker, if its symbol is not being polled already.
+	 *
+	 * @param tracker an order tracker with pending orders.
+	 */
+	synchronized void track(OrderTracker tracker) {
+		if (shutdown) {
+			return;
+		}
+		Set<OrderTracker> set = trackers.get(tracker.getSymbol());
+		if (set == null) {
+			set = new LinkedHashSet<>();
+			set.add(tracker);
+			trackers.put(tracker.getSymbol(), set);
+			schedule(tracker.getSymbol(), set);
+		} else {
+			set.add(tracker);
+		}
+	}
+
+	private void schedule(String symbol, Set<OrderTracker> set) {
+		long delay = Long.MAX_VALUE;
+		for (OrderTracker tracker : set) {
+			delay = Math.min(delay, tracker.getOrderUpdateFrequency());
+		}
+		if (executor == null) {
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "Order monitor: " + accountId);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		executor.schedule(() -> poll(symbol), delay, TimeUnit.MILLISECONDS);
+	}
+
+	private void poll(String symbol) {
+		OrderTracker[] polled;
+		synchronized (this) {
+			if (shutdown) {
+				return;
+			}
+			Set<OrderTracker> set = trackers.get(symbol);
+			polled = set.toArray(new OrderTracker[0]);
+			// trackers that receive new orders while this poll runs are added back by track()
+			set.clear();
+		}
+
+		List<Order> orders = new ArrayList<>();
+		List<OrderTracker> owners = new ArrayList<>();
+		for (OrderTracker tracker : polled) {
+			for (Order order : tracker.getPendingOrders()) {
+				orders.add(order);
+				owners.add(tracker);
+			}
+		}
+
+		if (!orders.isEmpty()) {
+			List<Order> updates = null;
+			try {
+				updates = account.updateOrderStatus(symbol, orders);
+			} catch (Exception e) {
+				log.error("Error updating status of " + orders.size() + " pending orders of " + symbol, e);
+			}
+			if (updates != null) {
+				for (int i = 0; i < orders.size(); i++) {
+					Order update = updates.get(i);
+					if (update != null) {
+						try {
+							owners.get(i).processOrderUpdate(orders.get(i), update);
+						} catch (Exception e) {
+							log.error("Error tracking state of order " + orders.get(i), e);
+						}
+					}
+				}
+			}
+		}
+
+		List<OrderTracker> stillPending = new ArrayList<>(polled.length);
+		for (OrderTracker tracker : polled) {
+			if (tracker.hasPendingOrders()) {
+				stillPending.add(tracker);
+			}
+		}
+
+		synchronized (this) {
+			if (shutdown) {
+				return;
+			}
+			Set<OrderTracker> set = trackers.get(symbol);
+			set.addAll(stillPending);
+			if (set.isEmpty()) {
+				trackers.remove(symbol);
+			} else {
+				schedule(symbol, set);
+			}
+		}
+	}
+
+	/**
+	 * Stops polling the exchange and terminates the background thread. Orders still pending are no longer tracked.
+	 */
+	synchronized void shutdown() {
+		shutdown = true;
+		trackers.clear();
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.univocity.trader.account;
 
+import com.univocity.trader.utils.*;
 import org.apache.commons.lang3.*;
 
 import java.util.*;
@@ -231,4 +232,49 @@ public class OrderRequest {
 
 		return attachment;
 	}
+
+	void captureState(StateWriter out) {
+		out.writeBoolean(cancelled);
+		out.writeLong(time);
+		out.writeDouble(triggerPrice);
+		out.writeEnum(triggerCondition);
+		out.writeDouble(price);
+		out.writeDouble(quantity);
+		out.writeEnum(type);
+		out.writeBoolean(active);
+		if (attachedRequests == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(attachedRequests.size());
+			for (OrderRequest attachment : attachedRequests) {
+				out.writeString(attachment.assetsSymbol);
+				out.writeString(attachment.fundsSymbol);
+				out.writeEnum(attachment.side);
+				out.writeEnum(attachment.tradeSide);
+				attachment.captureState(out);
+			}
+		}
+	}
+
+	void restoreState(StateReader in) {
+		cancelled = in.readBoolean();
+		time = in.readLong();
+		triggerPrice = in.readDouble();
+		triggerCondition = in.readEnum(Order.TriggerCondition.class);
+		price = in.readDouble();
+		quantity = in.readDouble();
+		type = in.readEnum(Order.Type.class);
+		active = in.readBoolean();
+		int attachments = in.readInt();
+		if (attachments == -1) {
+			attachedRequests = null;
+		} else {
+			attachedRequests = new ArrayList<>(attachments);
+			for (int i = 0; i < attachments; i++) {
+				OrderRequest attachment = new OrderRequest(in.readString(), in.readString(), in.readEnum(Order.Side.class), in.readEnum(Trade.Side.class), 0L, null);
+				attachment.restoreState(in);
+				attachedRequests.add(attachment);
+			}
+		}
+	}
 }
@@ -1,5 +1,6 @@
 package com.univocity.trader.account;
 
+import com.univocity.trader.utils.*;
 import org.slf4j.*;
 
 import java.util.*;
@@ -34,33 +35,33 @@ public final class OrderTracker {
 		synchronized (pendingOrders) {
 			pendingOrders.addOrReplace(order);
 		}
-		if (account.isSimulated()) {
-			return;
+		if (!account.isSimulated()) {
+			account.getOrderMonitor().track(this);
 		}
-		new Thread(() -> {
-			Thread.currentThread().setName("Order " + order.getOrderId() + " monitor: " + order.getSide() + " " + order.getSymbol());
-			Order o = order;
-			Order updated;
-			while (true) {
-				try {
-					try {
-						Thread.sleep(orderManager.getOrderUpdateFrequency().ms);
-					} catch (InterruptedException e) {
-						Thread.currentThread().interrupt();
-					}
+	}
 
-					updated = account.updateOrderStatus(o);
-					processOrderUpdate(o, updated);
-					if (o.isFinalized()) {
-						return;
-					}
-					o = updated;
-				} catch (Exception e) {
-					log.error("Error tracking state of order " + o, e);
-					return;
-				}
+	String getSymbol() {
+		return tradingManager.symbol;
+	}
+
+	long getOrderUpdateFrequency() {
+		return orderManager.getOrderUpdateFrequency().ms;
+	}
+
+	List<Order> getPendingOrders() {
+		synchronized (pendingOrders) {
+			List<Order> out = new ArrayList<>(pendingOrders.i);
+			for (int i = 0; i < pendingOrders.i; i++) {
+				out.add(pendingOrders.elements[i]);
 			}
-		}).start();
+			return out;
+		}
+	}
+
+	boolean hasPendingOrders() {
+		synchronized (pendingOrders) {
+			return !pendingOrders.isEmpty();
+		}
 	}
 
 	public boolean waitingForFill(String assetSymbol, Order.Side side, Trade.Side tradeSide) {
@@ -181,7 +182,7 @@ public final class OrderTracker {
 		}
 	}
 
-	private void processOrderUpdate(Order order, Order update) {
+	void processOrderUpdate(Order order, Order update) {
 		if (update.isFinalized()) {
 			logOrderStatus("Order finalized. ", update);
 			orderFinalized(update);
@@ -302,4 +303,22 @@ public final class OrderTracker {
 
 		return latestUpdate == null ? order : latestUpdate;
 	}
+
+	void captureState(StateWriter out, TradingState state) {
+		synchronized (pendingOrders) {
+			state.writeOrders(out, pendingOrders);
+		}
+		synchronized (finalizedOrders) {
+			state.writeOrders(out, finalizedOrders);
+		}
+	}
+
+	void restoreState(StateReader in, TradingState state) {
+		synchronized (pendingOrders) {
+			state.readOrders(in, pendingOrders);
+		}
+		synchronized (finalizedOrders) {
+			state.readOrders(in, finalizedOrders);
+		}
+	}
 }
@@ -3,6 +3,7 @@ package com.univocity.trader.account;
 import com.univocity.trader.*;
 import com.univocity.trader.config.*;
 import com.univocity.trader.simulation.*;
+import com.univocity.trader.utils.*;
 
 import java.util.concurrent.*;
 
@@ -119,15 +120,27 @@ public class SimulatedAccountManager extends AccountManager implements Simulated
 		}
 		if (configuration.isSymbolSupported(symbol)) {
 			balances.put(symbol, new Balance(this, symbol, amount));
-			this.balancesArray = null;
+			balancesChanged();
 			return this;
 		}
 		throw configuration.reportUnknownSymbol("Can't set funds", symbol);
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		account.captureState(out);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		account.restoreState(in);
+	}
+
 	public SimulatedAccountConfiguration resetBalances() {
 		this.balances.clear();
-		this.balancesArray = null;
+		balancesChanged();
 
 		latestPrices.clear();
 		if (tradingManagers != null) {
@@ -150,6 +163,7 @@ public class SimulatedAccountManager extends AccountManager implements Simulated
 		forEachTradingManager(t -> t.orderTracker.cancelAllOrders());
 		forEachTradingManager(t -> t.orderTracker.updateOpenOrders());
 		balances.clear();
+		balancesChanged();
 		forEachTradingManager(t -> t.orderTracker.clear());
 	}
 
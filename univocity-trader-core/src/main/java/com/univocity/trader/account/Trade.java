@@ -5,6 +5,7 @@ import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.simulation.orderfill.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 import org.slf4j.*;
 
 import java.util.*;
@@ -90,6 +91,15 @@ public final class Trade implements Comparable<Trade> {
 		finalized = false;
 	}
 
+	// restores a trade captured by TradingState, which then populates its remaining fields with restoreState.
+	Trade(long id, Trader trader, Trade.Side side, boolean isPlaceholder) {
+		this.id = id;
+		this.trader = trader;
+		this.monitors = isPlaceholder ? new StrategyMonitor[0] : trader.monitors();
+		this.side = side;
+		this.isPlaceholder = isPlaceholder;
+	}
+
 	static Trade createPlaceholder(long id, Trader trader, Trade.Side side) {
 		return new Trade(id, trader, side, null, new StrategyMonitor[0], true);
 	}
@@ -170,9 +180,17 @@ public final class Trade implements Comparable<Trade> {
 			}
 		}
 		if (!stopped) {
+			LatencyHistogram[] stopTimers = monitors == trader.monitors() ? trader.stopTimers : null;
 			for (int i = 0; i < monitors.length; i++) {
 				trader.context.strategyMonitor = monitors[i];
-				String exit = monitors[i].handleStop(this);
+				String exit;
+				if (stopTimers == null) {
+					exit = monitors[i].handleStop(this);
+				} else {
+					long start = System.nanoTime();
+					exit = monitors[i].handleStop(this);
+					stopTimers[i].record(System.nanoTime() - start);
+				}
 				if (exit != null) {
 					stopped = true;
 					return exitReason = exit;
@@ -761,4 +779,48 @@ public final class Trade implements Comparable<Trade> {
 	public boolean isPlaceHolder() {
 		return isPlaceholder;
 	}
+
+	void captureState(StateWriter out, TradingState state) {
+		out.writeString(exitReason);
+		out.writeDouble(averagePrice);
+		state.writeOrders(out, position);
+		state.writeOrders(out, exitOrders);
+		out.writeDouble(totalSpent);
+		out.writeDouble(totalUnits);
+		out.writeInt(ticks);
+		out.writeDouble(max);
+		out.writeDouble(min);
+		out.writeDouble(minChange);
+		out.writeDouble(maxChange);
+		out.writeDouble(change);
+		out.writeCandle(firstCandle);
+		state.writeStrategy(out, openingStrategy);
+		out.writeBoolean(stopped);
+		out.writeDouble(finalizedQuantity);
+		out.writeDouble(actualProfitLoss);
+		out.writeDouble(actualProfitLossPct);
+		out.writeBoolean(finalized);
+	}
+
+	void restoreState(StateReader in, TradingState state) {
+		exitReason = in.readString();
+		averagePrice = in.readDouble();
+		state.readOrders(in, position);
+		state.readOrders(in, exitOrders);
+		totalSpent = in.readDouble();
+		totalUnits = in.readDouble();
+		ticks = in.readInt();
+		max = in.readDouble();
+		min = in.readDouble();
+		minChange = in.readDouble();
+		maxChange = in.readDouble();
+		change = in.readDouble();
+		firstCandle = in.readCandle();
+		openingStrategy = state.readStrategy(in);
+		stopped = in.readBoolean();
+		finalizedQuantity = in.readDouble();
+		actualProfitLoss = in.readDouble();
+		actualProfitLossPct = in.readDouble();
+		finalized = in.readBoolean();
+	}
 }
@@ -7,6 +7,7 @@ import com.univocity.trader.indicators.*;
 import com.univocity.trader.notification.*;
 import com.univocity.trader.simulation.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 import org.slf4j.*;
 
 import java.util.*;
@@ -42,6 +43,8 @@ public final class Trader {
 	private final AtomicLong id;
 	boolean liquidating = false;
 	public final Context context;
+	// histograms of StrategyMonitor.handleStop for each monitor, only present when instrumentation is enabled.
+	final LatencyHistogram[] stopTimers;
 
 	Trader(TradingManager tradingManager, StrategyMonitor[] strategyMonitors) {
 		this.id = tradingManager.getAccount().getTradeIdGenerator();
@@ -66,6 +69,15 @@ public final class Trader {
 		}
 		this.allowMixedStrategies = allowMixedStrategies;
 		this.accountManager = tradingManager.getAccount();
+
+		if (Instrumentation.enabled()) {
+			stopTimers = new LatencyHistogram[monitors.length];
+			for (int i = 0; i < monitors.length; i++) {
+				stopTimers[i] = Instrumentation.histogram("StrategyMonitor.handleStop", monitors[i].getClass(), tradingManager.getSymbol());
+			}
+		} else {
+			stopTimers = null;
+		}
 	}
 
 	/**
@@ -820,4 +832,30 @@ public final class Trader {
 
 		return pipSize;
 	}
+
+	void captureState(StateWriter out, TradingState state) {
+		out.writeInt(trades.i);
+		for (int i = 0; i < trades.i; i++) {
+			state.writeTrade(out, trades.elements[i]);
+		}
+		out.writeInt(stoppedOut.size());
+		for (Trade trade : stoppedOut) {
+			state.writeTrade(out, trade);
+		}
+		out.writeInt(pipSize);
+		out.writeBoolean(liquidating);
+	}
+
+	void restoreState(StateReader in, TradingState state) {
+		trades.clear();
+		for (int i = in.readInt(); i > 0; i--) {
+			trades.addOrReplace(state.readTrade(in));
+		}
+		stoppedOut.clear();
+		for (int i = in.readInt(); i > 0; i--) {
+			stoppedOut.add(state.readTrade(in));
+		}
+		pipSize = in.readInt();
+		liquidating = in.readBoolean();
+	}
 }
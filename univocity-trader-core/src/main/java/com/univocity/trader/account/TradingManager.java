@@ -45,6 +45,8 @@ public final class TradingManager {
 
 	final Context context;
 
+	private final IndicatorRegistry indicatorRegistry;
+
 	TradingManager(AbstractTradingGroup<?> configuration, Exchange exchange, SymbolPriceDetails priceDetails, AccountManager account, String assetSymbol, String fundSymbol, Parameters params, Set<Object> allInstances) {
 		if (exchange == null) {
 			throw new IllegalArgumentException("Exchange implementation cannot be null");
@@ -79,7 +81,8 @@ public final class TradingManager {
 		this.orderManager = configuration.orderManager(symbol);
 		this.context = new Context(this, params);
 
-		StrategyMonitor[] monitors = createStrategyMonitors(allInstances, params);
+		this.indicatorRegistry = configuration.shareIndicators() ? new IndicatorRegistry() : null;
+		StrategyMonitor[] monitors = indicatorRegistry == null ? createStrategyMonitors(allInstances, params) : indicatorRegistry.bind(() -> createStrategyMonitors(allInstances, params));
 
 		this.trader = new Trader(this, monitors);
 		this.orderTracker = new OrderTracker(this);
@@ -96,6 +99,16 @@ public final class TradingManager {
 	}
 
 
+	/**
+	 * Returns the registry used to share identical indicators among the {@link StrategyMonitor}s and {@link Strategy}s
+	 * created for this symbol. Cleared once the {@link TradingEngine} of this symbol is created.
+	 *
+	 * @return the indicator registry of this symbol, or {@code null} if indicators are not shared.
+	 */
+	public IndicatorRegistry getIndicatorRegistry() {
+		return indicatorRegistry;
+	}
+
 	public SymbolPriceDetails getPriceDetails() {
 		return priceDetails;
 	}
@@ -226,6 +239,18 @@ public final class TradingManager {
 		return this.trader;
 	}
 
+	/**
+	 * Returns the open trades, pending orders and trading context of this trading manager, so they can be captured
+	 * and restored along with the state of its engine.
+	 *
+	 * @param strategies the strategies of the engine, which trades and the trading context may refer to.
+	 *
+	 * @return the trading state of this trading manager, to be used in a single capture or restore.
+	 */
+	public Stateful getTradingState(Strategy[] strategies) {
+		return new TradingState(this, strategies);
+	}
+
 	public boolean isBuyLocked() {
 		return isBuyLocked(assetSymbol);
 	}
@@ -328,6 +353,7 @@ public final class TradingManager {
 
 
 		orderManager.prepareOrder(book, orderPreparation, context);
+		LatencyTracer.stamp(LatencyTracer.Stage.ORDER_PREPARED);
 		SymbolPriceDetails priceDetails = context.priceDetails();
 		if (!orderPreparation.isCancelled() && orderPreparation.getTotalOrderAmount() > (priceDetails.getMinimumOrderAmount(orderPreparation.getPrice()))) {
 			orderPreparation.setPrice(orderPreparation.getPrice());
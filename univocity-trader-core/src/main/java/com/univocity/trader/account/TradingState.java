@@ -0,0 +1,216 @@
+package com.univocity.trader.account;
+
+import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
+
+import java.util.*;
+
+/**
+ * The open trades, pending orders and trading context of a {@link TradingManager}, captured along with the state of
+ * its {@link TradingEngine} so a simulation can continue later from the same point.
+ *
+ * Trades and orders refer to each other, so each one is written the first time it is referenced: its identification
+ * (id, symbols and sides) is written in place and its remaining fields after all other state. A restored trade or
+ * order is created from its identification when first read and populated afterwards. Strategies and monitors are
+ * written as their position in the engine, which must have been built with the same configuration.
+ *
+ * An instance must be used for a single capture or restore.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class TradingState implements Stateful {
+
+	private final TradingManager tradingManager;
+	private final Strategy[] strategies;
+
+	private final Map<Trade, Integer> tradeIds = new IdentityHashMap<>();
+	private final Map<Order, Integer> orderIds = new IdentityHashMap<>();
+	private final List<Trade> trades = new ArrayList<>();
+	private final List<Order> orders = new ArrayList<>();
+
+	TradingState(TradingManager tradingManager, Strategy[] strategies) {
+		this.tradingManager = tradingManager;
+		this.strategies = strategies;
+	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		Trader trader = tradingManager.trader;
+		trader.captureState(out, this);
+		trader.context.captureState(out, this);
+		tradingManager.orderTracker.captureState(out, this);
+
+		Map<Integer, long[]> fundAllocations = tradingManager.fundAllocationCache;
+		out.writeInt(fundAllocations.size());
+		fundAllocations.forEach((hash, cached) -> {
+			out.writeInt(hash);
+			out.writeLongs(cached);
+		});
+
+		int t = 0;
+		int o = 0;
+		while (t < trades.size() || o < orders.size()) {
+			while (t < trades.size()) {
+				trades.get(t++).captureState(out, this);
+			}
+			while (o < orders.size()) {
+				orders.get(o++).captureState(out, this);
+			}
+		}
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		Trader trader = tradingManager.trader;
+		trader.restoreState(in, this);
+		trader.context.restoreState(in, this);
+		tradingManager.orderTracker.restoreState(in, this);
+
+		Map<Integer, long[]> fundAllocations = tradingManager.fundAllocationCache;
+		fundAllocations.clear();
+		for (int i = in.readInt(); i > 0; i--) {
+			int hash = in.readInt();
+			long[] cached = new long[3];
+			in.readLongs(cached);
+			fundAllocations.put(hash, cached);
+		}
+
+		int t = 0;
+		int o = 0;
+		while (t < trades.size() || o < orders.size()) {
+			while (t < trades.size()) {
+				trades.get(t++).restoreState(in, this);
+			}
+			while (o < orders.size()) {
+				orders.get(o++).restoreState(in, this);
+			}
+		}
+	}
+
+	void writeTrade(StateWriter out, Trade trade) {
+		if (trade == null) {
+			out.writeInt(-1);
+			return;
+		}
+		Integer id = tradeIds.get(trade);
+		if (id != null) {
+			out.writeInt(id);
+			return;
+		}
+		out.writeInt(trades.size());
+		tradeIds.put(trade, trades.size());
+		trades.add(trade);
+
+		out.writeLong(trade.id());
+		out.writeEnum(trade.getSide());
+		out.writeBoolean(trade.isPlaceholder);
+	}
+
+	Trade readTrade(StateReader in) {
+		int id = readId(in, trades.size());
+		if (id == -1) {
+			return null;
+		}
+		if (id < trades.size()) {
+			return trades.get(id);
+		}
+		Trade trade = new Trade(in.readLong(), tradingManager.trader, in.readEnum(Trade.Side.class), in.readBoolean());
+		trades.add(trade);
+		return trade;
+	}
+
+	void writeOrder(StateWriter out, Order order) {
+		if (order == null) {
+			out.writeInt(-1);
+			return;
+		}
+		Integer id = orderIds.get(order);
+		if (id != null) {
+			out.writeInt(id);
+			return;
+		}
+		out.writeInt(orders.size());
+		orderIds.put(order, orders.size());
+		orders.add(order);
+
+		out.writeLong(order.getInternalId());
+		out.writeString(order.getAssetsSymbol());
+		out.writeString(order.getFundsSymbol());
+		out.writeEnum(order.getSide());
+		out.writeEnum(order.getTradeSide());
+		out.writeLong(order.getTime());
+	}
+
+	Order readOrder(StateReader in) {
+		int id = readId(in, orders.size());
+		if (id == -1) {
+			return null;
+		}
+		if (id < orders.size()) {
+			return orders.get(id);
+		}
+		Order order = new Order(in.readLong(), in.readString(), in.readString(), in.readEnum(Order.Side.class), in.readEnum(Trade.Side.class), in.readLong());
+		orders.add(order);
+		return order;
+	}
+
+	private static int readId(StateReader in, int count) {
+		int id = in.readInt();
+		if (id < -1 || id > count) {
+			throw new IllegalStateException("Invalid reference in snapshot: " + id);
+		}
+		return id;
+	}
+
+	void writeStrategy(StateWriter out, Strategy strategy) {
+		out.writeInt(indexOf(strategies, strategy));
+	}
+
+	Strategy readStrategy(StateReader in) {
+		return elementAt(strategies, in.readInt());
+	}
+
+	void writeMonitor(StateWriter out, StrategyMonitor monitor) {
+		out.writeInt(indexOf(tradingManager.trader.monitors(), monitor));
+	}
+
+	StrategyMonitor readMonitor(StateReader in) {
+		return elementAt(tradingManager.trader.monitors(), in.readInt());
+	}
+
+	private static int indexOf(Object[] elements, Object element) {
+		if (element == null) {
+			return -1;
+		}
+		for (int i = 0; i < elements.length; i++) {
+			if (elements[i] == element) {
+				return i;
+			}
+		}
+		throw new UnsupportedOperationException("Can't capture reference to " + element.getClass().getName() + ", which is not part of the trading engine");
+	}
+
+	private static <T> T elementAt(T[] elements, int index) {
+		if (index == -1) {
+			return null;
+		}
+		if (index < 0 || index >= elements.length) {
+			throw new IllegalStateException("Invalid reference in snapshot: " + index);
+		}
+		return elements[index];
+	}
+
+	void writeOrders(StateWriter out, OrderSet orders) {
+		out.writeInt(orders.i);
+		for (int i = 0; i < orders.i; i++) {
+			writeOrder(out, orders.elements[i]);
+		}
+	}
+
+	void readOrders(StateReader in, OrderSet orders) {
+		orders.clear();
+		for (int i = in.readInt(); i > 0; i--) {
+			orders.addOrReplace(readOrder(in));
+		}
+	}
+}
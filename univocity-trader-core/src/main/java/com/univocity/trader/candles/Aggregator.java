@@ -1,6 +1,7 @@
 package com.univocity.trader.candles;
 
 import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.utils.*;
 
 import java.lang.ref.*;
 import java.util.*;
@@ -8,10 +9,11 @@ import java.util.concurrent.*;
 
 import static com.univocity.trader.indicators.base.TimeInterval.*;
 
-public final class Aggregator {
+public final class Aggregator implements Stateful {
 
 	protected final Map<Long, SoftReference<Aggregator>> allInstances;
 	protected final String description;
+	private final TimeInterval interval;
 
 	protected final long ms;
 	protected final long minutes;
@@ -19,15 +21,35 @@ public final class Aggregator {
 	protected Candle full;
 	protected Candle partial;
 
+	protected final boolean reuseCandles;
+	private final Candle[] slots;
+	private int slot;
+
 	public Aggregator(String description) {
-		this(new ConcurrentHashMap<>(), description, TimeInterval.millis(0));
+		this(description, false);
+	}
+
+	/**
+	 * Creates a root aggregator, from which aggregators of each {@link TimeInterval} are obtained via {@link #getInstance(TimeInterval)}.
+	 *
+	 * @param description  a description of the aggregator, for logging purposes.
+	 * @param reuseCandles flag indicating whether the candles of each interval should be aggregated in place on two preallocated
+	 *                     candles that are used alternately, instead of allocating a new candle for every period. When enabled, a
+	 *                     candle returned by {@link #getFull()} remains unchanged only until the next full candle is produced,
+	 *                     so indicators must not keep references to candles older than that.
+	 */
+	public Aggregator(String description, boolean reuseCandles) {
+		this(new ConcurrentHashMap<>(), description, TimeInterval.millis(0), reuseCandles);
 	}
 
-	protected Aggregator(Map<Long, SoftReference<Aggregator>> allInstances, String description, TimeInterval time) {
+	protected Aggregator(Map<Long, SoftReference<Aggregator>> allInstances, String description, TimeInterval time, boolean reuseCandles) {
+		this.reuseCandles = reuseCandles;
+		this.slots = reuseCandles ? new Candle[]{newSlot(), newSlot()} : null;
 		this.minutes = time.ms / MINUTE.ms;
 		this.ms = time.ms % MINUTE.ms;
 		this.allInstances = allInstances;
 		this.description = description + "-" + time;
+		this.interval = time;
 		if (time.ms > 0) {
 			if (!allInstances.containsKey(time.ms)) {
 				allInstances.put(time.ms, new SoftReference<>(this));
@@ -38,7 +60,7 @@ public final class Aggregator {
 	public Aggregator getInstance(TimeInterval time) {
 		SoftReference<Aggregator> instance = allInstances.get(time.ms);
 		if (instance == null) {
-			return new Aggregator(allInstances, description, time);
+			return new Aggregator(allInstances, description, time, reuseCandles);
 		}
 		return instance.get();
 	}
@@ -57,18 +79,18 @@ public final class Aggregator {
 
 		long elapsed = (candle.closeTime - partial.openTime) / (MINUTE.ms - 1L);
 		if (elapsed < minutes) {
-			partial = partial.merge(candle);
+			partial = merge(candle);
 		} else if (elapsed == minutes) {
 			if (ms > 1L) {
 				elapsed = candle.closeTime - partial.openTime;
 				if (elapsed < ms) {
-					partial = partial.merge(candle);
+					partial = merge(candle);
 				} else {
-					full = partial.merge(candle);
+					full = merge(candle);
 					partial = null;
 				}
 			} else {
-				full = partial.merge(candle);
+				full = merge(candle);
 				partial = null;
 			}
 		} else {
@@ -77,6 +99,25 @@ public final class Aggregator {
 		}
 	}
 
+	private static Candle newSlot() {
+		return new Candle(0L, 0L, 0.0, 0.0, 0.0, 0.0, 0.0, true);
+	}
+
+	private Candle merge(Candle candle) {
+		if (slots == null) {
+			return partial.merge(candle);
+		}
+		if (partial == candle) {
+			return candle;
+		}
+		if (partial != slots[slot]) {
+			// new period: aggregate into the slot that is not holding the latest full candle.
+			slot ^= 1;
+			slots[slot].copyFrom(partial);
+		}
+		return slots[slot].merge(candle);
+	}
+
 	public void setFull(Candle candle){
 		this.full = full;
 	}
@@ -89,6 +130,61 @@ public final class Aggregator {
 		return partial;
 	}
 
+	/**
+	 * Returns the time frame of the candles produced by this aggregator.
+	 *
+	 * @return the interval of each aggregated candle, or an interval of {@code 0} for the root aggregator.
+	 */
+	public TimeInterval getInterval() {
+		return interval;
+	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeLong(interval.ms);
+		out.writeBoolean(reuseCandles);
+		if (reuseCandles) {
+			out.writeCandle(slots[0]);
+			out.writeCandle(slots[1]);
+			out.writeInt(slot);
+		}
+		writeCandle(out, full);
+		writeCandle(out, partial);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		long ms = in.readLong();
+		boolean reuseCandles = in.readBoolean();
+		if (ms != interval.ms || reuseCandles != this.reuseCandles) {
+			throw new IllegalStateException("Can't restore state of aggregator of " + TimeInterval.millis(ms) + " into " + this);
+		}
+		if (reuseCandles) {
+			slots[0].copyFrom(in.readCandle());
+			slots[1].copyFrom(in.readCandle());
+			slot = in.readInt();
+		}
+		full = readCandle(in);
+		partial = readCandle(in);
+	}
+
+	// candles being aggregated in place are identified by their slot, so they continue to be reused once restored.
+	private void writeCandle(StateWriter out, Candle candle) {
+		int index = slots == null || candle == null ? -1 : candle == slots[0] ? 0 : candle == slots[1] ? 1 : -1;
+		out.writeInt(index);
+		if (index == -1) {
+			out.writeCandle(candle);
+		}
+	}
+
+	private Candle readCandle(StateReader in) {
+		int index = in.readInt();
+		if (index == -1) {
+			return in.readCandle();
+		}
+		return slots[index];
+	}
+
 	public String toString() {
 		return description;
 	}
@@ -0,0 +1,146 @@
+package com.univocity.trader.candles;
+
+import com.univocity.trader.*;
+import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.utils.*;
+import org.slf4j.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Runs the {@link CandleHistoryBackfill} of multiple symbols in parallel. All symbols share a single {@link TokenBucket}
+ * that releases one request every {@link Exchange#timeToWaitPerRequest()} milliseconds, and holds as many extra requests
+ * as the {@link Exchange#historicalRequestsPerMinute()} allowance of the exchange permits, so the time spent waiting for
+ * responses and writing candles to the database overlaps across symbols without exceeding the exchange limits.
+ *
+ * Symbols whose most recent candle is the oldest (i.e. with the largest gap to fill) are processed first.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class BackfillScheduler {
+
+	private static final Logger log = LoggerFactory.getLogger(BackfillScheduler.class);
+
+	private final CandleRepository candleRepository;
+	private final int threads;
+	private boolean resumeBackfill = false;
+
+	public BackfillScheduler(CandleRepository candleRepository, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Number of backfill threads must be at least 1");
+		}
+		this.candleRepository = candleRepository;
+		this.threads = threads;
+	}
+
+	public boolean resumeBackfill() {
+		return resumeBackfill;
+	}
+
+	public void resumeBackfill(boolean resumeBackfill) {
+		this.resumeBackfill = resumeBackfill;
+	}
+
+	/**
+	 * Fills the gaps in the history of the given symbols, as in {@link CandleHistoryBackfill#fillHistoryGaps(Exchange, String, Instant, Instant, TimeInterval)}.
+	 * Blocks until all symbols are processed. If the backfill of any symbol fails, the remaining symbols are still
+	 * processed and the first error is thrown at the end.
+	 *
+	 * @param exchange the exchange to fetch history from
+	 * @param symbols  the symbols to backfill
+	 * @param from     start of the period to backfill
+	 * @param to       end of the period to backfill, or {@code null} to backfill up to the current time.
+	 * @param minGap   the tick interval of the candles.
+	 */
+	public <T> void fillHistoryGaps(Exchange<T, ?> exchange, Collection<String> symbols, Instant from, Instant to, TimeInterval minGap) {
+		List<String> ordered = orderByLargestGap(symbols, to == null ? Instant.now() : to);
+		if (ordered.isEmpty()) {
+			return;
+		}
+
+		final TokenBucket rateLimiter = new TokenBucket(exchange.timeToWaitPerRequest(), burstCapacity(exchange));
+		final int workers = Math.min(threads, ordered.size());
+		final AtomicInteger workerCount = new AtomicInteger(0);
+		ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+			Thread thread = new Thread(r, "Backfill worker " + workerCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		final long start = System.currentTimeMillis();
+		final AtomicInteger completed = new AtomicInteger(0);
+		final AtomicLong candlesAdded = new AtomicLong(0);
+		final AtomicReference<RuntimeException> error = new AtomicReference<>();
+
+		log.info("Backfilling history of {} symbols using {} threads", ordered.size(), workers);
+		try {
+			List<Future<?>> futures = new ArrayList<>(ordered.size());
+			for (String symbol : ordered) {
+				futures.add(executor.submit(() -> {
+					CandleHistoryBackfill backfill = new CandleHistoryBackfill(candleRepository);
+					backfill.resumeBackfill(resumeBackfill);
+					backfill.rateLimiter(rateLimiter);
+					try {
+						backfill.fillHistoryGaps(exchange, symbol, from, to, minGap);
+					} catch (RuntimeException e) {
+						log.error("Error backfilling history of " + symbol, e);
+						error.compareAndSet(null, e);
+					} finally {
+						long added = candlesAdded.addAndGet(backfill.getCandlesAdded());
+						double seconds = Math.max(1, System.currentTimeMillis() - start) / 1000.0;
+						log.info("Backfill progress: {} of {} symbols processed. {} candles added ({} candles/s, {} requests/s).",
+								completed.incrementAndGet(), ordered.size(), added, String.format("%.1f", added / seconds), String.format("%.2f", rateLimiter.getAcquiredCount() / seconds));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			log.error("Backfill interrupted", e);
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Error running backfill", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		log.info("Backfill of {} symbols complete in {} seconds. {} candles added.", ordered.size(), (System.currentTimeMillis() - start) / 1000.0, candlesAdded.get());
+		if (error.get() != null) {
+			throw error.get();
+		}
+	}
+
+	/**
+	 * Returns how many requests can be sent to the exchange without waiting. Requests taken from the bucket within any
+	 * minute are at most its capacity plus the tokens added during that minute, so the capacity is whatever is left of
+	 * the exchange allowance once the regular rate is accounted for.
+	 */
+	static int burstCapacity(Exchange<?, ?> exchange) {
+		long interval = exchange.timeToWaitPerRequest();
+		long paced = interval <= 0 ? 0 : 60_000 / interval;
+		return (int) Math.max(1, exchange.historicalRequestsPerMinute() - paced);
+	}
+
+	private List<String> orderByLargestGap(Collection<String> symbols, Instant to) {
+		Map<String, Long> gaps = new LinkedHashMap<>();
+		for (String symbol : symbols) {
+			long gap = Long.MAX_VALUE;
+			try {
+				Candle last = candleRepository.lastCandle(symbol);
+				if (last != null) {
+					gap = to.toEpochMilli() - last.closeTime;
+				}
+			} catch (Exception e) {
+				log.warn("Unable to determine latest candle of " + symbol, e);
+			}
+			gaps.put(symbol, gap);
+		}
+		List<String> out = new ArrayList<>(gaps.keySet());
+		out.sort((a, b) -> Long.compare(gaps.get(b), gaps.get(a)));
+		return out;
+	}
+}
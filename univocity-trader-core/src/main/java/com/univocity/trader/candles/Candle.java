@@ -16,7 +16,8 @@ public final class Candle implements Comparable<Candle>, Cloneable {
 
 	public long openTime;
 	public long closeTime;
-	public final double open;
+	// not final so the Aggregator can reuse the candles it preallocates, through copyFrom. Not meant to be changed elsewhere.
+	public double open;
 	public double high;
 	public double low;
 	public double close;
@@ -28,10 +29,15 @@ public final class Candle implements Comparable<Candle>, Cloneable {
 	}
 
 	public Candle(PreciseCandle c){
-		this(c.openTime, c.closeTime, c.open.doubleValue(), c.high.doubleValue(), c.low.doubleValue(), c.close.doubleValue(), c.volume.doubleValue());
+		this(c.openTime, c.closeTime,
+				c.toDouble(PreciseCandle.OPEN),
+				c.toDouble(PreciseCandle.HIGH),
+				c.toDouble(PreciseCandle.LOW),
+				c.toDouble(PreciseCandle.CLOSE),
+				c.toDouble(PreciseCandle.VOLUME));
 	}
 
-	private Candle(long openTime, long closeTime, double open, double high, double low, double close, double volume, boolean merged) {
+	Candle(long openTime, long closeTime, double open, double high, double low, double close, double volume, boolean merged) {
 		this.openTime = openTime;
 		this.closeTime = closeTime;
 		this.open = open;
@@ -100,6 +106,25 @@ public final class Candle implements Comparable<Candle>, Cloneable {
 		return CHANGE_FORMAT.get().format(getChange());
 	}
 
+	/**
+	 * Overwrites the values of this candle with the values of another. Used by the {@link Aggregator} to reuse
+	 * preallocated candles.
+	 *
+	 * @param o the candle whose values will be copied.
+	 *
+	 * @return this candle, with the values of the given candle.
+	 */
+	Candle copyFrom(Candle o) {
+		this.openTime = o.openTime;
+		this.closeTime = o.closeTime;
+		this.open = o.open;
+		this.high = o.high;
+		this.low = o.low;
+		this.close = o.close;
+		this.volume = o.volume;
+		return this;
+	}
+
 	public Candle merge(Candle o) {
 		if (o == this) {
 			return this;
@@ -0,0 +1,129 @@
+package com.univocity.trader.candles;
+
+import java.util.*;
+
+/**
+ * A collection of {@link Candle}s that keeps each field in a primitive array instead of holding one object per candle.
+ * Used by {@link CandleRepository} to cache candle histories in memory.
+ *
+ * Candles are materialized as new {@link Candle} instances when read, as they are mutable and may be retained by
+ * the code that processes them. Candles can only be appended to the buffer, and the buffer can be read concurrently
+ * once fully populated.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class CandleBuffer extends AbstractCollection<Candle> {
+
+	private long[] openTime;
+	private long[] closeTime;
+	private double[] open;
+	private double[] high;
+	private double[] low;
+	private double[] close;
+	private double[] volume;
+	private int size;
+
+	public CandleBuffer() {
+		this(16);
+	}
+
+	public CandleBuffer(int initialCapacity) {
+		allocate(Math.max(1, initialCapacity));
+	}
+
+	private void allocate(int capacity) {
+		openTime = Arrays.copyOf(openTime == null ? new long[0] : openTime, capacity);
+		closeTime = Arrays.copyOf(closeTime == null ? new long[0] : closeTime, capacity);
+		open = Arrays.copyOf(open == null ? new double[0] : open, capacity);
+		high = Arrays.copyOf(high == null ? new double[0] : high, capacity);
+		low = Arrays.copyOf(low == null ? new double[0] : low, capacity);
+		close = Arrays.copyOf(close == null ? new double[0] : close, capacity);
+		volume = Arrays.copyOf(volume == null ? new double[0] : volume, capacity);
+	}
+
+	@Override
+	public boolean add(Candle candle) {
+		if (candle == null) {
+			throw new NullPointerException("Candle cannot be null");
+		}
+		if (size == openTime.length) {
+			allocate(size + Math.max(16, size >> 1));
+		}
+		openTime[size] = candle.openTime;
+		closeTime[size] = candle.closeTime;
+		open[size] = candle.open;
+		high[size] = candle.high;
+		low[size] = candle.low;
+		close[size] = candle.close;
+		volume[size] = candle.volume;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Returns a new {@link Candle} with the values stored at the given position.
+	 *
+	 * @param index the position of the candle in this buffer
+	 *
+	 * @return the candle at the given position
+	 */
+	public Candle get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for buffer of " + size + " candles");
+		}
+		return new Candle(openTime[index], closeTime[index], open[index], high[index], low[index], close[index], volume[index]);
+	}
+
+	public long openTime(int index) {
+		return openTime[index];
+	}
+
+	public long closeTime(int index) {
+		return closeTime[index];
+	}
+
+	public double close(int index) {
+		return close[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		size = 0;
+		allocate(1);
+	}
+
+	/**
+	 * Releases any unused capacity of this buffer.
+	 */
+	public void trimToSize() {
+		if (size < openTime.length) {
+			allocate(Math.max(1, size));
+		}
+	}
+
+	@Override
+	public Iterator<Candle> iterator() {
+		return new Iterator<>() {
+			private final int end = size;
+			private int i = 0;
+
+			@Override
+			public boolean hasNext() {
+				return i < end;
+			}
+
+			@Override
+			public Candle next() {
+				if (i >= end) {
+					throw new NoSuchElementException();
+				}
+				return get(i++);
+			}
+		};
+	}
+}
@@ -19,6 +19,8 @@ public final class CandleHistoryBackfill {
 	private static final Logger log = LoggerFactory.getLogger(CandleRepository.class);
 	private final CandleRepository candleRepository;
 	private boolean resumeBackfill = false;
+	private TokenBucket rateLimiter;
+	private long candlesAdded;
 
 	public CandleHistoryBackfill(CandleRepository candleRepository) {
 		this.candleRepository = candleRepository;
@@ -32,10 +34,47 @@ public final class CandleHistoryBackfill {
 		this.resumeBackfill = resumeBackfill;
 	}
 
+	public TokenBucket rateLimiter() {
+		return rateLimiter;
+	}
+
+	/**
+	 * Paces requests to the exchange using a token bucket, which can be shared among backfill processes running in
+	 * parallel. When not set, {@link Exchange#waitBeforeNextRequest(long)} is used between requests.
+	 *
+	 * @param rateLimiter the token bucket to take a token from before each request
+	 */
+	public void rateLimiter(TokenBucket rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * Returns the number of candles added to the database by this backfill process so far.
+	 *
+	 * @return the count of new candles persisted.
+	 */
+	public long getCandlesAdded() {
+		return candlesAdded;
+	}
+
+	private void waitBeforeRequest(Exchange<?, ?> exchange, long lastRequest) {
+		if (rateLimiter != null) {
+			try {
+				rateLimiter.acquire();
+			} catch (InterruptedException e) {
+				log.error("Backfill interrupted while waiting for next request to exchange", e);
+				Thread.currentThread().interrupt();
+			}
+		} else if (lastRequest != -1) {
+			exchange.waitBeforeNextRequest(lastRequest);
+		}
+	}
+
 	public <T> void fillHistory(Exchange<T, ?> exchange, String symbol, Instant from, Instant to, TimeInterval minGap) {
 		long start = resumeIfPossible(symbol, from).toEpochMilli();
 		long end = to.toEpochMilli();
 		log.info("Refreshing history of {} from {} to {}.", symbol, getFormattedDateTimeWithYear(start), getFormattedDateTimeWithYear(end));
+		waitBeforeRequest(exchange, -1);
 		IncomingCandles<T> ticks = exchange.getHistoricalTicks(symbol, minGap, start, end);
 		persistIncomingCandles(exchange, ticks, symbol, start);
 		log.info("{} history backfill process complete.", symbol);
@@ -50,9 +89,7 @@ public final class CandleHistoryBackfill {
 		long lastRequest = -1;
 
 		while (end > stop) {
-			if (lastRequest != -1) {
-				exchange.waitBeforeNextRequest(lastRequest);
-			}
+			waitBeforeRequest(exchange, lastRequest);
 			lastRequest = System.currentTimeMillis();
 			IncomingCandles<T> ticks = exchange.getHistoricalTicks(symbol, minGap, start, end);
 			persistIncomingCandles(exchange, ticks, symbol, start);
@@ -108,6 +145,7 @@ public final class CandleHistoryBackfill {
 
 		log.info("Looking for gaps in history of {} between {} and {}", symbol, getFormattedDateTimeWithYear(from.toEpochMilli()), getFormattedDateTimeWithYear(to.toEpochMilli()));
 
+		waitBeforeRequest(exchange, -1);
 		IncomingCandles<T> ticks = exchange.getLatestTicks(symbol, minGap);
 		if (persistIncomingCandles(exchange, ticks, symbol, from.toEpochMilli()) == 0) {
 			throw new IllegalStateException("No recent history data received");
@@ -115,39 +153,22 @@ public final class CandleHistoryBackfill {
 
 		List<long[]> gaps = new ArrayList<>();
 
-		long previous = from == null ? -1 : from.toEpochMilli();
-
-		Enumeration<Candle> result = candleRepository.iterate(symbol, from, to, false);
-		outer:
-		while (result.hasMoreElements()) {
-			Candle candle = result.nextElement();
-			if (candle == null) {
-				break;
-			}
-
-			long minute = candle.openTime;
-			if (previous == -1) {
-				previous = minute;
-				continue;
-			}
-			final long gapStart = previous;
-			long gap = minute - previous;
-			if (gap > minGap.ms) {
-				long limit = gap / minGap.ms;
-				do {
-					long start = previous;
-					long end = minute;
-
-					limit -= limitPerRequest;
-					if (limit > 0) {
-						end = start + (limitPerRequest * minGap.ms);
-					}
-					gaps.add(new long[]{start, end});
-					previous = end;
-				} while (limit > 0);
-				log.warn("Historical data of {} has a gap of {} minutes between {} and {}", symbol, (gap / minGap.ms), getFormattedDateTimeWithYear(gapStart), getFormattedDateTimeWithYear(minute));
-			}
-			previous = minute;
+		for (long[] gap : candleRepository.findGaps(symbol, from, to, minGap.ms)) {
+			long previous = gap[0];
+			final long minute = gap[1];
+			long limit = (minute - previous) / minGap.ms;
+			do {
+				long start = previous;
+				long end = minute;
+
+				limit -= limitPerRequest;
+				if (limit > 0) {
+					end = start + (limitPerRequest * minGap.ms);
+				}
+				gaps.add(new long[]{start, end});
+				previous = end;
+			} while (limit > 0);
+			log.warn("Historical data of {} has a gap of {} minutes between {} and {}", symbol, ((minute - gap[0]) / minGap.ms), getFormattedDateTimeWithYear(gap[0]), getFormattedDateTimeWithYear(minute));
 		}
 
 //		settings.removeIgnoredIntervals(gaps);
@@ -182,14 +203,16 @@ public final class CandleHistoryBackfill {
 			}
 
 			try {
+				waitBeforeRequest(exchange, -1);
 				long lastRequest = System.currentTimeMillis();
 				IncomingCandles<T> ticks = exchange.getHistoricalTicks(symbol.toUpperCase(), minGap, start, end);
+				List<PreciseCandle> batch = new ArrayList<>();
 				int count = 0;
 				for (T tick : ticks) {
 					count++;
-					PreciseCandle candle = exchange.generatePreciseCandle(tick);
-					candleRepository.addToHistory(symbol, candle, true);
+					addToHistory(symbol, exchange.generatePreciseCandle(tick), batch);
 				}
+				flush(symbol, batch);
 
 				if (count <= 2 && exchange.historicalCandleCountLimit() > 0) {
 					noDataCount++;
@@ -205,7 +228,9 @@ public final class CandleHistoryBackfill {
 					log.warn("Process interrupted while retrieving {} history between {} and {}", symbol, getFormattedDateTimeWithYear(start), getFormattedDateTimeWithYear(end));
 				}
 
-				exchange.waitBeforeNextRequest(lastRequest);
+				if (rateLimiter == null) {
+					exchange.waitBeforeNextRequest(lastRequest);
+				}
 			} catch (Exception e) {
 				log.error("Error retrieving history between {} and {}", start, end);
 			}
@@ -226,8 +251,34 @@ public final class CandleHistoryBackfill {
 
 	private PreciseCandle firstCandleReceived;
 
+	/**
+	 * Collects a candle to be inserted in the next batch. Candles that are still open go through the regular
+	 * tick processing so they are only persisted once complete.
+	 *
+	 * @return the number of candles added to the database if the batch was full and got persisted.
+	 */
+	private int addToHistory(String symbol, PreciseCandle candle, List<PreciseCandle> batch) {
+		if (candle.closeTime >= System.currentTimeMillis()) {
+			candleRepository.addToHistory(symbol, candle, true);
+			return 0;
+		}
+		batch.add(candle);
+		if (batch.size() >= candleRepository.getBatchSize()) {
+			return flush(symbol, batch);
+		}
+		return 0;
+	}
+
+	private int flush(String symbol, List<PreciseCandle> batch) {
+		int persisted = candleRepository.addToHistory(symbol, batch);
+		candlesAdded += persisted;
+		batch.clear();
+		return persisted;
+	}
+
 	private <T> int persistIncomingCandles(Exchange<T, ?> exchange, IncomingCandles<T> ticks, String symbol, long start) {
 		firstCandleReceived = null;
+		List<PreciseCandle> batch = new ArrayList<>();
 		int persisted = 0;
 		int received = 0;
 		for (T tick : ticks) {
@@ -235,11 +286,10 @@ public final class CandleHistoryBackfill {
 			if (firstCandleReceived == null) {
 				firstCandleReceived = candle;
 			}
-			if (candleRepository.addToHistory(symbol, candle, true)) {
-				persisted++;
-			}
+			persisted += addToHistory(symbol, candle, batch);
 			received++;
 		}
+		persisted += flush(symbol, batch);
 		if (ticks.consumerStopped()) {
 			log.warn("Process interrupted while retrieving {} history since {}", symbol, getFormattedDateTimeWithYear(start));
 		}
@@ -252,7 +302,7 @@ public final class CandleHistoryBackfill {
 			var delete = "DELETE FROM candle WHERE symbol = ? AND open_time = ? AND close_time = ?";
 			candleRepository.db().update(delete, symbol, firstCandleReceived.openTime, firstCandleReceived.closeTime);
 
-			if (candleRepository.addToHistory(symbol, firstCandleReceived, true)) {
+			if (candleRepository.addToHistory(symbol, List.of(firstCandleReceived)) > 0) {
 				log.info("Made a checkpoint to resume future {} backfills from {}", symbol, getFormattedDateTimeWithYear(firstCandleReceived.closeTime));
 			}
 		}
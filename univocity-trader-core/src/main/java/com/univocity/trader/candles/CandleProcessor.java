@@ -2,6 +2,7 @@ package com.univocity.trader.candles;
 
 import com.univocity.trader.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 import org.slf4j.*;
 
 public final class CandleProcessor<T> {
@@ -28,6 +29,14 @@ public final class CandleProcessor<T> {
 		}
 	}
 
+	public void warmUp(Candle[] candles, int from, int to) {
+		try {
+			consumer.warmUp(candles, from, to);
+		} catch (Exception e) {
+			log.error("Error processing warm-up candles of " + consumer.getSymbol(), e);
+		}
+	}
+
 	public void processCandle(T realTimeTick, boolean initializing) {
 		try {
 			synchronized (consumer) {
@@ -35,6 +44,7 @@ public final class CandleProcessor<T> {
 				if (!candleRepository.addToHistory(consumer.getSymbol(), tick, initializing)) {  //already processed, skip.
 					return;
 				}
+				LatencyTracer.stampFirst(LatencyTracer.Stage.PERSISTED);
 
 				Candle candle;
 				if (processFullCandlesOnly && !initializing) {
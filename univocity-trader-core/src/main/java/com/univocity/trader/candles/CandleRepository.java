@@ -12,7 +12,7 @@ import java.util.concurrent.*;
 
 public class CandleRepository {
 	private static final Logger log = LoggerFactory.getLogger(CandleRepository.class);
-	private String databaseName;
+	private volatile String databaseName;
 	private static final String INSERT = "INSERT INTO candle (symbol,open_time,close_time,open,high,low,close,volume) VALUES (?,?,?,?,?,?,?,?)";
 	private static final RowMapper<Candle> CANDLE_MAPPER = (rs, rowNum) -> {
 		Candle out = new Candle(
@@ -29,9 +29,32 @@ public class CandleRepository {
 	protected final ConcurrentHashMap<String, Collection<Candle>> cachedResults = new ConcurrentHashMap<>();
 	private final ConcurrentHashMap<String, Long> candleCounts = new ConcurrentHashMap<>();
 	private final ThreadLocal<JdbcTemplate> db;
+	private final int batchSize;
+	private final long flushInterval;
+	// created by the first live tick, so repositories used only to read or backfill candles don't start a writer thread.
+	private volatile CandleWriter writer;
+	private final ConcurrentHashMap<String, Long> latestOpenTimes = new ConcurrentHashMap<>();
+	// resolved lazily by the thread that first writes candles, usually the candle writer.
+	private volatile String insertStatement;
+	private volatile boolean windowFunctionsSupported = true;
 
 	public CandleRepository(DatabaseConfiguration config) {
 		this.db = ThreadLocal.withInitial(() -> new JdbcTemplate(config.dataSource()));
+		this.batchSize = config.batchSize();
+		this.flushInterval = config.flushInterval().ms;
+	}
+
+	private CandleWriter writer() {
+		CandleWriter out = writer;
+		if (out == null) {
+			synchronized (this) {
+				out = writer;
+				if (out == null) {
+					writer = out = new CandleWriter(this, batchSize, flushInterval);
+				}
+			}
+		}
+		return out;
 	}
 
 	public JdbcTemplate db() {
@@ -46,17 +69,28 @@ public class CandleRepository {
 		ps.setObject(1, symbol);
 		ps.setObject(2, tick.openTime);
 		ps.setObject(3, tick.closeTime);
-		ps.setObject(4, tick.open);
-		ps.setObject(5, tick.high);
-		ps.setObject(6, tick.low);
-		ps.setObject(7, tick.close);
-		ps.setObject(8, tick.volume);
+		ps.setObject(4, tick.getOpen());
+		ps.setObject(5, tick.getHigh());
+		ps.setObject(6, tick.getLow());
+		ps.setObject(7, tick.getClose());
+		ps.setObject(8, tick.getVolume());
 		return ps;
 	}
 
 	private final ConcurrentHashMap<String, PreciseCandle> processingCandles = new ConcurrentHashMap<>();
 	private final ConcurrentHashMap<String, PreciseCandle> fullCandles = new ConcurrentHashMap<>();
 
+	/**
+	 * Adds a tick received from the exchange to the history of a symbol. Ticks that update the candle currently open
+	 * replace it in memory. Once a tick of the next candle arrives, the previous candle is complete and is queued to be
+	 * written to the database by a background thread, so this method doesn't wait for the database.
+	 *
+	 * @param symbol       the symbol whose tick was received
+	 * @param tick         the latest tick
+	 * @param initializing flag indicating whether the tick is part of the initial history loaded before live trading
+	 *
+	 * @return {@code false} if the candle completed by this tick is the latest one already in the history and should not be processed again.
+	 */
 	public boolean addToHistory(String symbol, PreciseCandle tick, boolean initializing) {
 		candleCounts.clear();
 		try {
@@ -67,10 +101,15 @@ public class CandleRepository {
 			} else {
 				try {
 					if (processingCandle != null) { //save fully populated candle
-						if (db().execute(INSERT, (PreparedStatementCallback<Integer>) ps -> prepareInsert(ps, symbol, processingCandle).executeUpdate()) == 0) {
-							log.warn("Could not persist " + symbol + " Tick: " + processingCandle);
+						// candles received out of order are still written: the insert ignores the ones already stored
+						if (processingCandle.openTime == latestOpenTime(symbol)) {
+							if (!initializing) {
+								log.error("Skipping duplicate " + symbol + " Tick: " + tick);
+							}
 							return false;
 						}
+						latestOpenTimes.merge(symbol, processingCandle.openTime, Math::max);
+						writer().enqueue(symbol, processingCandle);
 						fullCandles.put(symbol, processingCandle);
 					}
 				} finally {
@@ -78,16 +117,133 @@ public class CandleRepository {
 				}
 			}
 		} catch (Exception ex) {
-			if (ex.getMessage().contains("Duplicate entry")) {
-				if (!initializing) {
-					log.error("Skipping duplicate " + symbol + " Tick: " + tick);
+			log.error("Error persisting " + symbol + " Tick: " + tick, ex);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the open time of the most recent candle of a symbol in the history, querying the database only once per symbol.
+	 */
+	private long latestOpenTime(String symbol) {
+		Long out = latestOpenTimes.get(symbol);
+		if (out == null) {
+			flush();
+			Candle last = lastCandle(symbol);
+			out = latestOpenTimes.merge(symbol, last == null ? Long.MIN_VALUE : last.openTime, Math::max);
+		}
+		return out;
+	}
+
+	/**
+	 * Adds complete candles of a symbol to the history using batch inserts. Candles already in the database are ignored.
+	 *
+	 * @param symbol  the symbol whose candles will be persisted
+	 * @param candles the candles to persist
+	 *
+	 * @return the number of candles actually added to the database.
+	 */
+	public int addToHistory(String symbol, Collection<PreciseCandle> candles) {
+		if (candles.isEmpty()) {
+			return 0;
+		}
+		candleCounts.clear();
+		List<PreciseCandle> list = candles instanceof List ? (List<PreciseCandle>) candles : new ArrayList<>(candles);
+		int inserted = insertCandles(Collections.nCopies(list.size(), symbol), list);
+
+		long latest = Long.MIN_VALUE;
+		for (PreciseCandle candle : list) {
+			latest = Math.max(latest, candle.openTime);
+		}
+		final long max = latest;
+		latestOpenTimes.computeIfPresent(symbol, (s, time) -> Math.max(time, max));
+		return inserted;
+	}
+
+	/**
+	 * Waits until all candles queued by {@link #addToHistory(String, PreciseCandle, boolean)} are written to the database.
+	 */
+	public void flush() {
+		CandleWriter writer = this.writer;
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+
+	public final int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Inserts candles using JDBC batches, ignoring the ones already stored.
+	 *
+	 * @param symbols the symbol of each candle
+	 * @param candles the candles to insert
+	 *
+	 * @return the number of rows inserted.
+	 */
+	protected int insertCandles(List<String> symbols, List<PreciseCandle> candles) {
+		int inserted = 0;
+		for (int from = 0; from < candles.size(); from += batchSize) {
+			int to = Math.min(candles.size(), from + batchSize);
+			inserted += insertBatch(symbols.subList(from, to), candles.subList(from, to));
+		}
+		return inserted;
+	}
+
+	private int insertBatch(List<String> symbols, List<PreciseCandle> candles) {
+		try {
+			int[] counts = db().batchUpdate(getInsertStatement(), new BatchPreparedStatementSetter() {
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					prepareInsert(ps, symbols.get(i), candles.get(i));
+				}
+
+				@Override
+				public int getBatchSize() {
+					return candles.size();
+				}
+			});
+			int inserted = 0;
+			for (int count : counts) {
+				if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+					inserted++;
+				}
+			}
+			return inserted;
+		} catch (DuplicateKeyException e) {
+			//database has no "insert ignore" syntax, insert one row at a time to skip the duplicates.
+			int inserted = 0;
+			for (int i = 0; i < candles.size(); i++) {
+				String symbol = symbols.get(i);
+				PreciseCandle candle = candles.get(i);
+				try {
+					inserted += db().update(INSERT, ps -> prepareInsert(ps, symbol, candle));
+				} catch (DuplicateKeyException ignore) {
+					//already in the database.
 				}
+			}
+			return inserted;
+		}
+	}
+
+	private String getInsertStatement() {
+		String insertStatement = this.insertStatement;
+		if (insertStatement == null) {
+			String database = getDatabaseName();
+			if (isDatabaseMySQL()) {
+				insertStatement = INSERT.replace("INSERT INTO", "INSERT IGNORE INTO");
+			} else if (database.contains("postgres")) {
+				insertStatement = INSERT + " ON CONFLICT DO NOTHING";
+			} else if (database.contains("sqlite")) {
+				insertStatement = INSERT.replace("INSERT INTO", "INSERT OR IGNORE INTO");
 			} else {
-				log.error("Error persisting " + symbol + " Tick: " + tick, ex);
+				insertStatement = INSERT;
 			}
-			return false;
+			this.insertStatement = insertStatement;
 		}
-		return true;
+		return insertStatement;
 	}
 
 	protected Enumeration<Candle> cacheAndReturnResults(String symbol, String query, Instant from, Instant to, Collection<Candle> out) {
@@ -187,6 +343,12 @@ public class CandleRepository {
 	}
 
 	private boolean isDatabaseMySQL() {
+		String databaseName = getDatabaseName();
+		return databaseName.contains("mysql") || databaseName.contains("maria");
+	}
+
+	private String getDatabaseName() {
+		String databaseName = this.databaseName;
 		if (databaseName == null) {
 			try {
 				databaseName = db().execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
@@ -196,9 +358,9 @@ public class CandleRepository {
 			if (databaseName == null) {
 				databaseName = "";
 			}
-			databaseName = databaseName.trim().toLowerCase();
+			this.databaseName = databaseName = databaseName.trim().toLowerCase();
 		}
-		return databaseName.contains("mysql") || databaseName.contains("maria");
+		return databaseName;
 	}
 
 	private ResultSet executeQuery(PreparedStatement s) throws SQLException {
@@ -275,7 +437,7 @@ public class CandleRepository {
 	}
 
 	protected Collection<Candle> getCacheStorage(long cacheSize) {
-		return new ArrayList<>((int) cacheSize);
+		return new CandleBuffer((int) cacheSize);
 	}
 
 	public Enumeration<Candle> iterate(String symbol, Instant from, Instant to, boolean cache) {
@@ -362,6 +524,61 @@ public class CandleRepository {
 		}
 	}
 
+	/**
+	 * Finds the gaps in the history of a symbol, i.e. consecutive candles whose open times are more than {@code minGap}
+	 * milliseconds apart. The database computes the distance between consecutive candles with the {@code LAG} window
+	 * function so only the gaps found are returned. Databases that reject the query have their candles scanned instead,
+	 * in this and all subsequent calls.
+	 *
+	 * @param symbol the symbol whose history will be checked
+	 * @param from   start of the period to check. If provided, the time between it and the first candle found counts as a gap.
+	 * @param to     end of the period to check
+	 * @param minGap the expected time between the open times of consecutive candles
+	 *
+	 * @return pairs of {@code [start, end]} open times with no candles in between, sorted by time.
+	 */
+	public List<long[]> findGaps(String symbol, Instant from, Instant to, long minGap) {
+		if (windowFunctionsSupported) {
+			try {
+				String inner = "SELECT open_time, LAG(open_time" + (from == null ? "" : ", 1, " + from.toEpochMilli()) + ") OVER (ORDER BY open_time) AS previous_open FROM candle WHERE symbol = ?";
+				inner = narrowQueryToTimeInterval(inner, from, to);
+				String query = "SELECT previous_open, open_time FROM (" + inner + ") t WHERE open_time - previous_open > " + minGap + " ORDER BY open_time";
+				return db().query(query, new Object[]{symbol}, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+			} catch (InvalidDataAccessResourceUsageException e) {
+				// the query itself was rejected (e.g. BadSqlGrammarException). Connection errors and timeouts propagate
+				// and don't prevent the next call from using window functions.
+				log.info("Database doesn't support window functions. Gaps in candle history will be found by reading all candles.", e);
+				windowFunctionsSupported = false;
+			}
+		}
+		return findGaps(iterate(symbol, from, to, false), from, minGap);
+	}
+
+	/**
+	 * Finds gaps between consecutive candles of a sequence sorted by open time.
+	 *
+	 * @param candles the candles to check
+	 * @param from    optional start of the period, compared against the first candle.
+	 * @param minGap  the expected time between the open times of consecutive candles
+	 *
+	 * @return pairs of {@code [start, end]} open times with no candles in between.
+	 */
+	protected final List<long[]> findGaps(Enumeration<Candle> candles, Instant from, long minGap) {
+		List<long[]> gaps = new ArrayList<>();
+		long previous = from == null ? -1 : from.toEpochMilli();
+		while (candles.hasMoreElements()) {
+			Candle candle = candles.nextElement();
+			if (candle == null) {
+				break;
+			}
+			if (previous != -1 && candle.openTime - previous > minGap) {
+				gaps.add(new long[]{previous, candle.openTime});
+			}
+			previous = candle.openTime;
+		}
+		return gaps;
+	}
+
 	public PreciseCandle lastFullCandle(String symbol) {
 		return fullCandles.remove(symbol);
 	}
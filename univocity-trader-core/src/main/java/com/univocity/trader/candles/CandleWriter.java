@@ -0,0 +1,116 @@
+package com.univocity.trader.candles;
+
+import org.slf4j.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Writes candles to the database on a background thread so that threads processing ticks never wait for the database.
+ * Candles queued within the flush interval are sent together as JDBC batches of up to {@code batchSize} rows.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class CandleWriter {
+
+	private static final Logger log = LoggerFactory.getLogger(CandleWriter.class);
+
+	private static final class PendingCandle {
+		final String symbol;
+		final PreciseCandle candle;
+
+		PendingCandle(String symbol, PreciseCandle candle) {
+			this.symbol = symbol;
+			this.candle = candle;
+		}
+	}
+
+	private final CandleRepository repository;
+	private final int batchSize;
+	private final long flushInterval;
+	private final LinkedBlockingQueue<PendingCandle> queue = new LinkedBlockingQueue<>();
+	private int pending;
+	private Thread thread;
+
+	CandleWriter(CandleRepository repository, int batchSize, long flushInterval) {
+		this.repository = repository;
+		this.batchSize = batchSize;
+		this.flushInterval = flushInterval;
+	}
+
+	void enqueue(String symbol, PreciseCandle candle) {
+		synchronized (this) {
+			pending++;
+			if (thread == null) {
+				thread = new Thread(this::run, "candle writer");
+				thread.setDaemon(true);
+				thread.start();
+			}
+		}
+		queue.add(new PendingCandle(symbol, candle));
+	}
+
+	/**
+	 * Waits for the background thread to write all candles queued so far. Candles are not written by the calling thread
+	 * so that batches always reach the database in the order they were queued.
+	 */
+	void flush() {
+		synchronized (this) {
+			while (pending > 0) {
+				try {
+					wait(flushInterval);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private void run() {
+		List<PendingCandle> batch = new ArrayList<>(batchSize);
+		while (true) {
+			try {
+				PendingCandle first = queue.take();
+				batch.add(first);
+				long deadline = System.currentTimeMillis() + flushInterval;
+				while (batch.size() < batchSize) {
+					long remaining = deadline - System.currentTimeMillis();
+					PendingCandle next = remaining > 0 ? queue.poll(remaining, TimeUnit.MILLISECONDS) : queue.poll();
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				write(batch);
+			} catch (InterruptedException e) {
+				log.error("Candle writer interrupted", e);
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Throwable e) {
+				log.error("Unexpected error in candle writer", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void write(List<PendingCandle> batch) {
+		List<String> symbols = new ArrayList<>(batch.size());
+		List<PreciseCandle> candles = new ArrayList<>(batch.size());
+		for (PendingCandle p : batch) {
+			symbols.add(p.symbol);
+			candles.add(p.candle);
+		}
+		try {
+			repository.insertCandles(symbols, candles);
+		} catch (Exception e) {
+			log.error("Error persisting batch of " + batch.size() + " candles. First candle: " + batch.get(0).symbol + " " + batch.get(0).candle, e);
+		} finally {
+			synchronized (this) {
+				pending -= batch.size();
+				notifyAll();
+			}
+		}
+	}
+}
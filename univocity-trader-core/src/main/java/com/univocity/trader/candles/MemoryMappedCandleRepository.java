@@ -0,0 +1,392 @@
+package com.univocity.trader.candles;
+
+import com.univocity.trader.config.*;
+import org.slf4j.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A {@link CandleRepository} that reads the candle history of each symbol from a file stored in a local directory, instead
+ * of running queries against the database.
+ *
+ * Each file stores the candles of one symbol as fixed-width columns of {@code open_time}, {@code close_time}, {@code open},
+ * {@code high}, {@code low}, {@code close} and {@code volume}, which are memory-mapped when first accessed. Time ranges are located
+ * with a binary search on {@code open_time}, so iterating over the history of a symbol only touches the rows requested.
+ *
+ * Files are produced from the existing {@code candle} table with {@link #importFromDatabase(String...)}. Symbols without a file
+ * are still read from the database.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public class MemoryMappedCandleRepository extends CandleRepository {
+
+	private static final Logger log = LoggerFactory.getLogger(MemoryMappedCandleRepository.class);
+
+	private static final String EXTENSION = ".candles";
+	private static final int MAGIC = 0x43414E44; // "CAND"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 24;
+	private static final int COLUMNS = 7;
+
+	private final File directory;
+	private final ConcurrentHashMap<String, Segment> segments = new ConcurrentHashMap<>();
+
+	public MemoryMappedCandleRepository(DatabaseConfiguration config, File directory) {
+		super(config);
+		if (directory == null) {
+			throw new IllegalArgumentException("Candle directory can't be null");
+		}
+		if (!directory.exists() && !directory.mkdirs()) {
+			throw new IllegalStateException("Unable to create candle directory " + directory.getAbsolutePath());
+		}
+		this.directory = directory;
+	}
+
+	public final File getDirectory() {
+		return directory;
+	}
+
+	private File getFile(String symbol) {
+		return new File(directory, symbol.toUpperCase() + EXTENSION);
+	}
+
+	public final boolean isStored(String symbol) {
+		return getSegment(symbol) != null;
+	}
+
+	private Segment getSegment(String symbol) {
+		Segment segment = segments.get(symbol);
+		if (segment == null) {
+			File file = getFile(symbol);
+			if (!file.exists()) {
+				return null;
+			}
+			segment = segments.computeIfAbsent(symbol, s -> Segment.open(file));
+		}
+		return segment;
+	}
+
+	@Override
+	public Enumeration<Candle> iterate(String symbol, Instant from, Instant to, boolean cache) {
+		Segment segment = getSegment(symbol);
+		if (segment == null) {
+			return super.iterate(symbol, from, to, cache);
+		}
+		//candles are mapped from disk and don't need to be cached in memory.
+		final int start = segment.indexOfOpenTime(from == null ? Long.MIN_VALUE : from.toEpochMilli());
+		final int end = segment.indexAfterCloseTime(to == null ? Long.MAX_VALUE : to.toEpochMilli());
+
+		return new Enumeration<>() {
+			int i = start;
+
+			@Override
+			public boolean hasMoreElements() {
+				return i < end;
+			}
+
+			@Override
+			public Candle nextElement() {
+				if (i >= end) {
+					throw new NoSuchElementException();
+				}
+				return segment.candle(i++);
+			}
+		};
+	}
+
+	@Override
+	protected long performCandleCounting(String symbol, Instant from, Instant to) {
+		Segment segment = getSegment(symbol);
+		if (segment == null) {
+			return super.performCandleCounting(symbol, from, to);
+		}
+		int start = segment.indexOfOpenTime(from == null ? Long.MIN_VALUE : from.toEpochMilli());
+		int end = segment.indexAfterCloseTime(to == null ? Long.MAX_VALUE : to.toEpochMilli());
+		return Math.max(0, end - start);
+	}
+
+	@Override
+	public Candle lastCandle(String symbol) {
+		Segment segment = getSegment(symbol);
+		if (segment == null) {
+			return super.lastCandle(symbol);
+		}
+		return segment.count == 0 ? null : segment.candle(segment.count - 1);
+	}
+
+	@Override
+	public Candle firstCandle(String symbol) {
+		Segment segment = getSegment(symbol);
+		if (segment == null) {
+			return super.firstCandle(symbol);
+		}
+		return segment.count == 0 ? null : segment.candle(0);
+	}
+
+	@Override
+	public List<long[]> findGaps(String symbol, Instant from, Instant to, long minGap) {
+		Segment segment = getSegment(symbol);
+		if (segment == null) {
+			return super.findGaps(symbol, from, to, minGap);
+		}
+		int start = segment.indexOfOpenTime(from == null ? Long.MIN_VALUE : from.toEpochMilli());
+		int end = segment.indexAfterCloseTime(to == null ? Long.MAX_VALUE : to.toEpochMilli());
+
+		List<long[]> gaps = new ArrayList<>();
+		if (start >= end) {
+			return gaps;
+		}
+		long first = segment.columns.openTime.get(start);
+		if (from != null && first - from.toEpochMilli() > minGap) {
+			gaps.add(new long[]{from.toEpochMilli(), first});
+		}
+
+		int[] gapIndexes = segment.gapIndexes(minGap);
+		int k = Arrays.binarySearch(gapIndexes, start + 1);
+		for (k = k < 0 ? -k - 1 : k; k < gapIndexes.length && gapIndexes[k] < end; k++) {
+			int i = gapIndexes[k];
+			gaps.add(new long[]{segment.columns.openTime.get(i - 1), segment.columns.openTime.get(i)});
+		}
+		return gaps;
+	}
+
+	/**
+	 * Returns the symbols whose candles are stored in the directory of this repository.
+	 *
+	 * @return the symbols available without querying the database.
+	 */
+	public Set<String> getStoredSymbols() {
+		TreeSet<String> out = new TreeSet<>();
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION));
+		if (files != null) {
+			for (File file : files) {
+				out.add(file.getName().substring(0, file.getName().length() - EXTENSION.length()));
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Copies the history of all symbols in the {@code candle} table into files of this repository.
+	 */
+	public void importFromDatabase() {
+		importFromDatabase(super.getKnownSymbols());
+	}
+
+	/**
+	 * Copies the history of the given symbols from the {@code candle} table into files of this repository, replacing
+	 * any file previously imported.
+	 *
+	 * @param symbols the symbols to import.
+	 */
+	public void importFromDatabase(String... symbols) {
+		importFromDatabase(Arrays.asList(symbols));
+	}
+
+	public void importFromDatabase(Collection<String> symbols) {
+		for (String symbol : symbols) {
+			long start = System.currentTimeMillis();
+			long capacity = super.performCandleCounting(symbol, null, null);
+			long count = store(symbol, super.iterate(symbol, null, null, false), capacity);
+			log.info("Imported {} candles of {} in {} seconds", count, symbol, (System.currentTimeMillis() - start) / 1000.0);
+		}
+	}
+
+	/**
+	 * Writes the given candles to the file of a symbol, replacing any previous file. Candles must be sorted by open time.
+	 *
+	 * @param symbol   the symbol whose candles are being stored
+	 * @param candles  the candles to store
+	 * @param capacity the maximum number of candles to write. Any candles beyond that are ignored.
+	 *
+	 * @return the number of candles written.
+	 */
+	public long store(String symbol, Enumeration<Candle> candles, long capacity) {
+		File file = getFile(symbol);
+		File tmp = new File(directory, file.getName() + ".tmp");
+		long count = 0;
+		try (FileChannel channel = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			Columns columns = Columns.map(channel, FileChannel.MapMode.READ_WRITE, capacity);
+			long previousOpen = Long.MIN_VALUE;
+			while (count < capacity && candles.hasMoreElements()) {
+				Candle candle = candles.nextElement();
+				if (candle == null) {
+					break;
+				}
+				if (candle.openTime < previousOpen) {
+					throw new IllegalArgumentException("Candles of " + symbol + " must be sorted by open time. Got " + candle + " after open time " + previousOpen);
+				}
+				previousOpen = candle.openTime;
+				columns.set((int) count++, candle);
+			}
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putLong(capacity).putLong(count).flip();
+			channel.write(header, 0);
+			channel.force(false);
+		} catch (IOException e) {
+			throw new IllegalStateException("Error writing candles of " + symbol + " to " + tmp.getAbsolutePath(), e);
+		}
+
+		segments.remove(symbol);
+		try {
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new IllegalStateException("Error replacing candle file " + file.getAbsolutePath(), e);
+		}
+		return count;
+	}
+
+	@Override
+	public void clearCaches() {
+		super.clearCaches();
+		segments.clear();
+	}
+
+	private static final class Columns {
+		final LongBuffer openTime;
+		final LongBuffer closeTime;
+		final DoubleBuffer open;
+		final DoubleBuffer high;
+		final DoubleBuffer low;
+		final DoubleBuffer close;
+		final DoubleBuffer volume;
+
+		private Columns(ByteBuffer[] buffers) {
+			openTime = buffers[0].asLongBuffer();
+			closeTime = buffers[1].asLongBuffer();
+			open = buffers[2].asDoubleBuffer();
+			high = buffers[3].asDoubleBuffer();
+			low = buffers[4].asDoubleBuffer();
+			close = buffers[5].asDoubleBuffer();
+			volume = buffers[6].asDoubleBuffer();
+		}
+
+		static Columns map(FileChannel channel, FileChannel.MapMode mode, long capacity) throws IOException {
+			if (capacity * Long.BYTES > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Too many candles to store in a single file: " + capacity);
+			}
+			long columnSize = capacity * Long.BYTES;
+			ByteBuffer[] buffers = new ByteBuffer[COLUMNS];
+			for (int i = 0; i < COLUMNS; i++) {
+				buffers[i] = channel.map(mode, HEADER_SIZE + i * columnSize, columnSize).order(ByteOrder.LITTLE_ENDIAN);
+			}
+			return new Columns(buffers);
+		}
+
+		void set(int i, Candle candle) {
+			openTime.put(i, candle.openTime);
+			closeTime.put(i, candle.closeTime);
+			open.put(i, candle.open);
+			high.put(i, candle.high);
+			low.put(i, candle.low);
+			close.put(i, candle.close);
+			volume.put(i, candle.volume);
+		}
+	}
+
+	private static final class Segment {
+		final int count;
+		final Columns columns;
+		private int[] gapIndexes;
+		private long gapIndexesMinGap;
+
+		private Segment(int count, Columns columns) {
+			this.count = count;
+			this.columns = columns;
+		}
+
+		static Segment open(File file) {
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+				channel.read(header, 0);
+				header.flip();
+				if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+					throw new IllegalStateException("Not a candle file: " + file.getAbsolutePath());
+				}
+				int version = header.getInt();
+				if (version != VERSION) {
+					throw new IllegalStateException("Unsupported candle file version " + version + " in " + file.getAbsolutePath());
+				}
+				long capacity = header.getLong();
+				long count = header.getLong();
+				return new Segment((int) count, Columns.map(channel, FileChannel.MapMode.READ_ONLY, capacity));
+			} catch (IOException e) {
+				throw new IllegalStateException("Error reading candle file " + file.getAbsolutePath(), e);
+			}
+		}
+
+		Candle candle(int i) {
+			return new Candle(
+					columns.openTime.get(i),
+					columns.closeTime.get(i),
+					columns.open.get(i),
+					columns.high.get(i),
+					columns.low.get(i),
+					columns.close.get(i),
+					columns.volume.get(i));
+		}
+
+		/**
+		 * Indexes of the candles whose open time is more than {@code minGap} after the open time of the previous candle.
+		 * Computed once and kept while the same {@code minGap} is requested, as the file doesn't change once mapped.
+		 */
+		synchronized int[] gapIndexes(long minGap) {
+			if (gapIndexes == null || gapIndexesMinGap != minGap) {
+				int[] out = new int[16];
+				int size = 0;
+				for (int i = 1; i < count; i++) {
+					if (columns.openTime.get(i) - columns.openTime.get(i - 1) > minGap) {
+						if (size == out.length) {
+							out = Arrays.copyOf(out, size * 2);
+						}
+						out[size++] = i;
+					}
+				}
+				gapIndexes = Arrays.copyOf(out, size);
+				gapIndexesMinGap = minGap;
+			}
+			return gapIndexes;
+		}
+
+		/**
+		 * Index of the first candle with {@code open_time >= from}
+		 */
+		int indexOfOpenTime(long from) {
+			int low = 0;
+			int high = count;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (columns.openTime.get(mid) < from) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Index after the last candle with {@code close_time <= to}
+		 */
+		int indexAfterCloseTime(long to) {
+			int low = 0;
+			int high = count;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (columns.closeTime.get(mid) <= to) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+}
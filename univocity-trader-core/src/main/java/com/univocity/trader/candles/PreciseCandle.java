@@ -2,38 +2,193 @@ package com.univocity.trader.candles;
 
 import java.math.*;
 
+/**
+ * Exact representation of a candle, used to store the values received from the exchange in the database.
+ *
+ * Values are held in fixed-point: each price is an unscaled {@code long} that must be divided by 10 to the power of
+ * a price scale to obtain the actual value, and the volume has a scale of its own. This keeps ticks exact without
+ * allocating {@code BigDecimal}s for every tick received from the exchange. Values are read as {@code BigDecimal}
+ * through {@link #getOpen()}, {@link #getHigh()}, {@link #getLow()}, {@link #getClose()} and {@link #getVolume()}.
+ *
+ * Decimals with more digits than what fits in a {@code long} at a common scale are kept as they are.
+ */
 public final class PreciseCandle {
 
+	private static final long[] LONG_POWERS_OF_TEN = new long[19];
+	private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+
+	static {
+		LONG_POWERS_OF_TEN[0] = 1L;
+		for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+			LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10L;
+		}
+		DOUBLE_POWERS_OF_TEN[0] = 1.0;
+		for (int i = 1; i < DOUBLE_POWERS_OF_TEN.length; i++) {
+			DOUBLE_POWERS_OF_TEN[i] = DOUBLE_POWERS_OF_TEN[i - 1] * 10.0;
+		}
+	}
+
 	public long openTime;
 	public long closeTime;
-	public BigDecimal open;
-	public BigDecimal high;
-	public BigDecimal low;
-	public BigDecimal close;
-	public BigDecimal volume;
+	private long open;
+	private long high;
+	private long low;
+	private long close;
+	private int priceScale;
+	private long volume;
+	private int quantityScale;
+	// open, high, low, close and volume of candles whose values don't fit in the fixed-point fields. Null otherwise.
+	private BigDecimal[] decimals;
+
+	static final int OPEN = 0;
+	static final int HIGH = 1;
+	static final int LOW = 2;
+	static final int CLOSE = 3;
+	static final int VOLUME = 4;
 
 	public PreciseCandle() {
 
 	}
 
-	public PreciseCandle(long openTime, long closeTime, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, BigDecimal volume) {
+	/**
+	 * Creates a candle from fixed-point values.
+	 *
+	 * @param openTime      the open time of the candle
+	 * @param closeTime     the close time of the candle
+	 * @param open          the unscaled open price
+	 * @param high          the unscaled highest price
+	 * @param low           the unscaled lowest price
+	 * @param close         the unscaled close price
+	 * @param priceScale    the number of decimal places of the prices
+	 * @param volume        the unscaled volume
+	 * @param quantityScale the number of decimal places of the volume
+	 */
+	public PreciseCandle(long openTime, long closeTime, long open, long high, long low, long close, int priceScale, long volume, int quantityScale) {
 		this.openTime = openTime;
 		this.closeTime = closeTime;
 		this.open = open;
 		this.high = high;
 		this.low = low;
 		this.close = close;
+		this.priceScale = priceScale;
 		this.volume = volume;
+		this.quantityScale = quantityScale;
+	}
+
+	/**
+	 * Creates a candle from decimal values. Prices are converted to the largest scale among them. If any value has
+	 * more digits than what fits in a {@code long} at that scale, the given decimals are kept instead.
+	 */
+	public PreciseCandle(long openTime, long closeTime, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, BigDecimal volume) {
+		this.openTime = openTime;
+		this.closeTime = closeTime;
+		try {
+			this.priceScale = Math.max(0, Math.max(Math.max(open.scale(), high.scale()), Math.max(low.scale(), close.scale())));
+			this.open = unscaled(open, priceScale);
+			this.high = unscaled(high, priceScale);
+			this.low = unscaled(low, priceScale);
+			this.close = unscaled(close, priceScale);
+			this.quantityScale = Math.max(0, volume.scale());
+			this.volume = unscaled(volume, quantityScale);
+		} catch (ArithmeticException e) {
+			this.decimals = new BigDecimal[]{open, high, low, close, volume};
+		}
 	}
 
 	public PreciseCandle(Candle candle) {
-		this.openTime = candle.openTime;
-		this.closeTime = candle.closeTime;
-		this.open = BigDecimal.valueOf(candle.open);
-		this.high = BigDecimal.valueOf(candle.high);
-		this.low = BigDecimal.valueOf(candle.low);
-		this.close = BigDecimal.valueOf(candle.close);
-		this.volume = BigDecimal.valueOf(candle.volume);
+		this(candle.openTime, candle.closeTime,
+				BigDecimal.valueOf(candle.open),
+				BigDecimal.valueOf(candle.high),
+				BigDecimal.valueOf(candle.low),
+				BigDecimal.valueOf(candle.close),
+				BigDecimal.valueOf(candle.volume));
+	}
+
+	private static long unscaled(BigDecimal value, int scale) {
+		return value.setScale(scale).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Converts an unscaled value to another scale.
+	 *
+	 * @param unscaled  the unscaled value
+	 * @param scale     the current scale of the value
+	 * @param newScale  the desired scale, which must not be smaller than the current scale unless the digits dropped are zeros.
+	 *
+	 * @return the unscaled value at the new scale.
+	 *
+	 * @throws ArithmeticException if the value can't be represented exactly at the new scale.
+	 */
+	public static long rescale(long unscaled, int scale, int newScale) {
+		if (newScale == scale) {
+			return unscaled;
+		}
+		if (newScale > scale && newScale - scale < LONG_POWERS_OF_TEN.length) {
+			return Math.multiplyExact(unscaled, LONG_POWERS_OF_TEN[newScale - scale]);
+		}
+		return unscaled(BigDecimal.valueOf(unscaled, scale), newScale);
+	}
+
+	/**
+	 * Converts a fixed-point value to the nearest {@code double}.
+	 *
+	 * @param unscaled the unscaled value
+	 * @param scale    the number of decimal places of the value
+	 *
+	 * @return the {@code double} closest to the exact value.
+	 */
+	public static double toDouble(long unscaled, int scale) {
+		if (scale >= 0 && scale < DOUBLE_POWERS_OF_TEN.length && Math.abs(unscaled) < (1L << 53)) {
+			// both operands are exact, so the division is correctly rounded.
+			return unscaled / DOUBLE_POWERS_OF_TEN[scale];
+		}
+		return BigDecimal.valueOf(unscaled, scale).doubleValue();
+	}
+
+	/**
+	 * Returns the value of a field as the nearest {@code double}.
+	 *
+	 * @param field one of {@link #OPEN}, {@link #HIGH}, {@link #LOW}, {@link #CLOSE} or {@link #VOLUME}
+	 *
+	 * @return the value of the field.
+	 */
+	double toDouble(int field) {
+		if (decimals != null) {
+			return decimals[field].doubleValue();
+		}
+		switch (field) {
+			case OPEN:
+				return toDouble(open, priceScale);
+			case HIGH:
+				return toDouble(high, priceScale);
+			case LOW:
+				return toDouble(low, priceScale);
+			case CLOSE:
+				return toDouble(close, priceScale);
+			case VOLUME:
+				return toDouble(volume, quantityScale);
+		}
+		throw new IllegalArgumentException("Unknown field: " + field);
+	}
+
+	public BigDecimal getOpen() {
+		return decimals == null ? BigDecimal.valueOf(open, priceScale) : decimals[OPEN];
+	}
+
+	public BigDecimal getHigh() {
+		return decimals == null ? BigDecimal.valueOf(high, priceScale) : decimals[HIGH];
+	}
+
+	public BigDecimal getLow() {
+		return decimals == null ? BigDecimal.valueOf(low, priceScale) : decimals[LOW];
+	}
+
+	public BigDecimal getClose() {
+		return decimals == null ? BigDecimal.valueOf(close, priceScale) : decimals[CLOSE];
+	}
+
+	public BigDecimal getVolume() {
+		return decimals == null ? BigDecimal.valueOf(volume, quantityScale) : decimals[VOLUME];
 	}
 
 	@Override
@@ -41,11 +196,11 @@ public final class PreciseCandle {
 		return "{" +
 				"openTime=" + openTime +
 				", closeTime=" + closeTime +
-				", open=" + open +
-				", high=" + high +
-				", low=" + low +
-				", close=" + close +
-				", volume=" + volume +
+				", open=" + getOpen() +
+				", high=" + getHigh() +
+				", low=" + getLow() +
+				", close=" + getClose() +
+				", volume=" + getVolume() +
 				'}';
 	}
 }
@@ -0,0 +1,302 @@
+package com.univocity.trader.candles;
+
+import com.univocity.trader.utils.*;
+import org.slf4j.*;
+
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+import java.util.function.*;
+
+/**
+ * Moves ticks received from an exchange off the thread that receives them (e.g. a websocket callback) so that slow
+ * strategies can't stall the live stream. Symbols are split into partitions by hash. Each partition has a preallocated
+ * ring buffer and a worker thread that parses, persists and processes the ticks of its symbols, in the order they
+ * were received.
+ *
+ * The depth of each buffer and the lag between the publication of a tick and the start of its processing can be
+ * monitored to size the number of partitions and the buffer capacity for the number of symbols traded. When
+ * {@link LatencyTracer} is enabled, the stamps taken by the publishing thread are handed to the worker thread.
+ *
+ * @param <T> the type of tick produced by the exchange.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class TickPipeline<T> {
+
+	private static final Logger log = LoggerFactory.getLogger(TickPipeline.class);
+
+	/**
+	 * How partition workers wait for new ticks, and how publishers wait for space when a buffer is full.
+	 */
+	public enum WaitStrategy {
+		/**
+		 * Parks the worker until a tick is published. Uses the least CPU at the cost of a wake up latency.
+		 */
+		BLOCKING,
+		/**
+		 * Sleeps for short periods while there is nothing to process.
+		 */
+		SLEEPING,
+		/**
+		 * Yields the CPU to other threads while there is nothing to process.
+		 */
+		YIELDING,
+		/**
+		 * Spins on the CPU while there is nothing to process. Lowest latency, but keeps one core busy per partition.
+		 */
+		BUSY_SPIN
+	}
+
+	private final Partition<T>[] partitions;
+
+	/**
+	 * Creates a pipeline and starts its worker threads.
+	 *
+	 * @param partitions   the number of partitions (and worker threads) among which symbols will be distributed.
+	 * @param capacity     the number of ticks each partition can buffer. Rounded up to a power of two.
+	 * @param waitStrategy how workers wait for ticks and publishers wait for space in a full buffer.
+	 * @param handler      the function that processes each tick of a symbol.
+	 */
+	@SuppressWarnings("unchecked")
+	public TickPipeline(int partitions, int capacity, WaitStrategy waitStrategy, BiConsumer<String, T> handler) {
+		if (partitions < 1) {
+			throw new IllegalArgumentException("Number of partitions must be at least 1");
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Buffer capacity must be at least 1");
+		}
+		if (waitStrategy == null) {
+			waitStrategy = WaitStrategy.BLOCKING;
+		}
+		this.partitions = new Partition[partitions];
+		int size = 1;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		for (int i = 0; i < partitions; i++) {
+			this.partitions[i] = new Partition<>(i, size, waitStrategy, handler);
+		}
+	}
+
+	/**
+	 * Publishes a tick for processing, returning immediately unless the buffer of the symbol's partition is full.
+	 * Ticks published after {@link #close()} are discarded.
+	 *
+	 * @param symbol the symbol of the tick
+	 * @param tick   the tick received from the exchange
+	 */
+	public void publish(String symbol, T tick) {
+		int h = symbol.hashCode();
+		partitions[((h ^ (h >>> 16)) & 0x7FFFFFFF) % partitions.length].publish(symbol, tick);
+	}
+
+	/**
+	 * Returns the number of ticks waiting to be processed in all partitions.
+	 *
+	 * @return the total number of ticks published but not yet processed.
+	 */
+	public long getQueueDepth() {
+		long out = 0;
+		for (Partition<T> partition : partitions) {
+			out += partition.depth();
+		}
+		return out;
+	}
+
+	/**
+	 * Returns how long the oldest tick waiting in any partition has been waiting to be processed.
+	 *
+	 * @return the lag of the slowest partition, in milliseconds.
+	 */
+	public long getLag() {
+		long now = System.currentTimeMillis();
+		long out = 0;
+		for (Partition<T> partition : partitions) {
+			out = Math.max(out, partition.lag(now));
+		}
+		return out;
+	}
+
+	/**
+	 * Returns the highest number of ticks that were waiting in a single partition.
+	 *
+	 * @return the largest queue depth observed by any partition.
+	 */
+	public long getMaxQueueDepth() {
+		long out = 0;
+		for (Partition<T> partition : partitions) {
+			out = Math.max(out, partition.maxDepth);
+		}
+		return out;
+	}
+
+	/**
+	 * Stops accepting new ticks and waits for the ticks already published to be processed. The worker threads
+	 * terminate once their partitions are empty.
+	 */
+	public void close() {
+		for (Partition<T> partition : partitions) {
+			partition.close();
+		}
+		for (Partition<T> partition : partitions) {
+			try {
+				partition.worker.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	public int getPartitionCount() {
+		return partitions.length;
+	}
+
+	public int getCapacity() {
+		return partitions[0].symbols.length;
+	}
+
+	@Override
+	public String toString() {
+		return "Tick pipeline: " + partitions.length + " partitions of " + getCapacity() + " ticks. Queue depth: " + getQueueDepth() + " (max: " + getMaxQueueDepth() + "), lag: " + getLag() + " ms";
+	}
+
+	private static final class Partition<T> implements Runnable {
+		final BiConsumer<String, T> handler;
+		final WaitStrategy waitStrategy;
+		final String[] symbols;
+		final Object[] ticks;
+		final long[] publishedAt;
+		final long[] receivedAt;
+		final long[] decodedAt;
+		final int mask;
+		final Thread worker;
+
+		private final AtomicLong published = new AtomicLong(0);
+		private volatile long consumed = 0;
+		private volatile boolean waiting = false;
+		private volatile boolean closed = false;
+		volatile long maxDepth = 0;
+
+		Partition(int index, int capacity, WaitStrategy waitStrategy, BiConsumer<String, T> handler) {
+			this.handler = handler;
+			this.waitStrategy = waitStrategy;
+			this.symbols = new String[capacity];
+			this.ticks = new Object[capacity];
+			this.publishedAt = new long[capacity];
+			this.receivedAt = new long[capacity];
+			this.decodedAt = new long[capacity];
+			this.mask = capacity - 1;
+
+			worker = new Thread(this, "Tick pipeline " + (index + 1));
+			worker.setDaemon(true);
+			worker.start();
+		}
+
+		synchronized void publish(String symbol, T tick) {
+			if (closed) {
+				log.debug("Discarding tick of {} published after the pipeline was closed: {}", symbol, tick);
+				return;
+			}
+			long sequence = published.get();
+			while (sequence - consumed >= symbols.length) {
+				waitForSpace();
+			}
+			int slot = (int) (sequence & mask);
+			symbols[slot] = symbol;
+			ticks[slot] = tick;
+			publishedAt[slot] = System.currentTimeMillis();
+			receivedAt[slot] = LatencyTracer.stampOf(LatencyTracer.Stage.RECEIVED);
+			decodedAt[slot] = LatencyTracer.stampOf(LatencyTracer.Stage.DECODED);
+			LatencyTracer.end();
+			published.set(sequence + 1);
+
+			long depth = sequence + 1 - consumed;
+			if (depth > maxDepth) {
+				maxDepth = depth;
+			}
+			if (waiting) {
+				LockSupport.unpark(worker);
+			}
+		}
+
+		synchronized void close() {
+			closed = true;
+			LockSupport.unpark(worker);
+		}
+
+		private void waitForSpace() {
+			if (waitStrategy == WaitStrategy.BUSY_SPIN) {
+				Thread.onSpinWait();
+			} else if (waitStrategy == WaitStrategy.YIELDING) {
+				Thread.yield();
+			} else {
+				LockSupport.parkNanos(100_000L);
+			}
+		}
+
+		long depth() {
+			return published.get() - consumed;
+		}
+
+		long lag(long now) {
+			long next = consumed;
+			if (published.get() > next) {
+				return Math.max(0, now - publishedAt[(int) (next & mask)]);
+			}
+			return 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void run() {
+			long next = 0;
+			while (true) {
+				// read before the published sequence, so that ticks published right before close() are not missed.
+				boolean closing = closed;
+				if (published.get() <= next) {
+					if (closing) {
+						return;
+					}
+					waitForTick(next);
+					continue;
+				}
+				int slot = (int) (next & mask);
+				String symbol = symbols[slot];
+				T tick = (T) ticks[slot];
+				symbols[slot] = null;
+				ticks[slot] = null;
+				try {
+					LatencyTracer.begin(symbol, receivedAt[slot], decodedAt[slot]);
+					handler.accept(symbol, tick);
+					LatencyTracer.stamp(LatencyTracer.Stage.PROCESSED);
+				} catch (Throwable e) {
+					log.error("Error processing tick of " + symbol + ": " + tick, e);
+				} finally {
+					LatencyTracer.end();
+					consumed = ++next;
+				}
+			}
+		}
+
+		private void waitForTick(long next) {
+			switch (waitStrategy) {
+				case BUSY_SPIN:
+					Thread.onSpinWait();
+					break;
+				case YIELDING:
+					Thread.yield();
+					break;
+				case SLEEPING:
+					LockSupport.parkNanos(1_000_000L);
+					break;
+				default:
+					waiting = true;
+					if (published.get() <= next && !closed) {
+						LockSupport.park(this);
+					}
+					waiting = false;
+			}
+		}
+	}
+}
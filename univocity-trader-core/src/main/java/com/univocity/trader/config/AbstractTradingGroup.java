@@ -19,6 +19,7 @@ public abstract class AbstractTradingGroup<T extends AbstractTradingGroup<T>> im
 	protected boolean parsingProperties = false;
 
 	protected boolean processFullCandlesOnly = false;
+	protected boolean shareIndicators = false;
 	protected String referenceCurrency;
 
 	protected NewInstances<Strategy> strategies = new NewInstances<>(new Strategy[0]);
@@ -385,6 +386,7 @@ public abstract class AbstractTradingGroup<T extends AbstractTradingGroup<T>> im
 
 	void copyFrom(AbstractTradingGroup<?> o) {
 		this.shortingEnabled = o.shortingEnabled;
+		this.shareIndicators = o.shareIndicators;
 		this.referenceCurrency = o.referenceCurrency;
 		o.allocations.forEach((k, v) -> this.allocations.put(k, v.clone()));
 		this.tradedPairs.putAll(o.tradedPairs);
@@ -404,4 +406,23 @@ public abstract class AbstractTradingGroup<T extends AbstractTradingGroup<T>> im
 	public boolean processFullCandlesOnly() {
 		return processFullCandlesOnly;
 	}
+
+	/**
+	 * Shares identical indicators (same class and arguments) created through {@link com.univocity.trader.strategy.Indicators}
+	 * among all strategies and monitors of a symbol, so each one is calculated only once per candle. Settings changed
+	 * after an indicator is created, such as {@code recalculateEveryTick}, apply to every strategy and monitor
+	 * that shares it. Disabled by default.
+	 *
+	 * @param shareIndicators flag indicating whether identical indicators should be shared.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public T shareIndicators(boolean shareIndicators) {
+		this.shareIndicators = shareIndicators;
+		return (T) this;
+	}
+
+	public boolean shareIndicators() {
+		return shareIndicators;
+	}
 }
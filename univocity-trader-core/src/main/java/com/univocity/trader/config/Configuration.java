@@ -1,5 +1,6 @@
 package com.univocity.trader.config;
 
+import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 
 import java.time.*;
@@ -19,7 +20,14 @@ public abstract class Configuration<C extends Configuration<C, T>, T extends Acc
 	private TimeInterval tickInterval = minutes(1);
 	private boolean updateHistoryBeforeLiveTrading = true;
 	private boolean pollCandles = true;
+	private int backfillThreads = 4;
+	private int tickPartitions = 4;
+	private int tickBufferSize = 1024;
+	private TickPipeline.WaitStrategy tickWaitStrategy = TickPipeline.WaitStrategy.BLOCKING;
 	private Period warmUpPeriod;
+	private boolean instrumentation = false;
+	private boolean latencyTracing = false;
+	private TimeInterval latencyReportInterval = minutes(15);
 
 
 
@@ -109,6 +117,23 @@ public abstract class Configuration<C extends Configuration<C, T>, T extends Acc
 	@Override
 	public final void readProperties(PropertyBasedConfiguration properties) {
 		this.tickInterval = TimeInterval.fromString(properties.getProperty("tick.interval"));
+		backfillThreads(properties.getInteger("backfill.threads", backfillThreads));
+		tickPartitions(properties.getInteger("tick.pipeline.partitions", tickPartitions));
+		tickBufferSize(properties.getInteger("tick.pipeline.buffer.size", tickBufferSize));
+		instrumentation(properties.getBoolean("instrumentation.enabled", instrumentation));
+		latencyTracing(properties.getBoolean("latency.tracing.enabled", latencyTracing));
+		String reportInterval = properties.getOptionalProperty("latency.tracing.report.interval");
+		if (reportInterval != null) {
+			latencyReportInterval(TimeInterval.fromString(reportInterval));
+		}
+		String waitStrategy = properties.getOptionalProperty("tick.pipeline.wait.strategy");
+		if (waitStrategy != null) {
+			try {
+				tickWaitStrategy(TickPipeline.WaitStrategy.valueOf(waitStrategy.trim().toUpperCase()));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalConfigurationException("Invalid wait strategy '" + waitStrategy + "' defined by property 'tick.pipeline.wait.strategy'. Expected one of " + Arrays.toString(TickPipeline.WaitStrategy.values()));
+			}
+		}
 	}
 
 	protected abstract T newAccountConfiguration(String id);
@@ -132,6 +157,83 @@ public abstract class Configuration<C extends Configuration<C, T>, T extends Acc
 	}
 
 
+	public int backfillThreads() {
+		return backfillThreads;
+	}
+
+	/**
+	 * Defines how many symbols can have their history backfilled at the same time. Requests to the exchange are still
+	 * paced by {@link com.univocity.trader.Exchange#timeToWaitPerRequest()} and
+	 * {@link com.univocity.trader.Exchange#historicalRequestsPerMinute()} across all threads.
+	 *
+	 * @param backfillThreads the number of symbols to backfill in parallel
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public C backfillThreads(int backfillThreads) {
+		if (backfillThreads < 1) {
+			throw new IllegalArgumentException("Number of backfill threads must be at least 1");
+		}
+		this.backfillThreads = backfillThreads;
+		return (C) this;
+	}
+
+	public int tickPartitions() {
+		return tickPartitions;
+	}
+
+	/**
+	 * Defines how many threads process the ticks received from the exchange while trading live. Symbols are distributed
+	 * among these threads so that ticks of the same symbol are always processed in order, by the same thread.
+	 *
+	 * @param tickPartitions the number of threads processing live ticks.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public C tickPartitions(int tickPartitions) {
+		if (tickPartitions < 1) {
+			throw new IllegalArgumentException("Number of tick partitions must be at least 1");
+		}
+		this.tickPartitions = tickPartitions;
+		return (C) this;
+	}
+
+	public int tickBufferSize() {
+		return tickBufferSize;
+	}
+
+	/**
+	 * Defines how many live ticks each tick processing thread can buffer before the thread receiving ticks from the
+	 * exchange has to wait for space.
+	 *
+	 * @param tickBufferSize the capacity of the buffer of each tick processing thread. Rounded up to a power of two.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public C tickBufferSize(int tickBufferSize) {
+		if (tickBufferSize < 1) {
+			throw new IllegalArgumentException("Tick buffer size must be at least 1");
+		}
+		this.tickBufferSize = tickBufferSize;
+		return (C) this;
+	}
+
+	public TickPipeline.WaitStrategy tickWaitStrategy() {
+		return tickWaitStrategy;
+	}
+
+	/**
+	 * Defines how the threads processing live ticks wait for new ticks to arrive.
+	 *
+	 * @param tickWaitStrategy the wait strategy of the tick processing threads.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public C tickWaitStrategy(TickPipeline.WaitStrategy tickWaitStrategy) {
+		this.tickWaitStrategy = tickWaitStrategy == null ? TickPipeline.WaitStrategy.BLOCKING : tickWaitStrategy;
+		return (C) this;
+	}
+
 	public Period warmUpPeriod() {
 		return warmUpPeriod == null ? Period.ZERO : warmUpPeriod;
 	}
@@ -140,4 +242,63 @@ public abstract class Configuration<C extends Configuration<C, T>, T extends Acc
 		this.warmUpPeriod = warmUpPeriod;
 		return (C) this;
 	}
+
+	public boolean instrumentation() {
+		return instrumentation;
+	}
+
+	/**
+	 * Enables the collection of latency histograms of aggregators, indicators, strategies, strategy monitors and
+	 * order processing, per component class and symbol. The histograms are exposed through JMX and printed at the
+	 * end of each simulation. Disabled by default, in which case no timing code runs at all.
+	 *
+	 * @param instrumentation flag indicating whether the processing of candles should be instrumented.
+	 *
+	 * @return this configuration object, for further settings.
+	 *
+	 * @see com.univocity.trader.utils.Instrumentation
+	 */
+	public C instrumentation(boolean instrumentation) {
+		this.instrumentation = instrumentation;
+		return (C) this;
+	}
+
+	public boolean latencyTracing() {
+		return latencyTracing;
+	}
+
+	/**
+	 * Enables tracing of live ticks from the moment their websocket frame arrives until their processing ends,
+	 * including the preparation and submission of any orders. Latencies are recorded per symbol and logged
+	 * periodically, according to {@link #latencyReportInterval(TimeInterval)}.
+	 *
+	 * @param latencyTracing flag indicating whether the latency of live ticks should be traced.
+	 *
+	 * @return this configuration object, for further settings.
+	 *
+	 * @see com.univocity.trader.utils.LatencyTracer
+	 */
+	public C latencyTracing(boolean latencyTracing) {
+		this.latencyTracing = latencyTracing;
+		return (C) this;
+	}
+
+	public TimeInterval latencyReportInterval() {
+		return latencyReportInterval;
+	}
+
+	/**
+	 * Defines how often the latencies of live ticks are logged while {@link #latencyTracing(boolean)} is enabled.
+	 *
+	 * @param latencyReportInterval the interval between latency summaries in the log.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public C latencyReportInterval(TimeInterval latencyReportInterval) {
+		if (latencyReportInterval == null || latencyReportInterval.ms <= 0) {
+			throw new IllegalArgumentException("Latency report interval must be positive");
+		}
+		this.latencyReportInterval = latencyReportInterval;
+		return (C) this;
+	}
 }
\ No newline at end of file
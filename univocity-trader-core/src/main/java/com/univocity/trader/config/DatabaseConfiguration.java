@@ -1,5 +1,6 @@
 package com.univocity.trader.config;
 
+import com.univocity.trader.indicators.base.*;
 import org.apache.commons.lang3.*;
 import org.springframework.jdbc.core.*;
 import org.springframework.jdbc.datasource.*;
@@ -14,6 +15,8 @@ public class DatabaseConfiguration implements ConfigurationGroup {
 	private char[] password;
 	private String jdbcDriver;
 	private Supplier<DataSource> dataSource;
+	private int batchSize = 500;
+	private TimeInterval flushInterval = TimeInterval.seconds(1);
 	private final ThreadLocal<JdbcTemplate> db = ThreadLocal.withInitial(() -> new JdbcTemplate(dataSource()));
 
 	@Override
@@ -24,6 +27,12 @@ public class DatabaseConfiguration implements ConfigurationGroup {
 
 		String pwd = properties.getProperty("database.password");
 		password = pwd == null ? null : pwd.toCharArray();
+
+		batchSize(properties.getInteger("database.batch.size", 500));
+		String flush = properties.getOptionalProperty("database.flush.interval");
+		if (flush != null) {
+			flushInterval(TimeInterval.fromString(flush));
+		}
 	}
 
 	public String jdbcUrl() {
@@ -67,6 +76,45 @@ public class DatabaseConfiguration implements ConfigurationGroup {
 		return this;
 	}
 
+	public int batchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Defines the maximum number of candles sent to the database in a single JDBC batch when persisting history.
+	 *
+	 * @param batchSize the number of rows per batch insert
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public DatabaseConfiguration batchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be at least 1");
+		}
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	public TimeInterval flushInterval() {
+		return flushInterval;
+	}
+
+	/**
+	 * Defines how long candles received from the live stream can wait in memory to be grouped into a single batch before
+	 * they are written to the database.
+	 *
+	 * @param flushInterval the maximum delay before pending candles are written
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public DatabaseConfiguration flushInterval(TimeInterval flushInterval) {
+		if (flushInterval == null) {
+			throw new IllegalArgumentException("Flush interval can't be null");
+		}
+		this.flushInterval = flushInterval;
+		return this;
+	}
+
 	@Override
 	public boolean isConfigured() {
 		return dataSource != null || StringUtils.isNoneBlank(jdbcUrl, jdbcDriver, user);
@@ -43,6 +43,12 @@ public class Simulation implements ConfigurationGroup, Cloneable {
 	private LocalDateTime simulationStart;
 	private LocalDateTime simulationEnd;
 	private boolean cacheCandles = false;
+	private File candleDirectory = null;
+	private File resultCache = null;
+	private String strategyVersion = "";
+	private boolean warmUpSnapshots = false;
+	private File warmUpSnapshotDirectory = null;
+	private File stateDirectory = null;
 	private int activeQueryLimit = 15;
 	private TradingFees tradingFees = SimpleTradingFees.percentage(0.1);
 	private OrderFillEmulator orderFillEmulator = new PriceMatchEmulator();
@@ -53,6 +59,11 @@ public class Simulation implements ConfigurationGroup, Cloneable {
 	private LocalDateTime backfillTo = null;
 	private boolean resumeBackfill = false;
 	private boolean randomizeTicks;
+	private boolean eventDriven = false;
+	private boolean reuseAggregatedCandles = false;
+	private int workers = 1;
+	private int lockstepBatchSize = 1;
+	private SimulationReporter reporter = SimulationReporter.CONSOLE;
 
 	private Map<String, Double> initialFunds = new ConcurrentHashMap<>();
 	private Stream<Parameters> parameters = null;
@@ -135,11 +146,124 @@ public class Simulation implements ConfigurationGroup, Cloneable {
 		return this;
 	}
 
+	public boolean eventDriven() {
+		return eventDriven;
+	}
+
+	/**
+	 * Makes the simulation clock jump straight to the next timestamp with candles of any symbol, instead of
+	 * advancing one minute at a time. Speeds up simulations of sparse histories (e.g. stocks, which have no candles
+	 * over weekends and holidays) and allows sub-minute ticks to be processed in order when the
+	 * {@link Configuration#tickInterval()} is shorter than one minute.
+	 *
+	 * @param eventDriven flag to enable the event-driven simulation clock.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation eventDriven(boolean eventDriven) {
+		this.eventDriven = eventDriven;
+		return this;
+	}
+
+	public boolean reuseAggregatedCandles() {
+		return reuseAggregatedCandles;
+	}
+
+	/**
+	 * Makes the {@link com.univocity.trader.candles.Aggregator}s of each simulated symbol aggregate candles of longer
+	 * intervals in place, on preallocated candles, instead of allocating a new candle for every period. Reduces the
+	 * garbage produced by simulations of strategies with indicators of multiple intervals. Only enable this
+	 * if no indicator keeps references to full candles older than the previous one, as these will be overwritten.
+	 *
+	 * @param reuseAggregatedCandles flag to enable the reuse of aggregated candles.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation reuseAggregatedCandles(boolean reuseAggregatedCandles) {
+		this.reuseAggregatedCandles = reuseAggregatedCandles;
+		return this;
+	}
+
+	public int workers() {
+		return workers;
+	}
+
+	/**
+	 * Number of parameter sets simulated at the same time. Each worker thread replays the market with its own
+	 * accounts and trading engines, while candles are loaded only once and shared by all workers.
+	 *
+	 * @param workers the number of worker threads to use when simulating with multiple {@link Parameters}.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation workers(int workers) {
+		if (workers < 1) {
+			throw new IllegalArgumentException("Number of simulation workers must be positive. Got " + workers);
+		}
+		this.workers = workers;
+		return this;
+	}
+
+	public int lockstepBatchSize() {
+		return lockstepBatchSize;
+	}
+
+	/**
+	 * Number of parameter sets simulated together in a single pass over the candle history. Candles are read and
+	 * merged once per batch and processed by the trading engines of every parameter set in the batch, each trading
+	 * with its own accounts. Larger batches read the history fewer times but keep more account states in memory.
+	 *
+	 * @param lockstepBatchSize the number of parameter sets replayed together.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation lockstepBatchSize(int lockstepBatchSize) {
+		if (lockstepBatchSize < 1) {
+			throw new IllegalArgumentException("Lockstep batch size must be positive. Got " + lockstepBatchSize);
+		}
+		this.lockstepBatchSize = lockstepBatchSize;
+		return this;
+	}
+
+	public SimulationReporter reporter() {
+		return reporter;
+	}
+
+	/**
+	 * Receives the results of each account at the end of the simulation of each parameter set. When running with
+	 * multiple {@link #workers(int)}, the reporter is invoked concurrently and must be thread-safe.
+	 *
+	 * @param reporter the destination of simulation results. Defaults to {@link SimulationReporter#CONSOLE}
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation reporter(SimulationReporter reporter) {
+		if (reporter == null) {
+			throw new IllegalArgumentException("Simulation reporter cannot be null");
+		}
+		this.reporter = reporter;
+		return this;
+	}
+
 	@Override
 	public void readProperties(PropertyBasedConfiguration properties) {
 		simulateFrom(parseDateTime(properties, "simulation.start"));
 		simulateTo(parseDateTime(properties, "simulation.end"));
 		cacheCandles(properties.getBoolean("simulation.cache.candles", false));
+		if (properties.getOptionalProperty("simulation.candle.directory") != null) {
+			candleDirectory(properties.getValidatedDirectory("simulation.candle.directory", false, true, true, true));
+		}
+		if (properties.getOptionalProperty("simulation.result.cache") != null) {
+			resultCache(properties.getValidatedFile("simulation.result.cache", false, true, true, true));
+		}
+		strategyVersion(properties.getOptionalProperty("simulation.strategy.version"));
+		warmUpSnapshots(properties.getBoolean("simulation.warm.up.snapshots", false));
+		if (properties.getOptionalProperty("simulation.warm.up.snapshot.directory") != null) {
+			warmUpSnapshotDirectory(properties.getValidatedDirectory("simulation.warm.up.snapshot.directory", false, true, true, true));
+		}
+		if (properties.getOptionalProperty("simulation.state.directory") != null) {
+			stateDirectory(properties.getValidatedDirectory("simulation.state.directory", false, true, true, true));
+		}
 		activeQueryLimit(properties.getInteger("simulation.active.query.limit", 15));
 		tradingFees(parseTradingFees(properties, "simulation.trade.fees"));
 		orderFillEmulator(loadOrderFillEmulator(properties));
@@ -159,6 +283,10 @@ public class Simulation implements ConfigurationGroup, Cloneable {
 		backfillTo(parseDateTime(properties, "simulation.history.backfill.to"));
 		resumeBackfill(properties.getBoolean("simulation.history.backfill.resume", false));
 		randomizeTicks(properties.getBoolean("simulation.randomize.ticks", false));
+		eventDriven(properties.getBoolean("simulation.event.driven", false));
+		reuseAggregatedCandles(properties.getBoolean("simulation.reuse.aggregated.candles", false));
+		workers(properties.getInteger("simulation.workers", 1));
+		lockstepBatchSize(properties.getInteger("simulation.lockstep.batch.size", 1));
 
 		parseInitialFunds(properties);
 
@@ -297,6 +425,142 @@ public class Simulation implements ConfigurationGroup, Cloneable {
 		return this;
 	}
 
+	public File candleDirectory() {
+		return candleDirectory;
+	}
+
+	/**
+	 * Reads candles from files in the given directory (see {@link com.univocity.trader.candles.MemoryMappedCandleRepository})
+	 * instead of querying the database.
+	 *
+	 * @param candleDirectory the directory with the candle files of each symbol, or {@code null} to use the database.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation candleDirectory(File candleDirectory) {
+		this.candleDirectory = candleDirectory;
+		return this;
+	}
+
+	public Simulation candleDirectory(String candleDirectory) {
+		return candleDirectory(candleDirectory == null ? null : new File(candleDirectory));
+	}
+
+	public File resultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * Appends the results of each parameter set simulated to the given file, as soon as they are available. Parameter
+	 * sets with results already in the file are not simulated again, and their results are reported from the file instead.
+	 * Results are only reused for the same {@link #strategyVersion(String)}, simulation period, candle history, trading
+	 * fees, initial funds and account settings, so an interrupted simulation resumes from where it stopped.
+	 *
+	 * @param resultCache the file where results are stored, or {@code null} to simulate every parameter set.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation resultCache(File resultCache) {
+		this.resultCache = resultCache;
+		return this;
+	}
+
+	public Simulation resultCache(String resultCache) {
+		return resultCache(resultCache == null ? null : new File(resultCache));
+	}
+
+	public String strategyVersion() {
+		return strategyVersion;
+	}
+
+	/**
+	 * Identifies the current implementation of the strategies being simulated. Change it whenever the code of a strategy
+	 * changes so that results stored in the {@link #resultCache(File)} for older versions are not reused.
+	 *
+	 * @param strategyVersion any text identifying the version of the strategies.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation strategyVersion(String strategyVersion) {
+		this.strategyVersion = strategyVersion == null ? "" : strategyVersion;
+		return this;
+	}
+
+	public boolean warmUpSnapshots() {
+		return warmUpSnapshots || warmUpSnapshotDirectory != null;
+	}
+
+	/**
+	 * Captures the state of the indicators and strategies of each symbol at the end of the warm-up period (see
+	 * {@link Configuration#warmUpPeriod()}), and restores it into trading engines created later for the same
+	 * account, symbol and {@link Parameters}, which then skip the warm-up. Speeds up repeated simulations when the
+	 * warm-up period is long.
+	 *
+	 * State is captured with {@link com.univocity.trader.utils.Stateful#captureState(com.univocity.trader.utils.StateWriter)}.
+	 * Strategies and indicators that don't implement it are warmed up as usual, as are engines whose snapshot can't be
+	 * restored. Strategies that keep state in their own fields must override it, along with
+	 * {@link com.univocity.trader.utils.Stateful#restoreState(com.univocity.trader.utils.StateReader)}.
+	 *
+	 * @param warmUpSnapshots flag to enable snapshots of the warm-up state.
+	 *
+	 * @return this configuration object, for further settings.
+	 *
+	 * @see com.univocity.trader.utils.StateSnapshot
+	 */
+	public Simulation warmUpSnapshots(boolean warmUpSnapshots) {
+		this.warmUpSnapshots = warmUpSnapshots;
+		return this;
+	}
+
+	public File warmUpSnapshotDirectory() {
+		return warmUpSnapshotDirectory;
+	}
+
+	/**
+	 * Stores the {@link #warmUpSnapshots(boolean)} in the given directory so they can be reused by later runs of the
+	 * same simulation. Snapshots are only reused for the same {@link #strategyVersion(String)}, simulation period and
+	 * candle history.
+	 *
+	 * @param warmUpSnapshotDirectory the directory where snapshots are stored, or {@code null} to keep them only in memory.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation warmUpSnapshotDirectory(File warmUpSnapshotDirectory) {
+		this.warmUpSnapshotDirectory = warmUpSnapshotDirectory;
+		return this;
+	}
+
+	public Simulation warmUpSnapshotDirectory(String warmUpSnapshotDirectory) {
+		return warmUpSnapshotDirectory(warmUpSnapshotDirectory == null ? null : new File(warmUpSnapshotDirectory));
+	}
+
+	public File stateDirectory() {
+		return stateDirectory;
+	}
+
+	/**
+	 * Stores the full state of the simulation of each {@link Parameters} in the given directory when the simulation
+	 * ends: balances, open trades and orders, indicators and aggregators. A later run with the same
+	 * {@link #strategyVersion(String)}, {@link #simulateFrom()} date and warm-up period restores that state and only
+	 * processes the candles received after it, up to the new {@link #simulateTo()} date. Used to extend a simulation
+	 * with new candles without replaying the entire history.
+	 *
+	 * Only supported when parameter sets are simulated one at a time, i.e. without {@link #workers(int)} or
+	 * {@link #lockstepBatchSize(int)}. {@link #warmUpSnapshots(boolean)} are not used in this case.
+	 *
+	 * @param stateDirectory the directory where the state of each simulation is stored, or {@code null} to disable.
+	 *
+	 * @return this configuration object, for further settings.
+	 */
+	public Simulation stateDirectory(File stateDirectory) {
+		this.stateDirectory = stateDirectory;
+		return this;
+	}
+
+	public Simulation stateDirectory(String stateDirectory) {
+		return stateDirectory(stateDirectory == null ? null : new File(stateDirectory));
+	}
+
 	public Simulation initialFunds(double initialFunds) {
 		initialAmount("", initialFunds);
 		return this;
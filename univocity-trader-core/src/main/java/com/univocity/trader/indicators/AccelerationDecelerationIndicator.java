@@ -1,5 +1,7 @@
 package com.univocity.trader.indicators;
 
+import com.univocity.trader.utils.*;
+
 import com.univocity.trader.candles.Candle;
 import com.univocity.trader.indicators.base.SingleValueIndicator;
 import com.univocity.trader.indicators.base.TimeInterval;
@@ -43,4 +45,16 @@ public class AccelerationDecelerationIndicator extends SingleValueIndicator {
     protected Indicator[] children() {
         return new Indicator[]{awesome, ma};
     }
+
+    @Override
+    public void captureState(StateWriter out) {
+        super.captureState(out);
+        out.writeDouble(value);
+    }
+
+    @Override
+    public void restoreState(StateReader in) {
+        super.restoreState(in);
+        value = in.readDouble();
+    }
 }
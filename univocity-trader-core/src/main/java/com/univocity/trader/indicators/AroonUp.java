@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -10,8 +11,6 @@ public class AroonUp extends HighestValueIndicator {
 
 	private double value;
 	private final double length;
-	private double ticksSinceHigh;
-	private double tmpTicksSinceHigh;
 
 	public AroonUp(TimeInterval interval) {
 		this(25, interval);
@@ -26,37 +25,9 @@ public class AroonUp extends HighestValueIndicator {
 		this.length = length;
 	}
 
-	@Override
-	protected void valueUpdated(boolean recalculated, boolean updating) {
-		if (recalculated) {
-			double selected = super.getValue();
-			int size = this.values.size();
-
-			for (int i = 1; i <= size; i++) {
-				if (selected == values.getRecentValue(i)) {
-					if (updating) {
-						tmpTicksSinceHigh = i - 1;
-					} else {
-						ticksSinceHigh = i - 1;
-					}
-					break;
-				}
-			}
-		} else if (updating) {
-			tmpTicksSinceHigh = 0;
-		} else {
-			ticksSinceHigh = 0;
-		}
-	}
-
 	protected boolean calculateIndicatorValue(Candle candle, double value, boolean updating) {
 		if (super.calculateIndicatorValue(candle, value, updating)) {
-			if (!updating) {
-				this.value = ((length - ticksSinceHigh) / length) * 100.0;
-				ticksSinceHigh++;
-			} else {
-				this.value = ((length - tmpTicksSinceHigh) / length) * 100.0;
-			}
+			this.value = ((length - getSelectedValueAge()) / length) * 100.0;
 			return true;
 		}
 		return false;
@@ -72,4 +43,15 @@ public class AroonUp extends HighestValueIndicator {
 		return new Indicator[]{};
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+	}
 }
@@ -4,6 +4,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import static com.univocity.trader.indicators.Signal.*;
 
@@ -135,4 +136,26 @@ public class AwesomeOscillator extends SingleValueCalculationIndicator {
 		trough = 0;
 		return out;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(veryOld);
+		out.writeDouble(old);
+		out.writeDouble(peak);
+		out.writeInt(trough);
+		out.writeEnum(signal);
+		out.writeString(type);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		veryOld = in.readDouble();
+		old = in.readDouble();
+		peak = in.readDouble();
+		trough = in.readInt();
+		signal = in.readEnum(Signal.class);
+		type = in.readString();
+	}
 }
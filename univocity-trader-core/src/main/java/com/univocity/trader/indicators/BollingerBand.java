@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -13,6 +14,7 @@ public class BollingerBand extends MovingAverage {
 
 	private double stddev;
 	private final double multiplier;
+	private final CircularMomentsList moments;
 
 	public BollingerBand(TimeInterval interval) {
 		this(12, 2.0, interval);
@@ -31,7 +33,12 @@ public class BollingerBand extends MovingAverage {
 	}
 
 	public BollingerBand(int length, double multiplier, TimeInterval interval, ToDoubleFunction<Candle> valueGetter) {
-		super(length, interval, valueGetter == null ? c -> c.close : valueGetter);
+		this(new CircularMomentsList(length), multiplier, interval, valueGetter);
+	}
+
+	private BollingerBand(CircularMomentsList moments, double multiplier, TimeInterval interval, ToDoubleFunction<Candle> valueGetter) {
+		super(moments, interval, valueGetter == null ? c -> c.close : valueGetter);
+		this.moments = moments;
 		this.multiplier = multiplier;
 	}
 
@@ -50,13 +57,7 @@ public class BollingerBand extends MovingAverage {
 
 
 	private void updateStandardDeviation() {
-		double avg = getMiddleBand();
-		stddev = 0.0;
-		for (int i = 0; i < values.size(); i++) {
-			stddev += Math.pow(values.get(i) - avg, 2.0);
-		}
-		stddev = stddev / (double) values.capacity();
-		stddev = Math.sqrt(stddev);
+		stddev = Math.sqrt(moments.sumOfSquaredDeviations() / (double) values.capacity());
 	}
 
 	public double getUpperBand() {
@@ -78,4 +79,16 @@ public class BollingerBand extends MovingAverage {
 	public double getWidth(){
 		return ((getUpperBand() - getLowerBand()) / getMiddleBand()) * 100.0;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(stddev);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		stddev = in.readDouble();
+	}
 }
@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 public class BullishEngulfing extends SingleValueIndicator {
 
@@ -35,4 +36,17 @@ public class BullishEngulfing extends SingleValueIndicator {
 		return new Indicator[]{};
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+		out.writeCandle(prev);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+		prev = in.readCandle();
+	}
 }
@@ -96,4 +96,16 @@ public class CHOP extends SingleValueCalculationIndicator {
 	public void setLowChoppinessValue(double lowChoppinessValue) {
 		this.lowChoppinessValue = lowChoppinessValue;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(atrIndicators);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(atrIndicators);
+	}
 }
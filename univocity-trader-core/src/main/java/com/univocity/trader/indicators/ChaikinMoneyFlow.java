@@ -43,4 +43,18 @@ public class ChaikinMoneyFlow extends SingleValueIndicator {
     protected Indicator[] children() {
         return new Indicator[]{clv, volume};
     }
+
+    @Override
+    public void captureState(StateWriter out) {
+        super.captureState(out);
+        out.writeDouble(value);
+        out.writeState(mfl);
+    }
+
+    @Override
+    public void restoreState(StateReader in) {
+        super.restoreState(in);
+        value = in.readDouble();
+        in.readState(mfl);
+    }
 }
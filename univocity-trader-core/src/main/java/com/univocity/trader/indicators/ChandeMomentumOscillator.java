@@ -58,4 +58,19 @@ public class ChandeMomentumOscillator extends SingleValueIndicator {
 		return new Indicator[]{gainIndicator, lossIndicator};
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+		out.writeState(gains);
+		out.writeState(losses);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+		in.readState(gains);
+		in.readState(losses);
+	}
 }
@@ -4,6 +4,7 @@ import com.univocity.trader.account.*;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -43,4 +44,18 @@ public class ChangeIndicator extends SingleValueIndicator {
 	protected Indicator[] children() {
 		return new Indicator[]{};
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+		out.writeDouble(startingPoint);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+		startingPoint = in.readDouble();
+	}
 }
@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 public class ConnorsRSI extends SingleValueIndicator {
 
@@ -74,4 +75,16 @@ public class ConnorsRSI extends SingleValueIndicator {
 	public void setUpperBound(double upperBound) {
 		this.upperBound = upperBound;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+	}
 }
@@ -35,6 +35,11 @@ public class CorrelationCoefficient extends Statistic {
 		covariance = new Covariance(length, indicator1, indicator2);
 	}
 
+	@Override
+	protected Indicator[] children() {
+		return new Indicator[]{variance1, variance2, covariance};
+	}
+
 	@Override
 	protected boolean indicatorsAccumulated(Candle candle) {
 		return covariance.accumulate(candle) | variance1.accumulate(candle) | variance2.accumulate(candle);
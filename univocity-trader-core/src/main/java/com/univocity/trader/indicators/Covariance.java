@@ -73,4 +73,17 @@ public class Covariance extends Statistic {
 		return covariance / l1.size();
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(l1);
+		out.writeState(l2);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(l1);
+		in.readState(l2);
+	}
 }
@@ -50,4 +50,17 @@ public class DetrendedPriceOscillator extends SingleValueIndicator {
 		return new Indicator[]{ma};
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+		out.writeState(timeShift);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+		in.readState(timeShift);
+	}
 }
@@ -12,6 +12,9 @@ public class DirectionIndicator<T extends SingleValueIndicator> implements Indic
 	private ToDoubleFunction<T> valueGetter;
 	private final T indicator;
 	private final LinearRegression linearRegression = new LinearRegression();
+	private Candle lastInput;
+	private long lastInputCloseTime;
+	private boolean lastAccumulated;
 
 	public DirectionIndicator(T indicator) {
 		this(10, indicator);
@@ -47,11 +50,17 @@ public class DirectionIndicator<T extends SingleValueIndicator> implements Indic
 
 	@Override
 	public boolean accumulate(Candle candle) {
+		if (candle == lastInput && candle.closeTime == lastInputCloseTime) {
+			return lastAccumulated;
+		}
+		lastInput = candle;
+		lastInputCloseTime = candle.closeTime;
+		lastAccumulated = false;
 		if (indicator.accumulate(candle)) {
 			linearRegression.add(valueGetter.applyAsDouble(indicator));
-			return true;
+			lastAccumulated = true;
 		}
-		return false;
+		return lastAccumulated;
 	}
 
 	public boolean accumulate(double value) {
@@ -112,4 +121,16 @@ public class DirectionIndicator<T extends SingleValueIndicator> implements Indic
 	public String toString() {
 		return indicator.toString();
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeState(indicator);
+		out.writeState(linearRegression);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		in.readState(indicator);
+		in.readState(linearRegression);
+	}
 }
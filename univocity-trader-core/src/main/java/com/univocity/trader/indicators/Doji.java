@@ -49,4 +49,20 @@ public class Doji extends RealBodyIndicator {
 	public double getValue() {
 		return this.value;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+		out.writeDouble(prevAverageBodyHeightInd);
+		out.writeState(averageBodyHeightInd);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+		prevAverageBodyHeightInd = in.readDouble();
+		in.readState(averageBodyHeightInd);
+	}
 }
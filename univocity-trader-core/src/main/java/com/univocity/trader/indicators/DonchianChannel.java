@@ -4,6 +4,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import static com.univocity.trader.indicators.Signal.*;
 import static com.univocity.trader.indicators.base.TimeInterval.*;
@@ -62,5 +63,18 @@ public class DonchianChannel extends SingleValueCalculationIndicator {
 	public double getMiddleBand() {
 		return super.getValue();
 	}
-}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(upperBandValue);
+		out.writeDouble(lowerBandValue);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		upperBandValue = in.readDouble();
+		lowerBandValue = in.readDouble();
+	}
+}
@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -40,4 +41,18 @@ public class EldersForceIndex extends SingleValueCalculationIndicator {
 	protected Indicator[] children() {
 		return new Indicator[0];
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(previous);
+		out.writeState(average);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		previous = in.readDouble();
+		in.readState(average);
+	}
 }
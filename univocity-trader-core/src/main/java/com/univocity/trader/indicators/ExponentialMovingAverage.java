@@ -31,6 +31,26 @@ public class ExponentialMovingAverage extends SingleValueCalculationIndicator {
 		this.alpha = alpha;
 	}
 
+	@Override
+	public boolean accumulatesInBulk() {
+		return getClass() == ExponentialMovingAverage.class;
+	}
+
+	@Override
+	public int accumulateAll(double[] values, int from, int to) {
+		if (from >= to || !accumulatesInBulk()) {
+			return super.accumulateAll(values, from, to);
+		}
+		final double alpha = this.alpha;
+		int i = from;
+		double ema = getAccumulationCount() == 0 ? values[i++] : getPreviousValue();
+		for (; i < to; i++) {
+			ema = ema + alpha * (values[i] - ema);
+		}
+		setAccumulatedValue(ema, to - from);
+		return to - from;
+	}
+
 	@Override
 	protected double calculate(Candle candle, double value, double previousValue, boolean updating) {
 		if(getAccumulationCount() == 0){
@@ -42,4 +42,17 @@ public class IchimokuChikouSpan extends SingleValueIndicator {
 		return new Indicator[]{};
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(list);
+		out.writeDouble(value);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(list);
+		value = in.readDouble();
+	}
 }
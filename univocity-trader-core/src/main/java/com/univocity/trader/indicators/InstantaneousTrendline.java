@@ -165,4 +165,42 @@ public class InstantaneousTrendline extends SingleValueIndicator {
 	public double getZl() {
 		return zl;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(price);
+		out.writeState(phase);
+		out.writeState(value1);
+		out.writeState(value2);
+		out.writeState(value3);
+		out.writeState(value5);
+		out.writeState(value11);
+		out.writeState(inPhase);
+		out.writeState(quadrature);
+		out.writeState(deltaPhase);
+		out.writeState(instPeriod);
+		out.writeEnum(currentTrend);
+		out.writeDouble(trendLine);
+		out.writeDouble(zl);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(price);
+		in.readState(phase);
+		in.readState(value1);
+		in.readState(value2);
+		in.readState(value3);
+		in.readState(value5);
+		in.readState(value11);
+		in.readState(inPhase);
+		in.readState(quadrature);
+		in.readState(deltaPhase);
+		in.readState(instPeriod);
+		currentTrend = in.readEnum(Signal.class);
+		trendLine = in.readDouble();
+		zl = in.readDouble();
+	}
 }
@@ -60,5 +60,18 @@ public class KAMA extends SingleValueCalculationIndicator {
 	protected Indicator[] children() {
 		return new Indicator[0];
 	}
-}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(values);
+		out.writeState(volatility);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(values);
+		in.readState(volatility);
+	}
+}
@@ -2,6 +2,7 @@ package com.univocity.trader.indicators;
 
 import com.univocity.trader.candles.Candle;
 import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.utils.*;
 import com.univocity.trader.strategy.Indicator;
 
 import java.util.function.ToDoubleFunction;
@@ -37,4 +38,16 @@ public class LossIndicator extends SingleValueCalculationIndicator {
     protected Indicator[] children() {
         return new Indicator[]{};
     }
+
+    @Override
+    public void captureState(StateWriter out) {
+        super.captureState(out);
+        out.writeDouble(prev);
+    }
+
+    @Override
+    public void restoreState(StateReader in) {
+        super.restoreState(in);
+        prev = in.readDouble();
+    }
 }
@@ -48,4 +48,16 @@ public class MassIndex extends SingleValueIndicator {
 		}
 		return false;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(sum);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(sum);
+	}
 }
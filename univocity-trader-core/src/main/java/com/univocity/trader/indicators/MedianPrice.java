@@ -1,5 +1,7 @@
 package com.univocity.trader.indicators;
 
+import com.univocity.trader.utils.*;
+
 import com.univocity.trader.candles.Candle;
 import com.univocity.trader.indicators.base.SingleValueIndicator;
 import com.univocity.trader.indicators.base.TimeInterval;
@@ -29,4 +31,15 @@ public class MedianPrice extends SingleValueIndicator {
         return new Indicator[]{};
     }
 
+    @Override
+    public void captureState(StateWriter out) {
+        super.captureState(out);
+        out.writeDouble(value);
+    }
+
+    @Override
+    public void restoreState(StateReader in) {
+        super.restoreState(in);
+        value = in.readDouble();
+    }
 }
@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -21,12 +22,31 @@ public class MovingAverage extends MultiValueIndicator {
 		super(length, interval, valueGetter);
 	}
 
+	protected MovingAverage(CircularList values, TimeInterval interval, ToDoubleFunction<Candle> valueGetter) {
+		super(values, interval, valueGetter);
+	}
+
 	@Override
 	protected boolean calculateIndicatorValue(Candle candle, double value, boolean updating) {
 		this.value = values.avg();
 		return true;
 	}
 
+	@Override
+	public boolean accumulatesInBulk() {
+		return getClass() == MovingAverage.class;
+	}
+
+	@Override
+	public int accumulateAll(double[] values, int from, int to) {
+		if (from >= to || !accumulatesInBulk()) {
+			return super.accumulateAll(values, from, to);
+		}
+		addAll(values, from, to);
+		this.value = this.values.avg();
+		return to - from;
+	}
+
 	@Override
 	public double getValue() {
 		return value;
@@ -36,4 +56,16 @@ public class MovingAverage extends MultiValueIndicator {
 	protected Indicator[] children() {
 		return new Indicator[]{};
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+	}
 }
@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 public class OBV extends SingleValueCalculationIndicator {
 
@@ -39,4 +40,16 @@ public class OBV extends SingleValueCalculationIndicator {
 	protected Indicator[] children() {
 		return new Indicator[]{};
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(previous);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		previous = in.readDouble();
+	}
 }
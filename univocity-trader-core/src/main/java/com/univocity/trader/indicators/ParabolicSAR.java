@@ -15,8 +15,9 @@ public class ParabolicSAR extends SingleValueIndicator {
 
 	private boolean currentTrend; // true if uptrend, false otherwise
 	private long startTrendIndex = 0; // index of start bar of the current trend
-	private CircularList minPriceIndicator;
-	private CircularList maxPriceIndicator;
+	private final CircularList highs;
+	private final MonotonicWindow minPriceIndicator;
+	private final MonotonicWindow maxPriceIndicator;
 	private double currentExtremePoint; // the extreme point of the current calculation
 	private double minMaxExtremePoint; // depending on trend the maximum or minimum extreme point value of trend
 
@@ -55,8 +56,9 @@ public class ParabolicSAR extends SingleValueIndicator {
 	 */
 	public ParabolicSAR(double aF, double maxA, double increment, TimeInterval interval) {
 		super(interval, null);
-		maxPriceIndicator = new CircularList(5000);
-		minPriceIndicator = new CircularList(5000);
+		highs = new CircularList(2);
+		maxPriceIndicator = MonotonicWindow.highest(5000);
+		minPriceIndicator = MonotonicWindow.lowest(5000);
 		maxAcceleration = maxA;
 		accelerationFactor = aF;
 		accelerationIncrement = increment;
@@ -79,7 +81,7 @@ public class ParabolicSAR extends SingleValueIndicator {
 			this.sar = 0.0;
 			return; // no trend detection possible for the first value
 		} else if (getAccumulationCount() == 1) {// start trend detection
-			currentTrend = maxPriceIndicator.getRecentValue(2) < candle.close;
+			currentTrend = highs.getRecentValue(2) < candle.close;
 			if (!currentTrend) { // down trend
 				sar = candle.high; // put sar on max price of Candle
 				currentExtremePoint = sar;
@@ -121,7 +123,7 @@ public class ParabolicSAR extends SingleValueIndicator {
 				currentExtremePoint = candle.low; // put point on max
 				minMaxExtremePoint = currentExtremePoint;
 			} else { // up trend is going on
-				currentExtremePoint = maxPriceIndicator.getMax((int)(getAccumulationCount() - startTrendIndex));
+				currentExtremePoint = maxPriceIndicator.getValue((int)(getAccumulationCount() - startTrendIndex));
 				if (currentExtremePoint > minMaxExtremePoint) {
 					accelerationFactor = incrementAcceleration(accelerationFactor);
 					minMaxExtremePoint = currentExtremePoint;
@@ -139,7 +141,7 @@ public class ParabolicSAR extends SingleValueIndicator {
 				currentExtremePoint = candle.high;
 				minMaxExtremePoint = currentExtremePoint;
 			} else { // down trend io going on
-				currentExtremePoint = minPriceIndicator.getMin((int)(getAccumulationCount() - startTrendIndex));
+				currentExtremePoint = minPriceIndicator.getValue((int)(getAccumulationCount() - startTrendIndex));
 				if (currentExtremePoint < minMaxExtremePoint) {
 					accelerationFactor = incrementAcceleration(accelerationFactor);
 					minMaxExtremePoint = currentExtremePoint;
@@ -165,13 +167,9 @@ public class ParabolicSAR extends SingleValueIndicator {
 
 	@Override
 	protected boolean process(Candle candle, double value, boolean updating) {
-		if (updating) {
-			maxPriceIndicator.update(candle.high);
-			minPriceIndicator.update(candle.low);
-		} else {
-			maxPriceIndicator.add(candle.high);
-			minPriceIndicator.add(candle.low);
-		}
+		highs.accumulate(candle.high, updating);
+		maxPriceIndicator.accumulate(candle.high, updating);
+		minPriceIndicator.accumulate(candle.low, updating);
 
 		calculate(candle, updating);
 		return true;
@@ -193,4 +191,40 @@ public class ParabolicSAR extends SingleValueIndicator {
 	protected Indicator[] children() {
 		return new Indicator[]{};
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(accelerationFactor);
+		out.writeBoolean(currentTrend);
+		out.writeLong(startTrendIndex);
+		out.writeState(highs);
+		out.writeState(minPriceIndicator);
+		out.writeState(maxPriceIndicator);
+		out.writeDouble(currentExtremePoint);
+		out.writeDouble(minMaxExtremePoint);
+		out.writeDouble(tmpSar);
+		out.writeDouble(sar);
+		out.writeState(sarValues);
+		out.writeState(priceValues);
+		out.writeInt(ticksOnTrend);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		accelerationFactor = in.readDouble();
+		currentTrend = in.readBoolean();
+		startTrendIndex = in.readLong();
+		in.readState(highs);
+		in.readState(minPriceIndicator);
+		in.readState(maxPriceIndicator);
+		currentExtremePoint = in.readDouble();
+		minMaxExtremePoint = in.readDouble();
+		tmpSar = in.readDouble();
+		sar = in.readDouble();
+		in.readState(sarValues);
+		in.readState(priceValues);
+		ticksOnTrend = in.readInt();
+	}
 }
@@ -1,5 +1,7 @@
 package com.univocity.trader.indicators;
 
+import com.univocity.trader.utils.*;
+
 import com.univocity.trader.candles.Aggregator;
 import com.univocity.trader.candles.Candle;
 import com.univocity.trader.indicators.base.Statistic;
@@ -94,4 +96,17 @@ public class PearsonCorrelation extends Statistic {
 
     }
 
+    @Override
+    public void captureState(StateWriter out) {
+        super.captureState(out);
+        out.writeState(l1);
+        out.writeState(l2);
+    }
+
+    @Override
+    public void restoreState(StateReader in) {
+        super.restoreState(in);
+        in.readState(l1);
+        in.readState(l2);
+    }
 }
@@ -1,5 +1,7 @@
 package com.univocity.trader.indicators;
 
+import com.univocity.trader.utils.*;
+
 import com.univocity.trader.candles.Candle;
 import com.univocity.trader.indicators.base.SingleValueCalculationIndicator;
 import com.univocity.trader.indicators.base.TimeInterval;
@@ -39,4 +41,15 @@ public class PositiveVolumeIndex extends SingleValueCalculationIndicator {
         return new Indicator[]{};
     }
 
+    @Override
+    public void captureState(StateWriter out) {
+        super.captureState(out);
+        out.writeCandle(last);
+    }
+
+    @Override
+    public void restoreState(StateReader in) {
+        super.restoreState(in);
+        last = in.readCandle();
+    }
 }
@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 public class RSI extends SingleValueIndicator {
 
@@ -105,4 +106,18 @@ public class RSI extends SingleValueIndicator {
 	public void setLowerBound(double lowerBound) {
 		this.lowerBound = lowerBound;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeCandle(prev);
+		out.writeDouble(value);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		prev = in.readCandle();
+		value = in.readDouble();
+	}
 }
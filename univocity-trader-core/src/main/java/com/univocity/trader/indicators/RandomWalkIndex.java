@@ -89,4 +89,23 @@ public class RandomWalkIndex extends TrueRange {
 		return (rwiHigh - rwiLow) / (rwiHigh + rwiLow);
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(rwiLow);
+		out.writeDouble(rwiHigh);
+		out.writeState(highs);
+		out.writeState(lows);
+		out.writeState(trHistory);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		rwiLow = in.readDouble();
+		rwiHigh = in.readDouble();
+		in.readState(highs);
+		in.readState(lows);
+		in.readState(trHistory);
+	}
 }
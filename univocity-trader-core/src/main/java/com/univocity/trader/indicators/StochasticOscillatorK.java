@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 public class StochasticOscillatorK extends SingleValueIndicator {
 
@@ -40,4 +41,16 @@ public class StochasticOscillatorK extends SingleValueIndicator {
 	protected Indicator[] children() {
 		return new Indicator[]{lows, highs};
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+	}
 }
@@ -4,6 +4,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -76,4 +77,18 @@ public class TTMTrend extends SingleValueIndicator {
 	protected Indicator[] children() {
 		return new Indicator[]{avg};
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeInt(trendLength);
+		out.writeEnum(currentTrend);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		trendLength = in.readInt();
+		currentTrend = in.readEnum(Signal.class);
+	}
 }
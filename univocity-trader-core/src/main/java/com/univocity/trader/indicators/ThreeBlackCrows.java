@@ -86,4 +86,22 @@ public class ThreeBlackCrows extends MovingAverage {
 	public String signalDescription() {
 		return getSignal(null) == SELL ? "3 black crows" : "";
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(averageLowerShadowList);
+		out.writeCandle(whiteCandle);
+		out.writeCandle(c1);
+		out.writeCandle(c2);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(averageLowerShadowList);
+		whiteCandle = in.readCandle();
+		c1 = in.readCandle();
+		c2 = in.readCandle();
+	}
 }
@@ -1,5 +1,7 @@
 package com.univocity.trader.indicators;
 
+import com.univocity.trader.utils.*;
+
 import com.univocity.trader.candles.Candle;
 import com.univocity.trader.indicators.base.TimeInterval;
 import com.univocity.trader.utils.CircularList;
@@ -86,4 +88,22 @@ public class ThreeWhiteSoldiers extends MovingAverage {
     public String signalDescription() {
         return getSignal(null) == BUY ? "3 white soldiers" : "";
     }
+
+    @Override
+    public void captureState(StateWriter out) {
+        super.captureState(out);
+        out.writeState(averageUpperShadowList);
+        out.writeCandle(blackCandle);
+        out.writeCandle(c1);
+        out.writeCandle(c2);
+    }
+
+    @Override
+    public void restoreState(StateReader in) {
+        super.restoreState(in);
+        in.readState(averageUpperShadowList);
+        blackCandle = in.readCandle();
+        c1 = in.readCandle();
+        c2 = in.readCandle();
+    }
 }
@@ -40,4 +40,20 @@ public class VWAP extends SingleValueIndicator {
 	protected Indicator[] children() {
 		return new Indicator[]{};
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(typicalPrice);
+		out.writeState(volume);
+		out.writeDouble(value);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(typicalPrice);
+		in.readState(volume);
+		value = in.readDouble();
+	}
 }
\ No newline at end of file
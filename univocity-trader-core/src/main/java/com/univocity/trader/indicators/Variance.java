@@ -2,12 +2,14 @@ package com.univocity.trader.indicators;
 
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
 public class Variance extends MovingAverage {
 
 	protected double value;
+	private final CircularMomentsList moments;
 
 	public Variance(TimeInterval interval) {
 		this(4, interval);
@@ -18,26 +20,18 @@ public class Variance extends MovingAverage {
 	}
 
 	public Variance(int length, TimeInterval interval, ToDoubleFunction<Candle> valueGetter) {
-		super(length, interval, valueGetter == null ? c -> c.close : valueGetter);
+		this(new CircularMomentsList(length), interval, valueGetter);
+	}
+
+	private Variance(CircularMomentsList moments, TimeInterval interval, ToDoubleFunction<Candle> valueGetter) {
+		super(moments, interval, valueGetter == null ? c -> c.close : valueGetter);
+		this.moments = moments;
 	}
 
 	@Override
 	protected boolean calculateIndicatorValue(Candle candle, double value, boolean updating) {
 		if (super.calculateIndicatorValue(candle, value, updating)) {
-			final double average = super.getValue();
-
-			final int count = this.values.size();
-			int from = values.getStartingIndex();
-			int c = count;
-
-			double variance = 0;
-			while (c-- > 0) {
-				double v = values.get(from) - average;
-				variance += v * v;
-				from = (from + 1) % count;
-			}
-
-			this.value = variance / count;
+			this.value = moments.variance();
 			return true;
 		}
 		return false;
@@ -47,4 +41,16 @@ public class Variance extends MovingAverage {
 	public double getValue() {
 		return this.value;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(value);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		value = in.readDouble();
+	}
 }
@@ -3,6 +3,7 @@ package com.univocity.trader.indicators;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -73,4 +74,22 @@ public class WaddahAttarExplosion extends SingleValueIndicator {
 	protected Indicator[] children() {
 		return new Indicator[]{bb, macd};
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(trend);
+		out.writeDouble(newMacdValue);
+		out.writeDouble(oldMacdValue);
+		out.writeBoolean(upTrend);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		trend = in.readDouble();
+		newMacdValue = in.readDouble();
+		oldMacdValue = in.readDouble();
+		upTrend = in.readBoolean();
+	}
 }
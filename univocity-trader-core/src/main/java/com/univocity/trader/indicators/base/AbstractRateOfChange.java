@@ -37,5 +37,17 @@ public abstract class AbstractRateOfChange extends SingleValueIndicator {
 		return value;
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(values);
+		out.writeDouble(value);
+	}
 
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(values);
+		value = in.readDouble();
+	}
 }
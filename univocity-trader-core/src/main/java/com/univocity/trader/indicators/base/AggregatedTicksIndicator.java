@@ -3,6 +3,7 @@ package com.univocity.trader.indicators.base;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 public class AggregatedTicksIndicator implements Indicator {
 
@@ -13,6 +14,11 @@ public class AggregatedTicksIndicator implements Indicator {
 	long accumulationCount;
 	private boolean recalculateEveryTick = false;
 	private Candle lastFullCandle;
+	// indicators shared by multiple strategies receive the same tick more than once.
+	// merged candles are updated in place, so the close time identifies the tick.
+	private Candle lastInput;
+	private long lastInputCloseTime;
+	private boolean lastAccumulated;
 
 	public AggregatedTicksIndicator(TimeInterval timeInterval) {
 		this.timeInterval = timeInterval;
@@ -38,6 +44,16 @@ public class AggregatedTicksIndicator implements Indicator {
 
 	@Override
 	public final boolean accumulate(Candle candle) {
+		if (candle == lastInput && candle.closeTime == lastInputCloseTime) {
+			return lastAccumulated;
+		}
+		lastInput = candle;
+		lastInputCloseTime = candle.closeTime;
+		lastAccumulated = doAccumulate(candle);
+		return lastAccumulated;
+	}
+
+	private boolean doAccumulate(Candle candle) {
 		if (aggregator == null) {
 			try {
 				throw new IllegalStateException(getClass().getSimpleName() + " not properly initialized. Ensure nested indicators are returned in method `protected Indicator[] children()`");
@@ -79,6 +95,20 @@ public class AggregatedTicksIndicator implements Indicator {
 		return true;
 	}
 
+	/**
+	 * Increments the number of times this indicator was accumulated, for subclasses that accumulate many values in a
+	 * single call.
+	 *
+	 * @param count the number of values accumulated
+	 */
+	protected final void incrementAccumulationCount(int count) {
+		accumulationCount += count;
+	}
+
+	final void setLastFullCandle(Candle candle) {
+		lastFullCandle = candle;
+	}
+
 	public final Candle getLastFullCandle() {
 		if (lastFullCandle == null) {
 			return aggregator.getPartial();
@@ -130,6 +160,40 @@ public class AggregatedTicksIndicator implements Indicator {
 	}
 
 
+	/**
+	 * Writes the number of candles accumulated, the last full candle and the state of all {@link #children()}.
+	 * Subclasses that keep state of their own must override this method and {@link #restoreState(StateReader)},
+	 * invoking the implementation of their superclass.
+	 *
+	 * @param out the destination of the state
+	 */
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeLong(accumulationCount);
+		// usually the full candle of the aggregator, which is restored before its indicators.
+		boolean aggregated = lastFullCandle != null && aggregator != null && lastFullCandle == aggregator.getFull();
+		out.writeBoolean(aggregated);
+		if (!aggregated) {
+			out.writeCandle(lastFullCandle);
+		}
+		for (Indicator child : children()) {
+			out.writeState(child);
+		}
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		accumulationCount = in.readLong();
+		if (in.readBoolean()) {
+			lastFullCandle = aggregator.getFull();
+		} else {
+			lastFullCandle = in.readCandle();
+		}
+		for (Indicator child : children()) {
+			in.readState(child);
+		}
+	}
+
 	public final void recalculateEveryTick(boolean recalculateEveryTick) {
 		this.recalculateEveryTick = recalculateEveryTick;
 		for (Indicator indicator : children()) {
@@ -14,8 +14,12 @@ public abstract class MultiValueIndicator extends SingleValueIndicator {
 	private final LinearRegression linearRegression = new LinearRegression();
 
 	public MultiValueIndicator(int length, TimeInterval interval, ToDoubleFunction<Candle> valueGetter) {
+		this(new CircularList(length), interval, valueGetter);
+	}
+
+	protected MultiValueIndicator(CircularList values, TimeInterval interval, ToDoubleFunction<Candle> valueGetter) {
 		super(interval, valueGetter);
-		this.values = new CircularList(length);
+		this.values = values;
 	}
 
 	protected abstract boolean calculateIndicatorValue(Candle candle, double value, boolean updating);
@@ -33,6 +37,22 @@ public abstract class MultiValueIndicator extends SingleValueIndicator {
 		return calculateIndicatorValue(candle, value, false);
 	}
 
+	/**
+	 * Adds a sequence of values to this indicator, as done by {@link #accumulate(double)}, without calculating the
+	 * indicator value for each one of them.
+	 *
+	 * @param source the values to add
+	 * @param from   the position of the first value to add
+	 * @param to     the position after the last value to add
+	 */
+	protected final void addAll(double[] source, int from, int to) {
+		values.addAll(source, from, to);
+		for (int i = from; i < to; i++) {
+			linearRegression.add(source[i]);
+		}
+		incrementAccumulationCount(to - from);
+	}
+
 	public String toString() {
 		return values.capacity() + (',' + super.toString());
 	}
@@ -44,4 +64,18 @@ public abstract class MultiValueIndicator extends SingleValueIndicator {
 	public boolean movingDown(){
 		return linearRegression.predict(1) < this.getValue();
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(values);
+		out.writeState(linearRegression);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(values);
+		in.readState(linearRegression);
+	}
 }
@@ -1,6 +1,7 @@
 package com.univocity.trader.indicators.base;
 
 import com.univocity.trader.candles.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -30,6 +31,27 @@ public abstract class SingleValueCalculationIndicator extends SingleValueIndicat
 		return true;
 	}
 
+	/**
+	 * Returns the value calculated after the last full candle, ignoring any update made with a partial candle.
+	 *
+	 * @return the value calculated with the last value accumulated.
+	 */
+	protected final double getPreviousValue() {
+		return current;
+	}
+
+	/**
+	 * Sets the value calculated after accumulating many values in a single call.
+	 *
+	 * @param value the value calculated with the last value accumulated
+	 * @param count the number of values accumulated
+	 */
+	protected final void setAccumulatedValue(double value, int count) {
+		this.value = value;
+		this.current = value;
+		incrementAccumulationCount(count);
+	}
+
 	protected abstract double calculate(Candle candle, double value, double previousValue, boolean updating);
 
 	@Override
@@ -37,4 +59,17 @@ public abstract class SingleValueCalculationIndicator extends SingleValueIndicat
 		return value;
 	}
 
-}
\ No newline at end of file
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDouble(current);
+		out.writeDouble(value);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		current = in.readDouble();
+		value = in.readDouble();
+	}
+}
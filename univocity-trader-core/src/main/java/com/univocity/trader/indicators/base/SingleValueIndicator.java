@@ -3,6 +3,7 @@ package com.univocity.trader.indicators.base;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -57,6 +58,65 @@ public abstract class SingleValueIndicator extends AggregatedTicksIndicator {
 		return process(null, value, true);
 	}
 
+	/**
+	 * Accumulates a sequence of values in a single call, producing the same state as invoking
+	 * {@link #accumulate(double)} for each value. Indicators that return {@code true} from {@link #accumulatesInBulk()}
+	 * process the values in a tight loop.
+	 *
+	 * @param values the values to accumulate
+	 * @param from   the position of the first value to accumulate
+	 * @param to     the position after the last value to accumulate
+	 *
+	 * @return the number of values accumulated.
+	 */
+	public int accumulateAll(double[] values, int from, int to) {
+		int accumulated = 0;
+		for (int i = from; i < to; i++) {
+			if (accumulate(values[i])) {
+				accumulated++;
+			}
+		}
+		return accumulated;
+	}
+
+	/**
+	 * Indicates whether {@link #accumulateAll(double[], int, int)} is optimized, and whether accumulating a full candle
+	 * only depends on the value extracted from it. If so, the {@link TradingEngine} feeds the warm-up candles to this
+	 * indicator in bulk.
+	 *
+	 * @return {@code true} if this indicator can be accumulated in bulk.
+	 */
+	public boolean accumulatesInBulk() {
+		return false;
+	}
+
+	/**
+	 * Returns the value this indicator extracts from a full candle of its time frame.
+	 *
+	 * @param candle a full candle produced by the aggregator of this indicator
+	 *
+	 * @return the value to be accumulated.
+	 */
+	public final double valueOf(Candle candle) {
+		return extractValue(candle, false);
+	}
+
+	/**
+	 * Accumulates the values extracted with {@link #valueOf(Candle)} from consecutive full candles of this indicator's
+	 * time frame, producing the same state as accumulating each of these candles.
+	 *
+	 * @param values         the values extracted from each full candle
+	 * @param count          the number of values to accumulate
+	 * @param lastFullCandle the full candle the last value was extracted from
+	 */
+	public final void accumulateFullCandles(double[] values, int count, Candle lastFullCandle) {
+		if (count > 0) {
+			accumulateAll(values, 0, count);
+			setLastFullCandle(lastFullCandle);
+			signal = calculateSignal(lastFullCandle);
+		}
+	}
+
 	@Override
 	public final Signal getSignal(Candle candle) {
 		if (signal == null) {
@@ -68,4 +128,16 @@ public abstract class SingleValueIndicator extends AggregatedTicksIndicator {
 	protected Signal calculateSignal(Candle candle) {
 		return Signal.NEUTRAL;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeEnum(signal);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		signal = in.readEnum(Signal.class);
+	}
 }
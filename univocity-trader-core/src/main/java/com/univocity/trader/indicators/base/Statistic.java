@@ -3,6 +3,7 @@ package com.univocity.trader.indicators.base;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -10,8 +11,13 @@ public abstract class Statistic implements Indicator {
 
 	protected final int length;
 	protected final long interval;
+	private final Indicator indicator1;
+	private final Indicator indicator2;
 	private long count;
 	private double value;
+	private Candle lastInput;
+	private long lastInputCloseTime;
+	private boolean lastAccumulated;
 
 	public Statistic(int length, TimeInterval interval, ToDoubleFunction<Candle> indicator1, ToDoubleFunction<Candle> indicator2) {
 		this(length, new FunctionIndicator(interval, indicator1), new FunctionIndicator(interval, indicator2));
@@ -28,10 +34,26 @@ public abstract class Statistic implements Indicator {
 	public Statistic(int length, Indicator indicator1, Indicator indicator2) {
 		this.length = length;
 		this.interval = Math.min(indicator1.getInterval(), indicator2.getInterval());
+		this.indicator1 = indicator1;
+		this.indicator2 = indicator2;
 		initialize(indicator1, indicator2);
 
 	}
 
+	@Override
+	public void initialize(Aggregator aggregator) {
+		indicator1.initialize(aggregator);
+		indicator2.initialize(aggregator);
+		initialize(indicator1, indicator2);
+		for (Indicator child : children()) {
+			child.initialize(aggregator);
+		}
+	}
+
+	protected Indicator[] children() {
+		return new Indicator[0];
+	}
+
 	protected abstract void initialize(Indicator indicator1, Indicator indicator2);
 
 	protected abstract boolean indicatorsAccumulated(Candle candle);
@@ -40,12 +62,18 @@ public abstract class Statistic implements Indicator {
 
 	@Override
 	public final boolean accumulate(Candle candle) {
+		if (candle == lastInput && candle.closeTime == lastInputCloseTime) {
+			return lastAccumulated;
+		}
+		lastInput = candle;
+		lastInputCloseTime = candle.closeTime;
+		lastAccumulated = false;
 		if (indicatorsAccumulated(candle)) {
 			count++;
 			this.value = calculate();
-			return true;
+			lastAccumulated = true;
 		}
-		return false;
+		return lastAccumulated;
 	}
 
 	@Override
@@ -67,4 +95,26 @@ public abstract class Statistic implements Indicator {
 	public final Signal getSignal(Candle candle) {
 		return Signal.NEUTRAL;
 	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeLong(count);
+		out.writeDouble(value);
+		out.writeState(indicator1);
+		out.writeState(indicator2);
+		for (Indicator child : children()) {
+			out.writeState(child);
+		}
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		count = in.readLong();
+		value = in.readDouble();
+		in.readState(indicator1);
+		in.readState(indicator2);
+		for (Indicator child : children()) {
+			in.readState(child);
+		}
+	}
 }
@@ -1,6 +1,7 @@
 package com.univocity.trader.indicators.base;
 
 import com.univocity.trader.candles.*;
+import com.univocity.trader.utils.*;
 
 import java.util.function.*;
 
@@ -9,9 +10,7 @@ import java.util.function.*;
  */
 public abstract class ValueSelectionIndicator extends MultiValueIndicator {
 
-	private double updateValue = initialValue();
-	private double selectedValue = initialValue();
-	private int ticksLeft;
+	private final MonotonicWindow window;
 
 	public ValueSelectionIndicator(int length, TimeInterval interval) {
 		this(length, interval, c -> c.close);
@@ -19,68 +18,42 @@ public abstract class ValueSelectionIndicator extends MultiValueIndicator {
 
 	public ValueSelectionIndicator(int length, TimeInterval interval, ToDoubleFunction<Candle> valueGetter) {
 		super(length, interval, valueGetter);
-	}
-
-	private void recalculate(boolean updating) {
-		updateValue = selectedValue = initialValue();
-		final int len = values.size();
-		int tmp = len;
-		int start = values.i - 1;
-		while (--tmp >= 0) {
-			if (start < 0) {
-				start = len - 1;
-			}
-			double v = values.get(start--);
-			updateSelection(v, tmp);
-		}
-		valueUpdated(true, updating);
-	}
-
-	private boolean updateSelection(double value, int ticksLeft) {
-		double selected = select(value, selectedValue);
-		if (selected != selectedValue) {
-			selectedValue = value;
-			this.ticksLeft = ticksLeft;
-			return true;
-		}
-		return false;
-	}
-
-	protected void valueUpdated(boolean recalculated, boolean updating) {
-
+		this.window = new MonotonicWindow(length, this::select);
 	}
 
 	@Override
 	protected boolean calculateIndicatorValue(Candle candle, double value, boolean updating) {
-		if (updating) {
-			if (ticksLeft <= 0) {
-				recalculate(true);
-			}
-			double selected = select(value, selectedValue);
-			updateValue = selected == value ? selected : initialValue();
-		} else {
-			updateValue = initialValue();
-
-			ticksLeft--;
-			if (ticksLeft <= 0) {
-				recalculate(false);
-			} else {
-				if(updateSelection(value, values.size() - 1)) {
-					valueUpdated(false, false);
-				}
-			}
-		}
-
+		window.accumulate(value, updating);
 		return true;
 	}
 
+	/**
+	 * Returns how many values ago the currently selected value was received.
+	 *
+	 * @return {@code 0} if the selected value is the most recent one, {@code 1} if it's the value before that, and so on.
+	 */
+	protected final int getSelectedValueAge() {
+		return Math.max(0, window.getAge());
+	}
+
 	protected abstract double select(double v1, double v2);
 
 	protected abstract double initialValue();
 
 	@Override
 	public double getValue() {
-		return select(selectedValue, updateValue);
+		return window.size() == 0 ? initialValue() : window.getValue();
+	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeState(window);
 	}
 
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readState(window);
+	}
 }
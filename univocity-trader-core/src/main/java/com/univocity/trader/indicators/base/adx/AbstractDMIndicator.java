@@ -2,6 +2,7 @@ package com.univocity.trader.indicators.base.adx;
 
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.base.*;
+import com.univocity.trader.utils.*;
 
 public abstract class AbstractDMIndicator extends SingleValueCalculationIndicator {
 
@@ -26,5 +27,15 @@ public abstract class AbstractDMIndicator extends SingleValueCalculationIndicato
 
 	protected abstract double calculate(double upMove, double downMove);
 
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeCandle(prev);
+	}
 
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		prev = in.readCandle();
+	}
 }
\ No newline at end of file
@@ -26,19 +26,30 @@ public abstract class AbstractSimulator<C extends Configuration<C, A>, A extends
 
 	protected SimulatedAccountManager[] accounts() {
 		if (accounts == null) {
-			List<A> accountConfigs = configuration.accounts();
-			if (accountConfigs.isEmpty()) {
-				throw new IllegalStateException("No account configuration defined");
-			}
-			this.accounts = new SimulatedAccountManager[accountConfigs.size()];
-			int i = 0;
-			for (A accountConfig : accountConfigs) {
-				this.accounts[i++] = createAccountInstance(accountConfig).getAccount();
-			}
+			accounts = createAccounts();
 		}
 		return accounts;
 	}
 
+	/**
+	 * Creates a new set of accounts, one for each account configuration, which is independent from the set returned by
+	 * {@link #accounts()}.
+	 *
+	 * @return new simulated accounts.
+	 */
+	protected final SimulatedAccountManager[] createAccounts() {
+		List<A> accountConfigs = configuration.accounts();
+		if (accountConfigs.isEmpty()) {
+			throw new IllegalStateException("No account configuration defined");
+		}
+		SimulatedAccountManager[] out = new SimulatedAccountManager[accountConfigs.size()];
+		int i = 0;
+		for (A accountConfig : accountConfigs) {
+			out[i++] = createAccountInstance(accountConfig).getAccount();
+		}
+		return out;
+	}
+
 	protected SimulatedClientAccount createAccountInstance(A accountConfiguration) {
 		return new SimulatedClientAccount(accountConfiguration, configuration.simulation());
 	}
@@ -79,7 +90,11 @@ public abstract class AbstractSimulator<C extends Configuration<C, A>, A extends
 	}
 
 	protected final void resetBalances() {
-		for (SimulatedAccountManager account : accounts()) {
+		resetBalances(accounts());
+	}
+
+	protected final void resetBalances(SimulatedAccountManager[] accounts) {
+		for (SimulatedAccountManager account : accounts) {
 			account.resetBalances();
 			double[] total = new double[]{0};
 			simulation.initialAmounts().forEach((symbol, amount) -> {
@@ -5,12 +5,14 @@ import com.univocity.trader.account.*;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.config.*;
 import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
 import org.apache.commons.lang3.*;
 import org.slf4j.*;
 
 import java.time.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 import java.util.function.*;
 import java.util.stream.*;
 
@@ -23,9 +25,16 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 
 	private static final Logger log = LoggerFactory.getLogger(MarketSimulator.class);
 
+	private static final int WARM_UP_BLOCK = 4096;
+
 	private final Supplier<Exchange<?, A>> exchangeSupplier;
 	private CandleRepository candleRepository;
 	private ExecutorService executor;
+	private SimulationResultCache resultCache;
+	private WarmUpSnapshots warmUpSnapshots;
+	private SimulationCheckpoints checkpoints;
+	private SimulationCheckpoints.Checkpoint resumedFrom;
+	private String simulationContext;
 
 	protected MarketSimulator(C configuration, Supplier<Exchange<?, A>> exchangeSupplier) {
 		super(configuration);
@@ -38,6 +47,9 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 	}
 
 	protected CandleRepository createCandleRepository() {
+		if (simulation.candleDirectory() != null) {
+			return new MemoryMappedCandleRepository(configure().database(), simulation.candleDirectory());
+		}
 		return new CandleRepository(configure().database());
 	}
 
@@ -45,29 +57,334 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 	protected final void executeSimulation(Stream<Parameters> parameters) {
 		getCandleRepository();
 		executor = Executors.newCachedThreadPool();
+		if (configuration.instrumentation()) {
+			Instrumentation.enable();
+			Instrumentation.clear();
+		}
 		try {
+			if (simulation.resultCache() != null) {
+				resultCache = openResultCache();
+				parameters = parameters.filter(p -> !reportCachedResults(p));
+			}
+			if (simulation.stateDirectory() != null) {
+				if (simulation.workers() > 1 || simulation.lockstepBatchSize() > 1) {
+					log.warn("Simulation state is not stored when simulating multiple parameter sets at once");
+				} else {
+					checkpoints = new SimulationCheckpoints(simulation.strategyVersion() + "|" + getSimulationStart() + "|" + configuration.warmUpPeriod(), simulation.stateDirectory());
+				}
+			}
+			if (simulation.warmUpSnapshots() && checkpoints == null) {
+				warmUpSnapshots = new WarmUpSnapshots(getSimulationContext(), simulation.warmUpSnapshotDirectory());
+			}
 			executeWithParameters(parameters);
 		} finally {
 			executor.shutdown();
 			candleRepository.clearCaches();
+			if (resultCache != null) {
+				resultCache.close();
+				resultCache = null;
+			}
+			if (warmUpSnapshots != null) {
+				log.debug("{} warm-up snapshots created", warmUpSnapshots.size());
+				warmUpSnapshots = null;
+			}
+			checkpoints = null;
+			simulationContext = null;
+			if (configuration.instrumentation()) {
+				String report = Instrumentation.report();
+				if (!report.isEmpty()) {
+					simulation.reporter().reportInstrumentation(report);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Identifies the strategy version, simulation period and candle history of the current simulation, so that
+	 * results and warm-up snapshots stored for a different simulation are not reused.
+	 */
+	private String getSimulationContext() {
+		if (simulationContext == null) {
+			simulationContext = simulation.strategyVersion() + "|" + getSimulationStart() + "|" + getSimulationEnd() + "|" + configuration.warmUpPeriod() + "|" + Long.toHexString(fingerprintCandles());
+		}
+		return simulationContext;
+	}
+
+	private SimulationResultCache openResultCache() {
+		String context = getSimulationContext() + "|" + Long.toHexString(fingerprintConfiguration());
+		SimulationResultCache cache = new SimulationResultCache(simulation.resultCache(), context);
+		log.info("Loaded results of {} parameter sets from {}", cache.size(), simulation.resultCache().getAbsolutePath());
+		return cache;
+	}
+
+	/**
+	 * Computes a hash of the account and simulation settings that affect the results of a simulation, such as trading
+	 * fees, initial funds and investment limits, so that results stored in the
+	 * {@link com.univocity.trader.config.Simulation#resultCache(java.io.File)} are not reused once they change.
+	 */
+	private long fingerprintConfiguration() {
+		StringBuilder out = new StringBuilder();
+		out.append(describe(simulation.tradingFees()));
+		out.append('|').append(describe(simulation.orderFillEmulator()));
+		out.append('|').append(new TreeMap<>(simulation.initialAmounts()));
+		out.append('|').append(simulation.randomizeTicks());
+		out.append('|').append(configuration.tickInterval());
+		for (A account : configuration.accounts()) {
+			describe(out, account);
+			out.append('|').append(account.marginReservePercentage());
+			for (TradingGroup group : account.tradingGroups()) {
+				describe(out, group);
+			}
+		}
+
+		long hash = 1125899906842597L;
+		for (int i = 0; i < out.length(); i++) {
+			hash = 31 * hash + out.charAt(i);
+		}
+		return hash;
+	}
+
+	private static void describe(StringBuilder out, AbstractTradingGroup<?> group) {
+		out.append('|').append(group.id());
+		out.append('|').append(group.referenceCurrency());
+		out.append('|').append(group.shortingEnabled());
+		out.append('|').append(group.processFullCandlesOnly());
+		out.append('|').append(group.shareIndicators());
+		out.append('|').append(new TreeSet<>(group.symbolPairs().keySet()));
+		for (String symbol : new TreeSet<>(group.symbols())) {
+			out.append('|').append(symbol);
+			out.append(',').append(group.maximumInvestmentPercentagePerAsset(symbol));
+			out.append(',').append(group.maximumInvestmentAmountPerAsset(symbol));
+			out.append(',').append(group.maximumInvestmentPercentagePerTrade(symbol));
+			out.append(',').append(group.maximumInvestmentAmountPerTrade(symbol));
+			out.append(',').append(group.minimumInvestmentAmountPerTrade(symbol));
+		}
+		for (String symbol : new TreeSet<>(group.symbolPairs().keySet())) {
+			out.append('|').append(symbol).append(',').append(describe(group.orderManager(symbol)));
+		}
+	}
+
+	// fees, order fill emulators and order managers are usually created from a class name and may not implement toString.
+	private static String describe(Object o) {
+		if (o == null) {
+			return "null";
+		}
+		return o instanceof SimpleTradingFees ? o.toString() : o.getClass().getName();
+	}
+
+	/**
+	 * Computes a hash of all candles of all symbols that are part of the simulation, so that results stored in the
+	 * {@link com.univocity.trader.config.Simulation#resultCache(java.io.File)} are not reused if the history changes.
+	 */
+	private long fingerprintCandles() {
+		Set<String> symbols = new TreeSet<>();
+		for (AccountManager account : accounts()) {
+			symbols.addAll(account.getAllSymbolPairs().keySet());
+		}
+
+		Instant from = getSimulationStart().minus(configuration.warmUpPeriod()).toInstant(ZoneOffset.UTC);
+		Instant to = getSimulationEnd().toInstant(ZoneOffset.UTC);
+		boolean loadAllDataFirst = simulation.cacheCandles() || simulation.workers() > 1;
+
+		long hash = 1125899906842597L;
+		for (String symbol : symbols) {
+			hash = 31 * hash + symbol.hashCode();
+			Enumeration<Candle> candles = candleRepository.iterate(symbol, from, to, loadAllDataFirst);
+			while (candles.hasMoreElements()) {
+				Candle candle = candles.nextElement();
+				if (candle == null) {
+					break;
+				}
+				hash = 31 * hash + candle.openTime;
+				hash = 31 * hash + candle.closeTime;
+				hash = 31 * hash + Double.doubleToLongBits(candle.open);
+				hash = 31 * hash + Double.doubleToLongBits(candle.high);
+				hash = 31 * hash + Double.doubleToLongBits(candle.low);
+				hash = 31 * hash + Double.doubleToLongBits(candle.close);
+				hash = 31 * hash + Double.doubleToLongBits(candle.volume);
+			}
 		}
+		return hash;
+	}
+
+	private boolean reportCachedResults(Parameters parameters) {
+		List<SimulationResult> results = resultCache.get(parameters);
+		if (results == null || results.size() != accounts().length) {
+			return false;
+		}
+		for (SimulationResult result : results) {
+			simulation.reporter().report(result);
+		}
+		return true;
 	}
 
 	protected void executeWithParameters(Stream<Parameters> parameters) {
+		int workers = simulation.workers();
+		int batchSize = simulation.lockstepBatchSize();
+		if (workers > 1) {
+			executeInParallel(parameters, workers, batchSize);
+			return;
+		}
+		if (batchSize > 1) {
+			executeInLockstep(parameters, batchSize);
+			return;
+		}
 		parameters.forEach(p -> {
 			initialize();
-			executeSimulation(createEngines(p));
+			if (checkpoints == null) {
+				executeSimulation(createEngines(p));
+			} else {
+				executeFromCheckpoint(p);
+			}
 //			liquidateOpenPositions();
 			reportResults(p);
 		});
 	}
 
+	/**
+	 * Restores the state stored at the end of the previous simulation of the given parameters, if any, so that only
+	 * the candles received after it are processed. The state at the end of the simulation is stored for the next run.
+	 *
+	 * @param parameters the parameter set to simulate
+	 */
+	private void executeFromCheckpoint(Parameters parameters) {
+		SimulatedAccountManager[] accounts = accounts();
+		Map<String, Engine[]> engines = createEngines(accounts, parameters);
+		SimulationCheckpoints.Checkpoint checkpoint = checkpoints.restore(parameters, accounts, engines, getEndTime());
+
+		MarketReader[] readers = executeSimulation(engines, checkpoint);
+
+		Map<String, Long> lastOpenTimes = new HashMap<>();
+		if (checkpoint != null) {
+			lastOpenTimes.putAll(checkpoint.lastOpenTimes);
+		}
+		for (MarketReader reader : readers) {
+			if (reader.lastOpenTime != Long.MIN_VALUE) {
+				lastOpenTimes.put(reader.symbol, reader.lastOpenTime);
+			}
+		}
+		checkpoints.save(parameters, accounts, engines, lastOpenTimes, getEndTime());
+	}
+
+	/**
+	 * Simulates the given parameter sets in batches, where the engines of all parameter sets in a batch are driven
+	 * by a single pass over the candle history. Each parameter set of a batch trades with its own set of accounts,
+	 * which is reused by the next batch.
+	 *
+	 * @param parameters the parameter sets to simulate
+	 * @param batchSize  the number of parameter sets replayed together
+	 */
+	protected void executeInLockstep(Stream<Parameters> parameters, int batchSize) {
+		List<SimulatedAccountManager[]> accountSets = new ArrayList<>(batchSize);
+		forEachBatch(parameters, batchSize, batch -> executeBatch(accountSets, batch));
+	}
+
+	/**
+	 * Simulates each batch of parameter sets in one of the given number of worker threads. Every worker creates its own
+	 * accounts (and trading engines for each parameter set) with {@link #createAccounts()}, so no trading state is shared
+	 * between workers. Candles are always cached by the {@link CandleRepository}, which loads each symbol only once
+	 * and lets all workers iterate over the same in-memory history.
+	 *
+	 * @param parameters the parameter sets to simulate
+	 * @param workers    the number of batches to simulate at the same time
+	 * @param batchSize  the number of parameter sets replayed together by each worker (see {@link #executeInLockstep(Stream, int)})
+	 */
+	protected void executeInParallel(Stream<Parameters> parameters, int workers, int batchSize) {
+		final ThreadLocal<List<SimulatedAccountManager[]>> workerAccounts = ThreadLocal.withInitial(() -> new ArrayList<>(batchSize));
+		final AtomicInteger workerCount = new AtomicInteger(0);
+		final AtomicReference<RuntimeException> error = new AtomicReference<>();
+		final Semaphore pending = new Semaphore(workers * 2);
+
+		ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+			Thread thread = new Thread(r, "Simulation worker " + workerCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			forEachBatch(parameters, batchSize, batch -> {
+				if (error.get() != null) {
+					return;
+				}
+				pending.acquireUninterruptibly();
+				pool.execute(() -> {
+					try {
+						if (error.get() == null) {
+							executeBatch(workerAccounts.get(), batch);
+						}
+					} catch (RuntimeException e) {
+						log.error("Error simulating with parameters " + batch, e);
+						error.compareAndSet(null, e);
+					} finally {
+						pending.release();
+					}
+				});
+			});
+		} finally {
+			pool.shutdown();
+			try {
+				while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+					log.debug("Waiting for simulation workers to finish");
+				}
+			} catch (InterruptedException e) {
+				pool.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		if (error.get() != null) {
+			throw error.get();
+		}
+	}
+
+	private void forEachBatch(Stream<Parameters> parameters, int batchSize, Consumer<List<Parameters>> consumer) {
+		List<Parameters> batch = new ArrayList<>(batchSize);
+		Iterator<Parameters> it = parameters.iterator();
+		while (it.hasNext()) {
+			batch.add(it.next());
+			if (batch.size() >= batchSize) {
+				consumer.accept(batch);
+				batch = new ArrayList<>(batchSize);
+			}
+		}
+		if (!batch.isEmpty()) {
+			consumer.accept(batch);
+		}
+	}
+
+	private void executeBatch(List<SimulatedAccountManager[]> accountSets, List<Parameters> batch) {
+		while (accountSets.size() < batch.size()) {
+			accountSets.add(createAccounts());
+		}
+
+		Map<String, List<Engine>> tmp = new HashMap<>();
+		for (int i = 0; i < batch.size(); i++) {
+			SimulatedAccountManager[] accounts = accountSets.get(i);
+			resetBalances(accounts);
+			createEngines(accounts, batch.get(i)).forEach((symbol, engines) -> Collections.addAll(tmp.computeIfAbsent(symbol, s -> new ArrayList<>()), engines));
+		}
+
+		Map<String, Engine[]> symbolHandlers = new HashMap<>();
+		tmp.forEach((k, v) -> symbolHandlers.put(k, v.toArray(Engine[]::new)));
+
+		executeSimulation(symbolHandlers);
+
+		for (int i = 0; i < batch.size(); i++) {
+			reportResults(accountSets.get(i), batch.get(i));
+		}
+	}
+
 	protected final Map<String, Engine[]> createEngines(Parameters parameters) {
+		return createEngines(accounts(), parameters);
+	}
+
+	protected final Map<String, Engine[]> createEngines(SimulatedAccountManager[] accounts, Parameters parameters) {
 		Set<Object> allInstances = new HashSet<>();
+		boolean reuseAggregatedCandles = configuration.simulation().reuseAggregatedCandles();
 
 		Map<String, List<Engine>> tmp = new HashMap<>();
 
-		for (AccountManager account : accounts()) {
+		for (AccountManager account : accounts) {
 			SimulatedExchange exchange = new SimulatedExchange(account);
 
 			for (String symbol : account.getAllSymbolPairs().keySet()) {
@@ -75,7 +392,9 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 			}
 
 			account.forEachTradingManager(tradingManager -> {
-				Engine engine = new TradingEngine(tradingManager, parameters, allInstances);
+				TradingEngine tradingEngine = new TradingEngine(tradingManager, parameters, allInstances, reuseAggregatedCandles);
+				// warm-up snapshots are disabled when the simulation state is stored, as resumed simulations have no warm-up.
+				Engine engine = warmUpSnapshots == null ? tradingEngine : warmUpSnapshots.wrap(tradingEngine, account.accountId(), parameters);
 				tmp.computeIfAbsent(engine.getSymbol(), s -> new ArrayList<>()).add(engine);
 			});
 		}
@@ -89,6 +408,16 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 	}
 
 	protected final void executeSimulation(Map<String, Engine[]> symbolHandlers) {
+		executeSimulation(symbolHandlers, null);
+	}
+
+	/**
+	 * Processes the candles of all symbols. If a checkpoint is given, only candles received after the checkpoint are
+	 * processed, without warm-up.
+	 *
+	 * @return the readers of the candles of each symbol.
+	 */
+	private MarketReader[] executeSimulation(Map<String, Engine[]> symbolHandlers, SimulationCheckpoints.Checkpoint checkpoint) {
 		ConcurrentHashMap<String, Enumeration<Candle>> markets = new ConcurrentHashMap<>();
 
 		LocalDateTime start = getSimulationStart();
@@ -102,10 +431,11 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 		Map<String, CompletableFuture<Enumeration<Candle>>> futures = new HashMap<>();
 		for (String symbol : symbolHandlers.keySet()) {
 			activeQueries++;
-			boolean loadAllDataFirst = simulation.cacheCandles() || activeQueries > simulation.activeQueryLimit();
+			boolean loadAllDataFirst = simulation.cacheCandles() || simulation.workers() > 1 || activeQueries > simulation.activeQueryLimit();
+			Instant symbolFrom = checkpoint == null ? from : Instant.ofEpochMilli(checkpoint.processedUntil(symbol) + 1);
 
 			futures.put(symbol, CompletableFuture.supplyAsync(
-					() -> candleRepository.iterate(symbol, from, to, loadAllDataFirst), executor)
+					() -> candleRepository.iterate(symbol, symbolFrom, to, loadAllDataFirst), executor)
 			);
 		}
 
@@ -120,7 +450,34 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 		final var sortedMarkets = new TreeMap<>(markets);
 		MarketReader[] readers = buildMarketReaderList(sortedMarkets, symbolHandlers);
 
-		executeSimulation(readers);
+		resumedFrom = checkpoint;
+		try {
+			executeSimulation(readers);
+		} finally {
+			resumedFrom = null;
+		}
+		return readers;
+	}
+
+	/**
+	 * Determines when each reader stops warming up. A simulation resumed from a checkpoint has no warm-up, and its
+	 * clock restarts at the last minute simulated by the previous run, as the candles received after the previous
+	 * run ended might belong to that minute.
+	 *
+	 * @return the first clock value of the simulation.
+	 */
+	private long determineStartTimes(MarketReader[] readers, long startTime) {
+		if (resumedFrom == null) {
+			determineStartTimes(readers);
+			return startTime;
+		}
+		for (MarketReader reader : readers) {
+			if (reader.pending == null && reader.input.hasMoreElements()) {
+				reader.pending = reader.input.nextElement();
+			}
+			reader.startTime = Long.MIN_VALUE;
+		}
+		return startTime + Math.max(0L, (resumedFrom.endTime - startTime) / MINUTE.ms) * MINUTE.ms;
 	}
 
 	private void determineStartTimes(MarketReader[] readers) {
@@ -160,15 +517,20 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 	}
 
 	protected void executeSimulation(MarketReader[] readers) {
+		if (simulation.eventDriven()) {
+			executeEventDrivenSimulation(readers);
+			return;
+		}
+
 		final long startTime = getStartTime(configuration.warmUpPeriod());
 		final long endTime = getEndTime();
 
 		boolean randomize = configuration.simulation().randomizeTicks();
 
-		determineStartTimes(readers);
-
+		final long firstClock = determineStartTimes(readers, startTime);
 
-		for (long clock = startTime; clock <= endTime; clock += MINUTE.ms) {
+		boolean warmingUp = true;
+		for (long clock = firstClock; clock <= endTime; clock += MINUTE.ms) {
 			if (randomize) {
 				ArrayUtils.shuffle(readers);
 			}
@@ -178,9 +540,7 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 				Candle candle = reader.pending;
 				if (candle != null && candle.close > 0) {
 					if (candle.openTime + 1 >= clock && candle.openTime <= clock + MINUTE.ms - 1) {
-						for (int j = 0; j < reader.engines.length; j++) {
-							reader.engines[j].process(candle, clock <= reader.startTime);
-						}
+						warmingUp = process(readers, reader, candle, clock <= reader.startTime, warmingUp);
 
 						reader.pending = null;
 						if (reader.input.hasMoreElements()) {
@@ -206,6 +566,125 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 				clock -= MINUTE.ms;
 			}
 		}
+		flushWarmUp(readers);
+	}
+
+	/**
+	 * Engines don't trade during the warm-up period, so the warm-up candles of each reader are buffered and processed
+	 * in blocks through {@link Engine#warmUp(Candle[], int, int)}. All buffers are flushed before the first candle of
+	 * any reader is traded, as trading depends on the latest prices of all symbols.
+	 *
+	 * @return {@code true} if no candle was traded yet.
+	 */
+	private static boolean process(MarketReader[] readers, MarketReader reader, Candle candle, boolean initializing, boolean warmingUp) {
+		reader.lastOpenTime = candle.openTime;
+		if (warmingUp) {
+			if (initializing) {
+				reader.bufferWarmUp(candle);
+				return true;
+			}
+			flushWarmUp(readers);
+		}
+		for (int j = 0; j < reader.engines.length; j++) {
+			reader.engines[j].process(candle, initializing);
+		}
+		return false;
+	}
+
+	private static void flushWarmUp(MarketReader[] readers) {
+		for (int i = 0; i < readers.length; i++) {
+			readers[i].flushWarmUp();
+		}
+	}
+
+	/**
+	 * Merges the candles of all readers with a heap ordered by {@link Candle#openTime}, so the clock only stops at time
+	 * slots that have data. Each slot spans the configured {@link Configuration#tickInterval()} (at most one minute) and is
+	 * processed exactly as in the minute-by-minute loop: one candle per reader per pass, in reader order (or shuffled
+	 * if {@link Simulation#randomizeTicks()}), repeating the pass while any reader has more candles in the slot.
+	 *
+	 * @param readers the market readers whose candles will be merged and processed
+	 */
+	protected void executeEventDrivenSimulation(MarketReader[] readers) {
+		final long startTime = getStartTime(configuration.warmUpPeriod());
+		final long endTime = getEndTime();
+		final long slot = Math.max(1L, Math.min(MINUTE.ms, configuration.tickInterval().ms));
+
+		boolean randomize = configuration.simulation().randomizeTicks();
+
+		determineStartTimes(readers, startTime);
+
+		PriorityQueue<MarketReader> queue = new PriorityQueue<>(Math.max(1, readers.length), (a, b) -> {
+			int cmp = Long.compare(a.pending.openTime, b.pending.openTime);
+			return cmp != 0 ? cmp : Integer.compare(a.index, b.index);
+		});
+
+		for (int i = 0; i < readers.length; i++) {
+			MarketReader reader = readers[i];
+			reader.index = i;
+			if (reader.pending != null && reader.pending.close <= 0) {
+				reader.pending = null;
+			}
+			if (reader.pending != null || readNext(reader)) {
+				queue.add(reader);
+			}
+		}
+
+		Comparator<MarketReader> readerOrder = Comparator.comparingInt(r -> r.index);
+		boolean warmingUp = true;
+		List<MarketReader> active = new ArrayList<>(readers.length);
+		List<MarketReader> next = new ArrayList<>(readers.length);
+
+		while (!queue.isEmpty()) {
+			long openTime = queue.peek().pending.openTime;
+			final long clock = openTime < startTime ? openTime : startTime + ((openTime - startTime) / slot) * slot;
+			if (clock > endTime) {
+				break;
+			}
+			final long slotEnd = clock + slot - 1;
+
+			while (!queue.isEmpty() && queue.peek().pending.openTime <= slotEnd) {
+				active.add(queue.poll());
+			}
+
+			while (!active.isEmpty()) {
+				if (randomize) {
+					Collections.shuffle(active);
+				} else {
+					active.sort(readerOrder);
+				}
+				for (int i = 0; i < active.size(); i++) {
+					MarketReader reader = active.get(i);
+					Candle candle = reader.pending;
+					warmingUp = process(readers, reader, candle, clock <= reader.startTime, warmingUp);
+
+					if (readNext(reader)) {
+						if (reader.pending.openTime <= slotEnd) {
+							next.add(reader);
+						} else {
+							queue.add(reader);
+						}
+					}
+				}
+				List<MarketReader> tmp = active;
+				active = next;
+				next = tmp;
+				next.clear();
+			}
+		}
+		flushWarmUp(readers);
+	}
+
+	private boolean readNext(MarketReader reader) {
+		reader.pending = null;
+		while (reader.input.hasMoreElements()) {
+			Candle next = reader.input.nextElement();
+			if (next != null && next.close > 0) {
+				reader.pending = next;
+				return true;
+			}
+		}
+		return false;
 	}
 
 	private MarketReader[] buildMarketReaderList(Map<String, Enumeration<Candle>> markets, Map<String, Engine[]> symbolHandlers) {
@@ -229,23 +708,24 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 	}
 
 	protected void reportResults(Parameters parameters) {
-		for (AccountManager account : accounts()) {
+		reportResults(accounts(), parameters);
+	}
+
+	protected final void reportResults(SimulatedAccountManager[] accounts, Parameters parameters) {
+		if (resultCache != null) {
+			List<SimulationResult> results = new ArrayList<>(accounts.length);
+			for (AccountManager account : accounts) {
+				results.add(new SimulationResult(parameters, account));
+			}
+			resultCache.put(parameters, results);
+		}
+		for (AccountManager account : accounts) {
 			reportResults(account, parameters);
 		}
 	}
 
 	protected void reportResults(AccountManager account, Parameters parameters) {
-		String id = account.getClient().getId();
-		System.out.print("-------");
-		if (parameters != null && parameters != Parameters.NULL) {
-			System.out.print(" | Parameters: " + parameters);
-		}
-		if (StringUtils.isNotBlank(id)) {
-			System.out.print(" | Client: " + id);
-		}
-		System.out.println(" | -------");
-		System.out.print(account.toString());
-		System.out.println("Approximate holdings: $" + account.getTotalFundsInReferenceCurrency() + " " + account.getReferenceCurrencySymbol());
+		simulation.reporter().report(new SimulationResult(parameters, account));
 
 		account.forEachTradingManager(t -> t.getTrader().notifySimulationEnd());
 	}
@@ -273,11 +753,9 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 		CandleRepository candleRepository = new CandleRepository(configure().database());
 		final Instant start = simulation.backfillFrom().toInstant(ZoneOffset.UTC);
 		final Instant end = simulation.backfillTo().toInstant(ZoneOffset.UTC);
-		CandleHistoryBackfill backfill = new CandleHistoryBackfill(candleRepository);
+		BackfillScheduler backfill = new BackfillScheduler(candleRepository, configuration.backfillThreads());
 		backfill.resumeBackfill(configuration.simulation().resumeBackfill());
-		for (String symbol : symbols) {
-			backfill.fillHistoryGaps(exchange, symbol, start, end, configuration.tickInterval());
-		}
+		backfill.fillHistoryGaps(exchange, symbols, start, end, configuration.tickInterval());
 	}
 
 	protected static class MarketReader {
@@ -286,6 +764,30 @@ public abstract class MarketSimulator<C extends Configuration<C, A>, A extends A
 		Candle pending;
 		Engine[] engines;
 		long startTime;
+		long lastOpenTime = Long.MIN_VALUE;
+		int index;
+		Candle[] warmUp;
+		int warmUpCount;
+
+		void bufferWarmUp(Candle candle) {
+			if (warmUp == null) {
+				warmUp = new Candle[WARM_UP_BLOCK];
+			}
+			warmUp[warmUpCount++] = candle;
+			if (warmUpCount == warmUp.length) {
+				flushWarmUp();
+			}
+		}
+
+		void flushWarmUp() {
+			if (warmUpCount > 0) {
+				for (int j = 0; j < engines.length; j++) {
+					engines[j].warmUp(warmUp, 0, warmUpCount);
+				}
+				Arrays.fill(warmUp, 0, warmUpCount, null);
+				warmUpCount = 0;
+			}
+		}
 	}
 
 	public final CandleRepository getCandleRepository() {
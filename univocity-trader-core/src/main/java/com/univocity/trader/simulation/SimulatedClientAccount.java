@@ -5,6 +5,7 @@ import com.univocity.trader.account.*;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.config.*;
 import com.univocity.trader.simulation.orderfill.*;
+import com.univocity.trader.utils.*;
 
 import java.util.*;
 import java.util.concurrent.*;
@@ -12,7 +13,7 @@ import java.util.concurrent.atomic.*;
 
 import static com.univocity.trader.config.Allocation.*;
 
-public class SimulatedClientAccount implements ClientAccount {
+public class SimulatedClientAccount implements ClientAccount, Stateful {
 
 	private final AtomicLong orderIdGenerator = new AtomicLong(0);
 	private TradingFees tradingFees;
@@ -435,6 +436,14 @@ public class SimulatedClientAccount implements ClientAccount {
 	public int marginReservePercentage() {
 		return marginReservePercentage;
 	}
-}
 
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeLong(orderIdGenerator.get());
+	}
 
+	@Override
+	public void restoreState(StateReader in) {
+		orderIdGenerator.set(in.readLong());
+	}
+}
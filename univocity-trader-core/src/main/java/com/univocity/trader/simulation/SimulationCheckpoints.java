@@ -0,0 +1,189 @@
+package com.univocity.trader.simulation;
+
+import com.univocity.trader.account.*;
+import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
+import org.slf4j.*;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+
+/**
+ * Stores the full state of a simulation when it ends (balances, open trades and orders, indicators and aggregators)
+ * so that a later run of the same simulation over a longer period can restore it and only process the candles
+ * received after it.
+ *
+ * The state of each {@link Parameters} is written to its own file in the given directory, identified by the strategy
+ * version, simulation start, warm-up period and parameters of the simulation.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class SimulationCheckpoints {
+
+	private static final Logger log = LoggerFactory.getLogger(SimulationCheckpoints.class);
+
+	private final String context;
+	private final File directory;
+	private final Set<String> unsupported = new HashSet<>();
+
+	/**
+	 * The state of a simulation at the end of a run.
+	 */
+	static final class Checkpoint implements Serializable {
+		private static final long serialVersionUID = 2L;
+
+		/**
+		 * End of the period simulated up to this checkpoint.
+		 */
+		final long endTime;
+		/**
+		 * Open time of the last candle processed for each symbol.
+		 */
+		final Map<String, Long> lastOpenTimes;
+		final Map<String, StateSnapshot> accounts;
+		final Map<String, StateSnapshot> engines;
+
+		Checkpoint(long endTime, Map<String, Long> lastOpenTimes, Map<String, StateSnapshot> accounts, Map<String, StateSnapshot> engines) {
+			this.endTime = endTime;
+			this.lastOpenTimes = lastOpenTimes;
+			this.accounts = accounts;
+			this.engines = engines;
+		}
+
+		/**
+		 * Returns the time after which the candles of the given symbol have not been processed yet.
+		 */
+		long processedUntil(String symbol) {
+			return lastOpenTimes.getOrDefault(symbol, endTime);
+		}
+	}
+
+	/**
+	 * Creates a store of simulation checkpoints.
+	 *
+	 * @param context   identification of the strategy version, simulation start and warm-up period. Checkpoints taken
+	 *                  in a different context are not restored.
+	 * @param directory the directory where checkpoints are persisted.
+	 */
+	SimulationCheckpoints(String context, File directory) {
+		this.context = context;
+		this.directory = directory;
+	}
+
+	private String key(Parameters parameters) {
+		return context + '|' + parameters;
+	}
+
+	private static String engineKey(Engine engine, int index) {
+		return engine.getTradingManager().getAccount().accountId() + '|' + engine.getSymbol() + '|' + index;
+	}
+
+	/**
+	 * Restores the state stored at the end of the previous simulation of the given parameters into newly created
+	 * accounts and engines.
+	 *
+	 * @param parameters the parameters used to create the engines
+	 * @param accounts   the accounts to restore, with their initial balances
+	 * @param engines    the engines of each symbol, which must not have processed any candle.
+	 * @param endTime    the end of the period to simulate.
+	 *
+	 * @return the checkpoint restored, or {@code null} if there's no checkpoint to continue from or it can't be
+	 * restored, in which case accounts and engines keep their initial state and the simulation must process the
+	 * entire history.
+	 */
+	Checkpoint restore(Parameters parameters, SimulatedAccountManager[] accounts, Map<String, Engine[]> engines, long endTime) {
+		String key = key(parameters);
+		Checkpoint checkpoint = (Checkpoint) WarmUpSnapshots.read(WarmUpSnapshots.file(directory, key, ".state"), key, "simulation state");
+		if (checkpoint == null) {
+			return null;
+		}
+		if (checkpoint.endTime >= endTime) {
+			log.info("Simulation state of {} stored in {} is more recent than {}. Simulating entire history.", parameters, directory, Instant.ofEpochMilli(endTime));
+			return null;
+		}
+
+		// the initial state of accounts and engines is put back if the checkpoint can't be restored.
+		List<StateSnapshot> initialStates = new ArrayList<>();
+		try {
+			for (SimulatedAccountManager account : accounts) {
+				initialStates.add(StateSnapshot.capture(account));
+			}
+			engines.forEach((symbol, symbolEngines) -> {
+				for (Engine engine : symbolEngines) {
+					initialStates.add(((TradingEngine) engine).captureTradingState());
+				}
+			});
+		} catch (UnsupportedOperationException e) {
+			log.warn("Simulation state of {} can't be restored: {}. Simulating entire history.", parameters, e.getMessage());
+			return null;
+		}
+
+		try {
+			for (SimulatedAccountManager account : accounts) {
+				StateSnapshot snapshot = checkpoint.accounts.get(account.accountId());
+				if (snapshot == null) {
+					throw new IllegalStateException("No state stored for account " + account.accountId());
+				}
+				snapshot.restore(account);
+			}
+			engines.forEach((symbol, symbolEngines) -> {
+				for (int i = 0; i < symbolEngines.length; i++) {
+					String engineKey = engineKey(symbolEngines[i], i);
+					StateSnapshot snapshot = checkpoint.engines.get(engineKey);
+					if (snapshot == null) {
+						throw new IllegalStateException("No state stored for " + engineKey);
+					}
+					((TradingEngine) symbolEngines[i]).restoreTradingState(snapshot);
+				}
+			});
+		} catch (RuntimeException e) {
+			log.warn("Unable to restore simulation state of " + parameters + " stored in " + directory + ". Simulating entire history.", e);
+			Iterator<StateSnapshot> initial = initialStates.iterator();
+			for (SimulatedAccountManager account : accounts) {
+				initial.next().restore(account);
+			}
+			engines.forEach((symbol, symbolEngines) -> {
+				for (Engine engine : symbolEngines) {
+					((TradingEngine) engine).restoreTradingState(initial.next());
+				}
+			});
+			return null;
+		}
+		log.debug("Resuming simulation of {} from {}", parameters, Instant.ofEpochMilli(checkpoint.endTime));
+		return checkpoint;
+	}
+
+	/**
+	 * Stores the state of the accounts and engines at the end of the simulation of the given parameters.
+	 *
+	 * @param parameters    the parameters used to create the engines
+	 * @param accounts      the accounts traded by the engines
+	 * @param engines       the engines of each symbol
+	 * @param lastOpenTimes open time of the last candle processed for each symbol
+	 * @param endTime       the end of the period simulated.
+	 */
+	void save(Parameters parameters, SimulatedAccountManager[] accounts, Map<String, Engine[]> engines, Map<String, Long> lastOpenTimes, long endTime) {
+		Map<String, StateSnapshot> accountStates = new HashMap<>();
+		Map<String, StateSnapshot> engineStates = new HashMap<>();
+		try {
+			for (SimulatedAccountManager account : accounts) {
+				accountStates.put(account.accountId(), StateSnapshot.capture(account));
+			}
+			engines.forEach((symbol, symbolEngines) -> {
+				for (int i = 0; i < symbolEngines.length; i++) {
+					engineStates.put(engineKey(symbolEngines[i], i), ((TradingEngine) symbolEngines[i]).captureTradingState());
+				}
+			});
+		} catch (UnsupportedOperationException e) {
+			if (unsupported.add(e.getMessage())) {
+				log.warn("Simulation state can't be stored: {}", e.getMessage());
+			}
+			return;
+		}
+
+		String key = key(parameters);
+		Checkpoint checkpoint = new Checkpoint(endTime, new HashMap<>(lastOpenTimes), accountStates, engineStates);
+		WarmUpSnapshots.write(WarmUpSnapshots.file(directory, key, ".state"), key, checkpoint, "simulation state");
+	}
+}
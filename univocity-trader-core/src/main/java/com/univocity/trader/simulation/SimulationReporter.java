@@ -0,0 +1,31 @@
+package com.univocity.trader.simulation;
+
+/**
+ * Destination of the {@link SimulationResult}s produced by a {@link MarketSimulator}.
+ *
+ * Simulations running with multiple {@link com.univocity.trader.config.Simulation#workers(int)} report results from
+ * different threads at the same time, so implementations must be thread-safe.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+@FunctionalInterface
+public interface SimulationReporter {
+
+	/**
+	 * Prints each result to {@code System.out} as a single block, so results of concurrent simulations don't interleave.
+	 */
+	SimulationReporter CONSOLE = result -> System.out.print(result.toString());
+
+	void report(SimulationResult result);
+
+	/**
+	 * Receives the summary of the latency histograms collected while simulating, when
+	 * {@link com.univocity.trader.config.Configuration#instrumentation(boolean)} is enabled. Prints it to
+	 * {@code System.out} by default.
+	 *
+	 * @param report the table produced by {@link com.univocity.trader.utils.Instrumentation#report()}
+	 */
+	default void reportInstrumentation(String report) {
+		System.out.print(report);
+	}
+}
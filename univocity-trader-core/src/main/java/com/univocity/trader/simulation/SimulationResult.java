@@ -0,0 +1,75 @@
+package com.univocity.trader.simulation;
+
+import com.univocity.trader.account.*;
+import org.apache.commons.lang3.*;
+
+/**
+ * The state of a simulated account after the simulation of a set of {@link Parameters} ended.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class SimulationResult {
+
+	private final Parameters parameters;
+	private final String accountId;
+	private final String referenceCurrency;
+	private final double totalFunds;
+	private final String holdings;
+
+	public SimulationResult(Parameters parameters, AccountManager account) {
+		this(parameters, account.accountId(), account.getReferenceCurrencySymbol(), account.getTotalFundsInReferenceCurrency(), account.toString());
+	}
+
+	public SimulationResult(Parameters parameters, String accountId, String referenceCurrency, double totalFunds, String holdings) {
+		this.parameters = parameters == null ? Parameters.NULL : parameters;
+		this.accountId = accountId;
+		this.referenceCurrency = referenceCurrency;
+		this.totalFunds = totalFunds;
+		this.holdings = holdings == null ? "" : holdings;
+	}
+
+	public Parameters getParameters() {
+		return parameters;
+	}
+
+	public String getAccountId() {
+		return accountId;
+	}
+
+	public String getReferenceCurrency() {
+		return referenceCurrency;
+	}
+
+	/**
+	 * Returns the approximate value of all holdings of the account, in its reference currency.
+	 *
+	 * @return the total funds held by the account at the end of the simulation.
+	 */
+	public double getTotalFunds() {
+		return totalFunds;
+	}
+
+	/**
+	 * Returns a description of the non-zero balances of the account, one per line.
+	 *
+	 * @return the balances held by the account at the end of the simulation.
+	 */
+	public String getHoldings() {
+		return holdings;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder("-------");
+		if (parameters != Parameters.NULL) {
+			out.append(" | Parameters: ").append(parameters);
+		}
+		if (StringUtils.isNotBlank(accountId)) {
+			out.append(" | Client: ").append(accountId);
+		}
+		out.append(" | -------\n");
+		out.append(holdings);
+		out.append("Approximate holdings: $").append(totalFunds).append(' ').append(referenceCurrency).append('\n');
+		return out.toString();
+	}
+}
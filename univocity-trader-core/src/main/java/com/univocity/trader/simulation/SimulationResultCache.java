@@ -0,0 +1,172 @@
+package com.univocity.trader.simulation;
+
+import org.slf4j.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+/**
+ * Log of {@link SimulationResult}s stored in a file, which allows a simulation of multiple {@link Parameters} to skip
+ * the parameter sets it already simulated. Each line holds the results of all accounts for one parameter set,
+ * separated by tabs, and is appended as soon as the simulation of the parameter set ends. A line left incomplete by
+ * an interrupted simulation is ignored when the file is loaded again.
+ *
+ * Results are only reused if they were produced in the same context, which identifies the version of the strategies,
+ * the simulation period and the candle history used. Results of other contexts are kept in the file but ignored.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class SimulationResultCache implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(SimulationResultCache.class);
+
+	private static final int FIELDS_PER_RESULT = 4;
+
+	private final String context;
+	private final Map<String, String[]> results = new HashMap<>();
+	private final Writer out;
+
+	/**
+	 * Loads the results of a given context from a file, and opens it to append new results.
+	 *
+	 * @param file    the file with the results of previous simulations. Created if it doesn't exist.
+	 * @param context the identification of the strategy version, simulation period and candle history of the current
+	 *                simulation.
+	 */
+	SimulationResultCache(File file, String context) {
+		this.context = escape(context);
+		try {
+			if (file.exists()) {
+				load(file);
+			}
+			out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to open simulation result cache " + file.getAbsolutePath(), e);
+		}
+	}
+
+	private void load(File file) throws IOException {
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				String[] fields = line.split("\t", -1);
+				if (fields.length < 3 || !fields[0].equals(context)) {
+					continue;
+				}
+				int count;
+				try {
+					count = Integer.parseInt(fields[2]);
+				} catch (NumberFormatException e) {
+					continue;
+				}
+				if (fields.length == 3 + count * FIELDS_PER_RESULT) {
+					results.put(unescape(fields[1]), fields);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the results stored for a parameter set.
+	 *
+	 * @param parameters the parameters to look for
+	 *
+	 * @return the stored results of each account simulated with the given parameters, or {@code null} if there are no
+	 * results for them.
+	 */
+	synchronized List<SimulationResult> get(Parameters parameters) {
+		String[] fields = results.get(parameters.toString());
+		if (fields == null) {
+			return null;
+		}
+		int count = Integer.parseInt(fields[2]);
+		List<SimulationResult> out = new ArrayList<>(count);
+		for (int i = 3; i < fields.length; i += FIELDS_PER_RESULT) {
+			try {
+				out.add(new SimulationResult(parameters, unescape(fields[i]), unescape(fields[i + 1]), Double.parseDouble(fields[i + 2]), unescape(fields[i + 3])));
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Stores the results of all accounts simulated with a parameter set, and writes them to the file immediately.
+	 *
+	 * @param parameters the parameters simulated
+	 * @param results    the result of each account
+	 */
+	synchronized void put(Parameters parameters, List<SimulationResult> results) {
+		String[] fields = new String[3 + results.size() * FIELDS_PER_RESULT];
+		fields[0] = context;
+		fields[1] = escape(parameters.toString());
+		fields[2] = String.valueOf(results.size());
+		int i = 3;
+		for (SimulationResult result : results) {
+			fields[i++] = escape(result.getAccountId());
+			fields[i++] = escape(result.getReferenceCurrency());
+			fields[i++] = String.valueOf(result.getTotalFunds());
+			fields[i++] = escape(result.getHoldings());
+		}
+		this.results.put(parameters.toString(), fields);
+
+		try {
+			out.write(String.join("\t", fields));
+			out.write('\n');
+			out.flush();
+		} catch (IOException e) {
+			log.error("Unable to store results of parameters " + parameters, e);
+		}
+	}
+
+	synchronized int size() {
+		return results.size();
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			log.warn("Error closing simulation result cache", e);
+		}
+	}
+
+	static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		StringBuilder out = null;
+		for (int i = 0; i < value.length(); i++) {
+			char ch = value.charAt(i);
+			char escaped = ch == '\t' ? 't' : ch == '\n' ? 'n' : ch == '\r' ? 'r' : ch == '\\' ? '\\' : 0;
+			if (escaped != 0) {
+				if (out == null) {
+					out = new StringBuilder(value.length() + 16).append(value, 0, i);
+				}
+				out.append('\\').append(escaped);
+			} else if (out != null) {
+				out.append(ch);
+			}
+		}
+		return out == null ? value : out.toString();
+	}
+
+	static String unescape(String value) {
+		if (value.indexOf('\\') < 0) {
+			return value;
+		}
+		StringBuilder out = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char ch = value.charAt(i);
+			if (ch == '\\' && i + 1 < value.length()) {
+				ch = value.charAt(++i);
+				ch = ch == 't' ? '\t' : ch == 'n' ? '\n' : ch == 'r' ? '\r' : ch;
+			}
+			out.append(ch);
+		}
+		return out.toString();
+	}
+}
@@ -0,0 +1,243 @@
+package com.univocity.trader.simulation;
+
+import com.univocity.trader.account.*;
+import com.univocity.trader.candles.*;
+import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
+import org.slf4j.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Keeps the state of {@link TradingEngine}s at the end of the warm-up period of a simulation, so that engines created
+ * later with the same configuration skip the warm-up by restoring that state.
+ *
+ * Engines are matched by account, symbol and {@link Parameters}. When a directory is provided, snapshots are also
+ * written to disk to be reused by later runs of the same simulation. A snapshot that can't be restored is discarded and
+ * the engine goes through the regular warm-up period.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class WarmUpSnapshots {
+
+	private static final Logger log = LoggerFactory.getLogger(WarmUpSnapshots.class);
+
+	private final String context;
+	private final File directory;
+	private final Map<String, StateSnapshot> snapshots = new ConcurrentHashMap<>();
+	private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates a store of warm-up snapshots.
+	 *
+	 * @param context   identification of the strategy version, simulation period and candle history. Snapshots taken
+	 *                  in a different context are not reused.
+	 * @param directory the directory where snapshots are persisted, or {@code null} to keep them only in memory.
+	 */
+	WarmUpSnapshots(String context, File directory) {
+		this.context = context;
+		this.directory = directory;
+	}
+
+	/**
+	 * Wraps a newly created engine so that it restores its state from a snapshot taken at the end of the warm-up of
+	 * an equivalent engine, or captures its own state at the end of the warm-up if no such snapshot exists.
+	 *
+	 * @param engine     the engine to wrap, which must not have processed any candle.
+	 * @param accountId  the account traded by the engine
+	 * @param parameters the parameters used to create the engine
+	 *
+	 * @return an engine that skips the warm-up period if possible.
+	 */
+	Engine wrap(TradingEngine engine, String accountId, Parameters parameters) {
+		String symbol = engine.getSymbol();
+		String memoryKey = accountId + '|' + symbol + '|' + parameters;
+		String diskKey = directory == null ? null : context + '|' + memoryKey;
+		return new SnapshotEngine(engine, memoryKey, diskKey);
+	}
+
+	int size() {
+		return snapshots.size();
+	}
+
+	private StateSnapshot get(String memoryKey, String diskKey) {
+		StateSnapshot snapshot = snapshots.get(memoryKey);
+		if (diskKey != null) {
+			if (snapshot == null) {
+				snapshot = read(diskKey);
+				if (snapshot != null) {
+					snapshots.putIfAbsent(memoryKey, snapshot);
+				}
+			} else if (!file(diskKey).exists()) {
+				write(diskKey, snapshot);
+			}
+		}
+		return snapshot;
+	}
+
+	private void put(String memoryKey, String diskKey, StateSnapshot snapshot) {
+		snapshots.putIfAbsent(memoryKey, snapshot);
+		if (diskKey != null) {
+			write(diskKey, snapshot);
+		}
+	}
+
+	private void discard(String memoryKey, String diskKey, StateSnapshot snapshot) {
+		snapshots.remove(memoryKey, snapshot);
+		if (diskKey != null) {
+			file(diskKey).delete();
+		}
+	}
+
+	private File file(String diskKey) {
+		return file(directory, diskKey, ".snapshot");
+	}
+
+	private StateSnapshot read(String diskKey) {
+		return (StateSnapshot) read(file(diskKey), diskKey, "warm-up snapshot");
+	}
+
+	private void write(String diskKey, StateSnapshot snapshot) {
+		write(file(diskKey), diskKey, snapshot, "warm-up snapshot");
+	}
+
+	/**
+	 * Returns the file in the given directory that stores the object identified by the given key.
+	 */
+	static File file(File directory, String key, String extension) {
+		byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : bytes) {
+			hash ^= b;
+			hash *= 0x100000001b3L;
+		}
+		return new File(directory, Long.toHexString(hash) + Integer.toHexString(key.hashCode()) + extension);
+	}
+
+	/**
+	 * Reads an object written with {@link #write(File, String, Object, String)}.
+	 *
+	 * @return the object stored in the given file, or {@code null} if the file doesn't exist, can't be read or was
+	 * written for another key.
+	 */
+	static Object read(File file, String key, String description) {
+		if (!file.exists()) {
+			return null;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (key.equals(in.readObject())) {
+				return in.readObject();
+			}
+		} catch (Exception e) {
+			log.warn("Unable to read " + description + " from " + file.getAbsolutePath(), e);
+		}
+		return null;
+	}
+
+	/**
+	 * Writes an object along with its key into a temporary file, which then replaces the given file.
+	 */
+	static void write(File file, String key, Object value, String description) {
+		File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+			out.writeObject(key);
+			out.writeObject(value);
+		} catch (IOException e) {
+			log.warn("Unable to write " + description + " to " + file.getAbsolutePath(), e);
+			tmp.delete();
+			return;
+		}
+		if (!tmp.renameTo(file)) {
+			file.delete();
+			if (!tmp.renameTo(file)) {
+				log.warn("Unable to write {} to {}", description, file.getAbsolutePath());
+				tmp.delete();
+			}
+		}
+	}
+
+	private final class SnapshotEngine implements Engine {
+		private final TradingEngine engine;
+		private final String memoryKey;
+		private final String diskKey;
+		private final boolean restored;
+		private boolean warmedUp;
+
+		SnapshotEngine(TradingEngine engine, String memoryKey, String diskKey) {
+			this.engine = engine;
+			this.memoryKey = memoryKey;
+			this.diskKey = diskKey;
+
+			this.restored = restore(get(memoryKey, diskKey));
+		}
+
+		private boolean restore(StateSnapshot snapshot) {
+			if (snapshot == null) {
+				return false;
+			}
+			StateSnapshot initialState;
+			try {
+				initialState = engine.snapshot();
+			} catch (UnsupportedOperationException e) {
+				discard(memoryKey, diskKey, snapshot);
+				return false;
+			}
+			try {
+				engine.restore(snapshot);
+				return true;
+			} catch (RuntimeException e) {
+				log.warn("Discarding warm-up snapshot of " + engine.getSymbol() + " that can't be restored. Running regular warm-up instead.", e);
+				discard(memoryKey, diskKey, snapshot);
+				engine.restore(initialState);
+				return false;
+			}
+		}
+
+		@Override
+		public TradingManager getTradingManager() {
+			return engine.getTradingManager();
+		}
+
+		@Override
+		public String getSymbol() {
+			return engine.getSymbol();
+		}
+
+		@Override
+		public void warmUp(Candle[] candles, int from, int to) {
+			if (!restored) {
+				engine.warmUp(candles, from, to);
+			}
+		}
+
+		@Override
+		public void process(Candle candle, boolean initializing) {
+			if (initializing) {
+				if (!restored) {
+					engine.process(candle, true);
+				}
+				return;
+			}
+			if (!warmedUp) {
+				warmedUp = true;
+				if (!restored) {
+					capture();
+				}
+			}
+			engine.process(candle, false);
+		}
+
+		private void capture() {
+			try {
+				put(memoryKey, diskKey, engine.snapshot());
+			} catch (UnsupportedOperationException e) {
+				if (unsupported.add(e.getMessage())) {
+					log.info("Warm-up of {} can't be skipped: {}", engine.getSymbol(), e.getMessage());
+				}
+			}
+		}
+	}
+}
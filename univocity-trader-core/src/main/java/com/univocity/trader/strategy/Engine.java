@@ -10,4 +10,18 @@ public interface Engine {
 	String getSymbol() ;
 
 	void process(Candle candle, boolean initializing);
+
+	/**
+	 * Processes a block of consecutive candles of the warm-up period, producing the same state as invoking
+	 * {@link #process(Candle, boolean)} with {@code initializing = true} for each candle.
+	 *
+	 * @param candles the candles to process
+	 * @param from    the position of the first candle to process
+	 * @param to      the position after the last candle to process
+	 */
+	default void warmUp(Candle[] candles, int from, int to) {
+		for (int i = from; i < to; i++) {
+			process(candles[i], true);
+		}
+	}
 }
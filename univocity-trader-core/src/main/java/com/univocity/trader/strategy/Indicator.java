@@ -2,6 +2,7 @@ package com.univocity.trader.strategy;
 
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.*;
+import com.univocity.trader.utils.*;
 
 /**
  * An {@code Indicator} typically performs calculations to produce values and/or trading signals based on the history of
@@ -16,7 +17,7 @@ import com.univocity.trader.indicators.*;
  * @see Strategy
  * @see StrategyMonitor
  */
-public interface Indicator {
+public interface Indicator extends Stateful {
 
 	/**
 	 * Attempts to modify the internal state of this indicator using the given candle. If configured with {@link #recalculateEveryTick(boolean)} set to
@@ -125,4 +126,34 @@ public interface Indicator {
 	default void recalculateEveryTick(boolean recalculateEveryTick) {
 
 	}
+
+	/**
+	 * Writes the state of this indicator, including the state of any indicators it depends on, so that it can be
+	 * restored into another instance created with the same configuration with {@link #restoreState(StateReader)}.
+	 * Used to skip the warm-up of simulations (see {@link com.univocity.trader.config.Simulation#warmUpSnapshots(boolean)}).
+	 *
+	 * Indicators of package {@link com.univocity.trader.indicators} capture their state. Subclasses that keep state of
+	 * their own must override this method and {@link #restoreState(StateReader)}, invoking the implementation of
+	 * their superclass.
+	 *
+	 * @param out the destination of the state
+	 *
+	 * @throws UnsupportedOperationException if this indicator's state can't be captured, which is the default.
+	 */
+	@Override
+	default void captureState(StateWriter out) {
+		throw new UnsupportedOperationException(getClass().getName() + " doesn't implement captureState");
+	}
+
+	/**
+	 * Replaces the state of this indicator with the state written by {@link #captureState(StateWriter)}.
+	 *
+	 * @param in the source of the state
+	 *
+	 * @throws IllegalStateException if the state was captured from an incompatible indicator.
+	 */
+	@Override
+	default void restoreState(StateReader in) {
+		throw new UnsupportedOperationException(getClass().getName() + " doesn't implement restoreState");
+	}
 }
@@ -1,6 +1,7 @@
 package com.univocity.trader.strategy;
 
 import com.univocity.trader.candles.*;
+import com.univocity.trader.utils.*;
 
 import java.util.*;
 
@@ -15,7 +16,7 @@ import java.util.*;
  * @see Indicator
  * @see Aggregator
  */
-public abstract class IndicatorGroup {
+public abstract class IndicatorGroup implements Stateful {
 
 	public Indicator[] indicators;
 
@@ -49,10 +50,30 @@ public abstract class IndicatorGroup {
 	 * @param candle the latest price details returned by an {@link com.univocity.trader.Exchange}
 	 */
 	public final void accumulate(Candle candle) {
+		accumulate(candle, null, null);
+	}
+
+	/**
+	 * Same as {@link #accumulate(Candle)}, recording the time taken by each indicator and by
+	 * {@link #candleAccumulated(Candle)} when histograms are provided.
+	 *
+	 * @param candle           the latest price details returned by an {@link com.univocity.trader.Exchange}
+	 * @param indicatorTimers  histograms of each indicator in {@link #indicators}, or {@code null} to not record times.
+	 * @param accumulatedTimer histogram of {@link #candleAccumulated(Candle)}, or {@code null} to not record times.
+	 */
+	final void accumulate(Candle candle, LatencyHistogram[] indicatorTimers, LatencyHistogram accumulatedTimer) {
 		for (int i = 0; i < indicators.length; i++) {
+			long start = indicatorTimers == null ? 0L : System.nanoTime();
 			indicators[i].accumulate(candle);
+			if (indicatorTimers != null) {
+				indicatorTimers[i].record(System.nanoTime() - start);
+			}
 		}
+		long start = accumulatedTimer == null ? 0L : System.nanoTime();
 		candleAccumulated(candle);
+		if (accumulatedTimer != null) {
+			accumulatedTimer.record(System.nanoTime() - start);
+		}
 	}
 
 	/**
@@ -65,6 +86,23 @@ public abstract class IndicatorGroup {
 
 	}
 
+	/**
+	 * Writes the state of the indicators in this group. Subclasses that keep state of their own, updated in
+	 * {@link #candleAccumulated(Candle)}, must override this method and {@link #restoreState(StateReader)} and invoke
+	 * the implementations of this class.
+	 *
+	 * @param out the destination of the state
+	 */
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeStates(indicators);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		in.readStates(indicators);
+	}
+
 	/**
 	 * Returns all indicators in this group, if any.
 	 *
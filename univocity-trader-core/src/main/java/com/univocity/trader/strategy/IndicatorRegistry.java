@@ -0,0 +1,92 @@
+package com.univocity.trader.strategy;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Canonicalizes the {@link Indicator}s created through the factory methods of {@link Indicators}, so that identical
+ * indicators (same class, interval, arguments and value getter) built by different {@link Strategy}s and
+ * {@link StrategyMonitor}s of a symbol are shared and calculated only once per candle.
+ *
+ * Sharing is enabled per account with {@link com.univocity.trader.config.AbstractTradingGroup#shareIndicators(boolean)}.
+ * Settings changed after an indicator is created, such as {@code recalculateEveryTick}, are not part of its identity
+ * and apply to all strategies and monitors that share it.
+ * Each {@link com.univocity.trader.account.TradingManager} then has its own registry, which is only bound to the thread
+ * that creates its strategies and monitors, and released once its {@link TradingEngine} is created. Concurrent
+ * simulations and different symbols never share indicators.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class IndicatorRegistry {
+
+	private static final ThreadLocal<IndicatorRegistry> current = new ThreadLocal<>();
+
+	private final Map<List<Object>, Indicator> instances = new HashMap<>();
+
+	/**
+	 * Runs a given task with this registry bound to the current thread, so that indicators created by
+	 * {@link Indicators} while the task runs are canonicalized by this registry.
+	 *
+	 * @param task the task that creates strategies, monitors or indicators
+	 * @param <T>  the type of object produced by the task
+	 *
+	 * @return the result of the given task.
+	 */
+	public <T> T bind(Supplier<T> task) {
+		IndicatorRegistry previous = current.get();
+		current.set(this);
+		try {
+			return task.get();
+		} finally {
+			if (previous == null) {
+				current.remove();
+			} else {
+				current.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Returns the registry bound to the current thread by {@link #bind(Supplier)}, if any.
+	 *
+	 * @return the current registry, or {@code null} if indicators created in the current thread are not canonicalized.
+	 */
+	static IndicatorRegistry current() {
+		return current.get();
+	}
+
+	/**
+	 * Returns the indicator previously registered with the same class and parameters, or registers the given indicator
+	 * if there is none.
+	 *
+	 * @param indicator  a newly created indicator
+	 * @param parameters all arguments used to create the indicator
+	 * @param <T>        the type of indicator
+	 *
+	 * @return the canonical instance of the indicator.
+	 */
+	@SuppressWarnings("unchecked")
+	<T extends Indicator> T register(T indicator, Object... parameters) {
+		List<Object> key = new ArrayList<>(parameters.length + 1);
+		key.add(indicator.getClass());
+		Collections.addAll(key, parameters);
+		return (T) instances.computeIfAbsent(key, k -> indicator);
+	}
+
+	/**
+	 * Returns the number of distinct indicators in this registry.
+	 *
+	 * @return the number of canonical indicators registered.
+	 */
+	public int size() {
+		return instances.size();
+	}
+
+	/**
+	 * Releases all indicators held by this registry. Indicators created afterwards are not shared with the ones
+	 * created before.
+	 */
+	public void clear() {
+		instances.clear();
+	}
+}
@@ -10,17 +10,14 @@ import java.util.function.*;
 
 public abstract class Indicators {
 
-	public static HashMap<String, Indicator> instances = new HashMap<>();
-	public static BiFunction<Indicator, Object[], String> keyBuilder = null;
-
 	protected Indicators() {
 
 	}
 
-	protected synchronized static <T extends Indicator> T register(T indicator, Object... params) {
-		if (keyBuilder != null) {
-			String key = keyBuilder.apply(indicator, params);
-			return (T) instances.computeIfAbsent(key, (k) -> indicator);
+	protected static <T extends Indicator> T register(T indicator, Object... params) {
+		IndicatorRegistry registry = IndicatorRegistry.current();
+		if (registry != null) {
+			return registry.register(indicator, params);
 		}
 		return indicator;
 	}
@@ -3,11 +3,13 @@ package com.univocity.trader.strategy;
 import com.univocity.trader.account.*;
 import com.univocity.trader.candles.*;
 import com.univocity.trader.indicators.*;
+import com.univocity.trader.indicators.base.*;
 import com.univocity.trader.simulation.*;
 import com.univocity.trader.utils.*;
 import org.slf4j.*;
 
 import java.util.*;
+import java.util.function.*;
 
 import static com.univocity.trader.utils.NewInstances.*;
 
@@ -17,9 +19,6 @@ import static com.univocity.trader.utils.NewInstances.*;
 public final class TradingEngine implements Engine {
 
 	private static final Logger log = LoggerFactory.getLogger(Engine.class);
-	static {
-		Indicators.keyBuilder = null;
-	}
 
 	private final Trader trader;
 	private final Strategy[] strategies;
@@ -29,16 +28,29 @@ public final class TradingEngine implements Engine {
 	private final TradingManager tradingManager;
 	private final Aggregator[] aggregators;
 
+	private boolean bulkWarmUpChecked;
+	private SingleValueIndicator[] bulkIndicators;
+
+	// only present if instrumentation was enabled when this engine was created.
+	private final Timers timers;
+
 	public TradingEngine(TradingManager tradingManager, Set<Object> allInstances) {
 		this(tradingManager, Parameters.NULL, allInstances);
 	}
 
 	public TradingEngine(TradingManager tradingManager, Parameters parameters, Set<Object> allInstances) {
+		this(tradingManager, parameters, allInstances, false);
+	}
+
+	public TradingEngine(TradingManager tradingManager, Parameters parameters, Set<Object> allInstances, boolean reuseAggregatedCandles) {
 		this.tradingManager = tradingManager;
 		this.trader = tradingManager.getTrader();
 
+		// when enabled, identical indicators of all strategies and monitors of this engine are shared through the registry.
+		IndicatorRegistry registry = tradingManager.getIndicatorRegistry();
 		NewInstances<Strategy> strategies = tradingManager.strategies();
-		this.strategies = getInstances(tradingManager.getSymbol(), parameters, strategies, "Strategy", true, allInstances);
+		Supplier<Strategy[]> newStrategies = () -> getInstances(tradingManager.getSymbol(), parameters, strategies, "Strategy", true, allInstances);
+		this.strategies = registry == null ? newStrategies.get() : registry.bind(newStrategies);
 
 		Set<IndicatorGroup> groups = new LinkedHashSet<>();
 		Set<Strategy> plainStrategies = new LinkedHashSet<>();
@@ -50,51 +62,294 @@ public final class TradingEngine implements Engine {
 			}
 		}
 		Collections.addAll(groups, trader.monitors());
-		indicatorGroups = groups.toArray(new IndicatorGroup[0]);
+		IndicatorGroup[] indicatorGroups = groups.toArray(new IndicatorGroup[0]);
+		this.indicatorGroups = indicatorGroups;
 
-		Aggregator rootAggregator = new Aggregator(trader.symbol() + parameters.toString());
-		for (int i = 0; i < indicatorGroups.length; i++) {
-			indicatorGroups[i].initialize(rootAggregator);
+		Aggregator rootAggregator = new Aggregator(trader.symbol() + parameters.toString(), reuseAggregatedCandles);
+		Supplier<Void> initialization = () -> {
+			for (int i = 0; i < indicatorGroups.length; i++) {
+				indicatorGroups[i].initialize(rootAggregator);
+			}
+			return null;
+		};
+		if (registry == null) {
+			initialization.get();
+		} else {
+			registry.bind(initialization);
+			registry.clear();
 		}
 		aggregators = rootAggregator.getAggregators();
 		this.plainStrategies = plainStrategies.toArray(new Strategy[0]);
+		this.timers = Instrumentation.enabled() ? new Timers() : null;
 	}
 
 	public final void process(Candle candle, boolean initializing) {
+		final Timers timers = this.timers;
 		trader.context.latestCandle(candle);
 
-		for (int i = 0; i < aggregators.length; i++)
+		for (int i = 0; i < aggregators.length; i++) {
+			long start = startTimer(timers);
 			aggregators[i].aggregate(candle);
+			if (timers != null) {
+				timers.aggregators[i].record(System.nanoTime() - start);
+			}
+		}
 
 		for (int i = 0; i < indicatorGroups.length; i++) {
-			indicatorGroups[i].accumulate(candle);
+			if (timers == null) {
+				indicatorGroups[i].accumulate(candle);
+			} else {
+				indicatorGroups[i].accumulate(candle, timers.indicators[i], timers.candleAccumulated[i]);
+			}
 		}
 
 		if (initializing) { //ignore any signals and just all strategies to populate their internal state
 			for (int i = 0; i < plainStrategies.length; i++) {
+				long start = startTimer(timers);
 				plainStrategies[i].getSignal(candle);
+				if (timers != null) {
+					timers.plainSignals[i].record(System.nanoTime() - start);
+				}
 			}
 			return;
 		}
 
+		long start = startTimer(timers);
 		tradingManager.updateOpenOrders();
+		if (timers != null) {
+			timers.updateOpenOrders.record(System.nanoTime() - start);
+		}
 
 		for (int i = 0; i < strategies.length; i++) {
 			Strategy strategy = strategies[i];
+			start = startTimer(timers);
 			Signal signal = strategy.getSignal(candle);
+			if (timers != null) {
+				timers.signals[i].record(System.nanoTime() - start);
+			}
 
 			if(log.isTraceEnabled()) {
 				log.trace("{} - {}: {} ({})", getSymbol(), candle, signal, strategy.getClass().getSimpleName());
 			}
 
+			start = startTimer(timers);
 			try {
 				trader.trade(candle, signal, strategy);
 			} catch (Exception e) {
 				log.error("Error processing " + signal + " " + trader.symbol() + " generated using candle (" + candle + ") from " + strategy, e);
 			}
+			if (timers != null) {
+				timers.trades[i].record(System.nanoTime() - start);
+			}
+		}
+	}
+
+	private static long startTimer(Timers timers) {
+		return timers == null ? 0L : System.nanoTime();
+	}
+
+	/**
+	 * Histograms of each component processed by this engine, ordered as the components are.
+	 */
+	private final class Timers {
+		final LatencyHistogram[] aggregators = new LatencyHistogram[TradingEngine.this.aggregators.length];
+		final LatencyHistogram[][] indicators = new LatencyHistogram[indicatorGroups.length][];
+		final LatencyHistogram[] candleAccumulated = new LatencyHistogram[indicatorGroups.length];
+		final LatencyHistogram[] plainSignals = new LatencyHistogram[plainStrategies.length];
+		final LatencyHistogram[] signals = new LatencyHistogram[strategies.length];
+		final LatencyHistogram[] trades = new LatencyHistogram[strategies.length];
+		final LatencyHistogram updateOpenOrders;
+
+		Timers() {
+			String symbol = getSymbol();
+			for (int i = 0; i < aggregators.length; i++) {
+				aggregators[i] = Instrumentation.histogram("Aggregator.aggregate", String.valueOf(TradingEngine.this.aggregators[i].getInterval()), symbol);
+			}
+			for (int i = 0; i < indicators.length; i++) {
+				Indicator[] groupIndicators = indicatorGroups[i].indicators;
+				indicators[i] = new LatencyHistogram[groupIndicators.length];
+				for (int j = 0; j < groupIndicators.length; j++) {
+					indicators[i][j] = Instrumentation.histogram("Indicator.accumulate", groupIndicators[j].getClass(), symbol);
+				}
+				candleAccumulated[i] = Instrumentation.histogram("IndicatorGroup.candleAccumulated", indicatorGroups[i].getClass(), symbol);
+			}
+			for (int i = 0; i < plainSignals.length; i++) {
+				plainSignals[i] = Instrumentation.histogram("Strategy.getSignal", plainStrategies[i].getClass(), symbol);
+			}
+			for (int i = 0; i < signals.length; i++) {
+				signals[i] = Instrumentation.histogram("Strategy.getSignal", strategies[i].getClass(), symbol);
+				trades[i] = Instrumentation.histogram("Trader.trade", strategies[i].getClass(), symbol);
+			}
+			updateOpenOrders = Instrumentation.histogram("TradingManager.updateOpenOrders", TradingManager.class, symbol);
 		}
 	}
 
+	/**
+	 * Processes a block of warm-up candles. If no strategy or monitor is notified of each candle, and all indicators
+	 * can be accumulated in bulk (see {@link SingleValueIndicator#accumulatesInBulk()}), only the aggregators process
+	 * each candle. The values of the full candles they produce are collected and accumulated by each indicator in a
+	 * single call. Otherwise each candle is processed individually.
+	 *
+	 * @param candles the candles to process
+	 * @param from    the position of the first candle to process
+	 * @param to      the position after the last candle to process
+	 */
+	@Override
+	public void warmUp(Candle[] candles, int from, int to) {
+		SingleValueIndicator[] indicators = getBulkIndicators();
+		if (indicators == null) {
+			for (int i = from; i < to; i++) {
+				process(candles[i], true);
+			}
+			return;
+		}
+		if (from >= to) {
+			return;
+		}
+
+		Aggregator[] indicatorAggregators = new Aggregator[indicators.length];
+		double[][] values = new double[indicators.length][to - from];
+		int[] counts = new int[indicators.length];
+		Candle[] lastFullCandles = new Candle[indicators.length];
+		for (int j = 0; j < indicators.length; j++) {
+			indicatorAggregators[j] = indicators[j].getAggregator();
+		}
+
+		for (int i = from; i < to; i++) {
+			Candle candle = candles[i];
+			for (int j = 0; j < aggregators.length; j++) {
+				aggregators[j].aggregate(candle);
+			}
+			for (int j = 0; j < indicators.length; j++) {
+				Candle full = indicatorAggregators[j].getFull();
+				if (full != null) {
+					values[j][counts[j]++] = indicators[j].valueOf(full);
+					lastFullCandles[j] = full;
+				}
+			}
+		}
+		trader.context.latestCandle(candles[to - 1]);
+
+		for (int j = 0; j < indicators.length; j++) {
+			indicators[j].accumulateFullCandles(values[j], counts[j], lastFullCandles[j]);
+		}
+	}
+
+	private SingleValueIndicator[] getBulkIndicators() {
+		if (!bulkWarmUpChecked) {
+			bulkWarmUpChecked = true;
+			bulkIndicators = findBulkIndicators();
+		}
+		return bulkIndicators;
+	}
+
+	// strategies and indicators can't observe the state of other indicators between candles warmed up in bulk.
+	private SingleValueIndicator[] findBulkIndicators() {
+		if (plainStrategies.length > 0) {
+			return null;
+		}
+		List<SingleValueIndicator> out = new ArrayList<>();
+		Set<Indicator> found = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (IndicatorGroup group : indicatorGroups) {
+			if (overridesCandleAccumulated(group.getClass())) {
+				return null;
+			}
+			for (Indicator indicator : group.indicators) {
+				if (!(indicator instanceof SingleValueIndicator)) {
+					return null;
+				}
+				SingleValueIndicator bulk = (SingleValueIndicator) indicator;
+				if (!bulk.accumulatesInBulk() || bulk.recalculateEveryTick() || bulk.getAggregator() == null) {
+					return null;
+				}
+				if (found.add(bulk)) {
+					out.add(bulk);
+				}
+			}
+		}
+		return out.toArray(new SingleValueIndicator[0]);
+	}
+
+	private static boolean overridesCandleAccumulated(Class<?> type) {
+		try {
+			return type.getMethod("candleAccumulated", Candle.class).getDeclaringClass() != IndicatorGroup.class;
+		} catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Captures the current state of all aggregators, indicators and strategies of this engine, e.g. at the end of the
+	 * warm-up period of a simulation, so it can be restored into other engines built with the same configuration.
+	 *
+	 * @return a snapshot of the internal state of this engine.
+	 *
+	 * @throws UnsupportedOperationException if a strategy or indicator holds state that can't be captured.
+	 */
+	public StateSnapshot snapshot() {
+		return StateSnapshot.capture(stateComponents());
+	}
+
+	/**
+	 * Restores the state of all aggregators, indicators and strategies of this engine from a snapshot taken from
+	 * an engine built with the same configuration.
+	 *
+	 * @param snapshot the state to restore.
+	 *
+	 * @throws IllegalStateException if the snapshot was taken from an engine with a different structure.
+	 */
+	public void restore(StateSnapshot snapshot) {
+		snapshot.restore(stateComponents());
+	}
+
+	private Stateful[] stateComponents() {
+		Stateful[] out = new Stateful[aggregators.length + indicatorGroups.length + plainStrategies.length];
+		int i = 0;
+		for (Aggregator aggregator : aggregators) {
+			out[i++] = aggregator;
+		}
+		for (IndicatorGroup group : indicatorGroups) {
+			out[i++] = group;
+		}
+		for (Strategy strategy : plainStrategies) {
+			if (!(strategy instanceof Stateful)) {
+				throw new UnsupportedOperationException("Can't capture the state of strategy " + strategy.getClass().getName() + ". It must implement " + Stateful.class.getName());
+			}
+			out[i++] = (Stateful) strategy;
+		}
+		return out;
+	}
+
+	/**
+	 * Captures the state of this engine along with the open trades and pending orders of its {@link Trader}, so a
+	 * simulation can continue later from this point.
+	 *
+	 * @return a snapshot of the internal state of this engine and of its trades.
+	 *
+	 * @throws UnsupportedOperationException if a strategy or indicator holds state that can't be captured.
+	 */
+	public StateSnapshot captureTradingState() {
+		return StateSnapshot.capture(tradingStateComponents());
+	}
+
+	/**
+	 * Restores the state of this engine and of its trades from a snapshot taken with {@link #captureTradingState()}.
+	 *
+	 * @param snapshot the state to restore.
+	 *
+	 * @throws IllegalStateException if the snapshot was taken from an engine with a different structure.
+	 */
+	public void restoreTradingState(StateSnapshot snapshot) {
+		snapshot.restore(tradingStateComponents());
+	}
+
+	private Stateful[] tradingStateComponents() {
+		Stateful[] components = stateComponents();
+		Stateful[] out = Arrays.copyOf(components, components.length + 1);
+		out[components.length] = tradingManager.getTradingState(strategies);
+		return out;
+	}
+
 	public TradingManager getTradingManager() {
 		return tradingManager;
 	}
@@ -1,6 +1,6 @@
 package com.univocity.trader.utils;
 
-public class CircularList {
+public class CircularList implements Stateful {
 	public final double[] values;
 	public int i;
 	private double sum;
@@ -53,6 +53,42 @@ public class CircularList {
 
 	}
 
+	/**
+	 * Adds a sequence of values to this list, as if {@link #add(double)} was invoked for each value.
+	 *
+	 * @param source the values to add
+	 * @param from   the position of the first value to add
+	 * @param to     the position after the last value to add
+	 */
+	public final void addAll(double[] source, int from, int to) {
+		if (from >= to) {
+			return;
+		}
+		if (getClass() != CircularList.class) {
+			for (int j = from; j < to; j++) {
+				add(source[j]);
+			}
+			return;
+		}
+		final double[] values = this.values;
+		int i = this.i;
+		double sum = this.sum;
+		for (int j = from; j < to; j++) {
+			double value = source[j];
+			sum -= values[i];
+			sum += value;
+			values[i] = value;
+			if (++i == values.length) {
+				i = 0;
+			}
+		}
+		this.i = i;
+		this.sum = sum;
+		this.last = source[to - 1];
+		this.updating = false;
+		this.count += to - from;
+	}
+
 	public final int size() {
 		return Math.min(values.length, (int) (updating ? count + 1 : count));
 	}
@@ -135,6 +171,26 @@ public class CircularList {
 		return values[getStartingIndex(backwardCount)];
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeDoubles(values);
+		out.writeInt(i);
+		out.writeDouble(sum);
+		out.writeDouble(last);
+		out.writeBoolean(updating);
+		out.writeLong(count);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		in.readDoubles(values);
+		i = in.readInt();
+		sum = in.readDouble();
+		last = in.readDouble();
+		updating = in.readBoolean();
+		count = in.readLong();
+	}
+
 	public String toString(){
 		StringBuilder out = new StringBuilder("[");
 		int start = getStartingIndex();
@@ -0,0 +1,121 @@
+package com.univocity.trader.utils;
+
+/**
+ * A {@link CircularList} that also keeps the running sum of squares of its values, so the variance of the window
+ * can be obtained in constant time instead of iterating over all values on every update.
+ *
+ * Values are stored relative to an anchor (shifted data) to avoid the catastrophic cancellation of the naive
+ * {@code E[x²] - E[x]²} formula when prices are large compared to their variation. The anchor is moved to the
+ * current mean and the running sums are recomputed from scratch after every {@link #capacity()} writes, which
+ * also discards any floating point error accumulated by the incremental updates.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public class CircularMomentsList extends CircularList {
+
+	private final double[] shifted;
+	private double anchor;
+	private double sumShifted;
+	private double sumShiftedSquares;
+	private long writes;
+
+	public CircularMomentsList(int length) {
+		super(length);
+		this.shifted = new double[length];
+	}
+
+	@Override
+	protected void update(double value, boolean updating) {
+		if (writes++ == 0) {
+			anchor = value;
+		}
+
+		double previous = shifted[i];
+		double current = value - anchor;
+		sumShifted += current - previous;
+		sumShiftedSquares += current * current - previous * previous;
+		shifted[i] = current;
+
+		super.update(value, updating);
+
+		if (updating) {
+			reanchorPeriodically();
+		}
+	}
+
+	@Override
+	public void add(double value) {
+		super.add(value);
+		reanchorPeriodically();
+	}
+
+	private void reanchorPeriodically() {
+		if (writes % shifted.length == 0) {
+			reanchor();
+		}
+	}
+
+	private void reanchor() {
+		final int size = size();
+		if (size == 0) {
+			return;
+		}
+		anchor += sumShifted / size;
+		sumShifted = 0.0;
+		sumShiftedSquares = 0.0;
+		for (int j = 0; j < shifted.length; j++) {
+			if (j < size) {
+				double d = values[j] - anchor;
+				shifted[j] = d;
+				sumShifted += d;
+				sumShiftedSquares += d * d;
+			} else {
+				shifted[j] = 0.0;
+			}
+		}
+	}
+
+	/**
+	 * Returns the population variance of the values currently in the window.
+	 *
+	 * @return the variance of the values in this list, or {@code 0.0} if the list is empty.
+	 */
+	public final double variance() {
+		final int size = size();
+		if (size == 0) {
+			return 0.0;
+		}
+		double mean = sumShifted / size;
+		double variance = sumShiftedSquares / size - mean * mean;
+		return variance < 0.0 ? 0.0 : variance;
+	}
+
+	/**
+	 * Returns the sum of the squared differences between each value in the window and their mean.
+	 *
+	 * @return the sum of squared deviations from the mean.
+	 */
+	public final double sumOfSquaredDeviations() {
+		return variance() * size();
+	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeDoubles(shifted);
+		out.writeDouble(anchor);
+		out.writeDouble(sumShifted);
+		out.writeDouble(sumShiftedSquares);
+		out.writeLong(writes);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readDoubles(shifted);
+		anchor = in.readDouble();
+		sumShifted = in.readDouble();
+		sumShiftedSquares = in.readDouble();
+		writes = in.readLong();
+	}
+}
@@ -0,0 +1,174 @@
+package com.univocity.trader.utils;
+
+import java.util.*;
+
+/**
+ * A {@link CircularList} that keeps its values ordered in a treap, so the number of values smaller than any given value can
+ * be obtained in O(log n) instead of scanning the whole list.
+ *
+ * Each slot of the list is a node of the tree, ordered by value and then by slot index to keep duplicate values apart.
+ * Overwriting a slot, be it with {@link #add(double)} or {@link #update(double)}, removes its node from the tree and
+ * inserts it back with the new value, so no objects are allocated after construction.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public class CircularRankList extends CircularList {
+
+	private static final int NIL = -1;
+
+	private final int[] left;
+	private final int[] right;
+	private final int[] sizes;
+	private final int[] priorities;
+	private final boolean[] occupied;
+	private int root = NIL;
+
+	public CircularRankList(int length) {
+		super(length);
+		left = new int[length];
+		right = new int[length];
+		sizes = new int[length];
+		priorities = new int[length];
+		occupied = new boolean[length];
+
+		Random random = new Random(length);
+		for (int i = 0; i < length; i++) {
+			priorities[i] = random.nextInt();
+		}
+	}
+
+	@Override
+	protected void update(double value, boolean updating) {
+		final int node = i;
+		if (occupied[node]) {
+			root = remove(root, node);
+		}
+		super.update(value, updating);
+		occupied[node] = true;
+		left[node] = right[node] = NIL;
+		sizes[node] = 1;
+		root = insert(root, node);
+	}
+
+	/**
+	 * Counts how many values in the list are smaller than the given value.
+	 *
+	 * @param value the value to compare against
+	 *
+	 * @return the number of values in this list that are smaller than {@code value}
+	 */
+	public final int countBelow(double value) {
+		int count = 0;
+		int node = root;
+		while (node != NIL) {
+			if (values[node] < value) {
+				count += size(left[node]) + 1;
+				node = right[node];
+			} else {
+				node = left[node];
+			}
+		}
+		return count;
+	}
+
+	private int size(int node) {
+		return node == NIL ? 0 : sizes[node];
+	}
+
+	private void resize(int node) {
+		sizes[node] = size(left[node]) + size(right[node]) + 1;
+	}
+
+	private boolean isBefore(int a, int b) {
+		int c = Double.compare(values[a], values[b]);
+		return c < 0 || (c == 0 && a < b);
+	}
+
+	private int insert(int tree, int node) {
+		if (tree == NIL) {
+			return node;
+		}
+		if (isBefore(node, tree)) {
+			left[tree] = insert(left[tree], node);
+			if (priorities[left[tree]] > priorities[tree]) {
+				tree = rotateRight(tree);
+			}
+		} else {
+			right[tree] = insert(right[tree], node);
+			if (priorities[right[tree]] > priorities[tree]) {
+				tree = rotateLeft(tree);
+			}
+		}
+		resize(tree);
+		return tree;
+	}
+
+	private int remove(int tree, int node) {
+		if (tree == node) {
+			return merge(left[tree], right[tree]);
+		}
+		if (isBefore(node, tree)) {
+			left[tree] = remove(left[tree], node);
+		} else {
+			right[tree] = remove(right[tree], node);
+		}
+		resize(tree);
+		return tree;
+	}
+
+	private int merge(int a, int b) {
+		if (a == NIL) {
+			return b;
+		}
+		if (b == NIL) {
+			return a;
+		}
+		if (priorities[a] > priorities[b]) {
+			right[a] = merge(right[a], b);
+			resize(a);
+			return a;
+		}
+		left[b] = merge(a, left[b]);
+		resize(b);
+		return b;
+	}
+
+	private int rotateRight(int node) {
+		int top = left[node];
+		left[node] = right[top];
+		right[top] = node;
+		resize(node);
+		resize(top);
+		return top;
+	}
+
+	private int rotateLeft(int node) {
+		int top = right[node];
+		right[node] = left[top];
+		left[top] = node;
+		resize(node);
+		resize(top);
+		return top;
+	}
+
+	// priorities are derived from the length of the list, so they are the same in any list that can be restored.
+	@Override
+	public void captureState(StateWriter out) {
+		super.captureState(out);
+		out.writeInts(left);
+		out.writeInts(right);
+		out.writeInts(sizes);
+		out.writeBooleans(occupied);
+		out.writeInt(root);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		super.restoreState(in);
+		in.readInts(left);
+		in.readInts(right);
+		in.readInts(sizes);
+		in.readBooleans(occupied);
+		root = in.readInt();
+	}
+}
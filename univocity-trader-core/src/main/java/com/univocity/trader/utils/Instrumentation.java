@@ -0,0 +1,180 @@
+package com.univocity.trader.utils;
+
+import org.slf4j.*;
+
+import javax.management.*;
+import java.lang.management.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Opt-in collection of {@link LatencyHistogram}s measuring the time spent by each component in the processing of
+ * candles: aggregators, indicators, strategy signals, stop handling of strategy monitors and order processing of the
+ * {@link com.univocity.trader.account.Trader}. Histograms are kept per component class and symbol.
+ *
+ * Components look up their histograms once, when created. If instrumentation is disabled at that point they hold no
+ * histogram and follow their usual code path, without any timing overhead.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class Instrumentation implements InstrumentationMXBean {
+
+	private static final Logger log = LoggerFactory.getLogger(Instrumentation.class);
+
+	private static final Instrumentation instance = new Instrumentation();
+	private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+	private static volatile boolean enabled;
+	private static boolean registered;
+
+	private Instrumentation() {
+	}
+
+	/**
+	 * Enables instrumentation of the engines created from now on, and exposes the histograms through JMX.
+	 */
+	public static synchronized void enable() {
+		enabled = true;
+		if (!registered) {
+			registered = true;
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName("com.univocity.trader:type=Instrumentation"));
+			} catch (Exception e) {
+				log.warn("Unable to expose instrumentation through JMX", e);
+			}
+		}
+	}
+
+	/**
+	 * Disables instrumentation of the engines created from now on. Engines already instrumented keep recording.
+	 */
+	public static void disable() {
+		enabled = false;
+	}
+
+	public static boolean enabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns the histogram for an operation of a component while processing a symbol, creating it if needed.
+	 * Components check {@link #enabled()} once before looking up their histograms.
+	 *
+	 * @param operation the operation measured, e.g. {@code Indicator.accumulate}
+	 * @param component the component performing the operation, usually its simple class name.
+	 * @param symbol    the symbol being processed.
+	 *
+	 * @return the histogram to record durations into.
+	 */
+	public static LatencyHistogram histogram(String operation, String component, String symbol) {
+		return histograms.computeIfAbsent(operation + "[" + component + "] " + symbol, LatencyHistogram::new);
+	}
+
+	/**
+	 * Returns the histogram for an operation of a component class while processing a symbol, creating it if needed.
+	 *
+	 * @param operation the operation measured, e.g. {@code Strategy.getSignal}
+	 * @param component the class of the component performing the operation.
+	 * @param symbol    the symbol being processed.
+	 *
+	 * @return the histogram to record durations into.
+	 */
+	public static LatencyHistogram histogram(String operation, Class<?> component, String symbol) {
+		String name = component.getSimpleName();
+		return histogram(operation, name.isEmpty() ? component.getName() : name, symbol);
+	}
+
+	/**
+	 * Returns all histograms recorded so far.
+	 *
+	 * @return a copy of the histograms, ordered by name.
+	 */
+	public static List<LatencyHistogram> histograms() {
+		List<LatencyHistogram> out = new ArrayList<>(histograms.values());
+		out.sort(Comparator.comparing(LatencyHistogram::getName));
+		return out;
+	}
+
+	/**
+	 * Returns a summary of all histograms recorded so far, ordered by total time spent.
+	 *
+	 * @return a table with the number of calls, total time and percentiles of each histogram, or an empty
+	 * {@code String} if nothing was recorded.
+	 */
+	public static String report() {
+		List<LatencyHistogram> all = histograms();
+		if (all.isEmpty()) {
+			return "";
+		}
+		all.sort(Comparator.comparingLong(LatencyHistogram::getTotal).reversed());
+		StringBuilder out = new StringBuilder("Instrumentation (times in microseconds):\n");
+		out.append(String.format("%12s %12s %10s %10s %10s %10s %10s  %s%n", "count", "total", "mean", "p50", "p90", "p99", "max", "component"));
+		for (LatencyHistogram h : all) {
+			out.append(String.format("%12d %12.0f %10.2f %10.2f %10.2f %10.2f %10.2f  %s%n",
+					h.getCount(), h.getTotal() / 1000.0, h.getMean() / 1000.0, h.getPercentile(50) / 1000.0,
+					h.getPercentile(90) / 1000.0, h.getPercentile(99) / 1000.0, h.getMax() / 1000.0, h.getName()));
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Discards all durations recorded so far. Histograms held by existing engines keep being used.
+	 */
+	public static void clear() {
+		histograms.values().forEach(LatencyHistogram::reset);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		if (enabled) {
+			enable();
+		} else {
+			disable();
+		}
+	}
+
+	@Override
+	public List<String> getHistograms() {
+		List<String> out = new ArrayList<>(histograms.keySet());
+		Collections.sort(out);
+		return out;
+	}
+
+	@Override
+	public long getCount(String histogram) {
+		LatencyHistogram h = histograms.get(histogram);
+		return h == null ? 0L : h.getCount();
+	}
+
+	@Override
+	public long getMean(String histogram) {
+		LatencyHistogram h = histograms.get(histogram);
+		return h == null ? 0L : (long) h.getMean();
+	}
+
+	@Override
+	public long getMax(String histogram) {
+		LatencyHistogram h = histograms.get(histogram);
+		return h == null ? 0L : h.getMax();
+	}
+
+	@Override
+	public long getPercentile(String histogram, double percentile) {
+		LatencyHistogram h = histograms.get(histogram);
+		return h == null ? 0L : h.getPercentile(percentile);
+	}
+
+	@Override
+	public String getReport() {
+		return report();
+	}
+
+	@Override
+	public void reset() {
+		clear();
+	}
+}
@@ -0,0 +1,56 @@
+package com.univocity.trader.utils;
+
+import java.util.*;
+
+/**
+ * Management interface of {@link Instrumentation}, registered with the platform MBean server under the name
+ * {@code com.univocity.trader:type=Instrumentation} when instrumentation is enabled.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public interface InstrumentationMXBean {
+
+	boolean isEnabled();
+
+	/**
+	 * Enables or disables instrumentation. Only engines created while instrumentation is enabled record timings.
+	 *
+	 * @param enabled flag indicating whether new engines should be instrumented.
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Returns the names of all histograms recorded so far.
+	 *
+	 * @return the histogram names, in the format {@code <operation>[<component class>] <symbol>}
+	 */
+	List<String> getHistograms();
+
+	long getCount(String histogram);
+
+	long getMean(String histogram);
+
+	long getMax(String histogram);
+
+	/**
+	 * Returns a percentile of the durations recorded by a histogram.
+	 *
+	 * @param histogram  the histogram name, as returned by {@link #getHistograms()}
+	 * @param percentile a value between {@code 0.0} and {@code 100.0}
+	 *
+	 * @return the requested percentile in nanoseconds, or {@code 0} if the histogram does not exist.
+	 */
+	long getPercentile(String histogram, double percentile);
+
+	/**
+	 * Returns a summary of all histograms, ordered by total time spent.
+	 *
+	 * @return a table with one line per histogram.
+	 */
+	String getReport();
+
+	/**
+	 * Discards all durations recorded so far.
+	 */
+	void reset();
+}
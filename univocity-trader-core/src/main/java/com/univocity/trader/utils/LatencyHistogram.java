@@ -0,0 +1,161 @@
+package com.univocity.trader.utils;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * A thread-safe histogram of durations in nanoseconds, with buckets of logarithmic size: each power of two is divided
+ * in 8 buckets, so percentiles are reported with a relative error below 12.5%. Recording a value only increments
+ * a few counters, without allocating memory.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final String name;
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Creates a new histogram
+	 *
+	 * @param name a description of what is measured by this histogram.
+	 */
+	public LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the description of what is measured by this histogram.
+	 *
+	 * @return the name of this histogram.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos the duration to record, in nanoseconds. Negative values are recorded as zero.
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		buckets.incrementAndGet(bucketOf(nanos));
+		count.increment();
+		total.add(nanos);
+		long currentMax = max.get();
+		while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+			currentMax = max.get();
+		}
+	}
+
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long highestValueOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long subBucket = bucket % SUB_BUCKETS;
+		long lowest = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+		long width = 1L << (exponent - SUB_BUCKET_BITS);
+		return lowest + width - 1 < 0 ? Long.MAX_VALUE : lowest + width - 1;
+	}
+
+	/**
+	 * Returns the number of durations recorded.
+	 *
+	 * @return the number of calls to {@link #record(long)}.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the sum of all durations recorded, in nanoseconds.
+	 *
+	 * @return the total time recorded.
+	 */
+	public long getTotal() {
+		return total.sum();
+	}
+
+	/**
+	 * Returns the average duration recorded, in nanoseconds.
+	 *
+	 * @return the mean duration, or {@code 0} if nothing was recorded.
+	 */
+	public double getMean() {
+		long count = getCount();
+		return count == 0 ? 0.0 : (double) getTotal() / count;
+	}
+
+	/**
+	 * Returns the longest duration recorded, in nanoseconds.
+	 *
+	 * @return the maximum duration.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the duration below which a given percentage of all recorded durations fall.
+	 *
+	 * @param percentile a value between {@code 0.0} and {@code 100.0}
+	 *
+	 * @return the highest duration of the bucket where the given percentile falls, in nanoseconds, or {@code 0} if
+	 * nothing was recorded.
+	 */
+	public long getPercentile(double percentile) {
+		long count = getCount();
+		if (count == 0) {
+			return 0L;
+		}
+		long target = (long) Math.ceil(count * Math.max(0.0, Math.min(100.0, percentile)) / 100.0);
+		if (target < 1) {
+			target = 1;
+		}
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets.get(i);
+			if (seen >= target) {
+				return Math.min(highestValueOf(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Discards all durations recorded so far.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		count.reset();
+		total.reset();
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: count=%d, mean=%.0fns, p50=%dns, p90=%dns, p99=%dns, max=%dns",
+				name, getCount(), getMean(), getPercentile(50), getPercentile(90), getPercentile(99), getMax());
+	}
+}
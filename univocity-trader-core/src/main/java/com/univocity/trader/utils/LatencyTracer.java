@@ -0,0 +1,282 @@
+package com.univocity.trader.utils;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Traces the latency of live ticks, from the moment a websocket frame arrives to the submission of the orders it
+ * triggers. Each thread that handles a tick stamps the {@link Stage}s it goes through. The time between stages is
+ * recorded into a {@link LatencyHistogram} per {@link Span} and symbol.
+ *
+ * Frames are received in one thread and processed in another, so the stamps taken before a tick is published to the
+ * {@link com.univocity.trader.candles.TickPipeline} travel with it and are handed to the worker thread through
+ * {@link #begin(String, long, long)}.
+ *
+ * Tracing is disabled by default, in which case stamping a stage only reads a volatile flag.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class LatencyTracer {
+
+	/**
+	 * The points in time stamped while a tick is handled, in the order they usually happen.
+	 */
+	public enum Stage {
+		/**
+		 * A websocket frame arrived.
+		 */
+		RECEIVED,
+		/**
+		 * The payload of the frame was parsed into a tick.
+		 */
+		DECODED,
+		/**
+		 * A tick processing thread took the tick from the {@link com.univocity.trader.candles.TickPipeline}.
+		 */
+		DEQUEUED,
+		/**
+		 * The tick was converted into a candle and added to the history of its symbol.
+		 */
+		PERSISTED,
+		/**
+		 * The {@link com.univocity.trader.account.OrderManager} prepared an order.
+		 */
+		ORDER_PREPARED,
+		/**
+		 * The {@link com.univocity.trader.ClientAccount} returned from the submission of the order.
+		 */
+		ORDER_SUBMITTED,
+		/**
+		 * The tick was processed by all accounts, stamped once by the {@link com.univocity.trader.candles.TickPipeline}.
+		 */
+		PROCESSED
+	}
+
+	/**
+	 * The intervals between two {@link Stage}s that are measured.
+	 */
+	public enum Span {
+		PARSE(Stage.RECEIVED, Stage.DECODED),
+		QUEUE(Stage.DECODED, Stage.DEQUEUED),
+		HISTORY(Stage.DEQUEUED, Stage.PERSISTED),
+		ORDER_PREPARATION(Stage.PERSISTED, Stage.ORDER_PREPARED),
+		ORDER_SUBMISSION(Stage.ORDER_PREPARED, Stage.ORDER_SUBMITTED),
+		PROCESS(Stage.PERSISTED, Stage.PROCESSED),
+		FRAME_TO_ORDER(Stage.RECEIVED, Stage.ORDER_SUBMITTED),
+		FRAME_TO_PROCESSED(Stage.RECEIVED, Stage.PROCESSED);
+
+		public final Stage from;
+		public final Stage to;
+
+		Span(Stage from, Stage to) {
+			this.from = from;
+			this.to = to;
+		}
+	}
+
+	private static final Span[] SPANS = Span.values();
+	private static final Span[][] SPANS_ENDING_AT = new Span[Stage.values().length][];
+
+	static {
+		for (Stage stage : Stage.values()) {
+			SPANS_ENDING_AT[stage.ordinal()] = Arrays.stream(SPANS).filter(s -> s.to == stage).toArray(Span[]::new);
+		}
+	}
+
+	private static final Map<String, LatencyHistogram[]> histograms = new ConcurrentHashMap<>();
+	private static final ThreadLocal<Trace> trace = ThreadLocal.withInitial(Trace::new);
+	private static volatile boolean enabled;
+
+	private LatencyTracer() {
+	}
+
+	private static final class Trace {
+		final long[] stamps = new long[Stage.values().length];
+		LatencyHistogram[] histograms;
+
+		void stamp(Stage stage, long now) {
+			stamps[stage.ordinal()] = now;
+			if (histograms != null) {
+				for (Span span : SPANS_ENDING_AT[stage.ordinal()]) {
+					long from = stamps[span.from.ordinal()];
+					if (from != 0) {
+						histograms[span.ordinal()].record(now - from);
+					}
+				}
+			}
+		}
+
+		void clear() {
+			Arrays.fill(stamps, 0L);
+			histograms = null;
+		}
+	}
+
+	public static void enable() {
+		enabled = true;
+	}
+
+	public static void disable() {
+		enabled = false;
+	}
+
+	public static boolean enabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts tracing a websocket frame that has just arrived in the current thread.
+	 */
+	public static void frameReceived() {
+		if (enabled) {
+			Trace t = trace.get();
+			t.clear();
+			t.stamps[Stage.RECEIVED.ordinal()] = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Stamps a stage of the tick being handled by the current thread.
+	 *
+	 * @param stage the stage the tick has just reached.
+	 */
+	public static void stamp(Stage stage) {
+		if (enabled) {
+			trace.get().stamp(stage, System.nanoTime());
+		}
+	}
+
+	/**
+	 * Stamps a stage of the tick being handled by the current thread, unless the tick already reached it. Used for
+	 * stages that each account goes through with the same tick, so that they are measured from the first account.
+	 *
+	 * @param stage the stage the tick has just reached.
+	 */
+	public static void stampFirst(Stage stage) {
+		if (enabled) {
+			Trace t = trace.get();
+			if (t.stamps[stage.ordinal()] == 0) {
+				t.stamp(stage, System.nanoTime());
+			}
+		}
+	}
+
+	/**
+	 * Returns when a stage was reached by the tick being handled by the current thread.
+	 *
+	 * @param stage the stage of interest.
+	 *
+	 * @return the {@link System#nanoTime()} of the stage, or {@code 0} if the stage wasn't reached or tracing is
+	 * disabled.
+	 */
+	public static long stampOf(Stage stage) {
+		return enabled ? trace.get().stamps[stage.ordinal()] : 0L;
+	}
+
+	/**
+	 * Starts recording the latencies of a tick taken from the {@link com.univocity.trader.candles.TickPipeline} by the
+	 * current thread, and stamps {@link Stage#DEQUEUED}.
+	 *
+	 * @param symbol     the symbol of the tick.
+	 * @param receivedAt when the frame of the tick was received, or {@code 0} if the tick didn't come from a websocket.
+	 * @param decodedAt  when the frame of the tick was decoded, or {@code 0} if unknown.
+	 */
+	public static void begin(String symbol, long receivedAt, long decodedAt) {
+		if (enabled) {
+			Trace t = trace.get();
+			t.clear();
+			t.histograms = histograms.computeIfAbsent(symbol, LatencyTracer::newHistograms);
+			t.stamps[Stage.RECEIVED.ordinal()] = receivedAt;
+			if (decodedAt != 0) {
+				t.stamp(Stage.DECODED, decodedAt);
+			}
+			t.stamp(Stage.DEQUEUED, System.nanoTime());
+		}
+	}
+
+	/**
+	 * Discards the stamps of the tick handled by the current thread, so they are not attributed to the next tick.
+	 */
+	public static void end() {
+		if (enabled) {
+			trace.get().clear();
+		}
+	}
+
+	private static LatencyHistogram[] newHistograms(String symbol) {
+		LatencyHistogram[] out = new LatencyHistogram[SPANS.length];
+		for (int i = 0; i < out.length; i++) {
+			out[i] = new LatencyHistogram(symbol + " " + SPANS[i]);
+		}
+		return out;
+	}
+
+	/**
+	 * Summary of the latencies recorded for a {@link Span} of a symbol, in nanoseconds.
+	 */
+	public static final class SpanLatency {
+		public final long count;
+		public final long mean;
+		public final long p50;
+		public final long p90;
+		public final long p99;
+		public final long max;
+
+		SpanLatency(LatencyHistogram histogram) {
+			count = histogram.getCount();
+			mean = (long) histogram.getMean();
+			p50 = histogram.getPercentile(50);
+			p90 = histogram.getPercentile(90);
+			p99 = histogram.getPercentile(99);
+			max = histogram.getMax();
+		}
+
+		@Override
+		public String toString() {
+			return String.format("count=%d, mean=%.2fms, p50=%.2fms, p90=%.2fms, p99=%.2fms, max=%.2fms", count, mean / 1e6, p50 / 1e6, p90 / 1e6, p99 / 1e6, max / 1e6);
+		}
+	}
+
+	/**
+	 * Returns the latencies recorded so far for each symbol.
+	 *
+	 * @return a copy of the latencies of each {@link Span} that was measured at least once, per symbol.
+	 */
+	public static Map<String, Map<Span, SpanLatency>> snapshot() {
+		Map<String, Map<Span, SpanLatency>> out = new TreeMap<>();
+		histograms.forEach((symbol, spans) -> {
+			Map<Span, SpanLatency> latencies = new EnumMap<>(Span.class);
+			for (int i = 0; i < spans.length; i++) {
+				if (spans[i].getCount() > 0) {
+					latencies.put(SPANS[i], new SpanLatency(spans[i]));
+				}
+			}
+			out.put(symbol, Collections.unmodifiableMap(latencies));
+		});
+		return Collections.unmodifiableMap(out);
+	}
+
+	/**
+	 * Returns a table with the latencies recorded so far, one line per symbol and {@link Span}.
+	 *
+	 * @return the latency summary, or an empty {@code String} if nothing was recorded.
+	 */
+	public static String summary() {
+		Map<String, Map<Span, SpanLatency>> snapshot = snapshot();
+		if (snapshot.isEmpty()) {
+			return "";
+		}
+		StringBuilder out = new StringBuilder("Live latency (times in milliseconds):\n");
+		out.append(String.format("%-12s %-20s %10s %10s %10s %10s %10s%n", "symbol", "span", "count", "p50", "p90", "p99", "max"));
+		snapshot.forEach((symbol, spans) -> spans.forEach((span, l) ->
+				out.append(String.format("%-12s %-20s %10d %10.2f %10.2f %10.2f %10.2f%n", symbol, span, l.count, l.p50 / 1e6, l.p90 / 1e6, l.p99 / 1e6, l.max / 1e6))));
+		return out.toString();
+	}
+
+	/**
+	 * Discards all latencies recorded so far.
+	 */
+	public static void clear() {
+		histograms.values().forEach(spans -> Arrays.stream(spans).forEach(LatencyHistogram::reset));
+	}
+}
@@ -1,6 +1,6 @@
 package com.univocity.trader.utils;
 
-public final class LinearRegression {
+public final class LinearRegression implements Stateful {
 
 	private long count;
 	private double last;
@@ -96,6 +96,38 @@ public final class LinearRegression {
 		return predict(1) > last * (1.0 + (factor / 100.0));
 	}
 
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeLong(count);
+		out.writeDouble(last);
+		out.writeDouble(meanX);
+		out.writeDouble(meanY);
+		out.writeDouble(varX);
+		out.writeDouble(covXY);
+		out.writeDouble(slope);
+		out.writeDouble(intercept);
+		out.writeDouble(umeanX);
+		out.writeDouble(umeanY);
+		out.writeDouble(uvarX);
+		out.writeDouble(ucovXY);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		count = in.readLong();
+		last = in.readDouble();
+		meanX = in.readDouble();
+		meanY = in.readDouble();
+		varX = in.readDouble();
+		covXY = in.readDouble();
+		slope = in.readDouble();
+		intercept = in.readDouble();
+		umeanX = in.readDouble();
+		umeanY = in.readDouble();
+		uvarX = in.readDouble();
+		ucovXY = in.readDouble();
+	}
+
 	public void clear() {
 		last = meanX = meanY = varX = covXY = slope = intercept = umeanX = umeanY = uvarX = ucovXY = 0.0;
 		count = 0;
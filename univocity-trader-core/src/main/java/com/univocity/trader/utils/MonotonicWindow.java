@@ -0,0 +1,205 @@
+package com.univocity.trader.utils;
+
+import java.util.function.*;
+
+/**
+ * Tracks the highest (or lowest) value of a sliding window of values in amortized constant time, using a monotonic
+ * deque: each value added discards any previous values it dominates, as those can never be selected again while the
+ * new value remains in the window. The oldest entry of the deque is the selected value, and each following entry is the
+ * selected value of the remainder of the window after it.
+ *
+ * Like {@link CircularList}, values are either {@link #add(double) added} when a candle closes or used to
+ * {@link #update(double) update} the value of a candle that is still open. An updated value counts as the most recent
+ * value of the window, pushing out the oldest value added, until it's replaced by the next call to {@link #add(double)}.
+ *
+ * When multiple values in the window are equally selectable, the most recent one is selected.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public class MonotonicWindow implements Stateful {
+
+	private final int length;
+	private final DoubleBinaryOperator selection;
+
+	private final double[] values;
+	private final long[] positions;
+	private int head;
+	private int count;
+
+	private long added;
+	private boolean updating;
+	private double updateValue;
+
+	/**
+	 * Creates a window of values.
+	 *
+	 * @param length    the number of values in the window
+	 * @param selection function that returns which of two values should be selected, e.g. {@code Math::max}
+	 */
+	public MonotonicWindow(int length, DoubleBinaryOperator selection) {
+		if (length <= 0) {
+			throw new IllegalArgumentException("Window length must be positive");
+		}
+		this.length = length;
+		this.selection = selection;
+		this.values = new double[length];
+		this.positions = new long[length];
+	}
+
+	public static MonotonicWindow highest(int length) {
+		return new MonotonicWindow(length, Math::max);
+	}
+
+	public static MonotonicWindow lowest(int length) {
+		return new MonotonicWindow(length, Math::min);
+	}
+
+	public final void accumulate(double value, boolean updating) {
+		if (updating) {
+			update(value);
+		} else {
+			add(value);
+		}
+	}
+
+	public void add(double value) {
+		updating = false;
+		long position = added++;
+
+		while (count > 0 && positions[head] <= position - length) {
+			head = (head + 1) % length;
+			count--;
+		}
+		while (count > 0 && isSelected(value, values[index(count - 1)])) {
+			count--;
+		}
+
+		int tail = index(count++);
+		values[tail] = value;
+		positions[tail] = position;
+	}
+
+	public void update(double value) {
+		updating = true;
+		updateValue = value;
+	}
+
+	private boolean isSelected(double candidate, double current) {
+		return selection.applyAsDouble(current, candidate) == candidate;
+	}
+
+	private int index(int offset) {
+		return (head + offset) % length;
+	}
+
+	/**
+	 * Returns the deque offset of the entry selected among the given number of most recent values added, ignoring
+	 * any updated value.
+	 */
+	private int select(int backwardCount) {
+		if (backwardCount <= 0 || count == 0) {
+			return -1;
+		}
+		long from = added - backwardCount;
+		if (positions[head] >= from) {
+			return 0;
+		}
+		// positions grow from the head to the tail of the deque
+		int low = 1;
+		int high = count - 1;
+		if (positions[index(high)] < from) {
+			return -1;
+		}
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (positions[index(mid)] < from) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the value selected among all values in the window.
+	 *
+	 * @return the selected value, or {@code Double.NaN} if the window is empty.
+	 */
+	public final double getValue() {
+		return getValue(length);
+	}
+
+	/**
+	 * Returns the value selected among the given number of most recent values in the window.
+	 *
+	 * @param backwardCount how many of the most recent values to consider. Limited to the length of the window.
+	 *
+	 * @return the selected value, or {@code Double.NaN} if the window is empty.
+	 */
+	public final double getValue(int backwardCount) {
+		backwardCount = Math.min(backwardCount, length);
+		if (updating) {
+			int selected = select(backwardCount - 1);
+			if (selected == -1 || isSelected(updateValue, values[index(selected)])) {
+				return backwardCount > 0 ? updateValue : Double.NaN;
+			}
+			return values[index(selected)];
+		}
+		int selected = select(backwardCount);
+		return selected == -1 ? Double.NaN : values[index(selected)];
+	}
+
+	/**
+	 * Returns how many values ago the selected value of the window was received.
+	 *
+	 * @return {@code 0} if the most recent value is the selected one, {@code 1} if it's the value before that, and so on;
+	 * or {@code -1} if the window is empty.
+	 */
+	public final int getAge() {
+		if (updating) {
+			int selected = select(length - 1);
+			if (selected == -1 || isSelected(updateValue, values[index(selected)])) {
+				return 0;
+			}
+			return (int) (added - positions[index(selected)]);
+		}
+		int selected = select(length);
+		return selected == -1 ? -1 : (int) (added - 1 - positions[index(selected)]);
+	}
+
+	/**
+	 * Returns the number of values in the window, including any updated value.
+	 *
+	 * @return the current window size.
+	 */
+	public final int size() {
+		return (int) Math.min(length, updating ? added + 1 : added);
+	}
+
+	public final int capacity() {
+		return length;
+	}
+
+	@Override
+	public void captureState(StateWriter out) {
+		out.writeDoubles(values);
+		out.writeLongs(positions);
+		out.writeInt(head);
+		out.writeInt(count);
+		out.writeLong(added);
+		out.writeBoolean(updating);
+		out.writeDouble(updateValue);
+	}
+
+	@Override
+	public void restoreState(StateReader in) {
+		in.readDoubles(values);
+		in.readLongs(positions);
+		head = in.readInt();
+		count = in.readInt();
+		added = in.readLong();
+		updating = in.readBoolean();
+		updateValue = in.readDouble();
+	}
+}
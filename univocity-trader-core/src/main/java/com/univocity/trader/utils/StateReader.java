@@ -0,0 +1,151 @@
+package com.univocity.trader.utils;
+
+import com.univocity.trader.candles.*;
+
+import java.nio.*;
+import java.nio.charset.*;
+
+/**
+ * Reads the state of {@link Stateful} components from a {@link StateSnapshot}, in the order it was written by a
+ * {@link StateWriter}.
+ *
+ * Reading a state captured from components of a different type or structure (e.g. a window of another length) fails
+ * with an {@link IllegalStateException}. Components restored before the failure are left with a mix of their previous
+ * state and the state read.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class StateReader {
+
+	private final ByteBuffer buffer;
+
+	StateReader(byte[] data) {
+		this.buffer = ByteBuffer.wrap(data);
+	}
+
+	private ByteBuffer require(int bytes) {
+		if (bytes < 0 || buffer.remaining() < bytes) {
+			throw new IllegalStateException("Snapshot has less data than expected");
+		}
+		return buffer;
+	}
+
+	/**
+	 * Restores the state of a component written with {@link StateWriter#writeState(Stateful)}.
+	 *
+	 * @param component the component whose state should be restored
+	 */
+	public void readState(Stateful component) {
+		String type = readString();
+		if (!component.getClass().getName().equals(type)) {
+			throw new IllegalStateException("Can't restore state of " + type + " into " + component.getClass().getName());
+		}
+		component.restoreState(this);
+	}
+
+	/**
+	 * Restores the state of each component of an array, written with {@link StateWriter#writeStates(Stateful[])}.
+	 *
+	 * @param components the components whose state should be restored
+	 */
+	public void readStates(Stateful[] components) {
+		readLength(components.length);
+		for (Stateful component : components) {
+			readState(component);
+		}
+	}
+
+	private void readLength(int expected) {
+		int length = readInt();
+		if (length != expected) {
+			throw new IllegalStateException("Expected " + expected + " elements in snapshot, got " + length);
+		}
+	}
+
+	public long readLong() {
+		return require(Long.BYTES).getLong();
+	}
+
+	public int readInt() {
+		return require(Integer.BYTES).getInt();
+	}
+
+	public double readDouble() {
+		return require(Double.BYTES).getDouble();
+	}
+
+	public boolean readBoolean() {
+		return require(1).get() != 0;
+	}
+
+	public String readString() {
+		int length = readInt();
+		if (length == -1) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		require(length).get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public <E extends Enum<E>> E readEnum(Class<E> type) {
+		String name = readString();
+		if (name == null) {
+			return null;
+		}
+		try {
+			return Enum.valueOf(type, name);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalStateException("Unknown " + type.getSimpleName() + " in snapshot: " + name, e);
+		}
+	}
+
+	/**
+	 * Reads the values of a candle written with {@link StateWriter#writeCandle(Candle)}.
+	 *
+	 * @return a new candle with the values read, or {@code null} if {@code null} was written.
+	 */
+	public Candle readCandle() {
+		if (!readBoolean()) {
+			return null;
+		}
+		return new Candle(readLong(), readLong(), readDouble(), readDouble(), readDouble(), readDouble(), readDouble());
+	}
+
+	/**
+	 * Reads values written with {@link StateWriter#writeDoubles(double[])} into an array of the same length.
+	 *
+	 * @param values the array to populate
+	 */
+	public void readDoubles(double[] values) {
+		readLength(values.length);
+		require(values.length * Double.BYTES).asDoubleBuffer().get(values);
+		buffer.position(buffer.position() + values.length * Double.BYTES);
+	}
+
+	public void readLongs(long[] values) {
+		readLength(values.length);
+		require(values.length * Long.BYTES).asLongBuffer().get(values);
+		buffer.position(buffer.position() + values.length * Long.BYTES);
+	}
+
+	public void readInts(int[] values) {
+		readLength(values.length);
+		require(values.length * Integer.BYTES).asIntBuffer().get(values);
+		buffer.position(buffer.position() + values.length * Integer.BYTES);
+	}
+
+	public void readBooleans(boolean[] values) {
+		readLength(values.length);
+		require(values.length);
+		for (int i = 0; i < values.length; i++) {
+			values[i] = buffer.get() != 0;
+		}
+	}
+
+	void end() {
+		if (buffer.hasRemaining()) {
+			throw new IllegalStateException("Snapshot has more data than expected");
+		}
+	}
+}
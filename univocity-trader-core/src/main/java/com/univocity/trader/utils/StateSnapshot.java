@@ -0,0 +1,67 @@
+package com.univocity.trader.utils;
+
+import java.io.*;
+
+/**
+ * The state of {@link Stateful} components such as {@link com.univocity.trader.candles.Aggregator}s,
+ * {@link com.univocity.trader.strategy.Indicator}s, {@link com.univocity.trader.strategy.IndicatorGroup}s and
+ * {@link CircularList}s, which can be restored into other components created with the same configuration, e.g. the
+ * indicators of a new trading engine.
+ *
+ * Snapshots are serializable, so they can be stored and restored by a later run of the same program.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class StateSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 2L;
+
+	private final byte[] data;
+
+	StateSnapshot(byte[] data) {
+		this.data = data;
+	}
+
+	/**
+	 * Captures the state of the given components.
+	 *
+	 * @param components the components whose state should be captured
+	 *
+	 * @return a snapshot that can be restored into components with the same configuration.
+	 *
+	 * @throws UnsupportedOperationException if any of the components holds state that can't be captured
+	 */
+	public static StateSnapshot capture(Stateful... components) {
+		StateWriter out = new StateWriter();
+		for (Stateful component : components) {
+			out.writeState(component);
+		}
+		return out.toSnapshot();
+	}
+
+	/**
+	 * Restores the captured state into the given components.
+	 *
+	 * @param components the components to receive the captured state, in the same order given to
+	 *                   {@link #capture(Stateful...)}
+	 *
+	 * @throws IllegalStateException if the given components don't match the captured state. Components restored before
+	 *                               the mismatch was found are left in an inconsistent state.
+	 */
+	public void restore(Stateful... components) {
+		StateReader in = new StateReader(data);
+		for (Stateful component : components) {
+			in.readState(component);
+		}
+		in.end();
+	}
+
+	/**
+	 * Returns the number of bytes used by this snapshot.
+	 *
+	 * @return the size of this snapshot.
+	 */
+	public int size() {
+		return data.length;
+	}
+}
@@ -0,0 +1,134 @@
+package com.univocity.trader.utils;
+
+import com.univocity.trader.candles.*;
+
+import java.nio.*;
+import java.nio.charset.*;
+import java.util.*;
+
+/**
+ * Collects the state written by {@link Stateful} components into a {@link StateSnapshot}. Each component is preceded
+ * by the name of its class, so a snapshot can't be restored into components of another type.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see StateReader
+ */
+public final class StateWriter {
+
+	private ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+	private ByteBuffer reserve(int bytes) {
+		if (buffer.remaining() < bytes) {
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+			buffer.flip();
+			larger.put(buffer);
+			buffer = larger;
+		}
+		return buffer;
+	}
+
+	/**
+	 * Writes the state of a component, which is restored with {@link StateReader#readState(Stateful)}.
+	 *
+	 * @param component the component whose state should be written
+	 */
+	public void writeState(Stateful component) {
+		writeString(component.getClass().getName());
+		component.captureState(this);
+	}
+
+	/**
+	 * Writes the state of each component of an array, which is restored with {@link StateReader#readStates(Stateful[])}.
+	 *
+	 * @param components the components whose state should be written
+	 */
+	public void writeStates(Stateful[] components) {
+		writeInt(components.length);
+		for (Stateful component : components) {
+			writeState(component);
+		}
+	}
+
+	public void writeLong(long value) {
+		reserve(Long.BYTES).putLong(value);
+	}
+
+	public void writeInt(int value) {
+		reserve(Integer.BYTES).putInt(value);
+	}
+
+	public void writeDouble(double value) {
+		reserve(Double.BYTES).putDouble(value);
+	}
+
+	public void writeBoolean(boolean value) {
+		reserve(1).put(value ? (byte) 1 : (byte) 0);
+	}
+
+	public void writeString(String value) {
+		if (value == null) {
+			writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeInt(bytes.length);
+		reserve(bytes.length).put(bytes);
+	}
+
+	public void writeEnum(Enum<?> value) {
+		writeString(value == null ? null : value.name());
+	}
+
+	/**
+	 * Writes the values of a candle, which are read into a new candle by {@link StateReader#readCandle()}.
+	 *
+	 * @param candle the candle to write. Might be {@code null}.
+	 */
+	public void writeCandle(Candle candle) {
+		writeBoolean(candle != null);
+		if (candle != null) {
+			writeLong(candle.openTime);
+			writeLong(candle.closeTime);
+			writeDouble(candle.open);
+			writeDouble(candle.high);
+			writeDouble(candle.low);
+			writeDouble(candle.close);
+			writeDouble(candle.volume);
+		}
+	}
+
+	public void writeDoubles(double[] values) {
+		writeInt(values.length);
+		reserve(values.length * Double.BYTES).asDoubleBuffer().put(values);
+		buffer.position(buffer.position() + values.length * Double.BYTES);
+	}
+
+	public void writeLongs(long[] values) {
+		writeInt(values.length);
+		reserve(values.length * Long.BYTES).asLongBuffer().put(values);
+		buffer.position(buffer.position() + values.length * Long.BYTES);
+	}
+
+	public void writeInts(int[] values) {
+		writeInt(values.length);
+		reserve(values.length * Integer.BYTES).asIntBuffer().put(values);
+		buffer.position(buffer.position() + values.length * Integer.BYTES);
+	}
+
+	public void writeBooleans(boolean[] values) {
+		writeInt(values.length);
+		ByteBuffer out = reserve(values.length);
+		for (boolean value : values) {
+			out.put(value ? (byte) 1 : (byte) 0);
+		}
+	}
+
+	/**
+	 * Returns a snapshot with everything written so far.
+	 *
+	 * @return the state written into this writer.
+	 */
+	public StateSnapshot toSnapshot() {
+		return new StateSnapshot(Arrays.copyOf(buffer.array(), buffer.position()));
+	}
+}
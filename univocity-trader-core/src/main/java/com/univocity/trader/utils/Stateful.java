@@ -0,0 +1,34 @@
+package com.univocity.trader.utils;
+
+/**
+ * A component whose internal state can be copied into another instance created with the same configuration, e.g. the
+ * indicators of a new {@link com.univocity.trader.strategy.TradingEngine} restored from the state an equivalent engine had
+ * at the end of its warm-up period.
+ *
+ * Implementations write the values of their mutable fields in {@link #captureState(StateWriter)} and read them back,
+ * in the same order, in {@link #restoreState(StateReader)}. Configuration given at construction time is not part of the
+ * state. Subclasses that keep state of their own must override both methods and invoke the ones of their superclass.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see StateSnapshot
+ */
+public interface Stateful {
+
+	/**
+	 * Writes the current state of this component.
+	 *
+	 * @param out the destination of the state
+	 *
+	 * @throws UnsupportedOperationException if this component holds state that can't be captured.
+	 */
+	void captureState(StateWriter out);
+
+	/**
+	 * Replaces the state of this component with a state captured from another instance with the same configuration.
+	 *
+	 * @param in the source of the state, positioned where the state of this component was written.
+	 *
+	 * @throws IllegalStateException if the state was captured from an incompatible component.
+	 */
+	void restoreState(StateReader in);
+}
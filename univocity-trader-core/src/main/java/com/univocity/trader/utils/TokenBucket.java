@@ -0,0 +1,71 @@
+package com.univocity.trader.utils;
+
+/**
+ * A token bucket shared by threads that must collectively respect a rate limit, such as the number of requests
+ * per second accepted by an exchange. One token is added every {@code interval} milliseconds, up to {@code capacity}
+ * tokens. Each call to {@link #acquire()} takes a token, waiting for the next one when the bucket is empty.
+ *
+ * @author uniVocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class TokenBucket {
+
+	private final long interval;
+	private final int capacity;
+	private double tokens;
+	private long lastRefill;
+	private long acquired;
+
+	/**
+	 * Creates a full token bucket.
+	 *
+	 * @param interval time in milliseconds for each token to be added to the bucket
+	 * @param capacity maximum number of tokens that can accumulate in the bucket, i.e. the maximum burst size.
+	 */
+	public TokenBucket(long interval, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+		this.interval = Math.max(0, interval);
+		this.capacity = capacity;
+		this.tokens = capacity;
+		this.lastRefill = System.currentTimeMillis();
+	}
+
+	/**
+	 * Takes a token from the bucket, blocking the current thread until one is available.
+	 *
+	 * @throws InterruptedException if interrupted while waiting for a token.
+	 */
+	public void acquire() throws InterruptedException {
+		long wait;
+		synchronized (this) {
+			refill();
+			tokens--;
+			acquired++;
+			// tokens go negative to reserve the next slots for threads that arrived first.
+			wait = tokens >= 0 ? 0 : (long) Math.ceil(-tokens * interval);
+		}
+		if (wait > 0) {
+			Thread.sleep(wait);
+		}
+	}
+
+	private void refill() {
+		long now = System.currentTimeMillis();
+		if (interval == 0) {
+			tokens = capacity;
+		} else if (now > lastRefill) {
+			tokens = Math.min(capacity, tokens + (now - lastRefill) / (double) interval);
+		}
+		lastRefill = now;
+	}
+
+	/**
+	 * Returns how many tokens were taken from this bucket so far.
+	 *
+	 * @return the total number of calls to {@link #acquire()}.
+	 */
+	public synchronized long getAcquiredCount() {
+		return acquired;
+	}
+}
@@ -157,4 +157,26 @@ public class AccountManagerTest extends OrderFillChecker {
 		funds = tradingManager.allocateFunds( LONG);
 		assertEquals(0.0, funds, DELTA);
 	}
-}
\ No newline at end of file
+
+	private static boolean isOrderMonitorRunning(String accountId) {
+		return Thread.getAllStackTraces().keySet().stream().anyMatch(t -> t.isAlive() && t.getName().equals("Order monitor: " + accountId));
+	}
+
+	@Test
+	public void testOrderMonitorShutdown() throws Exception {
+		SimulatedAccountManager account = getSimulatedAccountManager();
+		OrderTracker tracker = account.tradingManagers.get("ADAUSDT")[0].orderTracker;
+
+		account.getOrderMonitor().track(tracker);
+		assertTrue(isOrderMonitorRunning(account.accountId()));
+
+		account.shutdown();
+		for (int i = 0; i < 100 && isOrderMonitorRunning(account.accountId()); i++) {
+			Thread.sleep(10);
+		}
+		assertFalse(isOrderMonitorRunning(account.accountId()));
+
+		account.getOrderMonitor().track(tracker);
+		assertFalse(isOrderMonitorRunning(account.accountId()));
+	}
+}
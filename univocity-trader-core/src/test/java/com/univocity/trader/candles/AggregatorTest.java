@@ -2,6 +2,8 @@ package com.univocity.trader.candles;
 
 import org.junit.*;
 
+import java.util.*;
+
 import static com.univocity.trader.candles.CandleHelper.*;
 import static com.univocity.trader.indicators.base.TimeInterval.*;
 import static junit.framework.TestCase.*;
@@ -311,4 +313,43 @@ public class AggregatorTest {
 		assertEquals(2.0, full.close);
 		//end candle
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testAggregationReusingCandles() {
+		Aggregator plain = parent.getInstance(minutes(3));
+		Aggregator reusing = new Aggregator("test", true).getInstance(minutes(3));
+
+		Candle previousFull = null;
+		Set<Candle> fullCandles = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Candle candle : SEQUENCE) {
+			plain.aggregate(candle);
+			reusing.aggregate(candle);
+
+			assertSameValues(plain.getPartial(), reusing.getPartial());
+			assertSameValues(plain.getFull(), reusing.getFull());
+
+			Candle full = reusing.getFull();
+			if (full != null) {
+				fullCandles.add(full);
+				assertNotSame(previousFull, full);
+				previousFull = full;
+			}
+		}
+		assertEquals(2, fullCandles.size());
+	}
+
+	private static void assertSameValues(Candle expected, Candle actual) {
+		if (expected == null) {
+			assertNull(actual);
+			return;
+		}
+		assertNotNull(actual);
+		assertEquals(expected.openTime, actual.openTime);
+		assertEquals(expected.closeTime, actual.closeTime);
+		assertEquals(expected.open, actual.open);
+		assertEquals(expected.high, actual.high);
+		assertEquals(expected.low, actual.low);
+		assertEquals(expected.close, actual.close);
+		assertEquals(expected.volume, actual.volume);
+	}
+}
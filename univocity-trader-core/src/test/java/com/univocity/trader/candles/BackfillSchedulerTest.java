@@ -0,0 +1,31 @@
+package com.univocity.trader.candles;
+
+import com.univocity.trader.simulation.*;
+import org.junit.*;
+
+import static junit.framework.TestCase.*;
+
+public class BackfillSchedulerTest {
+
+	private static MockExchange exchange(long interval, int requestsPerMinute) {
+		return new MockExchange() {
+			@Override
+			public long timeToWaitPerRequest() {
+				return interval;
+			}
+
+			@Override
+			public int historicalRequestsPerMinute() {
+				return requestsPerMinute;
+			}
+		};
+	}
+
+	@Test
+	public void testBurstCapacityFollowsExchangeLimit() {
+		assertEquals(1, BackfillScheduler.burstCapacity(new MockExchange()));
+		assertEquals(240, BackfillScheduler.burstCapacity(exchange(1_000, 300)));
+		assertEquals(1, BackfillScheduler.burstCapacity(exchange(100, 300))); //regular rate already uses the whole allowance
+		assertEquals(300, BackfillScheduler.burstCapacity(exchange(0, 300)));
+	}
+}
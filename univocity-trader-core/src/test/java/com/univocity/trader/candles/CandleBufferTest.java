@@ -0,0 +1,51 @@
+package com.univocity.trader.candles;
+
+import org.junit.*;
+
+import java.util.*;
+
+import static com.univocity.trader.candles.CandleHelper.*;
+import static junit.framework.TestCase.*;
+
+public class CandleBufferTest {
+
+	@Test
+	public void testAddAndRead() {
+		CandleBuffer buffer = new CandleBuffer(2);
+		List<Candle> candles = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Candle candle = newCandle(i, i, i + 0.5, i + 1.0, i - 1.0, 10.0 * i);
+			candles.add(candle);
+			buffer.add(candle);
+		}
+		assertEquals(100, buffer.size());
+
+		int i = 0;
+		Enumeration<Candle> e = Collections.enumeration(buffer);
+		while (e.hasMoreElements()) {
+			Candle expected = candles.get(i++);
+			Candle actual = e.nextElement();
+			assertNotSame(expected, actual);
+			assertEquals(expected.toString(), actual.toString());
+			assertEquals(expected.openTime, actual.openTime);
+			assertEquals(expected.closeTime, actual.closeTime);
+			assertEquals(expected.open, actual.open);
+			assertEquals(expected.high, actual.high);
+			assertEquals(expected.low, actual.low);
+			assertEquals(expected.close, actual.close);
+			assertEquals(expected.volume, actual.volume);
+		}
+		assertEquals(100, i);
+
+		assertEquals(candles.get(42).openTime, buffer.get(42).openTime);
+		assertNotSame(buffer.get(42), buffer.get(42));
+
+		buffer.trimToSize();
+		assertEquals(100, buffer.size());
+		assertEquals(candles.get(99).close, buffer.get(99).close);
+
+		buffer.clear();
+		assertTrue(buffer.isEmpty());
+		assertFalse(buffer.iterator().hasNext());
+	}
+}
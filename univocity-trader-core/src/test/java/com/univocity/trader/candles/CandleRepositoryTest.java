@@ -0,0 +1,152 @@
+package com.univocity.trader.candles;
+
+import com.univocity.trader.config.*;
+import org.junit.*;
+import org.springframework.dao.*;
+import org.springframework.jdbc.*;
+import org.springframework.jdbc.core.*;
+
+import java.sql.*;
+import java.time.*;
+import java.util.*;
+
+import static com.univocity.trader.indicators.base.TimeInterval.*;
+import static junit.framework.TestCase.*;
+
+public class CandleRepositoryTest {
+
+	static final class RecordingRepository extends CandleRepository {
+		final List<String> inserted = Collections.synchronizedList(new ArrayList<>());
+		final Set<String> stored = Collections.synchronizedSet(new HashSet<>());
+		Candle last;
+
+		RecordingRepository(int batchSize) {
+			super(new DatabaseConfiguration().batchSize(batchSize).flushInterval(millis(10)));
+		}
+
+		@Override
+		protected int insertCandles(List<String> symbols, List<PreciseCandle> candles) {
+			int count = 0;
+			for (int i = 0; i < candles.size(); i++) {
+				String key = symbols.get(i) + "@" + candles.get(i).openTime;
+				if (stored.add(key)) {
+					inserted.add(key);
+					count++;
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public Candle lastCandle(String symbol) {
+			return last;
+		}
+	}
+
+	private static PreciseCandle candle(long minute, double close) {
+		return new PreciseCandle(CandleHelper.newCandle((int) minute, close));
+	}
+
+	@Test
+	public void testLiveTicksAreWrittenInBackground() {
+		RecordingRepository repository = new RecordingRepository(100);
+		repository.last = CandleHelper.newCandle(1, 1.0);
+
+		assertTrue(repository.addToHistory("ADAUSDT", candle(1, 1.0), true));
+		assertFalse(repository.addToHistory("ADAUSDT", candle(2, 1.0), true)); //candle of minute 1 already in the database
+		assertTrue(repository.addToHistory("ADAUSDT", candle(2, 1.5), false)); //update of minute 2
+		assertTrue(repository.addToHistory("ADAUSDT", candle(3, 2.0), false));
+		assertTrue(repository.addToHistory("ADAUSDT", candle(4, 2.0), false));
+		assertTrue(repository.addToHistory("BTCUSDT", candle(4, 2.0), false));
+		assertTrue(repository.addToHistory("BTCUSDT", candle(5, 2.0), false));
+
+		assertEquals(2.0, repository.lastFullCandle("ADAUSDT").getClose().doubleValue(), 0.001);
+
+		repository.flush();
+		assertEquals(List.of("ADAUSDT@" + 2 * MINUTE.ms, "ADAUSDT@" + 3 * MINUTE.ms, "BTCUSDT@" + 4 * MINUTE.ms), repository.inserted);
+	}
+
+	@Test
+	public void testLateCandlesAreWritten() {
+		RecordingRepository repository = new RecordingRepository(100);
+		repository.last = CandleHelper.newCandle(1, 1.0);
+
+		assertTrue(repository.addToHistory("ADAUSDT", candle(3, 1.0), false));
+		assertTrue(repository.addToHistory("ADAUSDT", candle(2, 1.0), false)); //completes minute 3
+		assertTrue(repository.addToHistory("ADAUSDT", candle(4, 1.0), false)); //completes minute 2, received late
+		assertTrue(repository.addToHistory("ADAUSDT", candle(3, 1.0), false)); //completes minute 4
+		assertTrue(repository.addToHistory("ADAUSDT", candle(4, 1.0), false)); //completes minute 3 again, ignored by the insert
+		assertFalse(repository.addToHistory("ADAUSDT", candle(5, 1.0), false)); //completes minute 4 again, the latest one
+
+		repository.flush();
+		assertEquals(List.of("ADAUSDT@" + 3 * MINUTE.ms, "ADAUSDT@" + 2 * MINUTE.ms, "ADAUSDT@" + 4 * MINUTE.ms), repository.inserted);
+	}
+
+	@Test
+	public void testStoredCandlesAreIgnored() {
+		RecordingRepository repository = new RecordingRepository(500);
+		List<PreciseCandle> candles = new ArrayList<>();
+		for (int i = 0; i < 1200; i++) {
+			candles.add(candle(i, 1.0));
+		}
+		assertEquals(1200, repository.addToHistory("ADAUSDT", candles));
+
+		assertEquals(0, repository.addToHistory("ADAUSDT", candles.subList(0, 10)));
+		assertEquals(0, repository.addToHistory("ADAUSDT", Collections.emptyList()));
+	}
+
+	static final class GapRepository extends CandleRepository {
+		final JdbcTemplate db;
+		RuntimeException error;
+		int queries;
+		int scans;
+
+		GapRepository() {
+			super(new DatabaseConfiguration());
+			db = new JdbcTemplate() {
+				@Override
+				public <T> List<T> query(String sql, Object[] args, RowMapper<T> rowMapper) {
+					queries++;
+					if (error != null) {
+						throw error;
+					}
+					return Collections.emptyList();
+				}
+			};
+		}
+
+		@Override
+		public JdbcTemplate db() {
+			return db;
+		}
+
+		@Override
+		public Enumeration<Candle> iterate(String symbol, Instant from, Instant to, boolean cache) {
+			scans++;
+			return Collections.emptyEnumeration();
+		}
+	}
+
+	@Test
+	public void testGapsAreScannedOnlyIfWindowFunctionsAreRejected() {
+		GapRepository repository = new GapRepository();
+
+		repository.error = new QueryTimeoutException("timeout");
+		try {
+			repository.findGaps("ADAUSDT", null, null, MINUTE.ms);
+			fail("Expected timeout to propagate");
+		} catch (QueryTimeoutException e) {
+			//expected
+		}
+		repository.error = null;
+		assertTrue(repository.findGaps("ADAUSDT", null, null, MINUTE.ms).isEmpty());
+		assertEquals(2, repository.queries);
+		assertEquals(0, repository.scans);
+
+		repository.error = new BadSqlGrammarException("findGaps", "LAG", new SQLException("LAG not supported"));
+		assertTrue(repository.findGaps("ADAUSDT", null, null, MINUTE.ms).isEmpty());
+		assertTrue(repository.findGaps("ADAUSDT", null, null, MINUTE.ms).isEmpty());
+		assertEquals(3, repository.queries);
+		assertEquals(2, repository.scans);
+	}
+}
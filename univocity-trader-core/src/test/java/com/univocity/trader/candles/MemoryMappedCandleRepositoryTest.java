@@ -0,0 +1,134 @@
+package com.univocity.trader.candles;
+
+import com.univocity.trader.config.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+import java.time.*;
+import java.util.*;
+
+import static com.univocity.trader.candles.CandleHelper.*;
+import static com.univocity.trader.indicators.base.TimeInterval.*;
+import static junit.framework.TestCase.*;
+
+public class MemoryMappedCandleRepositoryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private MemoryMappedCandleRepository newRepository() throws Exception {
+		return new MemoryMappedCandleRepository(new DatabaseConfiguration(), folder.newFolder());
+	}
+
+	private List<Candle> candles(int count) {
+		List<Candle> out = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			out.add(newCandle(i, i, i + 0.5, i + 1.0, i - 1.0, 10.0 * i));
+		}
+		return out;
+	}
+
+	private List<Candle> read(MemoryMappedCandleRepository repository, Long from, Long to) {
+		List<Candle> out = new ArrayList<>();
+		Enumeration<Candle> e = repository.iterate("ADAUSDT", from == null ? null : Instant.ofEpochMilli(from), to == null ? null : Instant.ofEpochMilli(to), false);
+		while (e.hasMoreElements()) {
+			out.add(e.nextElement());
+		}
+		return out;
+	}
+
+	@Test
+	public void testStoreAndIterate() throws Exception {
+		MemoryMappedCandleRepository repository = newRepository();
+		List<Candle> candles = candles(100);
+		assertEquals(100, repository.store("ADAUSDT", Collections.enumeration(candles), candles.size()));
+		assertTrue(repository.isStored("ADAUSDT"));
+		assertEquals(Set.of("ADAUSDT"), repository.getStoredSymbols());
+
+		List<Candle> all = read(repository, null, null);
+		assertEquals(100, all.size());
+		for (int i = 0; i < all.size(); i++) {
+			Candle expected = candles.get(i);
+			Candle actual = all.get(i);
+			assertEquals(expected.openTime, actual.openTime);
+			assertEquals(expected.closeTime, actual.closeTime);
+			assertEquals(expected.open, actual.open);
+			assertEquals(expected.high, actual.high);
+			assertEquals(expected.low, actual.low);
+			assertEquals(expected.close, actual.close);
+			assertEquals(expected.volume, actual.volume);
+		}
+
+		assertEquals(candles.get(0).openTime, repository.firstCandle("ADAUSDT").openTime);
+		assertEquals(candles.get(99).openTime, repository.lastCandle("ADAUSDT").openTime);
+		assertEquals(100, repository.countCandles("ADAUSDT"));
+	}
+
+	@Test
+	public void testIterateTimeRange() throws Exception {
+		MemoryMappedCandleRepository repository = newRepository();
+		List<Candle> candles = candles(100);
+		repository.store("ADAUSDT", Collections.enumeration(candles), candles.size());
+
+		List<Candle> range = read(repository, 10 * MINUTE.ms, 20 * MINUTE.ms);
+		assertEquals(10, range.size());
+		assertEquals(10 * MINUTE.ms, range.get(0).openTime);
+		assertEquals(20 * MINUTE.ms - 1, range.get(9).closeTime);
+
+		assertEquals(10, repository.countCandles("ADAUSDT", Instant.ofEpochMilli(10 * MINUTE.ms), Instant.ofEpochMilli(20 * MINUTE.ms)));
+		assertEquals(90, read(repository, 10 * MINUTE.ms, null).size());
+		assertEquals(0, read(repository, 200 * MINUTE.ms, null).size());
+		assertEquals(0, read(repository, null, 0L).size());
+	}
+
+	@Test
+	public void testStoreReplacesPreviousFileAndLimitsCapacity() throws Exception {
+		MemoryMappedCandleRepository repository = newRepository();
+		repository.store("ADAUSDT", Collections.enumeration(candles(100)), 100);
+		assertEquals(100, read(repository, null, null).size());
+
+		assertEquals(5, repository.store("ADAUSDT", Collections.enumeration(candles(10)), 5));
+		assertEquals(5, read(repository, null, null).size());
+
+		assertEquals(3, repository.store("ADAUSDT", Collections.enumeration(candles(3)), 10));
+		assertEquals(3, read(repository, null, null).size());
+		assertEquals(2 * MINUTE.ms, repository.lastCandle("ADAUSDT").openTime);
+	}
+
+	@Test
+	public void testFindGaps() throws Exception {
+		MemoryMappedCandleRepository repository = newRepository();
+		List<Candle> candles = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			if ((i >= 10 && i < 15) || i == 50 || i >= 90 && i < 97) {
+				continue;
+			}
+			candles.add(newCandle(i, i));
+		}
+		repository.store("ADAUSDT", Collections.enumeration(candles), candles.size());
+
+		List<long[]> gaps = repository.findGaps("ADAUSDT", null, null, MINUTE.ms);
+		assertEquals(3, gaps.size());
+		assertEquals(9 * MINUTE.ms, gaps.get(0)[0]);
+		assertEquals(15 * MINUTE.ms, gaps.get(0)[1]);
+		assertEquals(49 * MINUTE.ms, gaps.get(1)[0]);
+		assertEquals(51 * MINUTE.ms, gaps.get(1)[1]);
+		assertEquals(89 * MINUTE.ms, gaps.get(2)[0]);
+		assertEquals(97 * MINUTE.ms, gaps.get(2)[1]);
+
+		for (long from = 0; from < 100; from += 7) {
+			for (long to = from + 1; to <= 100; to += 11) {
+				Instant start = Instant.ofEpochMilli(from * MINUTE.ms - 3 * MINUTE.ms);
+				Instant end = Instant.ofEpochMilli(to * MINUTE.ms);
+				List<long[]> expected = repository.findGaps(repository.iterate("ADAUSDT", start, end, false), start, MINUTE.ms);
+				List<long[]> actual = repository.findGaps("ADAUSDT", start, end, MINUTE.ms);
+				assertEquals(expected.size(), actual.size());
+				for (int i = 0; i < expected.size(); i++) {
+					assertTrue(Arrays.equals(expected.get(i), actual.get(i)));
+				}
+			}
+		}
+
+		assertTrue(repository.findGaps("ADAUSDT", null, null, 10 * MINUTE.ms).isEmpty());
+	}
+}
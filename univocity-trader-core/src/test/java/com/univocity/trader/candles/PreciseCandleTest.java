@@ -0,0 +1,66 @@
+package com.univocity.trader.candles;
+
+import org.junit.*;
+
+import java.math.*;
+
+import static junit.framework.TestCase.*;
+
+public class PreciseCandleTest {
+
+	@Test
+	public void testPricesShareLargestScale() {
+		PreciseCandle candle = new PreciseCandle(1, 2, new BigDecimal("0.1"), new BigDecimal("0.125"), new BigDecimal("0.09"), new BigDecimal("0.12"), new BigDecimal("1500.5"));
+
+		assertEquals(new BigDecimal("0.100"), candle.getOpen());
+		assertEquals(new BigDecimal("0.125"), candle.getHigh());
+		assertEquals(new BigDecimal("0.090"), candle.getLow());
+		assertEquals(new BigDecimal("0.120"), candle.getClose());
+		assertEquals(new BigDecimal("1500.5"), candle.getVolume());
+	}
+
+	@Test
+	public void testValuesTooLargeForFixedPoint() {
+		BigDecimal volume = new BigDecimal("12345678901234567.123456789");
+		BigDecimal high = new BigDecimal("98765432109876543210");
+		PreciseCandle candle = new PreciseCandle(1, 2, new BigDecimal("0.00000001"), high, new BigDecimal("0.00000001"), BigDecimal.ONE, volume);
+
+		assertEquals(new BigDecimal("0.00000001"), candle.getOpen());
+		assertEquals(high, candle.getHigh());
+		assertEquals(BigDecimal.ONE, candle.getClose());
+		assertEquals(volume, candle.getVolume());
+		assertEquals(volume, new PreciseCandle(1, 2, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, volume).getVolume());
+
+		Candle converted = new Candle(candle);
+		assertEquals(1e-8, converted.open);
+		assertEquals(high.doubleValue(), converted.high);
+		assertEquals(1.0, converted.close);
+		assertEquals(volume.doubleValue(), converted.volume);
+
+		assertEquals(1e20, new Candle(new PreciseCandle(new Candle(1, 2, 1.0, 1e20, 1.0, 1.0, 1.0))).high);
+	}
+
+	@Test
+	public void testConversionToCandle() {
+		PreciseCandle precise = new PreciseCandle(1, 2, 10_012L, 10_050L, 9_990L, 10_001L, 4, 33L, 0);
+		Candle candle = new Candle(precise);
+
+		assertEquals(1.0012, candle.open);
+		assertEquals(1.005, candle.high);
+		assertEquals(0.999, candle.low);
+		assertEquals(1.0001, candle.close);
+		assertEquals(33.0, candle.volume);
+	}
+
+	@Test
+	public void testRescale() {
+		assertEquals(123_000L, PreciseCandle.rescale(123L, 2, 5));
+		assertEquals(123L, PreciseCandle.rescale(123_000L, 5, 2));
+		try {
+			PreciseCandle.rescale(123_001L, 5, 2);
+			fail("Expected exception when dropping significant digits");
+		} catch (ArithmeticException e) {
+			//expected
+		}
+	}
+}
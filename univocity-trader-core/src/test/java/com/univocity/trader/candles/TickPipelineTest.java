@@ -0,0 +1,87 @@
+package com.univocity.trader.candles;
+
+import org.junit.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+import static junit.framework.TestCase.*;
+
+public class TickPipelineTest {
+
+	@Test
+	public void testTicksOfSymbolAreProcessedInOrder() throws Exception {
+		Map<String, List<Integer>> processed = new ConcurrentHashMap<>();
+		CountDownLatch latch = new CountDownLatch(3000);
+		TickPipeline<Integer> pipeline = new TickPipeline<>(2, 16, TickPipeline.WaitStrategy.BLOCKING, (symbol, tick) -> {
+			processed.computeIfAbsent(symbol, s -> Collections.synchronizedList(new ArrayList<>())).add(tick);
+			latch.countDown();
+		});
+		assertEquals(16, pipeline.getCapacity());
+
+		for (int i = 0; i < 1000; i++) {
+			pipeline.publish("BTCUSDT", i);
+			pipeline.publish("ADAUSDT", i);
+			pipeline.publish("ETHUSDT", i);
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+		for (String symbol : new String[]{"BTCUSDT", "ADAUSDT", "ETHUSDT"}) {
+			List<Integer> ticks = processed.get(symbol);
+			assertEquals(1000, ticks.size());
+			for (int i = 0; i < 1000; i++) {
+				assertEquals(i, ticks.get(i).intValue());
+			}
+		}
+		assertEquals(0, pipeline.getQueueDepth());
+		assertEquals(0, pipeline.getLag());
+	}
+
+	@Test
+	public void testSlowHandlerDoesNotBlockPublisher() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		TickPipeline<Integer> pipeline = new TickPipeline<>(1, 8, TickPipeline.WaitStrategy.SLEEPING, (symbol, tick) -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 5; i++) {
+			pipeline.publish("BTCUSDT", i);
+		}
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		Thread.sleep(20);
+
+		assertEquals(5, pipeline.getQueueDepth());
+		assertTrue(pipeline.getLag() >= 20);
+		release.countDown();
+	}
+
+	@Test
+	public void testCloseProcessesPublishedTicks() {
+		for (TickPipeline.WaitStrategy waitStrategy : TickPipeline.WaitStrategy.values()) {
+			List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+			TickPipeline<Integer> pipeline = new TickPipeline<>(2, 64, waitStrategy, (symbol, tick) -> {
+				if (tick % 100 == 0) {
+					LockSupport.parkNanos(1_000_000L);
+				}
+				processed.add(tick);
+			});
+
+			for (int i = 0; i < 1000; i++) {
+				pipeline.publish(i % 2 == 0 ? "BTCUSDT" : "ADAUSDT", i);
+			}
+			pipeline.close();
+			assertEquals(waitStrategy.toString(), 1000, processed.size());
+			assertEquals(0, pipeline.getQueueDepth());
+
+			pipeline.publish("BTCUSDT", 1000);
+			assertEquals(0, pipeline.getQueueDepth());
+			assertEquals(1000, processed.size());
+		}
+	}
+}
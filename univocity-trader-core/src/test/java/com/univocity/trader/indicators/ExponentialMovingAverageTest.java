@@ -40,4 +40,27 @@ public class ExponentialMovingAverageTest {
 		assertEquals(1.25, update(ma, 5, 1.0), 0.001);
 		assertEquals(1.5, update(ma, 6, 1.5), 0.001);
 	}
+
+	@Test
+	public void testAccumulateAll() {
+		double[] values = new double[50];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 10.0 + Math.sin(i) * 3.0;
+		}
+
+		ExponentialMovingAverage bulk = new ExponentialMovingAverage(7, minutes(1));
+		assertEquals(20, bulk.accumulateAll(values, 0, 20));
+		assertEquals(30, bulk.accumulateAll(values, 20, 50));
+
+		ExponentialMovingAverage single = new ExponentialMovingAverage(7, minutes(1));
+		for (double value : values) {
+			single.accumulate(value);
+		}
+		assertEquals(single.getValue(), bulk.getValue(), 0.0);
+		assertEquals(single.getAccumulationCount(), bulk.getAccumulationCount());
+
+		single.accumulate(3.0);
+		bulk.accumulate(3.0);
+		assertEquals(single.getValue(), bulk.getValue(), 0.0);
+	}
 }
@@ -81,4 +81,27 @@ public class MovingAverageTest {
 		assertEquals(3.0, update(ma, 8, 1.0), 0.001);
 		assertEquals(3.5, update(ma, 9, 2.0), 0.001);
 	}
+
+	@Test
+	public void testAccumulateAll() {
+		double[] values = new double[50];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 10.0 + Math.sin(i) * 3.0;
+		}
+
+		MovingAverage bulk = new MovingAverage(7, minutes(1));
+		assertEquals(20, bulk.accumulateAll(values, 0, 20));
+		assertEquals(30, bulk.accumulateAll(values, 20, 50));
+
+		MovingAverage single = new MovingAverage(7, minutes(1));
+		for (double value : values) {
+			single.accumulate(value);
+		}
+		assertEquals(single.getValue(), bulk.getValue(), 0.0);
+		assertEquals(single.getAccumulationCount(), bulk.getAccumulationCount());
+
+		single.accumulate(3.0);
+		bulk.accumulate(3.0);
+		assertEquals(single.getValue(), bulk.getValue(), 0.0);
+	}
 }
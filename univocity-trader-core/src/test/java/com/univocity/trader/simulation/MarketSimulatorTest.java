@@ -0,0 +1,494 @@
+package com.univocity.trader.simulation;
+
+import com.univocity.trader.candles.*;
+import com.univocity.trader.config.*;
+import com.univocity.trader.indicators.*;
+import com.univocity.trader.strategy.*;
+import com.univocity.trader.utils.*;
+import org.junit.*;
+import org.junit.rules.*;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static com.univocity.trader.indicators.base.TimeInterval.*;
+import static junit.framework.TestCase.*;
+
+public class MarketSimulatorTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2020, Month.JANUARY, 1, 0, 0);
+	private static final LocalDateTime END = START.plusDays(2);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	static final class Configuration extends com.univocity.trader.config.Configuration<Configuration, SimulationAccount> {
+		Configuration() {
+			super("mock.properties");
+		}
+
+		@Override
+		protected SimulationAccount newAccountConfiguration(String id) {
+			return new SimulationAccount(id);
+		}
+	}
+
+	static final class Simulator extends MarketSimulator<Configuration, SimulationAccount> {
+		Simulator() {
+			super(new Configuration(), MockExchange::new);
+		}
+	}
+
+	static final class RecordingStrategy implements Strategy {
+		private final String symbol;
+		private final List<String> processed;
+
+		RecordingStrategy(String symbol, List<String> processed) {
+			this.symbol = symbol;
+			this.processed = processed;
+		}
+
+		@Override
+		public Signal getSignal(Candle candle) {
+			processed.add(symbol + "@" + candle.openTime);
+			return Signal.NEUTRAL;
+		}
+	}
+
+	static final List<String> averages = Collections.synchronizedList(new ArrayList<>());
+
+	static class AverageStrategy extends IndicatorStrategy {
+		private final String symbol;
+		private final MovingAverage average = new MovingAverage(9, minutes(5));
+		private final ExponentialMovingAverage ema = new ExponentialMovingAverage(12, minutes(15));
+
+		AverageStrategy(String symbol) {
+			this.symbol = symbol;
+		}
+
+		@Override
+		protected Set<Indicator> getAllIndicators() {
+			return Set.of(average, ema);
+		}
+
+		@Override
+		public Signal getSignal(Candle candle) {
+			averages.add(symbol + "@" + candle.openTime + "=" + average.getValue() + "," + ema.getValue() + "," + ema.getAccumulationCount());
+			return Signal.NEUTRAL;
+		}
+	}
+
+	// buys and sells every 6 hours. Buy orders take a few minutes to fill, so a trade is open and a buy order is
+	// pending in the middle of the simulation.
+	static final class TradingStrategy extends AverageStrategy {
+		TradingStrategy(String symbol) {
+			super(symbol);
+		}
+
+		@Override
+		public Signal getSignal(Candle candle) {
+			super.getSignal(candle);
+			long minute = (candle.openTime / MINUTE.ms) % 360;
+			if (minute == 5 * 60 + 55) {
+				return Signal.BUY;
+			} else if (minute == 2 * 60 + 4) {
+				return Signal.SELL;
+			}
+			return Signal.NEUTRAL;
+		}
+	}
+
+	// receives every candle, so the engine can't warm up its indicators in bulk.
+	static final class PerCandleAverageStrategy extends AverageStrategy {
+		PerCandleAverageStrategy(String symbol) {
+			super(symbol);
+		}
+
+		@Override
+		public void candleAccumulated(Candle candle) {
+		}
+	}
+
+	static final class SharedAverageStrategy extends IndicatorStrategy {
+		final MovingAverage average = Indicators.MovingAverage(9, minutes(5));
+
+		SharedAverageStrategy(boolean recalculateEveryTick, List<SharedAverageStrategy> created) {
+			average.recalculateEveryTick(recalculateEveryTick);
+			created.add(this);
+		}
+
+		@Override
+		protected Set<Indicator> getAllIndicators() {
+			return Set.of(average);
+		}
+
+		@Override
+		public Signal getSignal(Candle candle) {
+			return Signal.NEUTRAL;
+		}
+	}
+
+	static void storeCandles(File directory, String symbol, long start, long end, long skipFrom, long skipTo) {
+		List<Candle> candles = new ArrayList<>();
+		for (long time = start; time < end; time += MINUTE.ms) {
+			if (time >= skipFrom && time < skipTo) {
+				continue;
+			}
+			double price = 1.0 + (time / MINUTE.ms) % 10;
+			candles.add(new Candle(time, time + MINUTE.ms - 1, price, price, price, price, 100.0));
+		}
+		new MemoryMappedCandleRepository(new DatabaseConfiguration(), directory).store(symbol, Collections.enumeration(candles), candles.size());
+	}
+
+	static Simulator newSimulator(File candleDirectory, List<String> processed) {
+		return newSimulator(candleDirectory, (symbol, parameters) -> processed);
+	}
+
+	static Simulator newSimulator(File candleDirectory, BiFunction<String, Parameters, List<String>> processed) {
+		Simulator simulator = new Simulator();
+		simulator.configure().account()
+				.referenceCurrency("USDT")
+				.tradeWith("ADA", "BTC")
+				.strategies()
+				.add((symbol, parameters) -> new RecordingStrategy(symbol, processed.apply(symbol, parameters)));
+
+		simulator.configure().simulation()
+				.initialFunds(1000.0)
+				.candleDirectory(candleDirectory)
+				.simulateFrom(START)
+				.simulateTo(END);
+		return simulator;
+	}
+
+	private File prepareCandles() throws Exception {
+		File directory = folder.newFolder();
+		long start = START.toInstant(ZoneOffset.UTC).toEpochMilli();
+		long end = END.toInstant(ZoneOffset.UTC).toEpochMilli();
+		storeCandles(directory, "ADAUSDT", start, end, start + HOUR.ms * 10, start + HOUR.ms * 30);
+		storeCandles(directory, "BTCUSDT", start + MINUTE.ms * 7, end, start + HOUR.ms * 5, start + HOUR.ms * 6);
+		return directory;
+	}
+
+	@Test
+	public void testEventDrivenClockProcessesCandlesInSameOrder() throws Exception {
+		File directory = prepareCandles();
+
+		List<String> minuteClock = Collections.synchronizedList(new ArrayList<>());
+		newSimulator(directory, minuteClock).run();
+
+		List<String> eventClock = Collections.synchronizedList(new ArrayList<>());
+		Simulator simulator = newSimulator(directory, eventClock);
+		simulator.configure().simulation().eventDriven(true);
+		simulator.run();
+
+		assertEquals((2880 - 1200) + (2880 - 7 - 60), minuteClock.size());
+		assertEquals(minuteClock, eventClock);
+	}
+
+	private Map<String, List<String>> sweep(File directory, int workers, List<SimulationResult> results) {
+		return sweep(directory, workers, 1, results);
+	}
+
+	private Map<String, List<String>> sweep(File directory, int workers, int batchSize, List<SimulationResult> results) {
+		return sweep(directory, workers, batchSize, results, simulation -> {});
+	}
+
+	private Map<String, List<String>> sweep(File directory, int workers, int batchSize, List<SimulationResult> results, Consumer<Simulation> settings) {
+		Map<String, List<String>> processed = new ConcurrentHashMap<>();
+		Simulator simulator = newSimulator(directory, (symbol, parameters) -> processed.computeIfAbsent(parameters.toString(), p -> Collections.synchronizedList(new ArrayList<>())));
+
+		List<Parameters> parameters = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			parameters.add(new LongParameters(i, i * 10));
+		}
+
+		simulator.configure().simulation()
+				.workers(workers)
+				.lockstepBatchSize(batchSize)
+				.reporter(results::add)
+				.addParameters(parameters);
+		settings.accept(simulator.configure().simulation());
+		simulator.run();
+		return processed;
+	}
+
+	@Test
+	public void testParallelSweepProcessesSameCandlesAsSequentialSweep() throws Exception {
+		File directory = prepareCandles();
+
+		List<SimulationResult> sequentialResults = Collections.synchronizedList(new ArrayList<>());
+		Map<String, List<String>> sequential = sweep(directory, 1, sequentialResults);
+
+		List<SimulationResult> parallelResults = Collections.synchronizedList(new ArrayList<>());
+		Map<String, List<String>> parallel = sweep(directory, 3, parallelResults);
+
+		assertEquals(5, sequential.size());
+		for (List<String> processed : sequential.values()) {
+			assertEquals((2880 - 1200) + (2880 - 7 - 60), processed.size());
+		}
+		assertEquals(sequential, parallel);
+
+		assertEquals(5, parallelResults.size());
+		Set<Parameters> reported = new HashSet<>();
+		for (SimulationResult result : parallelResults) {
+			assertTrue(reported.add(result.getParameters()));
+			assertEquals(1000.0, result.getTotalFunds(), 0.0001);
+			assertEquals("USDT", result.getReferenceCurrency());
+		}
+		assertEquals(sequentialResults.size(), parallelResults.size());
+	}
+
+	@Test
+	public void testLockstepSweepProcessesSameCandlesAsSequentialSweep() throws Exception {
+		File directory = prepareCandles();
+
+		List<SimulationResult> sequentialResults = Collections.synchronizedList(new ArrayList<>());
+		Map<String, List<String>> sequential = sweep(directory, 1, sequentialResults);
+
+		List<SimulationResult> lockstepResults = Collections.synchronizedList(new ArrayList<>());
+		assertEquals(sequential, sweep(directory, 1, 2, lockstepResults));
+		assertEquals(5, lockstepResults.size());
+
+		lockstepResults.clear();
+		assertEquals(sequential, sweep(directory, 2, 3, lockstepResults));
+		assertEquals(5, lockstepResults.size());
+
+		Set<Parameters> reported = new HashSet<>();
+		for (SimulationResult result : lockstepResults) {
+			assertTrue(reported.add(result.getParameters()));
+		}
+	}
+
+	@Test
+	public void testResultCacheSkipsParametersAlreadySimulated() throws Exception {
+		File directory = prepareCandles();
+		File cache = new File(folder.getRoot(), "results.log");
+
+		List<SimulationResult> results = Collections.synchronizedList(new ArrayList<>());
+		Map<String, List<String>> processed = sweep(directory, 1, 1, results, s -> s.resultCache(cache));
+		assertEquals(5, processed.size());
+		assertEquals(5, results.size());
+
+		List<SimulationResult> cachedResults = Collections.synchronizedList(new ArrayList<>());
+		processed = sweep(directory, 2, 1, cachedResults, s -> s.resultCache(cache));
+		assertEquals(0, processed.size());
+		assertEquals(5, cachedResults.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(results.get(i).getParameters(), cachedResults.get(i).getParameters());
+			assertEquals(results.get(i).getTotalFunds(), cachedResults.get(i).getTotalFunds(), 0.0);
+			assertEquals(results.get(i).getHoldings(), cachedResults.get(i).getHoldings());
+		}
+
+		processed = sweep(directory, 1, 1, new ArrayList<>(), s -> s.resultCache(cache).strategyVersion("2"));
+		assertEquals(5, processed.size());
+
+		processed = sweep(directory, 1, 1, new ArrayList<>(), s -> s.resultCache(cache).strategyVersion("2").tradingFeePercentage(0.5));
+		assertEquals(5, processed.size());
+
+		processed = sweep(directory, 1, 1, new ArrayList<>(), s -> s.resultCache(cache).strategyVersion("2").initialFunds(2000.0));
+		assertEquals(5, processed.size());
+
+		processed = sweep(directory, 1, 1, new ArrayList<>(), s -> s.resultCache(cache).strategyVersion("2").initialFunds(2000.0));
+		assertEquals(0, processed.size());
+	}
+
+	private List<String> simulateWithWarmUp(File directory, Consumer<Simulation> settings) {
+		return simulateWithWarmUp(directory, AverageStrategy::new, settings);
+	}
+
+	private List<String> simulateWithWarmUp(File directory, Function<String, Strategy> strategy, Consumer<Simulation> settings) {
+		return simulateWithWarmUp(directory, strategy, settings, false);
+	}
+
+	private List<String> simulateWithWarmUp(File directory, Function<String, Strategy> strategy, Consumer<Simulation> settings, boolean instrumentation) {
+		averages.clear();
+		Simulator simulator = new Simulator();
+		simulator.configure().warmUpPeriod(Period.ofDays(1)).instrumentation(instrumentation);
+		simulator.configure().account()
+				.referenceCurrency("USDT")
+				.tradeWith("ADA", "BTC")
+				.strategies()
+				.add((symbol, parameters) -> strategy.apply(symbol));
+
+		List<Parameters> parameters = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			parameters.add(new LongParameters(i));
+		}
+		simulator.configure().simulation()
+				.initialFunds(1000.0)
+				.candleDirectory(directory)
+				.simulateFrom(START.plusDays(1))
+				.simulateTo(END)
+				.reporter(result -> {})
+				.addParameters(parameters);
+		settings.accept(simulator.configure().simulation());
+		simulator.run();
+		return new ArrayList<>(averages);
+	}
+
+	@Test
+	public void testWarmUpSnapshotsProduceSameIndicatorValues() throws Exception {
+		File directory = prepareCandles();
+		File snapshots = folder.newFolder();
+
+		List<String> expected = simulateWithWarmUp(directory, s -> {});
+		assertFalse(expected.isEmpty());
+
+		assertEquals(expected, simulateWithWarmUp(directory, s -> s.warmUpSnapshots(true)));
+		assertEquals(expected, simulateWithWarmUp(directory, s -> s.warmUpSnapshotDirectory(snapshots)));
+		assertEquals(2 * 3, Objects.requireNonNull(snapshots.listFiles()).length);
+
+		//restores from disk
+		assertEquals(expected, simulateWithWarmUp(directory, s -> s.warmUpSnapshotDirectory(snapshots)));
+	}
+
+	@Test
+	public void testBulkWarmUpProducesSameIndicatorValues() throws Exception {
+		File directory = prepareCandles();
+
+		List<String> expected = simulateWithWarmUp(directory, PerCandleAverageStrategy::new, s -> {});
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, simulateWithWarmUp(directory, AverageStrategy::new, s -> {}));
+
+		expected = simulateWithWarmUp(directory, PerCandleAverageStrategy::new, s -> s.reuseAggregatedCandles(true));
+		assertEquals(expected, simulateWithWarmUp(directory, AverageStrategy::new, s -> s.reuseAggregatedCandles(true)));
+	}
+
+	@Test
+	public void testInstrumentationRecordsComponentTimes() throws Exception {
+		File directory = prepareCandles();
+
+		List<String> expected = simulateWithWarmUp(directory, PerCandleAverageStrategy::new, s -> {});
+		List<String> reports = new ArrayList<>();
+		SimulationReporter reporter = new SimulationReporter() {
+			@Override
+			public void report(SimulationResult result) {
+			}
+
+			@Override
+			public void reportInstrumentation(String report) {
+				reports.add(report);
+			}
+		};
+		try {
+			Instrumentation.clear();
+			assertEquals(expected, simulateWithWarmUp(directory, PerCandleAverageStrategy::new, s -> s.reporter(reporter), true));
+		} finally {
+			Instrumentation.disable();
+		}
+
+		Set<String> recorded = new HashSet<>();
+		for (LatencyHistogram histogram : Instrumentation.histograms()) {
+			if (histogram.getCount() > 0) {
+				recorded.add(histogram.getName());
+			}
+		}
+		assertTrue(recorded.contains("Aggregator.aggregate[5m] ADAUSDT"));
+		assertTrue(recorded.contains("Indicator.accumulate[ExponentialMovingAverage] BTCUSDT"));
+		assertTrue(recorded.contains("IndicatorGroup.candleAccumulated[PerCandleAverageStrategy] ADAUSDT"));
+		assertTrue(recorded.contains("Strategy.getSignal[PerCandleAverageStrategy] BTCUSDT"));
+		assertTrue(recorded.contains("Trader.trade[PerCandleAverageStrategy] ADAUSDT"));
+		assertEquals(1, reports.size());
+		assertTrue(reports.get(0).contains("Strategy.getSignal[PerCandleAverageStrategy] ADAUSDT"));
+	}
+
+	private List<SimulationResult> simulateTrading(File directory, LocalDateTime end, File stateDirectory) {
+		List<SimulationResult> results = new ArrayList<>();
+		simulateWithWarmUp(directory, TradingStrategy::new, s -> s.simulateTo(end).stateDirectory(stateDirectory).reporter(results::add));
+		return results;
+	}
+
+	@Test
+	public void testSimulationResumesFromStoredState() throws Exception {
+		File directory = prepareCandles();
+		File state = folder.newFolder();
+		LocalDateTime middle = START.plusDays(1).plusHours(12);
+
+		List<SimulationResult> expected = simulateTrading(directory, END, null);
+		List<String> expectedAverages = new ArrayList<>(averages);
+
+		simulateTrading(directory, middle, state);
+		List<String> resumedAverages = new ArrayList<>(averages);
+		assertEquals(3, Objects.requireNonNull(state.listFiles()).length);
+
+		List<SimulationResult> resumed = simulateTrading(directory, END, state);
+		resumedAverages.addAll(averages);
+		assertTrue(averages.size() < expectedAverages.size());
+
+		// each run goes through all parameter sets, which produce the same indicator values.
+		Collections.sort(expectedAverages);
+		Collections.sort(resumedAverages);
+		assertEquals(expectedAverages, resumedAverages);
+		assertEquals(expected.size(), resumed.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getParameters(), resumed.get(i).getParameters());
+			assertEquals(expected.get(i).getTotalFunds(), resumed.get(i).getTotalFunds(), 1e-8);
+			assertEquals(expected.get(i).getHoldings(), resumed.get(i).getHoldings());
+		}
+
+		//state is more recent than the simulation end, so the entire history is simulated again.
+		List<SimulationResult> repeated = simulateTrading(directory, END, state);
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getTotalFunds(), repeated.get(i).getTotalFunds(), 1e-8);
+		}
+	}
+
+	@Test
+	public void testStoredStateThatCantBeRestoredIsIgnored() throws Exception {
+		File directory = prepareCandles();
+		File state = folder.newFolder();
+		simulateTrading(directory, START.plusDays(1).plusHours(12), state);
+
+		// the engines of another strategy have a different structure, so the entire history is simulated again.
+		List<SimulationResult> expectedResults = new ArrayList<>();
+		List<String> expected = simulateWithWarmUp(directory, PerCandleAverageStrategy::new, s -> s.reporter(expectedResults::add));
+		List<SimulationResult> results = new ArrayList<>();
+		assertEquals(expected, simulateWithWarmUp(directory, PerCandleAverageStrategy::new, s -> s.stateDirectory(state).reporter(results::add)));
+		assertEquals(expectedResults.size(), results.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(expectedResults.get(i).getTotalFunds(), results.get(i).getTotalFunds(), 1e-8);
+			assertEquals(expectedResults.get(i).getHoldings(), results.get(i).getHoldings());
+		}
+	}
+
+	private List<SharedAverageStrategy> simulateSharedAverages(File directory, boolean shareIndicators, boolean recalculateEveryTick) {
+		List<SharedAverageStrategy> created = Collections.synchronizedList(new ArrayList<>());
+		Simulator simulator = new Simulator();
+		simulator.configure().account()
+				.referenceCurrency("USDT")
+				.tradeWith("ADA")
+				.shareIndicators(shareIndicators)
+				.strategies()
+				.add((symbol, parameters) -> new SharedAverageStrategy(false, created))
+				.add((symbol, parameters) -> new SharedAverageStrategy(recalculateEveryTick, created));
+
+		simulator.configure().simulation()
+				.initialFunds(1000.0)
+				.candleDirectory(directory)
+				.simulateFrom(START.plusDays(1))
+				.simulateTo(END)
+				.reporter(result -> {});
+		simulator.run();
+		assertEquals(2, created.size());
+		return created;
+	}
+
+	@Test
+	public void testIndicatorsAreOnlySharedWhenEnabled() throws Exception {
+		File directory = prepareCandles();
+
+		List<SharedAverageStrategy> created = simulateSharedAverages(directory, false, true);
+		assertNotSame(created.get(0).average, created.get(1).average);
+		assertFalse(created.get(0).average.recalculateEveryTick());
+		assertTrue(created.get(1).average.recalculateEveryTick());
+
+		created = simulateSharedAverages(directory, false, false);
+		assertNotSame(created.get(0).average, created.get(1).average);
+
+		created = simulateSharedAverages(directory, true, false);
+		assertSame(created.get(0).average, created.get(1).average);
+	}
+}
@@ -0,0 +1,86 @@
+package com.univocity.trader.strategy;
+
+import com.univocity.trader.candles.*;
+import com.univocity.trader.indicators.*;
+import org.junit.*;
+
+import java.util.*;
+
+import static com.univocity.trader.candles.CandleHelper.*;
+import static com.univocity.trader.indicators.AverageTrueRangeTest.*;
+import static com.univocity.trader.indicators.base.TimeInterval.*;
+import static junit.framework.TestCase.*;
+
+public class IndicatorRegistryTest {
+
+	@Test
+	public void testIdenticalIndicatorsAreShared() {
+		IndicatorRegistry registry = new IndicatorRegistry();
+
+		MovingAverage ma = registry.bind(() -> Indicators.MovingAverage(10, minutes(2)));
+		assertSame(ma, registry.bind(() -> Indicators.MovingAverage(10, minutes(2))));
+		assertNotSame(ma, registry.bind(() -> Indicators.MovingAverage(10, minutes(1))));
+		assertNotSame(ma, registry.bind(() -> Indicators.MovingAverage(5, minutes(2))));
+		assertEquals(3, registry.size());
+
+		assertNotSame(ma, Indicators.MovingAverage(10, minutes(2)));
+		assertNotSame(ma, new IndicatorRegistry().bind(() -> Indicators.MovingAverage(10, minutes(2))));
+
+		registry.clear();
+		assertNotSame(ma, registry.bind(() -> Indicators.MovingAverage(10, minutes(2))));
+	}
+
+	@Test
+	public void testSharedIndicatorsAccumulateOnce() {
+		IndicatorRegistry registry = new IndicatorRegistry();
+		TestGroup first = registry.bind(TestGroup::new);
+		TestGroup second = registry.bind(TestGroup::new);
+		assertSame(first.ma_10_2, second.ma_10_2);
+		assertSame(first.atr_5_2, second.atr_5_2);
+
+		TestGroup alone = new TestGroup();
+
+		Aggregator sharedRoot = new Aggregator("shared");
+		first.initialize(sharedRoot);
+		second.initialize(sharedRoot);
+		Aggregator[] shared = sharedRoot.getAggregators();
+
+		Aggregator aloneRoot = new Aggregator("alone");
+		alone.initialize(aloneRoot);
+		Aggregator[] aggregators = aloneRoot.getAggregators();
+
+		for (int i = 0; i < prices.length; i++) {
+			Candle c = newCandle(i, prices[i][2], prices[i][2], prices[i][0], prices[i][1]);
+			for (Aggregator aggregator : shared) {
+				aggregator.aggregate(c);
+			}
+			first.accumulate(c);
+			second.accumulate(c);
+
+			for (Aggregator aggregator : aggregators) {
+				aggregator.aggregate(c);
+			}
+			alone.accumulate(c);
+
+			assertEquals(alone.ma_10_2.getValue(), first.ma_10_2.getValue(), 0.000000001);
+			assertEquals(alone.atr_5_2.getValue(), first.atr_5_2.getValue(), 0.000000001);
+			assertEquals(alone.direction.getValue(), second.direction.getValue(), 0.000000001);
+		}
+		assertEquals(alone.ma_10_2.getAccumulationCount(), first.ma_10_2.getAccumulationCount());
+	}
+
+	static class TestGroup extends IndicatorGroup {
+		final AverageTrueRange atr_5_2 = Indicators.AverageTrueRange(5, minutes(2));
+		final MovingAverage ma_10_2 = Indicators.MovingAverage(10, minutes(2));
+		final DirectionIndicator<MovingAverage> direction = Indicators.DirectionIndicator(ma_10_2);
+
+		TestGroup() {
+			ma_10_2.recalculateEveryTick(true);
+		}
+
+		@Override
+		protected Set<Indicator> getAllIndicators() {
+			return Set.of(atr_5_2, ma_10_2, direction);
+		}
+	}
+}
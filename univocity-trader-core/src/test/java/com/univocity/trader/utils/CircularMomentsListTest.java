@@ -0,0 +1,58 @@
+package com.univocity.trader.utils;
+
+import org.junit.*;
+
+import java.util.*;
+
+import static junit.framework.TestCase.*;
+
+public class CircularMomentsListTest {
+
+	private static double naiveVariance(CircularList l) {
+		int size = l.size();
+		double avg = l.avg();
+		double out = 0.0;
+		for (int i = 0; i < size; i++) {
+			double d = l.values[i] - avg;
+			out += d * d;
+		}
+		return out / size;
+	}
+
+	private void compare(int length, double offset) {
+		Random random = new Random(length);
+		CircularMomentsList l = new CircularMomentsList(length);
+		for (int i = 0; i < 5000; i++) {
+			double value = offset + random.nextGaussian();
+			if (random.nextInt(3) == 0) {
+				l.update(value);
+			} else {
+				l.add(value);
+			}
+			assertEquals(naiveVariance(l), l.variance(), 1e-6);
+		}
+	}
+
+	@Test
+	public void testVarianceMatchesNaiveCalculation() {
+		compare(1, 0.0);
+		compare(4, 0.0);
+		compare(20, 10.0);
+	}
+
+	@Test
+	public void testVarianceOfLargeValues() {
+		compare(14, 1_000_000.0);
+		compare(50, 50_000.0);
+	}
+
+	@Test
+	public void testConstantValues() {
+		CircularMomentsList l = new CircularMomentsList(3);
+		assertEquals(0.0, l.variance());
+		for (int i = 0; i < 10; i++) {
+			l.add(9_000.1);
+			assertEquals(0.0, l.variance(), 1e-9);
+		}
+	}
+}
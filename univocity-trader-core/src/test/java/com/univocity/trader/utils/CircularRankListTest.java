@@ -0,0 +1,62 @@
+package com.univocity.trader.utils;
+
+import org.junit.*;
+
+import java.util.*;
+
+import static junit.framework.TestCase.*;
+
+public class CircularRankListTest {
+
+	private static int naiveCountBelow(CircularList l, double value) {
+		int count = 0;
+		for (int i = 0; i < l.size(); i++) {
+			if (l.values[i] < value) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private void compare(int length) {
+		Random random = new Random(length);
+		CircularRankList l = new CircularRankList(length);
+		for (int n = 0; n < 3000; n++) {
+			double value = random.nextInt(50) - 25;
+			if (random.nextInt(3) == 0) {
+				l.update(value);
+			} else {
+				l.add(value);
+			}
+			for (double v = -26; v <= 26; v += 0.5) {
+				assertEquals(naiveCountBelow(l, v), l.countBelow(v));
+			}
+		}
+	}
+
+	@Test
+	public void testCountBelowMatchesLinearScan() {
+		compare(1);
+		compare(2);
+		compare(10);
+		compare(100);
+	}
+
+	@Test
+	public void testDuplicates() {
+		CircularRankList l = new CircularRankList(4);
+		assertEquals(0, l.countBelow(1.0));
+
+		l.add(1.0);
+		l.add(1.0);
+		l.add(1.0);
+		assertEquals(0, l.countBelow(1.0));
+		assertEquals(3, l.countBelow(1.5));
+
+		l.add(0.5);
+		l.add(2.0);
+		assertEquals(1, l.countBelow(1.0));
+		assertEquals(3, l.countBelow(2.0));
+		assertEquals(4, l.countBelow(2.5));
+	}
+}
@@ -0,0 +1,44 @@
+package com.univocity.trader.utils;
+
+import org.junit.*;
+
+import static junit.framework.TestCase.*;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testBucketBoundaries() {
+		for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 100, 1000, 123456789L, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+			int bucket = LatencyHistogram.bucketOf(value);
+			long highest = LatencyHistogram.highestValueOf(bucket);
+			assertTrue(value + " above " + highest, value <= highest);
+			assertTrue(value + " too far from " + highest, highest - value <= value / 8);
+			if (value < Long.MAX_VALUE) {
+				assertEquals(bucket + 1, LatencyHistogram.bucketOf(highest + 1));
+			}
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram h = new LatencyHistogram("test");
+		assertEquals(0, h.getPercentile(50));
+
+		for (int i = 1; i <= 1000; i++) {
+			h.record(i * 1000L);
+		}
+		assertEquals(1000, h.getCount());
+		assertEquals(1000L * 1000L, h.getMax());
+		assertEquals(500500.0, h.getMean(), 0.001);
+
+		assertEquals(500_000, h.getPercentile(50), 500_000 / 8);
+		assertEquals(900_000, h.getPercentile(90), 900_000 / 8);
+		assertEquals(990_000, h.getPercentile(99), 990_000 / 8);
+		assertEquals(1_000_000, h.getPercentile(100));
+
+		h.reset();
+		assertEquals(0, h.getCount());
+		assertEquals(0, h.getMax());
+		assertEquals(0, h.getPercentile(99));
+	}
+}
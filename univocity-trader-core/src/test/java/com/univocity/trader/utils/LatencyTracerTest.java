@@ -0,0 +1,83 @@
+package com.univocity.trader.utils;
+
+import com.univocity.trader.candles.*;
+import org.junit.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.univocity.trader.utils.LatencyTracer.Span.*;
+import static com.univocity.trader.utils.LatencyTracer.Stage.*;
+import static junit.framework.TestCase.*;
+
+public class LatencyTracerTest {
+
+	@After
+	public void disable() {
+		LatencyTracer.disable();
+		LatencyTracer.clear();
+	}
+
+	// symbols not used by other tests, as live traders started by them may still be processing ticks.
+	@Test
+	public void testStampsTravelThroughPipeline() throws Exception {
+		LatencyTracer.enable();
+		LatencyTracer.clear();
+
+		CountDownLatch processed = new CountDownLatch(3);
+		// each tick is handled by two accounts, and the pipeline stamps PROCESSED after both.
+		TickPipeline<Integer> pipeline = new TickPipeline<>(2, 4, TickPipeline.WaitStrategy.BLOCKING, (symbol, tick) -> {
+			for (int account = 0; account < 2; account++) {
+				LatencyTracer.stampFirst(PERSISTED);
+				if (tick % 2 == 0 && account == 0) {
+					LatencyTracer.stamp(ORDER_PREPARED);
+					LatencyTracer.stamp(ORDER_SUBMITTED);
+				}
+			}
+			processed.countDown();
+		});
+
+		for (int tick = 0; tick < 2; tick++) {
+			LatencyTracer.frameReceived();
+			LatencyTracer.stamp(DECODED);
+			pipeline.publish("TRACEDBTC", tick);
+		}
+		assertEquals(0L, LatencyTracer.stampOf(RECEIVED));
+
+		//polled tick, not received through a websocket
+		pipeline.publish("POLLEDADA", 1);
+		assertTrue(processed.await(10, TimeUnit.SECONDS));
+		Thread.sleep(100);
+
+		Map<String, Map<LatencyTracer.Span, LatencyTracer.SpanLatency>> snapshot = LatencyTracer.snapshot();
+		assertTrue(snapshot.keySet().containsAll(Set.of("POLLEDADA", "TRACEDBTC")));
+
+		Map<LatencyTracer.Span, LatencyTracer.SpanLatency> btc = snapshot.get("TRACEDBTC");
+		assertEquals(2, btc.get(PARSE).count);
+		assertEquals(2, btc.get(QUEUE).count);
+		assertEquals(2, btc.get(HISTORY).count);
+		assertEquals(2, btc.get(PROCESS).count);
+		assertEquals(2, btc.get(FRAME_TO_PROCESSED).count);
+		assertEquals(1, btc.get(ORDER_PREPARATION).count);
+		assertEquals(1, btc.get(ORDER_SUBMISSION).count);
+		assertEquals(1, btc.get(FRAME_TO_ORDER).count);
+		assertTrue(btc.get(FRAME_TO_PROCESSED).max >= btc.get(PROCESS).max);
+
+		Map<LatencyTracer.Span, LatencyTracer.SpanLatency> ada = snapshot.get("POLLEDADA");
+		assertEquals(Set.of(HISTORY, PROCESS), ada.keySet());
+
+		assertTrue(LatencyTracer.summary().contains("FRAME_TO_ORDER"));
+	}
+
+	@Test
+	public void testDisabledTracerRecordsNothing() throws Exception {
+		LatencyTracer.frameReceived();
+		LatencyTracer.stamp(DECODED);
+		assertEquals(0L, LatencyTracer.stampOf(RECEIVED));
+
+		LatencyTracer.begin("TRACEDBTC", 1L, 2L);
+		LatencyTracer.stamp(PROCESSED);
+		LatencyTracer.end();
+		assertFalse(LatencyTracer.snapshot().containsKey("TRACEDBTC"));
+	}
+}
@@ -0,0 +1,87 @@
+package com.univocity.trader.utils;
+
+import org.junit.*;
+
+import java.util.*;
+
+import static junit.framework.TestCase.*;
+
+public class MonotonicWindowTest {
+
+	private void compare(int length, boolean highest) {
+		Random random = new Random(length);
+		MonotonicWindow window = highest ? MonotonicWindow.highest(length) : MonotonicWindow.lowest(length);
+		List<Double> closed = new ArrayList<>();
+
+		for (int n = 0; n < 2000; n++) {
+			double value = random.nextInt(20);
+			boolean updating = random.nextInt(3) == 0;
+			window.accumulate(value, updating);
+
+			List<Double> recent = new ArrayList<>(closed);
+			if (updating) {
+				recent.add(value);
+			} else {
+				closed.add(value);
+				recent.add(value);
+			}
+			assertEquals(Math.min(length, recent.size()), window.size());
+
+			for (int k = 1; k <= length; k++) {
+				double expected = highest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+				int age = -1;
+				for (int i = 0; i < k && i < recent.size(); i++) {
+					double v = recent.get(recent.size() - 1 - i);
+					if (highest ? v > expected : v < expected) {
+						expected = v;
+						age = i;
+					}
+				}
+				assertEquals(expected, window.getValue(k));
+				if (k == length) {
+					assertEquals(expected, window.getValue());
+					assertEquals(age, window.getAge());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testHighest() {
+		compare(1, true);
+		compare(3, true);
+		compare(14, true);
+	}
+
+	@Test
+	public void testLowest() {
+		compare(1, false);
+		compare(5, false);
+		compare(20, false);
+	}
+
+	@Test
+	public void testUpdateReplacesOldestValue() {
+		MonotonicWindow window = MonotonicWindow.highest(3);
+		assertTrue(Double.isNaN(window.getValue()));
+
+		window.add(5);
+		window.add(2);
+		window.add(1);
+		assertEquals(5.0, window.getValue());
+		assertEquals(2, window.getAge());
+
+		window.update(3);
+		assertEquals(3.0, window.getValue());
+		assertEquals(0, window.getAge());
+
+		window.update(1);
+		assertEquals(2.0, window.getValue());
+		assertEquals(2, window.getAge());
+
+		window.add(1);
+		assertEquals(2.0, window.getValue());
+		assertEquals(1.0, window.getValue(2));
+		assertEquals(2, window.getAge());
+	}
+}
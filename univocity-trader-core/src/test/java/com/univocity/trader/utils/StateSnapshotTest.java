@@ -0,0 +1,150 @@
+package com.univocity.trader.utils;
+
+import com.univocity.trader.candles.*;
+import com.univocity.trader.indicators.*;
+import com.univocity.trader.strategy.*;
+import org.junit.*;
+
+import java.io.*;
+import java.util.*;
+
+import static com.univocity.trader.indicators.base.TimeInterval.*;
+import static junit.framework.TestCase.*;
+
+public class StateSnapshotTest {
+
+	private static final class Group {
+		final Aggregator root;
+		final Indicator[] indicators;
+		Aggregator[] aggregators;
+
+		Group(int length, boolean reuseCandles) {
+			root = new Aggregator("test", reuseCandles);
+			indicators = new Indicator[]{
+					new MovingAverage(length, minutes(5)),
+					new BollingerBand(length, minutes(15)),
+					new RSI(length, MINUTE),
+					new MACD(minutes(5)),
+					new ParabolicSAR(minutes(3))
+			};
+			for (Indicator indicator : indicators) {
+				indicator.initialize(root);
+			}
+			aggregators = root.getAggregators();
+		}
+
+		void accumulate(Candle candle) {
+			for (Aggregator aggregator : aggregators) {
+				aggregator.aggregate(candle);
+			}
+			for (Indicator indicator : indicators) {
+				indicator.accumulate(candle);
+			}
+		}
+
+		Stateful[] components() {
+			Stateful[] out = Arrays.copyOf(aggregators, aggregators.length + indicators.length, Stateful[].class);
+			System.arraycopy(indicators, 0, out, aggregators.length, indicators.length);
+			return out;
+		}
+
+		double[] values() {
+			double[] out = new double[indicators.length];
+			for (int i = 0; i < indicators.length; i++) {
+				out[i] = indicators[i].getValue();
+			}
+			return out;
+		}
+	}
+
+	private static Candle candle(int minute) {
+		double price = 10.0 + Math.sin(minute / 7.0) * 3.0 + (minute % 11) * 0.1;
+		return CandleHelper.newCandle(minute, price, price + 0.05, price + 0.2, price - 0.2, 100 + minute % 17);
+	}
+
+	private void assertRestoredGroupTracksOriginal(boolean reuseCandles, boolean serialize) throws Exception {
+		Group original = new Group(9, reuseCandles);
+		for (int i = 0; i < 500; i++) {
+			original.accumulate(candle(i));
+		}
+
+		StateSnapshot snapshot = StateSnapshot.capture(original.components());
+		if (serialize) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject(snapshot);
+			}
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+				snapshot = (StateSnapshot) in.readObject();
+			}
+		}
+
+		Group restored = new Group(9, reuseCandles);
+		snapshot.restore(restored.components());
+		assertTrue(Arrays.equals(original.values(), restored.values()));
+
+		for (int i = 500; i < 800; i++) {
+			original.accumulate(candle(i));
+			restored.accumulate(candle(i));
+			assertTrue("Minute " + i, Arrays.equals(original.values(), restored.values()));
+		}
+		for (int i = 0; i < original.indicators.length; i++) {
+			assertEquals(original.indicators[i].getAccumulationCount(), restored.indicators[i].getAccumulationCount());
+		}
+	}
+
+	@Test
+	public void testRestoredStateProducesSameValues() throws Exception {
+		assertRestoredGroupTracksOriginal(false, false);
+	}
+
+	@Test
+	public void testRestoredStateProducesSameValuesReusingCandles() throws Exception {
+		assertRestoredGroupTracksOriginal(true, false);
+	}
+
+	@Test
+	public void testSerializedSnapshot() throws Exception {
+		assertRestoredGroupTracksOriginal(false, true);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testRestoreIntoDifferentConfiguration() {
+		Group original = new Group(9, false);
+		for (int i = 0; i < 50; i++) {
+			original.accumulate(candle(i));
+		}
+		StateSnapshot.capture(original.components()).restore(new Group(10, false).components());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testUnsupportedState() {
+		Indicator indicator = new Indicator() {
+			@Override
+			public boolean accumulate(Candle candle) {
+				return true;
+			}
+
+			@Override
+			public long getAccumulationCount() {
+				return 0;
+			}
+
+			@Override
+			public double getValue() {
+				return 0;
+			}
+
+			@Override
+			public long getInterval() {
+				return MINUTE.ms;
+			}
+
+			@Override
+			public Signal getSignal(Candle candle) {
+				return Signal.NEUTRAL;
+			}
+		};
+		StateSnapshot.capture(new CircularList(5), indicator);
+	}
+}
@@ -0,0 +1,48 @@
+package com.univocity.trader.utils;
+
+import org.junit.*;
+
+import java.util.*;
+
+import static junit.framework.TestCase.*;
+
+public class TokenBucketTest {
+
+	@Test
+	public void testRateIsSharedAcrossThreads() throws Exception {
+		TokenBucket bucket = new TokenBucket(50, 1);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			threads.add(new Thread(() -> {
+				for (int j = 0; j < 3; j++) {
+					try {
+						bucket.acquire();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}));
+		}
+
+		long start = System.currentTimeMillis();
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertEquals(9, bucket.getAcquiredCount());
+		//first token is available immediately, the other 8 are released every 50ms.
+		assertTrue("Elapsed: " + elapsed, elapsed >= 8 * 50 - 10);
+	}
+
+	@Test
+	public void testBurst() throws Exception {
+		TokenBucket bucket = new TokenBucket(10_000, 3);
+		long start = System.currentTimeMillis();
+		bucket.acquire();
+		bucket.acquire();
+		bucket.acquire();
+		assertTrue(System.currentTimeMillis() - start < 1000);
+	}
+}